@@ -1507,6 +1507,46 @@ public class AMD64Assembler extends AbstractAssembler {
         emitArith(0x0B, 0xC0, dst, src);
     }
 
+    public final void pcmpeqb(CiRegister dst, CiRegister src) {
+        assert dst.isFpu();
+        assert src.isFpu();
+        emitByte(0x66);
+        int encode = prefixAndEncode(dst.getEncoding(), src.getEncoding());
+        emitByte(0x0F);
+        emitByte(0x74);
+        emitByte(0xC0 | encode);
+    }
+
+    public final void pcmpeqw(CiRegister dst, CiRegister src) {
+        assert dst.isFpu();
+        assert src.isFpu();
+        emitByte(0x66);
+        int encode = prefixAndEncode(dst.getEncoding(), src.getEncoding());
+        emitByte(0x0F);
+        emitByte(0x75);
+        emitByte(0xC0 | encode);
+    }
+
+    public final void pcmpeqd(CiRegister dst, CiRegister src) {
+        assert dst.isFpu();
+        assert src.isFpu();
+        emitByte(0x66);
+        int encode = prefixAndEncode(dst.getEncoding(), src.getEncoding());
+        emitByte(0x0F);
+        emitByte(0x76);
+        emitByte(0xC0 | encode);
+    }
+
+    public final void pmovmskb(CiRegister dst, CiRegister src) {
+        assert !dst.isFpu();
+        assert src.isFpu();
+        emitByte(0x66);
+        int encode = prefixAndEncode(dst.getEncoding(), src.getEncoding());
+        emitByte(0x0F);
+        emitByte(0xD7);
+        emitByte(0xC0 | encode);
+    }
+
     // generic
     public final void pop(CiRegister dst) {
         int encode = prefixAndEncode(dst.getEncoding());
@@ -1635,6 +1675,16 @@ public class AMD64Assembler extends AbstractAssembler {
         emitByte(0xC0 | encode);
     }
 
+    public final void punpcklqdq(CiRegister dst, CiRegister src) {
+        assert dst.isFpu();
+        assert src.isFpu();
+        emitByte(0x66);
+        int encode = prefixAndEncode(dst.getEncoding(), src.getEncoding());
+        emitByte(0x0F);
+        emitByte(0x6C);
+        emitByte(0xC0 | encode);
+    }
+
     public final void push(int imm32) {
         // in 64bits we push 64bits onto the stack but only
         // take a 32bit immediate
@@ -37,6 +37,7 @@ import com.sun.c1x.graph.*;
 import com.sun.c1x.ir.*;
 import com.sun.c1x.lir.*;
 import com.sun.c1x.observer.*;
+import com.sun.c1x.stub.*;
 import com.sun.cri.ci.*;
 import com.sun.cri.ri.*;
 import com.sun.cri.xir.*;
@@ -51,13 +52,14 @@ import com.sun.max.vm.compiler.*;
 import com.sun.max.vm.compiler.deopt.*;
 import com.sun.max.vm.compiler.deps.*;
 import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.object.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.thread.*;
 
 /**
  * Integration of the C1X compiler into Maxine's compilation framework.
  */
-public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCompiler {
+public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCompiler, RuntimeCompiler.OSRCompiler {
 
     /**
      * The Maxine specific implementation of the {@linkplain RiRuntime runtime interface} needed by C1X.
@@ -86,6 +88,11 @@ public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
     @HOSTED_ONLY
     public static boolean optionsRegistered;
 
+    /**
+     * The cache of optimized code from a previous run, if {@linkplain PersistentCodeCache#isEnabled() enabled}.
+     */
+    private PersistentCodeCache codeCache;
+
     private static final int DEFAULT_OPT_LEVEL = Integer.getInteger("max.c1x.optlevel", 3);
 
     public static final VMIntOption optLevelOption = VMOptions.register(new VMIntOption("-C1X:OptLevel=", DEFAULT_OPT_LEVEL,
@@ -171,12 +178,33 @@ public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
             compiler = new C1XCompiler(runtime, target, xirGenerator, vm().registerConfigs.compilerStub);
             compiler.addCompilationObserver(new WordTypeRewriterObserver());
             MaxineIntrinsicImplementations.initialize(compiler.intrinsicRegistry);
+            if (target.arch.isX86()) {
+                MaxineIntrinsicImplementations.initializeBulkArrayOps(compiler.intrinsicRegistry);
+            }
         }
 
         if (phase == Phase.STARTING) {
             // Speculative opts are ok provided the compilation broker can handle deopt
             C1XOptions.UseAssumptions = vm().compilationBroker.isDeoptSupported() && Deoptimization.UseDeopt;
+            if (target.arch.isX86() && !BulkArrayAccess.initializeVectorSupport()) {
+                MaxineIntrinsicImplementations.removeBulkArrayOps(compiler.intrinsicRegistry);
+            }
+        } else if (phase == Phase.RUNNING) {
+            if (PersistentCodeCache.isEnabled()) {
+                ArrayList<Stub> stubs = new ArrayList<Stub>();
+                for (CompilerStub stub : compiler().stubs.values()) {
+                    if (stub.stubObject instanceof Stub) {
+                        stubs.add((Stub) stub.stubObject);
+                    }
+                }
+                PersistentCodeCache cache = new PersistentCodeCache(stubs);
+                cache.load();
+                codeCache = cache;
+            }
         } else if (phase == Phase.TERMINATING) {
+            if (codeCache != null) {
+                codeCache.save();
+            }
             if (C1XOptions.PrintMetrics) {
                 C1XMetrics.print();
                 DebugInfo.dumpStats(Log.out);
@@ -251,10 +279,23 @@ public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
     }
 
     public TargetMethod compile(final ClassMethodActor method, boolean isDeopt, boolean install, CiStatistics stats) {
-        CiTargetMethod compiledMethod;
+        return compile(method, -1, install, stats);
+    }
+
+    public TargetMethod compileOSR(ClassMethodActor method, int osrBCI) {
+        return compile(method, osrBCI, true, null);
+    }
+
+    private MaxTargetMethod compile(ClassMethodActor method, int osrBCI, boolean install, CiStatistics stats) {
+        CiTargetMethod compiledMethod = null;
+        if (codeCache != null && osrBCI < 0 && install) {
+            compiledMethod = codeCache.lookup(method);
+        }
         do {
-            DebugInfoLevel debugInfoLevel = method.isTemplate() ? DebugInfoLevel.REF_MAPS : DebugInfoLevel.FULL;
-            compiledMethod = compiler().compileMethod(method, -1, stats, debugInfoLevel).targetMethod();
+            if (compiledMethod == null) {
+                DebugInfoLevel debugInfoLevel = method.isTemplate() ? DebugInfoLevel.REF_MAPS : DebugInfoLevel.FULL;
+                compiledMethod = compiler().compileMethod(method, osrBCI, stats, debugInfoLevel).targetMethod();
+            }
 
             Dependencies deps = Dependencies.validateDependencies(compiledMethod.assumptions());
             if (deps != Dependencies.INVALID) {
@@ -279,6 +320,7 @@ public class C1X extends RuntimeCompiler.DefaultNameAdapter implements RuntimeCo
 
             }
             // Loop back and recompile.
+            compiledMethod = null;
         } while (true);
     }
 
@@ -22,6 +22,8 @@ package com.oracle.max.vm.ext.c1x;
 
 import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
 
+import java.util.*;
+
 import com.oracle.max.cri.intrinsics.*;
 import com.sun.c1x.graph.*;
 import com.sun.c1x.intrinsics.*;
@@ -33,6 +35,7 @@ import com.sun.c1x.value.*;
 import com.sun.cri.bytecode.*;
 import com.sun.cri.ci.*;
 import com.sun.cri.ri.*;
+import com.sun.max.vm.object.*;
 import com.sun.max.vm.runtime.*;
 
 public class MaxineIntrinsicImplementations {
@@ -264,6 +267,56 @@ public class MaxineIntrinsicImplementations {
         }
     }
 
+    public static class BulkArrayIntrinsic implements C1XIntrinsicImpl {
+        public final BulkArrayOp.Op op;
+
+        public BulkArrayIntrinsic(BulkArrayOp.Op op) {
+            this.op = op;
+        }
+
+        @Override
+        public Value createHIR(GraphBuilder b, RiMethod target, Value[] args, boolean isStatic, FrameState stateBefore) {
+            int log2ElementSize = intConstant(args[0]);
+            int displacement = BulkArrayAccess.elementsOffset(log2ElementSize);
+            BulkArrayOp node;
+            switch (op) {
+                case COPY:
+                case MISMATCH:
+                    assert args.length == 6;
+                    node = new BulkArrayOp(op, log2ElementSize, displacement, args[1], offsetOrIndex(b, args[2]), args[3], offsetOrIndex(b, args[4]), offsetOrIndex(b, args[5]), null);
+                    break;
+                default:
+                    // The value of a fill is a long and so takes two argument slots
+                    assert op == BulkArrayOp.Op.FILL ? args.length == 6 : args.length == 5 && log2ElementSize <= 2;
+                    node = new BulkArrayOp(op, log2ElementSize, displacement, args[1], offsetOrIndex(b, args[2]), null, null, offsetOrIndex(b, args[3]), args[4]);
+            }
+            Value result = b.append(node);
+            return node.kind.isVoid() ? null : result;
+        }
+    }
+
+    /**
+     * Registers the {@link BulkArrayAccess} intrinsics, which only the AMD64 backend implements. On other
+     * targets the Java bodies of the intrinsic methods are compiled instead.
+     */
+    public static void initializeBulkArrayOps(IntrinsicImpl.Registry registry) {
+        registry.add(BULK_COPY, new BulkArrayIntrinsic(BulkArrayOp.Op.COPY));
+        registry.add(BULK_FILL, new BulkArrayIntrinsic(BulkArrayOp.Op.FILL));
+        registry.add(BULK_MISMATCH, new BulkArrayIntrinsic(BulkArrayOp.Op.MISMATCH));
+        registry.add(BULK_INDEX_OF, new BulkArrayIntrinsic(BulkArrayOp.Op.INDEX_OF));
+    }
+
+    /**
+     * Unregisters the {@link BulkArrayAccess} intrinsics, so that their Java bodies are compiled instead.
+     */
+    public static void removeBulkArrayOps(IntrinsicImpl.Registry registry) {
+        for (Iterator<Map.Entry<String, IntrinsicImpl>> i = registry.iterator(); i.hasNext();) {
+            if (i.next().getValue() instanceof BulkArrayIntrinsic) {
+                i.remove();
+            }
+        }
+    }
+
     public static void initialize(IntrinsicImpl.Registry registry) {
         registry.add(LSB, new BitIntrinsic(LIROpcode.Lsb));
         registry.add(MSB, new BitIntrinsic(LIROpcode.Msb));
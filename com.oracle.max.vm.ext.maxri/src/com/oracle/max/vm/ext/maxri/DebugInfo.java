@@ -42,6 +42,8 @@ import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
 import com.sun.max.vm.compiler.*;
 import com.sun.max.vm.compiler.target.TargetMethod.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.object.*;
 import com.sun.max.vm.reference.*;
 import com.sun.max.vm.runtime.*;
 
@@ -384,7 +386,8 @@ public final class DebugInfo {
         int fpt = (tm.totalRefMapSize()) * tm.safepoints().size();
         CiBitMap regRefMap = regRefMapAt(index);
         CiBitMap frameRefMap = frameRefMapAt(index);
-        CiFrame frame = decodeFrame(in, fpt, index, fa, regRefMap, frameRefMap, stackSlotAsAddress);
+        Map<Integer, Object> virtualObjects = fa == null ? null : new HashMap<Integer, Object>();
+        CiFrame frame = decodeFrame(in, fpt, index, fa, virtualObjects, regRefMap, frameRefMap, stackSlotAsAddress);
         return new CiDebugInfo(frame, regRefMap, frameRefMap);
     }
 
@@ -417,10 +420,12 @@ public final class DebugInfo {
      * Decodes a frame denoted by a given frame index.
      * @param fpt the position of the FPT in {@link #data}
      * @param frameIndex the index of an entry in the FPT
+     * @param virtualObjects the objects already rematerialized for the frames at the same safepoint, keyed by
+     *            {@linkplain CiVirtualObject#id() virtual object identifier} ({@code null} if {@code fa == null})
      * @param stackSlotAsAddress translate stack slots to stack addresses
      * @return the decoded frame
      */
-    CiFrame decodeFrame(DecodingStream in, int fpt, int frameIndex, FrameAccess fa, CiBitMap regRefMap, CiBitMap frameRefMap, boolean stackSlotAsAddress) {
+    CiFrame decodeFrame(DecodingStream in, int fpt, int frameIndex, FrameAccess fa, Map<Integer, Object> virtualObjects, CiBitMap regRefMap, CiBitMap frameRefMap, boolean stackSlotAsAddress) {
         int framePos = framePos(fpt, frameIndex);
         if (framePos == 0) {
             return null;
@@ -454,7 +459,7 @@ public final class DebugInfo {
         for (int i = 0; i < n; i++) {
             CiValue value = readValue(in, regRefMap, frameRefMap);
             if (fa != null) {
-                value = toLiveSlot(fa, value);
+                value = toLiveSlot(fa, value, virtualObjects);
             } else {
                 if (stackSlotAsAddress && value != null && value.isStackSlot()) {
                     CiStackSlot ss = (CiStackSlot) value;
@@ -486,12 +491,12 @@ public final class DebugInfo {
         if (encCallerIndex != NO_FRAME) {
             int callerIndex = encCallerIndex - FIRST_FRAME;
             assert frameIndex != callerIndex;
-            caller = decodeFrame(in, fpt, callerIndex, fa, regRefMap, frameRefMap, stackSlotAsAddress);
+            caller = decodeFrame(in, fpt, callerIndex, fa, virtualObjects, regRefMap, frameRefMap, stackSlotAsAddress);
         }
         return new CiFrame(caller, method, bci, rethrowException, values, numLocals, numStack, numLocks);
     }
 
-    private static CiValue toLiveSlot(FrameAccess fa, CiValue value) {
+    private static CiValue toLiveSlot(FrameAccess fa, CiValue value, Map<Integer, Object> virtualObjects) {
         if (value.isRegister()) {
             CiRegister reg = value.asRegister();
             CiCalleeSaveLayout csl = fa.csl;
@@ -528,12 +533,62 @@ public final class DebugInfo {
             }
         } else if (value.isIllegal()) {
             value = WordUtil.ZERO;
+        } else if (value instanceof CiVirtualObject) {
+            value = CiConstant.forObject(rematerialize(fa, (CiVirtualObject) value, virtualObjects));
+        } else if (value.isMonitor()) {
+            CiMonitorValue monitor = (CiMonitorValue) value;
+            value = new CiMonitorValue(toLiveSlot(fa, monitor.owner, virtualObjects), null, monitor.eliminated);
         } else {
             assert value.isConstant();
         }
         return value;
     }
 
+    /**
+     * Allocates and initializes an object whose allocation was removed by the compiler. An object referenced
+     * more than once at a safepoint is only allocated once.
+     */
+    private static Object rematerialize(FrameAccess fa, CiVirtualObject object, Map<Integer, Object> virtualObjects) {
+        Object tuple = virtualObjects.get(object.id());
+        if (tuple != null) {
+            return tuple;
+        }
+        ClassActor classActor = (ClassActor) object.type();
+        tuple = Heap.createTuple(classActor.dynamicHub());
+        virtualObjects.put(object.id(), tuple);
+
+        // the values are ordered by declaring class, starting from the root of the hierarchy
+        ArrayList<ClassActor> hierarchy = new ArrayList<ClassActor>();
+        for (ClassActor c = classActor; c != null; c = c.superClassActor) {
+            hierarchy.add(c);
+        }
+        CiValue[] values = object.values();
+        int index = 0;
+        for (int i = hierarchy.size() - 1; i >= 0; i--) {
+            for (RiResolvedField field : hierarchy.get(i).declaredFields()) {
+                FieldActor fieldActor = (FieldActor) field;
+                CiConstant c = (CiConstant) toLiveSlot(fa, values[index++], virtualObjects);
+                int offset = fieldActor.offset();
+                // Checkstyle: stop
+                switch (fieldActor.kind(true)) {
+                    case Object  : TupleAccess.writeObject(tuple, offset, c.asObject()); break;
+                    case Boolean :
+                    case Byte    : TupleAccess.writeByte(tuple, offset, (byte) c.asPrimitive()); break;
+                    case Short   : TupleAccess.writeShort(tuple, offset, (short) c.asPrimitive()); break;
+                    case Char    : TupleAccess.writeChar(tuple, offset, (char) c.asPrimitive()); break;
+                    case Float   :
+                    case Int     : TupleAccess.writeInt(tuple, offset, (int) c.asPrimitive()); break;
+                    case Double  :
+                    case Long    : TupleAccess.writeLong(tuple, offset, c.asPrimitive()); break;
+                    default      : throw FatalError.unexpected("unexpected field kind: " + fieldActor);
+                }
+                // Checkstyle: resume
+            }
+        }
+        assert index == values.length;
+        return tuple;
+    }
+
 
     @Override
     public String toString() {
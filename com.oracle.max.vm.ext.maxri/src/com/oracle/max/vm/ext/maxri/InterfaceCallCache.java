@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.oracle.max.vm.ext.maxri;
+
+import com.oracle.max.cri.intrinsics.*;
+import com.sun.max.vm.actor.holder.*;
+
+/**
+ * A polymorphic inline cache for an {@code invokeinterface} call site of optimized code.
+ * <p>
+ * The cache maps up to {@link #SIZE} receiver hubs to the index of the itable entry of the called method in that hub.
+ * The code generated for the call site (see {@link MaxXirGenerator}) compares the receiver's hub with the cached hubs
+ * and, on a hit, loads the target from the cached itable entry without the {@code mtable} lookup and its integer
+ * division. On a miss, it performs the lookup and records the result while the cache is not full. Once full, the call
+ * site is megamorphic and misses always take the lookup.
+ * <p>
+ * Only dispatch table indices are cached, never code addresses. When a method is
+ * {@linkplain com.sun.max.vm.compiler.deopt.Deoptimization deoptimized}, recompiled or its code is moved by
+ * {@linkplain com.sun.max.vm.code.CodeEviction code eviction}, the dispatch table entries are patched and the cache
+ * remains valid.
+ */
+public final class InterfaceCallCache {
+
+    /**
+     * Number of receiver types recorded by a cache.
+     */
+    public static final int SIZE = 4;
+
+    /**
+     * An immutable cache entry, so that a racing call site sees either no entry or a complete one.
+     */
+    static final class Entry {
+        final Hub hub;
+        final int index;
+
+        Entry(Hub hub, int index) {
+            this.hub = hub;
+            this.index = index;
+        }
+    }
+
+    /**
+     * The entry of unused slots, which matches no receiver.
+     */
+    static final Entry EMPTY = new Entry(null, 0);
+
+    Entry entry0 = EMPTY;
+    Entry entry1 = EMPTY;
+    Entry entry2 = EMPTY;
+    Entry entry3 = EMPTY;
+
+    /**
+     * Number of used entries.
+     */
+    int size;
+
+    /**
+     * Records the itable entry selected for a receiver hub.
+     *
+     * @param hub the hub of a receiver that missed the cache
+     * @param index the index in {@code hub} of the word holding the address of the called method
+     */
+    synchronized void record(Hub hub, int index) {
+        if (size >= SIZE || entry0.hub == hub || entry1.hub == hub || entry2.hub == hub) {
+            return;
+        }
+        Entry entry = new Entry(hub, index);
+        // Publish the entry only once it is initialized
+        MemoryBarriers.barrier(MemoryBarriers.STORE_STORE);
+        switch (size) {
+            case 0:  entry0 = entry; break;
+            case 1:  entry1 = entry; break;
+            case 2:  entry2 = entry; break;
+            default: entry3 = entry; break;
+        }
+        size++;
+    }
+}
@@ -216,6 +216,15 @@ public class MaxTargetMethod extends TargetMethod implements Cloneable {
         return debugInfo;
     }
 
+    /**
+     * Gets the compiler output this target method was created from.
+     *
+     * @return {@code null} if this target method was created while bootstrapping
+     */
+    public CiTargetMethod ciTargetMethod() {
+        return debugCiTargetMethod;
+    }
+
     private static int totalHandlersSize;
 
     private void initExceptionTable(CiTargetMethod ciTargetMethod) {
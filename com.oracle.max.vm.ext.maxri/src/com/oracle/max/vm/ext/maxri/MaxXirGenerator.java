@@ -56,6 +56,7 @@ import com.sun.max.vm.heap.debug.*;
 import com.sun.max.vm.layout.*;
 import com.sun.max.vm.methodhandle.*;
 import com.sun.max.vm.object.*;
+import com.sun.max.vm.profile.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.runtime.aarch64.*;
 import com.sun.max.vm.runtime.amd64.*;
@@ -74,6 +75,16 @@ public class MaxXirGenerator implements RiXirGenerator {
     // (tw) TODO: Up this to 255 / make a loop in the template
     private static final int MAX_MULTIANEWARRAY_RANK = 6;
 
+    /**
+     * Use an {@link InterfaceCallCache} for the resolved {@code invokeinterface} call sites of code compiled at run time.
+     */
+    private static boolean InterfaceInlineCaches = true;
+
+    static {
+        VMOptions.addFieldOption("-XX:", "InterfaceInlineCaches", MaxXirGenerator.class,
+                        "Use polymorphic inline caches for interface calls in optimized code (default: true).");
+    }
+
     static XirWriteBarrierSpecification writeBarrierSpecification() {
         HeapScheme heapScheme = VMConfiguration.vmConfig().heapScheme();
         if (heapScheme instanceof XirWriteBarrierSpecification) {
@@ -125,6 +136,7 @@ public class MaxXirGenerator implements RiXirGenerator {
 
     private XirPair invokeVirtualTemplates;
     private XirPair invokeInterfaceTemplates;
+    private XirTemplate invokeInterfaceCachedTemplate;
     private InvokeSpecialTemplates invokeSpecialTemplates;
     private XirPair invokeStaticTemplates;
     private XirPair[] newArrayTemplates;
@@ -162,6 +174,7 @@ public class MaxXirGenerator implements RiXirGenerator {
     private XirPair materializedInstanceofForNonLeafTemplate;
 
     private XirTemplate typeAssertTemplate;
+    private XirTemplate bimorphicTypeAssertTemplate;
 
     private XirTemplate exceptionObjectTemplate;
 
@@ -172,6 +185,11 @@ public class MaxXirGenerator implements RiXirGenerator {
         return generalLayout().getOffsetFromOrigin(Layout.HeaderField.HUB).toInt();
     }
 
+    @FOLD
+    int tier1CountOffset() {
+        return ClassActor.fromJava(MethodProfile.class).findLocalInstanceFieldActor("tier1Count").offset();
+    }
+
     @FOLD
     int hubFirstWordIndex() {
         return Hub.getFirstWordIndex();
@@ -277,6 +295,7 @@ public class MaxXirGenerator implements RiXirGenerator {
 
         invokeVirtualTemplates = buildInvokeVirtual();
         invokeInterfaceTemplates = buildInvokeInterface();
+        invokeInterfaceCachedTemplate = buildInvokeInterfaceCached();
         invokeSpecialTemplates = buildInvokeSpecial();
         invokeStaticTemplates = buildInvokeStatic();
 
@@ -316,6 +335,7 @@ public class MaxXirGenerator implements RiXirGenerator {
         materializedInstanceofForNonLeafTemplate = buildMaterializeInstanceOf(false, false);
 
         typeAssertTemplate = buildTypeAssert();
+        bimorphicTypeAssertTemplate = buildBimorphicTypeAssert();
 
         exceptionObjectTemplate = buildExceptionObject();
 
@@ -358,6 +378,20 @@ public class MaxXirGenerator implements RiXirGenerator {
             asm.stackOverflowCheck();
         }
 
+        if (MaxineVM.isRunning()) {
+            MethodProfile mpo = TieredCompilation.tier1Profile(callee);
+            if (mpo != null) {
+                // Count invocations of the tier 1 code in the baseline profile
+                XirOperand profile = asm.createTemp("profile", CiKind.Object);
+                XirOperand count = asm.createTemp("count", CiKind.Int);
+                XirConstant offset = asm.i(tier1CountOffset());
+                asm.mov(profile, asm.o(mpo));
+                asm.pload(CiKind.Int, count, profile, offset, false);
+                asm.add(count, count, asm.i(1));
+                asm.pstore(CiKind.Int, profile, offset, count, false);
+            }
+        }
+
         if (MaxineVM.isRunning() &&
                 methodIsAllocationProfilerEntryOrExitPoint(method, CompilationBroker.AllocationProfilerEntryPoint)) {
             XirOperand  tla             = asm.createRegisterTemp("TLA", WordUtil.archKind(), this.LATCH_REGISTER);
@@ -420,6 +454,10 @@ public class MaxXirGenerator implements RiXirGenerator {
             InterfaceMethodActor methodActor = (InterfaceMethodActor) method;
             XirArgument interfaceID = XirArgument.forInt(methodActor.holder().id);
             XirArgument methodIndex = XirArgument.forInt(methodActor.iIndexInInterface());
+            if (InterfaceInlineCaches && MaxineVM.isRunning()) {
+                XirArgument cache = XirArgument.forObject(new InterfaceCallCache());
+                return new XirSnippet(invokeInterfaceCachedTemplate, receiver, interfaceID, methodIndex, cache);
+            }
             return new XirSnippet(pair.resolved, receiver, interfaceID, methodIndex);
         }
         XirArgument guard = XirArgument.forObject(guardFor(method));
@@ -684,6 +722,12 @@ public class MaxXirGenerator implements RiXirGenerator {
         return new XirSnippet(typeAssertTemplate, object, hub);
     }
 
+    @Override
+    public XirSnippet genBimorphicTypeCheck(XirSite site, XirArgument object, XirArgument hub, XirArgument otherHub) {
+        assert site.isNonNull(object);
+        return new XirSnippet(bimorphicTypeAssertTemplate, object, hub, otherHub);
+    }
+
     @Override
     public XirSnippet genArrayLoad(XirSite site, XirArgument array, XirArgument index, CiKind elementKind, RiType elementType) {
         XirTemplate template;
@@ -986,6 +1030,67 @@ public class MaxXirGenerator implements RiXirGenerator {
         return new XirPair(resolved, unresolved);
     }
 
+    /**
+     * Builds the template of a resolved {@code invokeinterface} with an {@link InterfaceCallCache}. The cached entries
+     * are checked in order, the first one inline. A miss in all of them does the mtable lookup of
+     * {@link #buildInvokeInterface()} and records the result unless the cache is full.
+     */
+    @HOSTED_ONLY
+    private XirTemplate buildInvokeInterfaceCached() {
+        ClassActor cacheClass = ClassActor.fromJava(InterfaceCallCache.class);
+        ClassActor entryClass = ClassActor.fromJava(InterfaceCallCache.Entry.class);
+        int entryHubOffset = FieldActor.findInstance(entryClass, "hub").offset();
+        int entryIndexOffset = FieldActor.findInstance(entryClass, "index").offset();
+        int sizeOffset = FieldActor.findInstance(cacheClass, "size").offset();
+
+        asm.restart();
+        XirParameter receiver = asm.createInputParameter("receiver", CiKind.Object);
+        XirParameter interfaceID = asm.createConstantInputParameter("interfaceID", CiKind.Int);
+        XirParameter methodIndex = asm.createConstantInputParameter("methodIndex", CiKind.Int);
+        XirParameter cache = asm.createConstantInputParameter("cache", CiKind.Object);
+        XirOperand hub = asm.createTemp("hub", CiKind.Object);
+        XirOperand entry = asm.createTemp("entry", CiKind.Object);
+        XirOperand cachedHub = asm.createTemp("cachedHub", CiKind.Object);
+        XirOperand a = asm.createTemp("a", CiKind.Int);
+        XirOperand result = asm.createTemp("result", WordUtil.archKind());
+        XirLabel dispatch = asm.createInlineLabel("dispatch");
+        XirLabel[] misses = new XirLabel[InterfaceCallCache.SIZE];
+        for (int i = 0; i < misses.length; i++) {
+            misses[i] = asm.createOutOfLineLabel("miss" + i);
+        }
+
+        asm.pload(CiKind.Object, hub, receiver, asm.i(hubOffset()), true);
+        for (int i = 0; i < InterfaceCallCache.SIZE; i++) {
+            if (i != 0) {
+                asm.bindOutOfLine(misses[i - 1]);
+            }
+            asm.pload(CiKind.Object, entry, cache, asm.i(FieldActor.findInstance(cacheClass, "entry" + i).offset()), false);
+            asm.pload(CiKind.Object, cachedHub, entry, asm.i(entryHubOffset), false);
+            asm.jneq(misses[i], hub, cachedHub);
+            asm.pload(CiKind.Int, a, entry, asm.i(entryIndexOffset), false);
+            if (i == 0) {
+                asm.bindInline(dispatch);
+                asm.pload(WordUtil.archKind(), result, hub, a, offsetOfFirstArrayElement(), Scale.fromInt(Word.size()), false);
+            } else {
+                asm.jmp(dispatch);
+            }
+        }
+
+        asm.bindOutOfLine(misses[InterfaceCallCache.SIZE - 1]);
+        XirOperand mtableLengthOrStartIndex = asm.createTemp("mtableLength/StartIndex", CiKind.Int);
+        asm.pload(CiKind.Int, mtableLengthOrStartIndex, hub, asm.i(offsetOfMTableLength()), false);
+        asm.mod(a, interfaceID, mtableLengthOrStartIndex);
+        asm.pload(CiKind.Int, mtableLengthOrStartIndex, hub, asm.i(offsetOfMTableStartIndex()), false);
+        asm.add(a, a, mtableLengthOrStartIndex);
+        asm.pload(CiKind.Int, a, hub, a, offsetOfFirstArrayElement(), Scale.Times4, false);
+        asm.add(a, a, methodIndex);
+        asm.pload(CiKind.Int, mtableLengthOrStartIndex, cache, asm.i(sizeOffset), false);
+        asm.jgteq(dispatch, mtableLengthOrStartIndex, asm.i(InterfaceCallCache.SIZE));
+        callRuntimeThroughStub(asm, "recordInterfaceCallTarget", null, cache, hub, a);
+        asm.jmp(dispatch);
+        return finishTemplate(asm, result, "invokeinterface-cached");
+    }
+
     @HOSTED_ONLY
     private XirPair buildInvokeVirtual() {
         XirTemplate resolved;
@@ -1778,6 +1883,31 @@ public class MaxXirGenerator implements RiXirGenerator {
         return asm.finishTemplate(object, "typeCheck");
     }
 
+    @HOSTED_ONLY
+    private XirTemplate buildBimorphicTypeAssert() {
+        asm.restart();
+        XirParameter object = asm.createInputParameter("object", CiKind.Object);
+        XirOperand hub = asm.createConstantInputParameter("hub", CiKind.Object);
+        XirOperand otherHub = asm.createConstantInputParameter("otherHub", CiKind.Object);
+
+        XirOperand objHub = asm.createTemp("objHub", CiKind.Object);
+        XirLabel match = asm.createInlineLabel("match");
+        XirLabel slowPath = asm.createOutOfLineLabel("deopt");
+
+        asm.pload(CiKind.Object, objHub, object, asm.i(hubOffset()), false);
+        // if we get an exact match with either hub: continue
+        asm.jeq(match, objHub, hub);
+        asm.jneq(slowPath, objHub, otherHub);
+        asm.bindInline(match);
+
+        // -- out of line -------------------------------------------------------
+        asm.bindOutOfLine(slowPath);
+        asm.callRuntime(CiRuntimeCall.Deoptimize, null);
+        asm.shouldNotReachHere();
+
+        return asm.finishTemplate(object, "bimorphicTypeCheck");
+    }
+
     @HOSTED_ONLY
     private XirPair buildInstanceofForNonLeaf(boolean nonnull) {
         XirTemplate resolved;
@@ -1990,6 +2120,10 @@ public class MaxXirGenerator implements RiXirGenerator {
     }
 
     public static class RuntimeCalls {
+        public static void recordInterfaceCallTarget(InterfaceCallCache cache, Hub hub, int index) {
+            cache.record(hub, index);
+        }
+
         public static ClassActor resolveClassActor(ResolutionGuard guard) {
             return Snippets.resolveClass(guard);
         }
@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.oracle.max.vm.ext.maxri;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.*;
+
+import com.sun.cri.ci.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.classfile.*;
+import com.sun.max.vm.classfile.constant.*;
+import com.sun.max.vm.code.*;
+import com.sun.max.vm.compiler.*;
+import com.sun.max.vm.compiler.RuntimeCompiler.Nature;
+import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.object.*;
+import com.sun.max.vm.type.*;
+
+/**
+ * A file-backed cache of optimized code that survives VM restarts.
+ *
+ * When the VM terminates, the {@link CiTargetMethod compiler output} of every valid optimized method in the
+ * {@linkplain CodeManager#getRuntimeOptCodeRegion() runtime opt code region} is written to the file specified with
+ * {@code -XX:CodeCacheFile}. When the next VM started from the same boot image compiles one of these methods, the
+ * cached output is installed instead, through the same path as a fresh compilation: the code is re-linked, its
+ * literals re-allocated and its {@link CiAssumptions assumptions} re-validated against the current class hierarchy.
+ *
+ * Heap objects and VM actors referenced by the compiler output are written symbolically and resolved against the
+ * currently loaded classes. A method whose code embeds an object constant that cannot be named this way, other than
+ * an interned string or an enum constant, is not cached, as it would be loaded as a copy of the original object.
+ * A cached method is rejected, and compiled normally, if any class it references is not loaded, has changed
+ * since the cache was written, or was initialized when the code was compiled but is not yet initialized now.
+ */
+public final class PersistentCodeCache {
+
+    private static final int MAGIC = 0x4d584343;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Identifies the boot image. Cached code is only valid for the image that produced it.
+     */
+    private static final long IMAGE_ID = new Random().nextLong() ^ System.nanoTime();
+
+    private static String CodeCacheFile;
+    private static boolean TraceCodeCache;
+    static {
+        VMOptions.addFieldOption("-XX:", "CodeCacheFile", PersistentCodeCache.class,
+            "Load optimized code from <value> at startup if it exists and save the optimized code to <value> at exit.");
+        VMOptions.addFieldOption("-XX:", "TraceCodeCache", PersistentCodeCache.class, "Trace the loading and saving of cached optimized code.");
+    }
+
+    /**
+     * Determines if a persistent code cache was requested on the command line.
+     */
+    public static boolean isEnabled() {
+        return CodeCacheFile != null;
+    }
+
+    /**
+     * Serialized {@code {method, CiTargetMethod}} pairs read from the cache file that have not yet been used, keyed by
+     * {@link #key(ClassMethodActor)}.
+     */
+    private final HashMap<String, byte[]> entries = new HashMap<String, byte[]>();
+
+    /**
+     * The compiler stubs that may be the target of a call in cached code, keyed by name.
+     */
+    private final HashMap<String, Stub> stubs = new HashMap<String, Stub>();
+
+    private int loaded;
+    private int rejected;
+
+    /**
+     * Creates a code cache.
+     *
+     * @param stubs the compiler stubs that may be called from optimized code. Stubs sharing a name with another stub
+     *            are ignored, which prevents the methods calling them from being cached.
+     */
+    public PersistentCodeCache(Collection<Stub> stubs) {
+        HashSet<String> duplicates = new HashSet<String>();
+        for (Stub stub : stubs) {
+            if (this.stubs.put(stub.name(), stub) != null) {
+                duplicates.add(stub.name());
+            }
+        }
+        for (String name : duplicates) {
+            this.stubs.remove(name);
+        }
+    }
+
+    private static String key(ClassMethodActor method) {
+        return method.holder().typeDescriptor.toString() + method.name + method.descriptor();
+    }
+
+    /**
+     * Reads the cache file, if it exists and was written by a VM running the current boot image.
+     */
+    public synchronized void load() {
+        File file = new File(CodeCacheFile);
+        if (!file.isFile()) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != IMAGE_ID) {
+                trace("ignoring " + CodeCacheFile + ": written by another VM");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                entries.put(key, data);
+            }
+            trace("read " + count + " methods from " + CodeCacheFile);
+        } catch (IOException e) {
+            trace("error reading " + CodeCacheFile + ": " + e);
+            entries.clear();
+        } finally {
+            close(in);
+        }
+    }
+
+    /**
+     * Gets the cached compiler output for a method. An entry is only returned once; if the installed code is later
+     * invalidated, the method is compiled normally.
+     *
+     * @return {@code null} if there is no entry for {@code method} or if the entry cannot be used in the current VM
+     */
+    public CiTargetMethod lookup(ClassMethodActor method) {
+        byte[] data;
+        synchronized (this) {
+            data = entries.remove(key(method));
+        }
+        if (data == null) {
+            return null;
+        }
+        try {
+            CodeInputStream in = new CodeInputStream(new ByteArrayInputStream(data), method.holder().classLoader, stubs);
+            Object[] entry = (Object[]) in.readObject();
+            if (entry[0] != method) {
+                throw new InvalidObjectException("cached code is for " + entry[0]);
+            }
+            loaded++;
+            trace("loaded " + method);
+            return (CiTargetMethod) entry[1];
+        } catch (Exception e) {
+            rejected++;
+            trace("rejected " + method + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the current optimized code to the cache file. Entries read from the file that were not used by this VM
+     * are written back.
+     */
+    public synchronized void save() {
+        LinkedHashMap<String, byte[]> out = new LinkedHashMap<String, byte[]>();
+        HashMap<ClassActor, Integer> fingerprints = new HashMap<ClassActor, Integer>();
+        int skipped = 0;
+        for (TargetMethod tm : Code.getCodeManager().getRuntimeOptCodeRegion().copyOfTargetMethods()) {
+            if (!(tm instanceof MaxTargetMethod) || tm.classMethodActor == null || tm.invalidated() != null || tm.osrEntryOffset() >= 0) {
+                continue;
+            }
+            CiTargetMethod ciTargetMethod = ((MaxTargetMethod) tm).ciTargetMethod();
+            if (ciTargetMethod == null || Compilations.currentTargetMethod(tm.classMethodActor.compiledState, Nature.OPT) != tm) {
+                continue;
+            }
+            try {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream();
+                CodeOutputStream oos = new CodeOutputStream(buf, stubs, fingerprints);
+                oos.writeObject(new Object[] {tm.classMethodActor, ciTargetMethod});
+                oos.close();
+                out.put(key(tm.classMethodActor), buf.toByteArray());
+            } catch (IOException e) {
+                skipped++;
+                trace("not saving " + tm + ": " + e.getMessage());
+            }
+        }
+        for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+            if (!out.containsKey(e.getKey())) {
+                out.put(e.getKey(), e.getValue());
+            }
+        }
+
+        DataOutputStream dos = null;
+        try {
+            dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(CodeCacheFile)));
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeLong(IMAGE_ID);
+            dos.writeInt(out.size());
+            for (Map.Entry<String, byte[]> e : out.entrySet()) {
+                dos.writeUTF(e.getKey());
+                dos.writeInt(e.getValue().length);
+                dos.write(e.getValue());
+            }
+            trace("wrote " + out.size() + " methods to " + CodeCacheFile + " (" + skipped + " not cacheable, " + loaded + " loaded and " + rejected + " rejected in this run)");
+        } catch (IOException e) {
+            trace("error writing " + CodeCacheFile + ": " + e);
+        } finally {
+            close(dos);
+        }
+    }
+
+    private static void close(Closeable c) {
+        if (c != null) {
+            try {
+                c.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    private static void trace(String msg) {
+        if (TraceCodeCache) {
+            Log.println("CodeCache: " + msg);
+        }
+    }
+
+    /**
+     * Computes a hash of the parts of a class that compiled code may depend on: its super class, the names, types and
+     * offsets of its fields and the signatures, vtable indexes and bytecodes of its methods.
+     */
+    static int fingerprint(ClassActor classActor) {
+        CRC32 crc = new CRC32();
+        update(crc, classActor.typeDescriptor.toString());
+        if (classActor.superClassActor != null) {
+            update(crc, classActor.superClassActor.typeDescriptor.toString());
+        }
+        for (FieldActor[] fields : new FieldActor[][] {classActor.localInstanceFieldActors(), classActor.localStaticFieldActors()}) {
+            for (FieldActor f : fields) {
+                update(crc, f.name.toString());
+                update(crc, f.descriptor().toString());
+                update(crc, f.offset());
+            }
+        }
+        for (MethodActor[] methods : new MethodActor[][] {classActor.localVirtualMethodActors(), classActor.localStaticMethodActors(), classActor.localInterfaceMethodActors()}) {
+            for (MethodActor m : methods) {
+                update(crc, m.name.toString());
+                update(crc, m.descriptor().toString());
+                if (m instanceof VirtualMethodActor) {
+                    update(crc, ((VirtualMethodActor) m).vTableIndex());
+                }
+                if (m instanceof ClassMethodActor) {
+                    CodeAttribute codeAttribute = ((ClassMethodActor) m).codeAttribute();
+                    if (codeAttribute != null) {
+                        crc.update(codeAttribute.code());
+                        update(crc, codeAttribute.cp.numberOfConstants());
+                    }
+                }
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void update(CRC32 crc, int i) {
+        crc.update(i >>> 24);
+        crc.update(i >>> 16);
+        crc.update(i >>> 8);
+        crc.update(i);
+    }
+
+    private static void update(CRC32 crc, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            crc.update(s.charAt(i));
+        }
+    }
+
+    /**
+     * Symbolic reference to a class, checked against the loaded class of the same name when resolved.
+     */
+    static final class ClassRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String descriptor;
+        final int fingerprint;
+        final boolean initialized;
+
+        ClassRef(String descriptor, int fingerprint, boolean initialized) {
+            this.descriptor = descriptor;
+            this.fingerprint = fingerprint;
+            this.initialized = initialized;
+        }
+    }
+
+    /**
+     * Symbolic reference to a method or field. The {@code holder} is a {@link ClassRef} when written and
+     * the resolved {@link ClassActor} when read.
+     */
+    static final class MemberRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final Object holder;
+        final String name;
+        final String descriptor;
+        final boolean isField;
+
+        MemberRef(Object holder, String name, String descriptor, boolean isField) {
+            this.holder = holder;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.isField = isField;
+        }
+    }
+
+    /**
+     * Symbolic reference to an object derived from a class.
+     */
+    static final class ObjectRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+        static final int DYNAMIC_HUB = 0;
+        static final int STATIC_HUB = 1;
+        static final int STATIC_TUPLE = 2;
+        static final int JAVA_CLASS = 3;
+
+        final Object holder;
+        final int kind;
+
+        ObjectRef(Object holder, int kind) {
+            this.holder = holder;
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * Reference to a compiler stub, a register or a well known singleton.
+     */
+    static final class NamedRef implements Serializable {
+        private static final long serialVersionUID = 1L;
+        static final int STUB = 0;
+        static final int REGISTER = 1;
+        static final int TEMPLATE_CALL = 2;
+        static final int ILLEGAL_VALUE = 3;
+        static final int INTERFACE_CALL_CACHE = 4;
+
+        final int kind;
+        final String name;
+        final int number;
+
+        NamedRef(int kind, String name, int number) {
+            this.kind = kind;
+            this.name = name;
+            this.number = number;
+        }
+    }
+
+    /**
+     * Writes compiler output, replacing VM objects by symbolic references.
+     */
+    static final class CodeOutputStream extends ObjectOutputStream {
+        private final Map<String, Stub> stubs;
+        private final Map<ClassActor, Integer> fingerprints;
+
+        CodeOutputStream(OutputStream out, Map<String, Stub> stubs, Map<ClassActor, Integer> fingerprints) throws IOException {
+            super(out);
+            this.stubs = stubs;
+            this.fingerprints = fingerprints;
+            enableReplaceObject(true);
+        }
+
+        private ClassRef classRef(ClassActor classActor) {
+            Integer fingerprint = fingerprints.get(classActor);
+            if (fingerprint == null) {
+                fingerprint = fingerprint(classActor);
+                fingerprints.put(classActor, fingerprint);
+            }
+            return new ClassRef(classActor.typeDescriptor.toString(), fingerprint, classActor.isInitialized());
+        }
+
+        /**
+         * Checks that an object constant embedded in code is written by reference, so that the loaded code refers
+         * to the same object as the compiled code rather than to a copy.
+         */
+        private static void checkObjectConstant(Object value) throws NotSerializableException {
+            if (value instanceof String) {
+                if (value != ((String) value).intern()) {
+                    throw new NotSerializableException("non-interned string constant");
+                }
+                return;
+            }
+            if (value instanceof Enum || value instanceof ClassActor || value instanceof MethodActor || value instanceof FieldActor ||
+                value instanceof Hub || value instanceof Class || value instanceof Stub) {
+                return;
+            }
+            if (ObjectAccess.readHub(value) instanceof StaticHub) {
+                // static tuple
+                return;
+            }
+            throw new NotSerializableException("object constant of type " + value.getClass().getName());
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) throws IOException {
+            // Values making up the compiler output itself. Object constants only occur inside a CiConstant.
+            if (obj == null || obj instanceof String || obj instanceof Number || obj instanceof Boolean || obj instanceof Character ||
+                obj instanceof Enum || obj.getClass().isArray() || obj instanceof Collection || obj instanceof Map) {
+                return obj;
+            }
+            if (obj instanceof ClassRef || obj instanceof MemberRef || obj instanceof ObjectRef || obj instanceof NamedRef) {
+                return obj;
+            }
+            if (obj == CiValue.IllegalValue) {
+                return new NamedRef(NamedRef.ILLEGAL_VALUE, null, 0);
+            }
+            if (obj == CallTarget.TEMPLATE_CALL) {
+                return new NamedRef(NamedRef.TEMPLATE_CALL, null, 0);
+            }
+            if (obj instanceof InterfaceCallCache) {
+                // The cached receivers are only valid in this VM run; the loaded code starts with an empty cache.
+                return new NamedRef(NamedRef.INTERFACE_CALL_CACHE, null, 0);
+            }
+            if (obj instanceof CiRegister) {
+                return new NamedRef(NamedRef.REGISTER, null, ((CiRegister) obj).number);
+            }
+            if (obj instanceof Stub) {
+                Stub stub = (Stub) obj;
+                if (stubs.get(stub.name()) != stub) {
+                    throw new NotSerializableException("call to unnamed stub " + stub);
+                }
+                return new NamedRef(NamedRef.STUB, stub.name(), 0);
+            }
+            if (obj instanceof CiConstant) {
+                CiConstant c = (CiConstant) obj;
+                if (c.kind.isObject() && !c.isNull()) {
+                    checkObjectConstant(c.asObject());
+                }
+                return obj;
+            }
+            if (obj.getClass().getName().startsWith("com.sun.cri.ci.")) {
+                return obj;
+            }
+            if (obj instanceof ClassActor) {
+                return classRef((ClassActor) obj);
+            }
+            if (obj instanceof MethodActor) {
+                MethodActor m = (MethodActor) obj;
+                return new MemberRef(classRef(m.holder()), m.name.toString(), m.descriptor().toString(), false);
+            }
+            if (obj instanceof FieldActor) {
+                FieldActor f = (FieldActor) obj;
+                return new MemberRef(classRef(f.holder()), f.name.toString(), f.descriptor().toString(), true);
+            }
+            if (obj instanceof Hub) {
+                return new ObjectRef(classRef(((Hub) obj).classActor), obj instanceof StaticHub ? ObjectRef.STATIC_HUB : ObjectRef.DYNAMIC_HUB);
+            }
+            if (obj instanceof Class) {
+                return new ObjectRef(classRef(ClassActor.fromJava((Class) obj)), ObjectRef.JAVA_CLASS);
+            }
+            Hub hub = ObjectAccess.readHub(obj);
+            if (hub instanceof StaticHub) {
+                return new ObjectRef(classRef(hub.classActor), ObjectRef.STATIC_TUPLE);
+            }
+            throw new NotSerializableException("reference to " + obj.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads compiler output, resolving the symbolic references written by {@link CodeOutputStream}.
+     */
+    static final class CodeInputStream extends ObjectInputStream {
+        private final ClassLoader loader;
+        private final Map<String, Stub> stubs;
+
+        CodeInputStream(InputStream in, ClassLoader loader, Map<String, Stub> stubs) throws IOException {
+            super(in);
+            this.loader = loader;
+            this.stubs = stubs;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, PersistentCodeCache.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+
+        private ClassActor resolveClass(ClassRef ref) throws InvalidObjectException {
+            TypeDescriptor descriptor = JavaTypeDescriptor.parseTypeDescriptor(ref.descriptor);
+            ClassActor classActor = ClassRegistry.get(loader, descriptor, true);
+            if (classActor == null) {
+                classActor = ClassRegistry.get(VMClassLoader.VM_CLASS_LOADER, descriptor, true);
+            }
+            if (classActor == null) {
+                throw new InvalidObjectException(ref.descriptor + " is not loaded");
+            }
+            if (fingerprint(classActor) != ref.fingerprint) {
+                throw new InvalidObjectException(ref.descriptor + " has changed");
+            }
+            if (ref.initialized && !classActor.isInitialized()) {
+                throw new InvalidObjectException(ref.descriptor + " is not initialized");
+            }
+            return classActor;
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (obj instanceof String) {
+                return ((String) obj).intern();
+            }
+            if (obj instanceof ClassRef) {
+                return resolveClass((ClassRef) obj);
+            }
+            if (obj instanceof MemberRef) {
+                MemberRef ref = (MemberRef) obj;
+                ClassActor holder = (ClassActor) ref.holder;
+                Object member;
+                if (ref.isField) {
+                    member = holder.findLocalFieldActor(SymbolTable.makeSymbol(ref.name), JavaTypeDescriptor.parseTypeDescriptor(ref.descriptor));
+                } else {
+                    member = holder.findLocalMethodActor(SymbolTable.makeSymbol(ref.name), SignatureDescriptor.create(ref.descriptor));
+                }
+                if (member == null) {
+                    throw new InvalidObjectException(holder + " has no member " + ref.name + ref.descriptor);
+                }
+                return member;
+            }
+            if (obj instanceof ObjectRef) {
+                ObjectRef ref = (ObjectRef) obj;
+                ClassActor holder = (ClassActor) ref.holder;
+                switch (ref.kind) {
+                    case ObjectRef.DYNAMIC_HUB:  return holder.dynamicHub();
+                    case ObjectRef.STATIC_HUB:   return holder.staticHub();
+                    case ObjectRef.STATIC_TUPLE: return holder.staticTuple();
+                    default:                     return holder.toJava();
+                }
+            }
+            if (obj instanceof NamedRef) {
+                NamedRef ref = (NamedRef) obj;
+                switch (ref.kind) {
+                    case NamedRef.STUB: {
+                        Stub stub = stubs.get(ref.name);
+                        if (stub == null) {
+                            throw new InvalidObjectException("no stub named " + ref.name);
+                        }
+                        return stub;
+                    }
+                    case NamedRef.REGISTER:      return register(ref.number);
+                    case NamedRef.TEMPLATE_CALL: return CallTarget.TEMPLATE_CALL;
+                    case NamedRef.INTERFACE_CALL_CACHE: return new InterfaceCallCache();
+                    default:                     return CiValue.IllegalValue;
+                }
+            }
+            return obj;
+        }
+
+        private static CiRegister register(int number) throws InvalidObjectException {
+            if (number == CiRegister.None.number) {
+                return CiRegister.None;
+            } else if (number == CiRegister.Frame.number) {
+                return CiRegister.Frame;
+            } else if (number == CiRegister.CallerFrame.number) {
+                return CiRegister.CallerFrame;
+            }
+            for (CiRegister reg : com.sun.max.platform.Platform.target().arch.registers) {
+                if (reg.number == number) {
+                    return reg;
+                }
+            }
+            throw new InvalidObjectException("no register numbered " + number);
+        }
+    }
+}
@@ -1797,6 +1797,7 @@ public abstract class T1XCompilation {
     void do_profileMethodEntry() {
         if (methodProfileBuilder != null) {
             methodProfileBuilder.addEntryBackedgeCounter(MethodInstrumentation.initialEntryBackedgeCount);
+            methodProfileBuilder.addBackedgeCounter(MethodInstrumentation.initialBackedgeCount);
             if (method.isStatic()) {
                 start(PROFILE_STATIC_METHOD_ENTRY);
                 assignObject(0, "mpo", methodProfileBuilder.methodProfileObject());
@@ -2045,11 +2046,12 @@ public abstract class T1XCompilation {
         emitEpilogue();
     }
 
-    protected void do_profileBackwardBranch() {
+    protected void do_profileBackwardBranch(int targetBCI) {
         if (methodProfileBuilder != null) {
             // Profiling of backward branches.
             start(PROFILE_BACKWARD_BRANCH);
             assignObject(0, "mpo", methodProfileBuilder.methodProfileObject());
+            assignInt(1, "targetBCI", targetBCI);
             finish();
         }
     }
@@ -2129,7 +2131,7 @@ public abstract class T1XCompilation {
             finish();
 
             if (bci >= targetBCI) {
-                do_profileBackwardBranch();
+                do_profileBackwardBranch(targetBCI);
             }
         }
     }
@@ -71,10 +71,9 @@ public class T1XTemplateSource {
     }
 
     @T1X_TEMPLATE(PROFILE_BACKWARD_BRANCH)
-    public static void profileBackwardBranch(MethodProfile mpo) {
-        // entrypoint counters count down to zero ("overflow")
-        // Currently, there is no reason to use a separate counter for backward branches.
-        MethodInstrumentation.recordBackwardBranch(mpo);
+    public static void profileBackwardBranch(MethodProfile mpo, int targetBCI) {
+        // backward branches count down the entrypoint counter and the on-stack replacement counter
+        MethodInstrumentation.recordBackwardBranch(mpo, targetBCI);
     }
 
     @T1X_TEMPLATE(PROFILE_TAKEN_BRANCH)
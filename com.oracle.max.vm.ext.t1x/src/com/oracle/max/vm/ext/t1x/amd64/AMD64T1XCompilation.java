@@ -619,7 +619,7 @@ public class AMD64T1XCompilation extends T1XCompilation {
             // Compute relative offset
             final int target = bciToPos[targetBCI];
             if (cc == null) {
-                do_profileBackwardBranch();
+                do_profileBackwardBranch(targetBCI);
                 do_safepointAtBackwardBranch(bci);
                 asm.jmp(target, false);
             } else {
@@ -633,7 +633,7 @@ public class AMD64T1XCompilation extends T1XCompilation {
                 assert buf.position() - jumpNotTakenPos == 2;
 
                 // Start of "taken" code
-                do_profileBackwardBranch();
+                do_profileBackwardBranch(targetBCI);
                 do_safepointAtBackwardBranch(bci);
                 asm.jmp(target, false);
 
@@ -88,6 +88,31 @@ void relocation_apply(void *heap, Address relocatedHeap, void *relocationData, i
     }
 }
 
+/**
+ * Gets the address at which to reserve the virtual space of a prelinked boot image so that the boot heap region,
+ * mapped at the start (bootRegionMappingConstraint == 1) or at the end (bootRegionMappingConstraint == 2) of
+ * the reserved space, lands at the address the image was prelinked for.
+ *
+ * @param prelinkedHeap the address the boot image was prelinked for, 0 if it is not prelinked
+ * @return 0 if the reserved space has no preferred address
+ */
+Address relocation_preferredVirtualSpace(Address prelinkedHeap, int bootRegionMappingConstraint, Size heapAndCodeSize, Size virtualSpaceSize) {
+    if (prelinkedHeap != 0) {
+        if (bootRegionMappingConstraint == 1) {
+            return prelinkedHeap;
+        } else if (bootRegionMappingConstraint == 2 && prelinkedHeap + heapAndCodeSize >= virtualSpaceSize) {
+            return prelinkedHeap + heapAndCodeSize - virtualSpaceSize;
+        }
+    }
+    return (Address) 0;
+}
+
+JNIEXPORT jlong JNICALL
+Java_com_sun_max_vm_hosted_BootImage_nativePreferredVirtualSpace(JNIEnv *env, jclass c, jlong prelinkedHeap, jint bootRegionMappingConstraint,
+                                                                   jlong heapAndCodeSize, jlong virtualSpaceSize) {
+    return (jlong) relocation_preferredVirtualSpace((Address) prelinkedHeap, bootRegionMappingConstraint, (Size) heapAndCodeSize, (Size) virtualSpaceSize);
+}
+
 JNIEXPORT void JNICALL
 Java_com_sun_max_vm_hosted_BootImage_nativeRelocate(JNIEnv *env, jclass c, jlong heap, jlong relocatedHeap,
                                                        jbyteArray relocationData, jint relocationDataSize,
@@ -27,5 +27,7 @@
 
 extern void relocation_apply(void *heap, Address base, void *relocationData, int relocationDataSize, int isBigEndian, int wordSize);
 
+extern Address relocation_preferredVirtualSpace(Address prelinkedHeap, int bootRegionMappingConstraint, Size heapAndCodeSize, Size virtualSpaceSize);
+
 #endif /*__relocation_h__*/
 
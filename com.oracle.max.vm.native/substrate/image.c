@@ -26,6 +26,9 @@
 #include <unistd.h>
 #include <stdio.h>
 #include <stdlib.h>
+#if os_SOLARIS || os_DARWIN || os_LINUX
+#include <sys/mman.h>
+#endif
 
 #include "relocation.h"
 #include "word.h"
@@ -43,7 +46,7 @@
 /*
  * Image format version checked against com.sun.max.vm.hosted.BootImage.BOOT_IMAGE_FORMAT_VERSION
  */
-#define IMAGE_FORMAT_VERSION                    2
+#define IMAGE_FORMAT_VERSION                    3
 #define DEFAULT_RELOCATION_SCHEME        0
 
 #if os_MAXVE
@@ -295,6 +298,49 @@ static void checkTrailer(int fd) {
     }
 }
 
+/**
+ * Gets the address for which the pointers in the boot heap and code were relocated when the image was built.
+ *
+ * @return 0 if the image is not prelinked, in which case all pointers are relative to address 0
+ */
+static Address prelinkedHeapAddress(void) {
+#if word_64_BITS
+    return (((Address) (Unsigned4) theHeader->prelinkedHeapAddressHigh) << 32) | (Address) (Unsigned4) theHeader->prelinkedHeapAddressLow;
+#else
+    return (Address) (Unsigned4) theHeader->prelinkedHeapAddressLow;
+#endif
+}
+
+#if os_SOLARIS || os_DARWIN || os_LINUX
+/**
+ * Reserves virtual space at a given address without displacing any existing mapping.
+ *
+ * @return 'address' if the space was reserved there, ALLOC_FAILED otherwise
+ */
+static Address reserveVirtualSpaceAt(Address address, Size size) {
+    void *result = mmap((void *) address, (size_t) size, PROT_NONE, MAP_PRIVATE | MAP_ANON | MAP_NORESERVE, -1, 0);
+    if (result == MAP_FAILED) {
+        return ALLOC_FAILED;
+    }
+    if ((Address) result != address) {
+        munmap(result, (size_t) size);
+        return ALLOC_FAILED;
+    }
+    return address;
+}
+
+/**
+ * Reserves virtual space, at a preferred address if one is given and available, anywhere otherwise.
+ */
+static Address reserveVirtualSpace(Address preferredAddress, Size size) {
+    if (preferredAddress != 0 && reserveVirtualSpaceAt(preferredAddress, size) != ALLOC_FAILED) {
+        // Make the reservation accessible, as virtualMemory_allocatePrivateAnon does
+        return virtualMemory_allocatePrivateAnon(preferredAddress, size, JNI_FALSE, JNI_FALSE, HEAP_VM);
+    }
+    return virtualMemory_allocatePrivateAnon((Address) 0, size, JNI_FALSE, JNI_FALSE, HEAP_VM);
+}
+#endif
+
 static void mapHeapAndCode(int fd) {
     int heapOffsetInImage = virtualMemory_pageAlign(sizeof(struct image_Header) + theHeader->stringDataSize + theHeader->relocationDataSize);
     int heapAndCodeSize = theHeader->heapSize + theHeader->codeSize;
@@ -306,6 +352,7 @@ static void mapHeapAndCode(int fd) {
     theHeap = (Address) &maxvm_image_start + heapOffsetInImage;
 #elif os_SOLARIS || os_DARWIN || os_LINUX
     Address reservedVirtualSpace = (Address) 0;
+    Address prelinkedHeap = prelinkedHeapAddress();
     size_t virtualSpaceSize = 1024L * theHeader->reservedVirtualSpaceSize;
     c_ASSERT(virtualMemory_pageAlign((Size) virtualSpaceSize) == (Size) virtualSpaceSize);
     if (virtualSpaceSize != 0) {
@@ -314,7 +361,9 @@ static void mapHeapAndCode(int fd) {
         // The address returned might subsequently be used to memory map various regions, including the
         // boot heap region, automatically splitting this mapping.
         // In any case,  the VM (mostly the heap scheme) is responsible for releasing unused reserved space.
-        reservedVirtualSpace = virtualMemory_allocatePrivateAnon((Address) 0, virtualSpaceSize, JNI_FALSE, JNI_FALSE, HEAP_VM);
+        // If the image is prelinked, try to place the reserved space such that the boot heap region lands at the prelinked address.
+        Address preferredAddress = relocation_preferredVirtualSpace(prelinkedHeap, theHeader->bootRegionMappingConstraint, heapAndCodeSize, virtualSpaceSize);
+        reservedVirtualSpace = reserveVirtualSpace(preferredAddress, virtualSpaceSize);
         if (reservedVirtualSpace == ALLOC_FAILED) {
             log_exit(4, "could not reserve requested virtual space");
         }
@@ -327,7 +376,7 @@ static void mapHeapAndCode(int fd) {
         theHeap = reservedVirtualSpace + virtualSpaceSize - heapAndCodeSize;
     } else {
         // Map the boot heap region anywhere outside of the reserved space.
-        theHeap = virtualMemory_allocatePrivateAnon((Address) 0, heapAndCodeSize, JNI_FALSE, JNI_FALSE, HEAP_VM);
+        theHeap = reserveVirtualSpace(prelinkedHeap, heapAndCodeSize);
         if (theHeap == ALLOC_FAILED) {
             log_exit(4, "could not reserve virtual space for boot image");
         }
@@ -360,9 +409,17 @@ static void mapHeapAndCode(int fd) {
 static void relocate(int fd) {
     off_t wantedFileOffset;
     Byte *relocationData;
+    Address prelinkedHeap = prelinkedHeapAddress();
 #if log_LOADER
     log_println("image.relocate");
 #endif
+    if (theHeap == prelinkedHeap) {
+        // The image was prelinked for the address it is mapped at: leave the mapped pages clean
+#if log_LOADER
+        log_println("image.relocate: prelinked image mapped at %p, nothing to do", theHeap);
+#endif
+        return;
+    }
 #if !MEMORY_IMAGE
     off_t actualFileOffset;
     int n;
@@ -391,7 +448,8 @@ static void relocate(int fd) {
     log_println("image.relocate [relocation map: %d bytes]", theHeader->relocationDataSize);
 #endif
 
-    relocation_apply((void *) theHeap, theHeap, relocationData, theHeader->relocationDataSize, word_BIG_ENDIAN, theHeader->wordSize);
+    // A prelinked image that could not be mapped at its prelinked address is relocated by the difference
+    relocation_apply((void *) theHeap, theHeap - prelinkedHeap, relocationData, theHeader->relocationDataSize, word_BIG_ENDIAN, theHeader->wordSize);
 
 #if !MEMORY_IMAGE
     free(relocationData);
@@ -53,6 +53,8 @@
     f(reservedVirtualSpaceSize) /* Amount of contiguous virtual space to reserve at boot image load-time  */ \
     f(reservedVirtualSpaceFieldOffset) /* offset where to store the address of the reserved contiguous virtual space, if any*/ \
     f(bootRegionMappingConstraint) \
+    f(prelinkedHeapAddressHigh) /* High 32 bits of the heap address the image was relocated for at build time, 0 if not prelinked */ \
+    f(prelinkedHeapAddressLow) /* Low 32 bits of the heap address the image was relocated for at build time */ \
     f(tlaListHeadOffset) /* See the comment for the 'tlaListHead' field in the VmThreadMap class.  */ \
     f(exitCodeOffset) \
     f(tlaSize) /* The size of a TLA.  */ \
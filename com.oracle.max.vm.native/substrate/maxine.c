@@ -56,6 +56,10 @@
 #include <pthread.h>
 #endif
 
+#if isa_AMD64
+#include <cpuid.h>
+#endif
+
 
 static void max_fd_limit() {
 #if os_LINUX || os_SOLARIS || os_DARWIN
@@ -516,6 +520,29 @@ void maxine_cache_flush(char *start, int length) {
 #endif
 }
 
+/**
+ * Vector instruction set extensions supported by the CPU, as a bit mask:
+ * bit 0 is SSE2, bit 1 SSE4.1 and bit 2 AVX. Always 0 on other ISAs.
+ */
+jint maxine_cpuFeatures() {
+    jint features = 0;
+#if isa_AMD64
+    unsigned int eax, ebx, ecx, edx;
+    if (__get_cpuid(1, &eax, &ebx, &ecx, &edx)) {
+        if (edx & bit_SSE2) {
+            features |= 1;
+        }
+        if (ecx & bit_SSE4_1) {
+            features |= 2;
+        }
+        if (ecx & bit_AVX) {
+            features |= 4;
+        }
+    }
+#endif
+    return features;
+}
+
 long long d2long(double x) {
     if (isnan(x)) {
         return (long long) 0;
@@ -19,6 +19,7 @@
  * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
  */
 #include "os.h"
+#include "isa.h"
 
 #include <sys/types.h>
 #include <sys/mman.h>
@@ -31,6 +32,14 @@
 #include "virtualMemory.h"
 #include "log.h"
 
+#if os_LINUX && !isa_ARM
+#   include <sched.h>
+#   include <numa.h>
+#   define HAS_NUMA 1
+#else
+#   define HAS_NUMA 0
+#endif
+
 Address memory_allocate(Size size) {
     Address mem = (Address) calloc(1, (size_t) size);
     if (mem % sizeof(void *)) {
@@ -53,3 +62,43 @@ jint memory_deallocate(Address pointer) {
     free((void *) pointer);
     return 0;
 }
+
+/**
+ * Number of NUMA nodes memory can be bound to, or 1 if the platform doesn't support NUMA.
+ */
+jint memory_numaNodeCount() {
+#if HAS_NUMA
+    if (numa_available() < 0) {
+        return 1;
+    }
+    return numa_max_node() + 1;
+#else
+    return 1;
+#endif
+}
+
+/**
+ * NUMA node of the CPU the current thread is running on.
+ */
+jint memory_numaCurrentNode() {
+#if HAS_NUMA
+    int cpu = sched_getcpu();
+    int node;
+    if (cpu < 0) {
+        return 0;
+    }
+    node = numa_node_of_cpu(cpu);
+    return node < 0 ? 0 : node;
+#else
+    return 0;
+#endif
+}
+
+/**
+ * Binds a range of virtual memory to a NUMA node. Pages not yet touched are allocated on that node when first accessed.
+ */
+void memory_numaBindToNode(Address start, Size size, jint node) {
+#if HAS_NUMA
+    numa_tonode_memory((void *) start, (size_t) size, node);
+#endif
+}
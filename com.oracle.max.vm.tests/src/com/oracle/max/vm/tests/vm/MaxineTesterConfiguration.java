@@ -333,6 +333,9 @@ public class MaxineTesterConfiguration {
 
         imageConfig("jtt-c1xc1x", opt_c1x, tmpVMArgs, gcScheme, "-threads=4", "-run=com.oracle.max.vm.tests.vm.jtrun.all", build, "-native-tests");
         imageConfig("jtt-c1xgraal", opt_c1xgraal, "-run=com.oracle.max.vm.tests.vm.jtrun.all", "-native-tests", joinCompileCommands(testCallerT1X, testCalleeGraal));
+        // Tests start in T1X code so that they go through all the tiers, with Graal as the tier 2 compiler
+        imageConfig("jtt-tiered", opt_c1x, "-run=com.oracle.max.vm.tests.vm.jtrun.all", "-native-tests", joinCompileCommands(testCallerT1X, testCalleeT1X),
+                        "--XX:AddCompiler=Graal:com.oracle.max.vm.ext.graal.MaxGraal", "--XX:+TieredCompilation", "--XX:Tier2Threshold=5000");
 
         imageConfig("jtt-msc1xt1x", opt_c1x, "-run=com.oracle.max.vm.tests.vm.jtrun.all", "-heap=gcx.ms", "-native-tests", testCalleeT1X);
         imageConfig("jtt-mst1xc1x", opt_c1x, "-run=com.oracle.max.vm.tests.vm.jtrun.all", "-heap=gcx.ms", "-native-tests", testCallerT1X);
@@ -527,7 +530,7 @@ public class MaxineTesterConfiguration {
         if (platform.cpu == CPU.SPARCV9 || platform.cpu == CPU.ARMV7) {
             return "jtt-c1xc1x,jtt-c1xt1x,jtt-t1xc1x,jtt-t1xt1x";
         }
-        return "jtt-c1xc1x,jtt-t1xc1x,jtt-c1xt1x,jtt-t1xt1x,jtt-c1xgraal";
+        return "jtt-c1xc1x,jtt-t1xc1x,jtt-c1xt1x,jtt-t1xt1x,jtt-c1xgraal,jtt-tiered";
     }
 
     public static List<String> defaultVMOutputImageConfigs() {
@@ -399,10 +399,13 @@ public class JTConfig {
         jtt.jasm.Invokevirtual_private00.class,
         jtt.jasm.Invokevirtual_private01.class,
         jtt.jasm.Loop00.class,
+        jtt.jdk.Arrays_equals01.class,
+        jtt.jdk.Arrays_fill01.class,
         jtt.jdk.AtomicIntegerFieldUpdater01.class,
         jtt.jdk.Class_getName.class,
         jtt.jdk.EnumMap01.class,
         jtt.jdk.EnumMap02.class,
+        jtt.jdk.PlatformMBeanServer01.class,
         jtt.jdk.System_currentTimeMillis01.class,
         jtt.jdk.System_currentTimeMillis02.class,
         jtt.jdk.System_nanoTime01.class,
@@ -521,6 +524,7 @@ public class JTConfig {
         jtt.lang.ProcessEnvironment_init.class,
         jtt.lang.Runtime_exec01.class,
         jtt.lang.StringCoding_Scale.class,
+        jtt.lang.String_indexOf01.class,
         jtt.lang.String_intern01.class,
         jtt.lang.String_intern02.class,
         jtt.lang.String_intern03.class,
@@ -542,8 +546,13 @@ public class JTConfig {
         jtt.loop.Loop14.class,
         jtt.loop.LoopInline.class,
         jtt.loop.LoopNewInstance.class,
+        jtt.loop.LoopOSR01.class,
+        jtt.loop.LoopOSR02.class,
         jtt.loop.LoopPhi.class,
+        jtt.loop.LoopRCE01.class,
         jtt.loop.LoopSwitch01.class,
+        jtt.max.AdaptiveTLABRefill01.class,
+        jtt.max.BulkArrayAccess_indexOf01.class,
         jtt.max.CodePointer01.class,
         jtt.max.CodePointer02.class,
         jtt.max.Fold01.class,
@@ -556,6 +565,7 @@ public class JTConfig {
         jtt.max.Inline01.class,
         jtt.max.Invoke_except01.class,
         jtt.max.Prototyping01.class,
+        jtt.max.Tiered01.class,
         jtt.max.Unsigned_idiv01.class,
         jtt.max.Unsigned_irem01.class,
         jtt.max.Unsigned_ldiv01.class,
@@ -601,6 +611,7 @@ public class JTConfig {
         jtt.optimize.ABCE_02.class,
         jtt.optimize.ABCE_03.class,
         jtt.optimize.ArrayCopy01.class,
+        jtt.optimize.ArrayCopy02.class,
         jtt.optimize.ArrayLength01.class,
         jtt.optimize.BC_idiv_16.class,
         jtt.optimize.BC_idiv_4.class,
@@ -619,6 +630,7 @@ public class JTConfig {
         jtt.optimize.Conditional01.class,
         jtt.optimize.DeadCode01.class,
         jtt.optimize.DeadCode02.class,
+        jtt.optimize.EA_01.class,
         jtt.optimize.Fold_Cast01.class,
         jtt.optimize.Fold_Convert01.class,
         jtt.optimize.Fold_Convert02.class,
@@ -660,6 +672,8 @@ public class JTConfig {
         jtt.optimize.Phi01.class,
         jtt.optimize.Phi02.class,
         jtt.optimize.Phi03.class,
+        jtt.optimize.Profile_BranchGuard01.class,
+        jtt.optimize.Profile_TypeGuard01.class,
         jtt.optimize.Reduce_Convert01.class,
         jtt.optimize.Reduce_Double01.class,
         jtt.optimize.Reduce_Float01.class,
@@ -40,6 +40,8 @@ public class C1XMetrics {
     public static int InlineForcedMethods;
     public static int InlineForbiddenMethods;
     public static int InlinedJsrs;
+    public static int ProfiledCallsDevirtualized;
+    public static int ProfiledBranchesPruned;
     public static int NullCheckIterations;
     public static int NullCheckEliminations;
     public static int NullChecksRedundant;
@@ -48,6 +50,9 @@ public class C1XMetrics {
     public static int DivideSpecialChecksRedundant;
     public static int StoreCheckEliminations;
     public static int BoundsChecksElminations;
+    public static int LoopInvariantsHoisted;
+    public static int ScalarReplacedAllocations;
+    public static int EliminatedLocks;
     public static int ConditionalEliminations;
     public static int BlocksMerged;
     public static int BlocksSkipped;
@@ -69,6 +74,7 @@ public class C1XMetrics {
     public static int LIRMoveInstructions;
     public static int LSRAIntervalsCreated;
     public static int LSRASpills;
+    public static int LSRARangesReused;
     public static int LoadConstantIterations;
     public static int CodeBufferCopies;
     public static int UniqueValueIdsAssigned;
@@ -45,6 +45,12 @@ public final class C1XOptions {
     public static int     MaximumRecursiveInlineLevel        = 1;
     public static int     MaximumDesiredSize                 = 8000;
     public static int     MaximumShortLoopSize               = 5;
+    public static int     MaximumHotInlineSize               = 70;
+    public static float   HotCallSiteFrequency               = 1.0f;
+    public static float   ColdCallSiteFrequency              = 0.01f;
+
+    // escape analysis settings
+    public static int     MaximumScalarReplacedFields        = 32;
 
     // intrinsification settings
     public static boolean OptIntrinsify                      = ____;
@@ -108,6 +114,9 @@ public final class C1XOptions {
     public static boolean OptLocalValueNumbering;
     public static boolean OptLocalLoadElimination;
     public static boolean OptGlobalValueNumbering;
+    public static boolean OptLoopInvariantCodeMotion;
+    public static boolean OptRangeCheckElimination;
+    public static boolean OptEscapeAnalysis;
     public static boolean OptDiamondElimination;
     public static boolean OptCEElimination;
     public static boolean OptBlockMerging;
@@ -122,6 +131,11 @@ public final class C1XOptions {
 
     // optimistic optimization settings
     public static boolean UseAssumptions                = true;
+    public static boolean UseTypeProfile;
+    public static boolean UseBranchProfile;
+    public static boolean UseCallSiteFrequency;
+    public static int     MaximumProfiledReceiverTypes  = 2;
+    public static float   MinimumReceiverTypeProbability = 0.99f;
 
     // state merging settings
     public static boolean AssumeVerifiedBytecode        = ____;
@@ -222,11 +236,17 @@ public final class C1XOptions {
         OptInlineSynchronized           = lll;
         UseStackMapTableLiveness        = lll;
         UseAssumptions                  = lll;
+        UseTypeProfile                  = lll;
+        UseBranchProfile                = lll;
+        UseCallSiteFrequency            = lll;
         OptIterativeNCE                 = lll;
         OptFlowSensitiveNCE             = lll;
         OptDeadCodeElimination1         = lll;
         OptDeadCodeElimination2         = lll;
         OptGlobalValueNumbering         = lll;
+        OptLoopInvariantCodeMotion      = lll;
+        OptRangeCheckElimination        = lll;
+        OptEscapeAnalysis               = lll;
         OptDiamondElimination           = lll;
         OptCEElimination                = lll;
         OptBlockSkipping                = lll;
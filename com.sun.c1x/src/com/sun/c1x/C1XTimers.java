@@ -34,6 +34,7 @@ public enum C1XTimers {
     NCE("Nullcheck elimination"),
     LIR_CREATE("Create LIR"),
     LIFETIME_ANALYSIS("Lifetime Analysis"),
+    BUILD_INTERVALS("Build Intervals"),
     LINEAR_SCAN("Linear Scan"),
     RESOLUTION("Resolution"),
     DEBUG_INFO("Create Debug Info"),
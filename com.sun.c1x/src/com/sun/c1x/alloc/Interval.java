@@ -443,6 +443,11 @@ public final class Interval {
      */
     private Range first;
 
+    /**
+     * The pool from which the ranges of this interval are allocated, or {@code null} if they are not pooled.
+     */
+    RangePool rangePool;
+
     /**
      * List of (use-positions, register-priorities) pairs, sorted by use-positions.
      */
@@ -1012,10 +1017,14 @@ public final class Interval {
             first.to = Math.max(to, first().to);
         } else {
             // insert new range
-            first = new Range(from, to, first());
+            first = newRange(from, to, first());
         }
     }
 
+    private Range newRange(int from, int to, Range next) {
+        return rangePool == null ? new Range(from, to, next) : rangePool.allocate(from, to, next);
+    }
+
     Interval newSplitChild(LinearScan allocator) {
         // allocate new interval
         Interval parent = splitParent();
@@ -1067,7 +1076,7 @@ public final class Interval {
         assert cur != Range.EndMarker : "split interval after end of last range";
 
         if (cur.from < splitPos) {
-            result.first = new Range(splitPos, cur.to, cur.next);
+            result.first = newRange(splitPos, cur.to, cur.next);
             cur.to = splitPos;
             cur.next = Range.EndMarker;
 
@@ -115,6 +115,11 @@ public final class LinearScan {
      */
     BitMap2D intervalInLoop;
 
+    /**
+     * The pool of the compiling thread from which interval ranges are allocated.
+     */
+    private final RangePool rangePool = RangePool.current();
+
     public LinearScan(C1XCompilation compilation, IR ir, LIRGenerator gen, FrameMap frameMap) {
         this.compilation = compilation;
         this.ir = ir;
@@ -231,6 +236,7 @@ public final class LinearScan {
         assert operand.isLegal();
         int operandNumber = operandNumber(operand);
         Interval interval = new Interval(operand, operandNumber);
+        interval.rangePool = rangePool;
         assert operandNumber < intervalsSize;
         assert intervals[operandNumber] == null;
         intervals[operandNumber] = interval;
@@ -1458,7 +1464,11 @@ public final class LinearScan {
         int sortedFromMax = -1;
 
         // special sorting algorithm: the original interval-list is almost sorted,
-        // only some intervals are swapped. So this is much faster than a complete QuickSort
+        // only some intervals are swapped. So this is much faster than a complete QuickSort.
+        // In large methods the insertion sort can degrade to quadratic time, so once it has
+        // moved more intervals than there are in the list, the rest is sorted conventionally
+        int moves = 0;
+        boolean unsorted = false;
         for (Interval interval : intervals) {
             if (interval != null) {
                 int from = interval.from();
@@ -1466,6 +1476,9 @@ public final class LinearScan {
                 if (sortedFromMax <= from) {
                     sortedList[sortedIdx++] = interval;
                     sortedFromMax = interval.from();
+                } else if (moves > sortedLen) {
+                    sortedList[sortedIdx++] = interval;
+                    unsorted = true;
                 } else {
                     // the assumption that the intervals are already sorted failed,
                     // so this interval must be sorted in manually
@@ -1474,10 +1487,15 @@ public final class LinearScan {
                         sortedList[j + 1] = sortedList[j];
                     }
                     sortedList[j + 1] = interval;
+                    moves += sortedIdx - 1 - j;
                     sortedIdx++;
                 }
             }
         }
+        if (unsorted) {
+            // stable, so intervals with the same start keep the order of the insertion sort
+            Arrays.sort(sortedList, INTERVAL_COMPARATOR);
+        }
         sortedIntervals = sortedList;
     }
 
@@ -2136,20 +2154,41 @@ public final class LinearScan {
         }
     }
 
-    CiFrame computeFrameForState(int opId, FrameState state, CiBitMap frameRefMap) {
+    /**
+     * Gets the debug info value for a virtual object.
+     *
+     * @param topState the innermost frame state of the debug info, which records the field values of {@code object}
+     */
+    CiVirtualObject toCiVirtualObject(int opId, VirtualObject object, FrameState topState) {
+        Value[] fieldValues = topState.virtualObjectValues(object);
+        assert fieldValues != null : "no field values recorded for " + object;
+        CiValue[] values = new CiValue[fieldValues.length];
+        for (int i = 0; i < fieldValues.length; i++) {
+            Value value = fieldValues[i];
+            values[i] = value.isConstant() ? value.asConstant() : toCiValue(opId, value);
+        }
+        return CiVirtualObject.get(object.type(), values, object.objectId());
+    }
+
+    CiFrame computeFrameForState(int opId, FrameState state, FrameState topState, CiBitMap frameRefMap) {
         CiFrame callerFrame = null;
 
         FrameState callerState = state.callerState();
         if (callerState != null) {
             // process recursively to compute outermost scope first
-            callerFrame = computeFrameForState(opId, callerState, frameRefMap);
+            callerFrame = computeFrameForState(opId, callerState, topState, frameRefMap);
         }
 
         CiValue[] values = new CiValue[state.valuesSize() + state.locksSize()];
         int valueIndex = 0;
 
         for (int i = 0; i < state.valuesSize(); i++) {
-            values[valueIndex++] = toCiValue(opId, state.valueAt(i));
+            Value value = state.valueAt(i);
+            if (value instanceof VirtualObject) {
+                values[valueIndex++] = toCiVirtualObject(opId, (VirtualObject) value, topState);
+            } else {
+                values[valueIndex++] = toCiValue(opId, value);
+            }
         }
 
         for (int i = 0; i < state.locksSize(); i++) {
@@ -2164,6 +2203,9 @@ public final class LinearScan {
                 if (lock.isConstant()) {
                     // lock on class for synchronized static method
                     values[valueIndex++] = lock.asConstant();
+                } else if (lock instanceof VirtualObject) {
+                    // the lock was eliminated along with the allocation of the object
+                    values[valueIndex++] = new CiMonitorValue(toCiVirtualObject(opId, (VirtualObject) lock, topState), null, true);
                 } else {
                     values[valueIndex++] = toCiValue(opId, lock);
                 }
@@ -2203,7 +2245,7 @@ public final class LinearScan {
         if (C1XOptions.TraceLinearScanLevel >= 3) {
             TTY.println("creating debug information at opId %d", opId);
         }
-        return computeFrameForState(opId, state, frameRefMap);
+        return computeFrameForState(opId, state, state, frameRefMap);
     }
 
     private void assignLocations(List<LIRInstruction> instructions, IntervalWalker iw) {
@@ -2296,11 +2338,16 @@ public final class LinearScan {
         computeLocalLiveSets();
         computeGlobalLiveSets();
 
+        if (C1XOptions.PrintTimers) {
+            C1XTimers.LIFETIME_ANALYSIS.stop();
+            C1XTimers.BUILD_INTERVALS.start();
+        }
+
         buildIntervals();
         sortIntervalsBeforeAllocation();
 
         if (C1XOptions.PrintTimers) {
-            C1XTimers.LIFETIME_ANALYSIS.stop();
+            C1XTimers.BUILD_INTERVALS.stop();
             C1XTimers.LINEAR_SCAN.start();
         }
 
@@ -2363,6 +2410,11 @@ public final class LinearScan {
         }
 
         printLir("After control flow optimization", false);
+
+        if (!compilation.compiler.isObserved()) {
+            // the intervals are dead from here on
+            rangePool.release(intervals, intervalsSize);
+        }
     }
 
     void printIntervals(String label) {
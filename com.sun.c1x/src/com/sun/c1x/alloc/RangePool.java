@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.alloc;
+
+import com.sun.c1x.*;
+
+/**
+ * A per-thread free list of {@link Range} objects. The ranges of all intervals are returned to the pool of the
+ * compiling thread once register allocation is complete, so that subsequent compilations on the same thread
+ * allocate (almost) no new ranges.
+ */
+final class RangePool {
+
+    /**
+     * Maximum number of ranges retained by a pool, to bound the memory kept alive after compiling a very large method.
+     */
+    private static final int MAX_POOLED_RANGES = 1 << 16;
+
+    private static final ThreadLocal<RangePool> pools = new ThreadLocal<RangePool>() {
+        @Override
+        protected RangePool initialValue() {
+            return new RangePool();
+        }
+    };
+
+    /**
+     * Gets the pool of the current thread.
+     */
+    static RangePool current() {
+        return pools.get();
+    }
+
+    /**
+     * Head of the free list, linked through {@link Range#next}.
+     */
+    private Range free;
+
+    private int freeCount;
+
+    private RangePool() {
+    }
+
+    /**
+     * Gets a range, reusing a pooled range if one is available.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @param next link to the next range in a linked list
+     */
+    Range allocate(int from, int to, Range next) {
+        Range r = free;
+        if (r == null) {
+            return new Range(from, to, next);
+        }
+        free = r.next;
+        freeCount--;
+        r.from = from;
+        r.to = to;
+        r.next = next;
+        C1XMetrics.LSRARangesReused++;
+        return r;
+    }
+
+    /**
+     * Returns the ranges of a set of intervals to this pool. The intervals must not be used afterwards.
+     *
+     * @param intervals the intervals whose ranges are released; {@code null} entries are ignored
+     * @param size the number of valid entries in {@code intervals}
+     */
+    void release(Interval[] intervals, int size) {
+        for (int i = 0; i < size; i++) {
+            Interval interval = intervals[i];
+            if (interval == null) {
+                continue;
+            }
+            Range r = interval.first();
+            while (r != Range.EndMarker) {
+                if (freeCount >= MAX_POOLED_RANGES) {
+                    return;
+                }
+                Range next = r.next;
+                r.next = free;
+                free = r;
+                freeCount++;
+                r = next;
+            }
+        }
+    }
+}
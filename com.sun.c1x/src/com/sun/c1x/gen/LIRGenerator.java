@@ -434,7 +434,7 @@ public abstract class LIRGenerator extends ValueVisitor {
         if (currentBlock.next() instanceof OsrEntry) {
             // need to free up storage used for OSR entry point
             CiValue osrBuffer = currentBlock.next().operand();
-            callRuntime(CiRuntimeCall.OSRMigrationEnd, null, osrBuffer);
+            callRuntime(CiRuntimeCall.OSRMigrationEnd, stateFor(x, x.stateAfter()), osrBuffer);
             emitXir(xir.genSafepointPoll(site(x)), x, stateFor(x, x.stateAfter()), null, false);
         } else if (x.isSafepointPoll()) {
             emitXir(xir.genSafepointPoll(site(x)), x, stateFor(x, x.stateAfter()), null, false);
@@ -710,6 +710,11 @@ public abstract class LIRGenerator extends ValueVisitor {
         throw FatalError.unimplemented("LIRGenerator.visitGetCpuID");
     }
 
+    @Override
+    public void visitBulkArrayOp(BulkArrayOp i) {
+        throw FatalError.unimplemented("LIRGenerator.visitBulkArrayOp");
+    }
+
     protected CiAddress getAddressForPointerOp(PointerOp x, CiKind kind, CiValue pointer) {
         if (x.displacement() == null) {
             // address is [pointer + offset]
@@ -1013,6 +1018,11 @@ public abstract class LIRGenerator extends ValueVisitor {
         Util.shouldNotReachHere();
     }
 
+    @Override
+    public void visitVirtualObject(VirtualObject i) {
+        Util.shouldNotReachHere();
+    }
+
     @Override
     public void visitReturn(Return x) {
         if (x.kind.isVoid()) {
@@ -1989,6 +1999,12 @@ public abstract class LIRGenerator extends ValueVisitor {
         for (int index = 0; index < state.stackSize(); index++) {
             walkStateValue(state.stackAt(index));
         }
+        state.virtualObjectValuesDo(new ValueClosure() {
+            public Value apply(Value value) {
+                walkStateValue(value);
+                return value;
+            }
+        });
         FrameState s = state;
         int bci = x.bci();
 
@@ -2021,6 +2037,8 @@ public abstract class LIRGenerator extends ValueVisitor {
             if (value instanceof Phi && !value.isIllegal()) {
                 // phi's are special
                 operandForPhi((Phi) value);
+            } else if (value instanceof VirtualObject) {
+                // the values of its fields are walked separately
             } else if (value.operand().isIllegal() && !(value instanceof UnsafeCast)) {
                 // instruction doesn't have an operand yet
                 CiValue operand = makeOperand(value);
@@ -2269,4 +2287,25 @@ public abstract class LIRGenerator extends ValueVisitor {
         lir.cmp(typeEqualityCheck.condition.negate(), leftValue, rightValue);
         emitGuard(typeEqualityCheck);
     }
+
+    @Override
+    public void visitTypeGuard(TypeGuard x) {
+        Value[] hubs = x.hubs();
+        XirSnippet snippet;
+        if (hubs.length == 1) {
+            snippet = xir.genTypeCheck(site(x), toXirArgument(x.object()), toXirArgument(hubs[0]), x.types()[0]);
+        } else {
+            assert hubs.length == 2 : "only monomorphic and bimorphic type guards are supported";
+            snippet = xir.genBimorphicTypeCheck(site(x), toXirArgument(x.object()), toXirArgument(hubs[0]), toXirArgument(hubs[1]));
+        }
+        emitXir(snippet, x, stateFor(x), null, false);
+    }
+
+    @Override
+    public void visitBranchGuard(BranchGuard x) {
+        CiValue left = load(x.x());
+        CiValue right = x.y().isConstant() ? makeOperand(x.y()) : load(x.y());
+        lir.cmp(x.condition.negate(), left, right);
+        emitGuard(x);
+    }
 }
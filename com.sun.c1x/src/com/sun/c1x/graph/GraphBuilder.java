@@ -123,7 +123,19 @@ public final class GraphBuilder {
         // 2. compute the block map and get the entrypoint(s)
         BlockMap blockMap = compilation.getBlockMap(scope.method, compilation.osrBCI);
         BlockBegin stdEntry = blockMap.get(0);
-        BlockBegin osrEntry = compilation.osrBCI < 0 ? null : blockMap.get(compilation.osrBCI);
+        BlockBegin osrEntry = null;
+        if (compilation.osrBCI >= 0) {
+            if (isSynchronized(rootMethod.accessFlags())) {
+                throw new CiBailout("cannot OSR a synchronized method");
+            }
+            if (stdEntry.isParserLoopHeader()) {
+                throw new CiBailout("cannot OSR a method whose entry is a loop header");
+            }
+            // the block loading the locals from the OSR buffer; it is filled when the loop header is reached
+            osrEntry = new BlockBegin(compilation.osrBCI, ir.nextBlockNumber());
+            osrEntry.setOsrEntry(true);
+            ir.osrEntryBlock = osrEntry;
+        }
         pushRootScope(scope, blockMap, startBlock);
         MutableFrameState initialState = stateAtEntry(rootMethod);
         startBlock.mergeOrClone(initialState);
@@ -698,6 +710,19 @@ public final class GraphBuilder {
         BlockBegin tsucc = blockAt(stream().readBranchDest());
         BlockBegin fsucc = blockAt(stream().nextBCI());
         int bci = stream().currentBCI();
+        if (C1XOptions.UseBranchProfile && (x.kind.isInt() || x.kind.isObject())) {
+            double probability = method().branchProbability(bci);
+            if (probability == 0.0d || probability == 1.0d) {
+                // the profile has only seen one direction: continue there and deoptimize if the other one is taken
+                boolean taken = probability == 1.0d;
+                BlockBegin succ = taken ? tsucc : fsucc;
+                append(new BranchGuard(x, taken ? cond : cond.negate(), y, stateBefore));
+                C1XMetrics.ProfiledBranchesPruned++;
+                boolean isSafepointPoll = !scopeData.noSafepointPolls() && succ.bci() <= bci;
+                append(new Goto(succ, stateBefore, isSafepointPoll));
+                return;
+            }
+        }
         boolean isSafepointPoll = !scopeData.noSafepointPolls() && tsucc.bci() <= bci || fsucc.bci() <= bci;
         append(new If(x, cond, false, y, tsucc, fsucc, isSafepointPoll ? stateBefore : null, isSafepointPoll));
     }
@@ -1093,6 +1118,11 @@ public final class GraphBuilder {
                 TTY.println("Could not make leaf type assumption for type " + klass);
             }
 
+            // 4. speculate on the receiver types recorded by the profile
+            if (C1XOptions.UseTypeProfile && tryProfiledInvoke(resolvedTarget, args, cpi, constantPool)) {
+                return;
+            }
+
             if (compilation.runtime.mustInline(resolvedTarget)) {
                 boolean result = tryInline(resolvedTarget, args);
                 assert result : "Inlining must succeed";
@@ -1104,6 +1134,62 @@ public final class GraphBuilder {
         appendInvoke(opcode, target, args, false, cpi, constantPool);
     }
 
+    /**
+     * Tries to devirtualize a call using the receiver types recorded by the profile of the method being parsed.
+     * The call is bound to the method implemented by all the recorded receiver types, behind a guard that
+     * deoptimizes if the receiver has another type, and is then inlined if possible.
+     *
+     * @return {@code true} if the call was devirtualized
+     */
+    private boolean tryProfiledInvoke(RiResolvedMethod target, Value[] args, int cpi, RiConstantPool constantPool) {
+        RiTypeProfile profile = method().typeProfile(bci());
+        if (profile == null || profile.types == null || profile.types.length == 0) {
+            return false;
+        }
+        RiResolvedType[] types = profile.types;
+        if (types.length > C1XOptions.MaximumProfiledReceiverTypes || profile.morphism > types.length) {
+            // megamorphic call site, or more receiver types than the profile could record
+            return false;
+        }
+        RiResolvedMethod impl = null;
+        float probability = 0;
+        for (int i = 0; i < types.length; i++) {
+            RiResolvedMethod typeImpl = types[i].resolveMethodImpl(target);
+            if (typeImpl == null || isAbstract(typeImpl.accessFlags()) || (impl != null && !impl.equals(typeImpl))) {
+                // the receiver types do not share an implementation
+                return false;
+            }
+            impl = typeImpl;
+            probability += profile.probabilities[i];
+        }
+        if (probability < C1XOptions.MinimumReceiverTypeProbability) {
+            return false;
+        }
+
+        // the invoke is re-executed by the deoptimized code if the guard fails
+        for (Value arg : args) {
+            curState.xpush(arg);
+        }
+        FrameState stateBefore = curState.immutableCopy(bci());
+        curState.popArguments(args.length);
+
+        Value receiver = args[0];
+        if (!receiver.isNonNull()) {
+            args[0] = append(new NullCheck(receiver, null));
+        }
+        Value[] hubs = new Value[types.length];
+        for (int i = 0; i < types.length; i++) {
+            hubs[i] = appendConstant(types[i].getEncoding(RiType.Representation.ObjectHub));
+        }
+        append(new TypeGuard(args[0], types, hubs, stateBefore));
+        C1XMetrics.ProfiledCallsDevirtualized++;
+        if (C1XOptions.PrintAssumptions) {
+            TTY.println("Speculative invoke direct because of receiver type profile to " + impl);
+        }
+        invokeDirect(impl, args, types.length == 1 ? types[0] : null, cpi, constantPool);
+        return true;
+    }
+
     private CiKind returnKind(RiMethod target) {
         return target.signature().returnKind(false);
     }
@@ -1856,7 +1942,7 @@ public final class GraphBuilder {
         if (recursiveInlineLevel(target) > C1XOptions.MaximumRecursiveInlineLevel) {
             return cannotInline(target, "recursive inlining too deep");
         }
-        if (target.code().length > scopeData.maxInlineSize()) {
+        if (target.code().length > maxInlineSize()) {
             return cannotInline(target, "inlinee too large for this level");
         }
         if (scopeData.scope.level + 1 > C1XOptions.MaximumInlineLevel) {
@@ -1896,6 +1982,28 @@ public final class GraphBuilder {
         return true;
     }
 
+    /**
+     * Gets the maximum size of a method inlined at the current call site. The size allowed in the current scope
+     * is raised for call sites that the profile shows to be executed frequently, and lowered to the size of
+     * trivial methods for call sites that are rarely executed.
+     */
+    private int maxInlineSize() {
+        int maxInlineSize = scopeData.maxInlineSize();
+        if (C1XOptions.UseCallSiteFrequency) {
+            RiTypeProfile profile = method().typeProfile(bci());
+            int invocations = method().invocationCount();
+            if (profile != null && invocations > 0) {
+                float frequency = (float) profile.count / invocations;
+                if (frequency >= C1XOptions.HotCallSiteFrequency) {
+                    return maxInlineSize * C1XOptions.MaximumHotInlineSize / C1XOptions.MaximumInlineSize;
+                } else if (frequency < C1XOptions.ColdCallSiteFrequency) {
+                    return Math.min(maxInlineSize, C1XOptions.MaximumTrivialSize);
+                }
+            }
+        }
+        return maxInlineSize;
+    }
+
     private boolean cannotInline(RiMethod target, String reason) {
         if (C1XOptions.PrintInliningFailures) {
             TTY.println("Cannot inline " + target.toString() + " into " + compilation.method.toString() + " because of " + reason);
@@ -2102,8 +2210,10 @@ public final class GraphBuilder {
         while ((b = scopeData.removeFromWorkList()) != null) {
             if (!b.wasVisited()) {
                 if (b.isOsrEntry()) {
-                    // OSR not yet supported
-                    Util.shouldNotReachHere();
+                    // connect the OSR entry block to the loop header before parsing the header
+                    // so that the phis of the header receive the values loaded from the OSR buffer
+                    setupOsrEntryBlock(b);
+                    b.setOsrEntry(false);
                 }
                 b.setWasVisited(true);
                 // now parse the block
@@ -2118,6 +2228,51 @@ public final class GraphBuilder {
         }
     }
 
+    /**
+     * Fills the {@linkplain IR#osrEntryBlock OSR entry block} with the loads of the live locals from the OSR buffer
+     * (see {@link OsrEntry}) and makes it jump to the loop header at the OSR bytecode index. The jump must not poll
+     * for a safepoint: the buffer is not a GC root, so no safepoint may be taken before the locals are loaded.
+     *
+     * @param target the loop header at {@link C1XCompilation#osrBCI}
+     */
+    private void setupOsrEntryBlock(BlockBegin target) {
+        FrameState targetState = target.stateBefore();
+        if (!targetState.stackEmpty()) {
+            throw new CiBailout("cannot OSR with non-empty stack");
+        }
+        if (targetState.locksSize() > 0) {
+            throw new CiBailout("cannot OSR with locked monitors");
+        }
+
+        BlockBegin osrEntry = ir.osrEntryBlock;
+        osrEntry.setWasVisited(true);
+        osrEntry.setStateBefore(targetState.copy(target.bci(), false, true, true));
+        curBlock = osrEntry;
+        curState = osrEntry.stateBefore().copy();
+        lastInstr = osrEntry;
+        osrEntry.setNext(null, -1);
+
+        Value buffer = appendWithoutOptimization(new OsrEntry(compilation.target.wordKind), target.bci());
+        for (int i = 0; i < targetState.localsSize(); i++) {
+            Value local = targetState.localAt(i);
+            if (local != null) {
+                CiKind kind = local.kind.stackKind();
+                if (kind == CiKind.Jsr) {
+                    throw new CiBailout("cannot OSR with a live JSR return address");
+                }
+                Value offset = appendWithBCI(new Constant(CiConstant.forInt(i * compilation.target.wordSize)), target.bci(), false);
+                Value load = appendWithoutOptimization(new LoadPointer(compilation.runtime.asRiType(kind), buffer, null, offset, null, false), target.bci());
+                curState.storeLocal(i, load);
+            }
+        }
+
+        Goto end = new Goto(target, null, false);
+        appendWithoutOptimization(end, target.bci());
+        end.setStateAfter(curState.immutableCopy(target.bci()));
+        osrEntry.setEnd(end);
+        target.mergeOrClone(end.stateAfter());
+    }
+
     private void popScope() {
         int maxLocks = scope().maxLocks();
         scopeData = scopeData.parent;
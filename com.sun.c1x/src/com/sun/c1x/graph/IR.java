@@ -135,6 +135,10 @@ public class IR {
             new DiamondEliminator(this);
             observeCompilationEvent("After Diamond elimination");
         }
+        if (C1XOptions.OptEscapeAnalysis) {
+            new EscapeAnalysis(this);
+            observeCompilationEvent("After escape analysis");
+        }
     }
 
     private void computeLinearScanOrder() {
@@ -163,6 +167,11 @@ public class IR {
             new GlobalValueNumberer(this);
             observeCompilationEvent("After global value numbering");
         }
+        if (C1XOptions.OptLoopInvariantCodeMotion || C1XOptions.OptRangeCheckElimination) {
+            makeLinearScanOrder();
+            new LoopOptimizer(this);
+            observeCompilationEvent("After loop optimization");
+        }
         if (C1XOptions.OptDeadCodeElimination2) {
             new LivenessMarker(this).removeDeadCode();
             observeCompilationEvent("After dead code elimination 2");
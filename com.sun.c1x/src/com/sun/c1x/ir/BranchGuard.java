@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.ir;
+
+import static com.sun.c1x.util.Util.*;
+
+import com.oracle.max.criutils.*;
+import com.sun.c1x.value.*;
+import com.sun.cri.ci.*;
+
+/**
+ * Replaces a conditional branch of which the profile has only ever seen one direction. Execution
+ * continues if the condition holds, and is deoptimized otherwise.
+ */
+public final class BranchGuard extends Guard {
+
+    Value x;
+    Value y;
+
+    public BranchGuard(Value x, Condition condition, Value y, FrameState stateBefore) {
+        super(condition, stateBefore);
+        assert x.kind == y.kind && (x.kind == CiKind.Int || x.kind == CiKind.Object);
+        this.x = x;
+        this.y = y;
+    }
+
+    public Value x() {
+        return x;
+    }
+
+    public Value y() {
+        return y;
+    }
+
+    @Override
+    public void inputValuesDo(ValueClosure closure) {
+        x = closure.apply(x);
+        y = closure.apply(y);
+    }
+
+    @Override
+    public void accept(ValueVisitor v) {
+        v.visitBranchGuard(this);
+    }
+
+    @Override
+    public void print(LogStream out) {
+        out.print("branchGuard ").print(valueString(x)).print(' ').print(condition.operator).print(' ').print(valueString(y));
+    }
+}
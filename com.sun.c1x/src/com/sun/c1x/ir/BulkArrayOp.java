@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.ir;
+
+import static com.sun.c1x.util.Util.*;
+
+import com.oracle.max.criutils.*;
+import com.sun.cri.ci.*;
+
+/**
+ * An operation on a block of consecutive elements of one or two primitive arrays, such as a copy or a comparison.
+ * The operation works on the raw bytes of the elements: the arrays must be of the same primitive element kind
+ * and the block must be within the bounds of the arrays, neither of which is checked.
+ * <p>
+ * The indexes and length are word-sized values. The address of an element is computed as the array origin plus
+ * {@link #displacement} plus the index scaled by the element size.
+ */
+public final class BulkArrayOp extends Instruction {
+
+    public enum Op {
+        /**
+         * Copies a block of {@link BulkArrayOp#array1() array1} to {@link BulkArrayOp#array2() array2}.
+         * The blocks may overlap.
+         */
+        COPY,
+
+        /**
+         * Stores a value in each element of a block of {@link BulkArrayOp#array1() array1}. The value is a
+         * long holding the element value repeated over its 8 bytes.
+         */
+        FILL,
+
+        /**
+         * Compares two blocks and produces the index of the first differing element relative to the start of the
+         * blocks, or -1 if the blocks are equal.
+         */
+        MISMATCH,
+
+        /**
+         * Searches a block for an int value and produces the index of the first element equal to the value
+         * relative to the start of the block, or -1 if there is none. Elements of 1 and 2 bytes are sign and zero
+         * extended respectively before the comparison.
+         */
+        INDEX_OF
+    }
+
+    public final Op op;
+
+    /**
+     * The log2 of the size of an element in bytes.
+     */
+    public final int log2ElementSize;
+
+    /**
+     * The offset of element 0 from the origin of an array.
+     */
+    public final int displacement;
+
+    private Value array1;
+    private Value index1;
+    private Value array2;
+    private Value index2;
+    private Value length;
+    private Value value;
+
+    /**
+     * Creates a new bulk array operation.
+     *
+     * @param op the operation
+     * @param log2ElementSize the log2 of the element size
+     * @param displacement the offset of element 0 from the origin of an array
+     * @param array1 the first array
+     * @param index1 the index of the first element of the block in {@code array1}
+     * @param array2 the second array or {@code null} if {@code op} works on one array
+     * @param index2 the index of the first element of the block in {@code array2}, or {@code null}
+     * @param length the number of elements in the block
+     * @param value the value stored or searched, or {@code null} if {@code op} neither stores nor searches a value
+     */
+    public BulkArrayOp(Op op, int log2ElementSize, int displacement, Value array1, Value index1, Value array2, Value index2, Value length, Value value) {
+        super(op == Op.COPY || op == Op.FILL ? CiKind.Void : CiKind.Int);
+        assert log2ElementSize >= 0 && log2ElementSize <= 3;
+        assert op != Op.INDEX_OF || log2ElementSize <= 2;
+        this.op = op;
+        this.log2ElementSize = log2ElementSize;
+        this.displacement = displacement;
+        this.array1 = array1;
+        this.index1 = index1;
+        this.array2 = array2;
+        this.index2 = index2;
+        this.length = length;
+        this.value = value;
+        if (kind.isVoid()) {
+            setFlag(Flag.LiveStore);
+        }
+    }
+
+    public Value array1() {
+        return array1;
+    }
+
+    public Value index1() {
+        return index1;
+    }
+
+    public Value array2() {
+        return array2;
+    }
+
+    public Value index2() {
+        return index2;
+    }
+
+    public Value length() {
+        return length;
+    }
+
+    public Value value() {
+        return value;
+    }
+
+    @Override
+    public void inputValuesDo(ValueClosure closure) {
+        array1 = closure.apply(array1);
+        index1 = closure.apply(index1);
+        if (array2 != null) {
+            array2 = closure.apply(array2);
+            index2 = closure.apply(index2);
+        }
+        length = closure.apply(length);
+        if (value != null) {
+            value = closure.apply(value);
+        }
+    }
+
+    @Override
+    public void accept(ValueVisitor v) {
+        v.visitBulkArrayOp(this);
+    }
+
+    @Override
+    public void print(LogStream out) {
+        out.print("bulk").print(op.name()).print('(').print(valueString(array1)).print('[').print(valueString(index1)).print(']');
+        if (array2 != null) {
+            out.print(", ").print(valueString(array2)).print('[').print(valueString(index2)).print(']');
+        }
+        out.print(", ").print(valueString(length));
+        if (value != null) {
+            out.print(", ").print(valueString(value));
+        }
+        out.print(')');
+    }
+}
@@ -46,6 +46,7 @@ public class DefaultValueVisitor extends ValueVisitor {
     @Override public void visitBase(Base i) { visit(i); }
     @Override public void visitBlockBegin(BlockBegin i) { visit(i); }
     @Override public void visitBoundsCheck(BoundsCheck i) { visit(i); }
+    @Override public void visitBranchGuard(BranchGuard i) { visit(i); }
     @Override public void visitBreakpointTrap(BreakpointTrap i) {visit(i); }
     @Override public void visitCheckCast(CheckCast i) { visit(i); }
     @Override public void visitCompareOp(CompareOp i) { visit(i); }
@@ -95,6 +96,7 @@ public class DefaultValueVisitor extends ValueVisitor {
     @Override public void visitStoreRegister(StoreRegister i) { visit(i); }
     @Override public void visitTableSwitch(TableSwitch i) { visit(i); }
     @Override public void visitTypeEqualityCheck(TypeEqualityCheck i) { visit(i); }
+    @Override public void visitTypeGuard(TypeGuard i) { visit(i); }
     @Override public void visitThrow(Throw i) { visit(i); }
     @Override public void visitUnsafeCast(UnsafeCast i) { visit(i); }
     @Override public void visitUnsafeGetObject(UnsafeGetObject i) { visit(i); }
@@ -107,4 +109,6 @@ public class DefaultValueVisitor extends ValueVisitor {
     @Override public void visitIfBit(IfBit i) { visit(i); }
     @Override public void visitGetTicks(GetTicks i) { visit(i); }
     @Override public void visitGetCpuID(GetCpuID i) { visit(i); }
+    @Override public void visitBulkArrayOp(BulkArrayOp i) { visit(i); }
+    @Override public void visitVirtualObject(VirtualObject i) { visit(i); }
 }
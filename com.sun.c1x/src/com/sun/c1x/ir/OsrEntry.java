@@ -26,16 +26,20 @@ import com.oracle.max.criutils.*;
 import com.sun.cri.ci.*;
 
 /**
- * The {@code OsrEntry} instruction represents the buffer for an OSR.
+ * The {@code OsrEntry} instruction represents the buffer for an OSR. The buffer holds one word per local
+ * variable slot of the method being replaced on the stack, the value of local {@code i} being stored at
+ * offset {@code i * wordSize}. A category 2 value occupies the word of its first slot.
  */
 public final class OsrEntry extends Instruction {
 
     /**
      * Constructs a new OsrEntry instruction.
+     *
+     * @param wordKind the kind of the pointer to the OSR buffer
      */
-    public OsrEntry() {
-        // TODO: this should be a CiKind.Word
-        super(CiKind.Jsr);
+    public OsrEntry(CiKind wordKind) {
+        super(wordKind);
+        setFlag(Flag.NonNull);
     }
 
     @Override
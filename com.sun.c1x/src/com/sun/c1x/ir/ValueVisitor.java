@@ -35,6 +35,7 @@ public abstract class ValueVisitor {
     public abstract void visitArrayLength(ArrayLength i);
     public abstract void visitBase(Base i);
     public abstract void visitBoundsCheck(BoundsCheck boundsCheck);
+    public abstract void visitBranchGuard(BranchGuard i);
     public abstract void visitBlockBegin(BlockBegin i);
     public abstract void visitBreakpointTrap(BreakpointTrap i);
     public abstract void visitCheckCast(CheckCast i);
@@ -86,6 +87,7 @@ public abstract class ValueVisitor {
     public abstract void visitTableSwitch(TableSwitch i);
     public abstract void visitThrow(Throw i);
     public abstract void visitTypeEqualityCheck(TypeEqualityCheck typeEqualityCheck);
+    public abstract void visitTypeGuard(TypeGuard i);
     public abstract void visitUnsafeCast(UnsafeCast i);
     public abstract void visitUnsafeGetObject(UnsafeGetObject i);
     public abstract void visitUnsafeGetRaw(UnsafeGetRaw i);
@@ -97,4 +99,6 @@ public abstract class ValueVisitor {
     public abstract void visitIfBit(IfBit i);
     public abstract void visitGetTicks(GetTicks i);
     public abstract void visitGetCpuID(GetCpuID i);
+    public abstract void visitBulkArrayOp(BulkArrayOp i);
+    public abstract void visitVirtualObject(VirtualObject i);
 }
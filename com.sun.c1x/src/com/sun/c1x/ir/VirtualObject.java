@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.ir;
+
+import java.util.*;
+
+import com.oracle.max.criutils.*;
+import com.sun.cri.ci.*;
+import com.sun.cri.ri.*;
+
+/**
+ * The {@code VirtualObject} value stands for an object whose allocation was removed by {@linkplain
+ * com.sun.c1x.opt.EscapeAnalysis escape analysis}. It only appears in {@linkplain com.sun.c1x.value.FrameState frame
+ * states}, each of which records the values of the object's fields at its position so that the object can be
+ * rematerialized on deoptimization.
+ */
+public final class VirtualObject extends Value {
+
+    private final RiResolvedType type;
+    private final RiResolvedField[] fields;
+    private final int objectId;
+
+    /**
+     * Creates a new virtual object.
+     *
+     * @param type the class of the object
+     * @param fields the instance fields of the object, as returned by {@link #fieldsOf(RiResolvedType)}
+     * @param objectId the identifier of this object, unique within a compilation
+     */
+    public VirtualObject(RiResolvedType type, RiResolvedField[] fields, int objectId) {
+        super(CiKind.Object);
+        this.type = type;
+        this.fields = fields;
+        this.objectId = objectId;
+        setFlag(Flag.NonNull);
+    }
+
+    @Override
+    public BlockBegin block() {
+        return null;
+    }
+
+    /**
+     * Gets the class of the object.
+     */
+    public RiResolvedType type() {
+        return type;
+    }
+
+    /**
+     * Gets the instance fields of the object, in the order in which their values are recorded in frame states.
+     */
+    public RiResolvedField[] fields() {
+        return fields;
+    }
+
+    /**
+     * Gets the identifier of this object, unique within a compilation.
+     */
+    public int objectId() {
+        return objectId;
+    }
+
+    @Override
+    public RiResolvedType exactType() {
+        return type;
+    }
+
+    @Override
+    public RiResolvedType declaredType() {
+        return type;
+    }
+
+    /**
+     * Gets all the instance fields of a class, including those declared by its super classes. The fields
+     * of a super class come before those of its subclasses.
+     */
+    public static RiResolvedField[] fieldsOf(RiResolvedType type) {
+        ArrayList<RiResolvedType> hierarchy = new ArrayList<RiResolvedType>();
+        for (RiResolvedType t = type; t != null; t = t.superType()) {
+            hierarchy.add(t);
+        }
+        ArrayList<RiResolvedField> fields = new ArrayList<RiResolvedField>();
+        for (int i = hierarchy.size() - 1; i >= 0; i--) {
+            fields.addAll(Arrays.asList(hierarchy.get(i).declaredFields()));
+        }
+        return fields.toArray(new RiResolvedField[fields.size()]);
+    }
+
+    @Override
+    public void accept(ValueVisitor v) {
+        v.visitVirtualObject(this);
+    }
+
+    @Override
+    public void print(LogStream out) {
+        out.print("virtual object ").print(objectId).print(' ').print(CiUtil.toJavaName(type));
+    }
+}
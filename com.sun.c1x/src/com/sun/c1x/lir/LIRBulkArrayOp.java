@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.lir;
+
+import com.sun.cri.ci.*;
+
+/**
+ * The LIR form of a {@link com.sun.c1x.ir.BulkArrayOp}. The addresses and the length in bytes are computed
+ * before the instruction into registers that the instruction updates as it works through the block.
+ */
+public class LIRBulkArrayOp extends LIRInstruction {
+
+    /**
+     * The number of general purpose and of floating point (vector) temporary registers.
+     */
+    public static final int GENERAL_TEMPS = 3;
+    public static final int VECTOR_TEMPS = 2;
+
+    /**
+     * The log2 of the size of an element in bytes.
+     */
+    public final int log2ElementSize;
+
+    /**
+     * Constructs a new bulk array instruction.
+     *
+     * @param opcode one of {@link LIROpcode#BulkCopy}, {@link LIROpcode#BulkFill}, {@link LIROpcode#BulkMismatch}
+     *            or {@link LIROpcode#BulkIndexOf}
+     * @param result the result operand or {@link CiValue#IllegalValue}
+     * @param log2ElementSize the log2 of the element size
+     * @param value the value stored or searched, or {@link CiValue#IllegalValue}
+     * @param address1 the address of the first element of the first block, which is updated by the instruction
+     * @param address2 the address of the first element of the second block or {@link CiValue#IllegalValue},
+     *            which is updated by the instruction
+     * @param length the number of elements, which is updated by the instruction
+     * @param temps {@link #GENERAL_TEMPS} general purpose and {@link #VECTOR_TEMPS} vector temporaries, of which the
+     *            unused ones are {@link CiValue#IllegalValue}
+     */
+    public LIRBulkArrayOp(LIROpcode opcode, CiValue result, int log2ElementSize, CiValue value, CiValue address1, CiValue address2, CiValue length, CiValue... temps) {
+        super(opcode, result, null, false, 3, GENERAL_TEMPS + VECTOR_TEMPS, operands(value, address1, address2, length, temps));
+        this.log2ElementSize = log2ElementSize;
+    }
+
+    private static CiValue[] operands(CiValue value, CiValue address1, CiValue address2, CiValue length, CiValue[] temps) {
+        assert temps.length == GENERAL_TEMPS + VECTOR_TEMPS;
+        CiValue[] operands = new CiValue[4 + temps.length];
+        operands[0] = value;
+        operands[1] = address1;
+        operands[2] = address2;
+        operands[3] = length;
+        System.arraycopy(temps, 0, operands, 4, temps.length);
+        return operands;
+    }
+
+    public CiValue value() {
+        return operand(0);
+    }
+
+    public CiValue address1() {
+        return operand(1);
+    }
+
+    public CiValue address2() {
+        return operand(2);
+    }
+
+    public CiValue length() {
+        return operand(3);
+    }
+
+    /**
+     * Gets the {@code index}'th general purpose temporary.
+     */
+    public CiValue generalTemp(int index) {
+        assert index < GENERAL_TEMPS;
+        return operand(4 + index);
+    }
+
+    /**
+     * Gets the {@code index}'th vector temporary.
+     */
+    public CiValue vectorTemp(int index) {
+        assert index < VECTOR_TEMPS;
+        return operand(4 + GENERAL_TEMPS + index);
+    }
+
+    @Override
+    public void emitCode(LIRAssembler masm) {
+        masm.emitBulkArrayOp(this);
+    }
+}
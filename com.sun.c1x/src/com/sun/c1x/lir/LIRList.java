@@ -408,6 +408,10 @@ public final class LIRList {
         append(new LIRCompareAndSwap(LIROpcode.CasInt, addr, cmpValue, newValue));
     }
 
+    public void bulkArrayOp(LIROpcode opcode, CiValue result, int log2ElementSize, CiValue value, CiValue address1, CiValue address2, CiValue length, CiValue... temps) {
+        append(new LIRBulkArrayOp(opcode, result, log2ElementSize, value, address1, address2, length, temps));
+    }
+
     public void store(CiValue src, CiAddress dst, LIRDebugInfo info) {
         append(new LIROp1(LIROpcode.Move, src, dst, dst.kind, info));
     }
@@ -105,6 +105,10 @@ public enum LIROpcode {
     CasLong,
     CasObj,
     CasInt,
+    BulkCopy,
+    BulkFill,
+    BulkMismatch,
+    BulkIndexOf,
     Xir,
     // Checkstyle: on
 }
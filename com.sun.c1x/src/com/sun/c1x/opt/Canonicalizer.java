@@ -1513,6 +1513,24 @@ public class Canonicalizer extends DefaultValueVisitor {
         }
     }
 
+    @Override
+    public void visitTypeGuard(TypeGuard i) {
+        RiResolvedType exact = i.object().exactType();
+        if (exact != null && Arrays.asList(i.types()).contains(exact)) {
+            setCanonical(null);
+        }
+    }
+
+    @Override
+    public void visitBranchGuard(BranchGuard i) {
+        if (i.x().isConstant() && i.y().isConstant()) {
+            Boolean result = i.condition.foldCondition(i.x().asConstant(), i.y().asConstant(), runtime);
+            if (result == Boolean.TRUE) {
+                setCanonical(null);
+            }
+        }
+    }
+
     @Override
     public void visitBoundsCheck(BoundsCheck b) {
         Value index = b.index();
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.opt;
+
+import java.util.*;
+
+import com.sun.c1x.*;
+import com.sun.c1x.graph.*;
+import com.sun.c1x.ir.*;
+import com.sun.c1x.value.*;
+import com.sun.c1x.value.FrameState.PhiProcedure;
+import com.sun.cri.ci.*;
+import com.sun.cri.ri.*;
+
+/**
+ * Removes the allocation of objects that do not escape the compiled method, replacing their fields by
+ * the values stored into them, and eliminates the locking of these objects. This runs after inlining
+ * by the {@link GraphBuilder} so that objects passed to inlined methods can be replaced as well.
+ *
+ * An object allocated by a {@link NewInstance} is replaced if it is only used as the object of field
+ * accesses and monitor operations and in frame states, and if all its field accesses are in the block of
+ * the allocation. The object is replaced by a {@link VirtualObject} in all frame states, each of which
+ * records the values of the fields at its position so that the object can be rematerialized on deoptimization.
+ */
+public class EscapeAnalysis {
+
+    final IR ir;
+    final InstructionSubstituter subst;
+    final Set<Instruction> removed = new HashSet<Instruction>();
+    int nextObjectId;
+
+    /**
+     * An allocation that may be replaced.
+     */
+    static final class Candidate {
+        final NewInstance allocation;
+        final BlockBegin block;
+        final RiResolvedField[] fields;
+        final List<AccessMonitor> monitors = new ArrayList<AccessMonitor>();
+        boolean escapes;
+
+        Candidate(NewInstance allocation, BlockBegin block, RiResolvedField[] fields) {
+            this.allocation = allocation;
+            this.block = block;
+            this.fields = fields;
+        }
+
+        int fieldIndex(AccessField access) {
+            if (access.isStatic() || !access.isLoaded() || access.isVolatile()) {
+                return -1;
+            }
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == access.field()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Creates a new escape analysis instance and performs it on the IR.
+     *
+     * @param ir the IR on which to perform the analysis
+     */
+    public EscapeAnalysis(IR ir) {
+        this.ir = ir;
+        this.subst = new InstructionSubstituter(ir);
+
+        final List<BlockBegin> blocks = new ArrayList<BlockBegin>();
+        ir.startBlock.iteratePreOrder(new BlockClosure() {
+            public void apply(BlockBegin block) {
+                blocks.add(block);
+            }
+        });
+
+        Map<Value, Candidate> candidates = findCandidates(blocks);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        findEscapes(blocks, candidates);
+
+        for (Candidate c : candidates.values()) {
+            if (!c.escapes) {
+                replace(c);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            for (BlockBegin block : blocks) {
+                Instruction prev = block;
+                for (Instruction i = block.next(); i != null; i = i.next()) {
+                    if (removed.contains(i)) {
+                        prev.resetNext(i.next());
+                    } else {
+                        prev = i;
+                    }
+                }
+            }
+        }
+        subst.finish();
+    }
+
+    private static Map<Value, Candidate> findCandidates(List<BlockBegin> blocks) {
+        Map<Value, Candidate> candidates = new LinkedHashMap<Value, Candidate>();
+        for (BlockBegin block : blocks) {
+            for (Instruction i = block.next(); i != null; i = i.next()) {
+                if (i instanceof NewInstance) {
+                    RiResolvedType type = ((NewInstance) i).exactType();
+                    // the allocation must neither initialize the class nor register a finalizer
+                    if (type != null && type.isInstanceClass() && type.isInitialized() && !type.hasFinalizer()) {
+                        RiResolvedField[] fields = VirtualObject.fieldsOf(type);
+                        if (fields.length <= C1XOptions.MaximumScalarReplacedFields) {
+                            candidates.put(i, new Candidate((NewInstance) i, block, fields));
+                        }
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Marks the candidates that are used as anything else than the object of a field access in their block
+     * or of a monitor operation.
+     */
+    private static void findEscapes(List<BlockBegin> blocks, final Map<Value, Candidate> candidates) {
+        for (final BlockBegin block : blocks) {
+            if (block.stateBefore() != null) {
+                block.stateBefore().forEachPhi(block, new PhiProcedure() {
+                    public boolean doPhi(Phi phi) {
+                        for (int j = 0; j < phi.inputCount(); j++) {
+                            Candidate c = candidates.get(phi.inputAt(j));
+                            if (c != null) {
+                                c.escapes = true;
+                            }
+                        }
+                        return true;
+                    }
+                });
+            }
+            for (Instruction i = block.next(); i != null; i = i.next()) {
+                final Instruction user = i;
+                i.inputValuesDo(new ValueClosure() {
+                    public Value apply(Value input) {
+                        Candidate c = candidates.get(input);
+                        if (c != null && !isReplaceableUse(c, user, block)) {
+                            c.escapes = true;
+                        }
+                        return input;
+                    }
+                });
+            }
+        }
+    }
+
+    private static boolean isReplaceableUse(Candidate c, Instruction user, BlockBegin block) {
+        NewInstance x = c.allocation;
+        if (user instanceof LoadField) {
+            LoadField load = (LoadField) user;
+            return load.object() == x && block == c.block && c.fieldIndex(load) >= 0;
+        }
+        if (user instanceof StoreField) {
+            StoreField store = (StoreField) user;
+            return store.object() == x && store.value() != x && block == c.block && c.fieldIndex(store) >= 0;
+        }
+        if (user instanceof MonitorEnter || user instanceof MonitorExit) {
+            AccessMonitor monitor = (AccessMonitor) user;
+            if (monitor.object() == x && monitor.lockAddress() != x) {
+                if (!c.monitors.contains(monitor)) {
+                    c.monitors.add(monitor);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean references(FrameState state, final Value x) {
+        final boolean[] found = {false};
+        FrameState.valuesDo(state, new ValueClosure() {
+            public Value apply(Value v) {
+                if (v == x) {
+                    found[0] = true;
+                }
+                return v;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Records the field values of an object for a frame state.
+     *
+     * @return {@code false} if the state was already assigned different field values
+     */
+    private static boolean record(Map<FrameState, Value[]> plan, FrameState state, Value x, Value[] fieldValues) {
+        if (state == null || !references(state, x)) {
+            return true;
+        }
+        Value[] existing = plan.get(state);
+        if (existing != null) {
+            return Arrays.equals(existing, fieldValues);
+        }
+        plan.put(state, fieldValues);
+        return true;
+    }
+
+    /**
+     * Records the field values of an object for all the frame states of the blocks reachable from some
+     * blocks, without going through the block of the allocation.
+     */
+    private static boolean recordReachable(Map<FrameState, Value[]> plan, Candidate c, List<BlockBegin> roots, Value[] fieldValues) {
+        Set<BlockBegin> visited = new HashSet<BlockBegin>();
+        LinkedList<BlockBegin> worklist = new LinkedList<BlockBegin>();
+        for (BlockBegin root : roots) {
+            if (root != c.block && visited.add(root)) {
+                worklist.add(root);
+            }
+        }
+        BlockBegin block;
+        while ((block = worklist.poll()) != null) {
+            if (!record(plan, block.stateBefore(), c.allocation, fieldValues)) {
+                return false;
+            }
+            for (Instruction i = block.next(); i != null; i = i.next()) {
+                if (!record(plan, i.stateBefore(), c.allocation, fieldValues) || !record(plan, i.stateAfter(), c.allocation, fieldValues)) {
+                    return false;
+                }
+            }
+            for (BlockBegin succ : block.end().successors()) {
+                if (succ != c.block && visited.add(succ)) {
+                    worklist.add(succ);
+                }
+            }
+            for (BlockBegin handler : block.exceptionHandlerBlocks()) {
+                if (handler != c.block && visited.add(handler)) {
+                    worklist.add(handler);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces a non-escaping allocation by the values of its fields.
+     */
+    private void replace(Candidate c) {
+        NewInstance x = c.allocation;
+        Constant[] defaults = new Constant[c.fields.length];
+        Value[] current = new Value[c.fields.length];
+        for (int f = 0; f < current.length; f++) {
+            defaults[f] = new Constant(CiConstant.defaultValue(c.fields[f].kind(true).stackKind()));
+            current[f] = defaults[f];
+        }
+
+        Map<FrameState, Value[]> plan = new IdentityHashMap<FrameState, Value[]>();
+        Map<LoadField, Value> loads = new HashMap<LoadField, Value>();
+        List<StoreField> stores = new ArrayList<StoreField>();
+        Value[] handlerValues = null;
+        boolean handlerValuesVary = false;
+
+        for (Instruction i = x.next(); i != null; i = i.next()) {
+            Value[] snapshot = current.clone();
+            if (!record(plan, i.stateBefore(), x, snapshot) || !record(plan, i.stateAfter(), x, snapshot)) {
+                return;
+            }
+            if (!i.exceptionHandlers().isEmpty()) {
+                if (handlerValues == null) {
+                    handlerValues = snapshot;
+                } else if (!Arrays.equals(handlerValues, snapshot)) {
+                    handlerValuesVary = true;
+                }
+            }
+            if (i instanceof StoreField && ((StoreField) i).object() == x) {
+                StoreField store = (StoreField) i;
+                current[c.fieldIndex(store)] = store.value();
+                stores.add(store);
+            } else if (i instanceof LoadField && ((LoadField) i).object() == x) {
+                LoadField load = (LoadField) i;
+                loads.put(load, current[c.fieldIndex(load)]);
+            }
+        }
+
+        // states after the block see the final field values, those of the exception handlers the values
+        // at the instructions that can throw
+        if (!recordReachable(plan, c, c.block.end().successors(), current.clone())) {
+            return;
+        }
+        Map<FrameState, Value[]> handlerPlan = new IdentityHashMap<FrameState, Value[]>();
+        if (handlerValues != null && !recordReachable(handlerPlan, c, c.block.exceptionHandlerBlocks(), handlerValues)) {
+            return;
+        }
+        if (!handlerPlan.isEmpty() && handlerValuesVary) {
+            return;
+        }
+        for (Map.Entry<FrameState, Value[]> e : handlerPlan.entrySet()) {
+            if (!record(plan, e.getKey(), x, e.getValue())) {
+                return;
+            }
+        }
+
+        // commit the replacement
+        VirtualObject object = new VirtualObject(x.exactType(), c.fields, nextObjectId++);
+        for (Map.Entry<FrameState, Value[]> e : plan.entrySet()) {
+            e.getKey().setVirtualObjectValues(object, e.getValue().clone());
+        }
+        Instruction last = x;
+        for (Constant d : defaults) {
+            Instruction next = last.next();
+            last.setNext(d, x.bci());
+            d.resetNext(next);
+            last = d;
+        }
+        for (Map.Entry<LoadField, Value> e : loads.entrySet()) {
+            subst.setSubst(e.getKey(), e.getValue());
+        }
+        removed.addAll(stores);
+        for (AccessMonitor monitor : c.monitors) {
+            removed.add(monitor);
+            if (monitor instanceof MonitorEnter) {
+                C1XMetrics.EliminatedLocks++;
+            }
+        }
+        subst.setSubst(x, object);
+        C1XMetrics.ScalarReplacedAllocations++;
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2009, 2011, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.c1x.opt;
+
+import java.util.*;
+
+import com.sun.c1x.*;
+import com.sun.c1x.graph.*;
+import com.sun.c1x.ir.*;
+import com.sun.cri.bytecode.*;
+import com.sun.cri.ci.*;
+import com.sun.cri.ri.*;
+
+/**
+ * Performs loop invariant code motion and range check elimination on the natural loops of the IR.
+ * It requires the {@linkplain IR#linearScanOrder() linear scan order} and the dominators of the blocks.
+ *
+ * Invariant instructions are moved to the preheader of a loop, i.e. the only predecessor of the loop header
+ * outside the loop, provided it ends with a {@link Goto}. Only instructions that cannot trap and have no
+ * side effects are moved: pure arithmetic and logic, and non-volatile field loads or array lengths of objects known
+ * to be non-null, as long as the loop does not write the field nor contain a call or any other memory side effect.
+ * Loops are processed innermost first so that an instruction can move out of a loop nest in several steps.
+ *
+ * Bounds checks are removed from the array accesses indexed by an induction variable whose range is
+ * guarded by the loop header, in the two shapes produced by the usual counted loops:
+ * <pre>
+ *     for (int i = c; i &lt; a.length; i++) { ... a[i] ... }     // c &gt;= 0
+ *     for (int i = a.length - c; i &gt;= 0; i -= d) { ... a[i] ... }  // c, d &gt; 0, a defined outside the loop
+ * </pre>
+ */
+public class LoopOptimizer {
+
+    final IR ir;
+
+    /**
+     * Describes a natural loop.
+     */
+    static final class Loop {
+        final BlockBegin header;
+        final BlockBegin preheader;
+        final Set<BlockBegin> blocks;
+        final Set<Instruction> instructions;
+
+        Loop(BlockBegin header, BlockBegin preheader, Set<BlockBegin> blocks) {
+            this.header = header;
+            this.preheader = preheader;
+            this.blocks = blocks;
+            this.instructions = new HashSet<Instruction>();
+            for (BlockBegin block : blocks) {
+                for (Instruction x = block.next(); x != null; x = x.next()) {
+                    instructions.add(x);
+                }
+            }
+        }
+
+        /**
+         * Determines if a value is computed in this loop.
+         */
+        boolean contains(Value v) {
+            if (v instanceof Phi) {
+                return blocks.contains(((Phi) v).block());
+            }
+            return instructions.contains(v);
+        }
+    }
+
+    /**
+     * Creates a new loop optimizer and performs it on the IR.
+     *
+     * @param ir the IR on which to perform the optimizations
+     */
+    public LoopOptimizer(IR ir) {
+        this.ir = ir;
+        List<Loop> loops = findLoops(ir.linearScanOrder());
+        for (Loop loop : loops) {
+            if (C1XOptions.OptLoopInvariantCodeMotion && loop.preheader != null) {
+                hoistInvariants(loop);
+            }
+            if (C1XOptions.OptRangeCheckElimination) {
+                eliminateRangeChecks(loop);
+            }
+        }
+    }
+
+    private static boolean dominates(BlockBegin dominator, BlockBegin block) {
+        for (BlockBegin b = block; b != null; b = b.dominator()) {
+            if (b == dominator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the natural loops of the IR, innermost loops first. Loops containing an exception handler entry
+     * are ignored as their body cannot be completely recovered from the predecessor lists.
+     */
+    private List<Loop> findLoops(List<BlockBegin> blocks) {
+        List<Loop> loops = new ArrayList<Loop>();
+        for (BlockBegin header : blocks) {
+            if (!header.isLinearScanLoopHeader()) {
+                continue;
+            }
+            Set<BlockBegin> body = new HashSet<BlockBegin>();
+            body.add(header);
+            LinkedList<BlockBegin> worklist = new LinkedList<BlockBegin>();
+            BlockBegin preheader = null;
+            int entries = 0;
+            for (BlockBegin pred : header.predecessors()) {
+                if (dominates(header, pred)) {
+                    if (body.add(pred)) {
+                        worklist.add(pred);
+                    }
+                } else {
+                    preheader = pred;
+                    entries++;
+                }
+            }
+            boolean valid = true;
+            BlockBegin block;
+            while ((block = worklist.poll()) != null) {
+                if (block.isExceptionEntry()) {
+                    valid = false;
+                    break;
+                }
+                for (BlockBegin pred : block.predecessors()) {
+                    if (body.add(pred)) {
+                        worklist.add(pred);
+                    }
+                }
+            }
+            if (!valid) {
+                continue;
+            }
+            if (entries != 1 || !(preheader.end() instanceof Goto)) {
+                preheader = null;
+            }
+            loops.add(new Loop(header, preheader, body));
+        }
+        Collections.sort(loops, new Comparator<Loop>() {
+            public int compare(Loop o1, Loop o2) {
+                return o2.header.loopDepth() - o1.header.loopDepth();
+            }
+        });
+        return loops;
+    }
+
+    private void hoistInvariants(Loop loop) {
+        boolean killsAllFields = false;
+        Set<RiField> storedFields = new HashSet<RiField>();
+        for (BlockBegin block : loop.blocks) {
+            for (Instruction x = block.next(); x != null; x = x.next()) {
+                if (x instanceof StoreField) {
+                    StoreField store = (StoreField) x;
+                    if (store.isVolatile() || !store.isLoaded()) {
+                        killsAllFields = true;
+                    } else {
+                        storedFields.add(store.field());
+                    }
+                } else if (x instanceof LoadField) {
+                    LoadField load = (LoadField) x;
+                    if (load.isVolatile() || !load.isLoaded()) {
+                        killsAllFields = true;
+                    }
+                } else if (hasMemorySideEffect(x)) {
+                    killsAllFields = true;
+                }
+            }
+        }
+
+        // find the invariant instructions, visiting definitions before uses
+        final Set<Instruction> invariants = new HashSet<Instruction>();
+        for (BlockBegin block : ir.linearScanOrder()) {
+            if (!loop.blocks.contains(block)) {
+                continue;
+            }
+            for (Instruction x = block.next(); x != null; x = x.next()) {
+                if (isHoistable(x, killsAllFields, storedFields) && hasInvariantInputs(x, loop, invariants)) {
+                    invariants.add(x);
+                }
+            }
+        }
+        if (invariants.isEmpty()) {
+            return;
+        }
+
+        // constants are only moved along with the instructions using them, as they may need a register
+        final Set<Instruction> moved = new HashSet<Instruction>(invariants);
+        for (Instruction x : invariants) {
+            x.inputValuesDo(new ValueClosure() {
+                public Value apply(Value i) {
+                    if (i instanceof Constant && loop.contains(i)) {
+                        moved.add((Constant) i);
+                    }
+                    return i;
+                }
+            });
+        }
+
+        // move them to the end of the preheader, keeping their order
+        BlockBegin preheader = loop.preheader;
+        BlockEnd preheaderEnd = preheader.end();
+        Instruction last = preheaderEnd.prev(preheader);
+        for (BlockBegin block : ir.linearScanOrder()) {
+            if (!loop.blocks.contains(block)) {
+                continue;
+            }
+            Instruction prev = block;
+            Instruction x = block.next();
+            while (x != null) {
+                Instruction next = x.next();
+                if (moved.contains(x)) {
+                    prev.resetNext(next);
+                    loop.instructions.remove(x);
+                    last.resetNext(x);
+                    x.resetNext(preheaderEnd);
+                    last = x;
+                    if (invariants.contains(x)) {
+                        C1XMetrics.LoopInvariantsHoisted++;
+                    }
+                } else {
+                    prev = x;
+                }
+                x = next;
+            }
+        }
+    }
+
+    private static boolean hasMemorySideEffect(Instruction x) {
+        return x instanceof Invoke || x instanceof InvokeHandle || x instanceof LinkTo || x instanceof Intrinsic ||
+               x instanceof NativeCall || x instanceof AccessMonitor || x instanceof MemoryBarrier || x instanceof ArrayCopy ||
+               x instanceof StorePointer || x instanceof CompareAndSwap || x instanceof UnsafePutObject || x instanceof UnsafePutRaw;
+    }
+
+    private static boolean isHoistable(Instruction x, boolean killsAllFields, Set<RiField> storedFields) {
+        if (x instanceof BlockEnd || x instanceof Constant || x.canTrap() || x.stateBefore() != null) {
+            return false;
+        }
+        if (x instanceof LoadField) {
+            LoadField load = (LoadField) x;
+            return !killsAllFields && !load.isVolatile() && load.object().isNonNull() && !storedFields.contains(load.field());
+        }
+        if (x instanceof ArrayLength) {
+            return ((ArrayLength) x).array().isNonNull();
+        }
+        // anything that is value numbered and cannot trap is a pure function of its inputs
+        return x.valueNumber() != 0;
+    }
+
+    private static boolean hasInvariantInputs(Instruction x, final Loop loop, final Set<Instruction> invariants) {
+        final boolean[] invariant = {true};
+        x.inputValuesDo(new ValueClosure() {
+            public Value apply(Value i) {
+                if (loop.contains(i) && !(i instanceof Constant) && !invariants.contains(i)) {
+                    invariant[0] = false;
+                }
+                return i;
+            }
+        });
+        return invariant[0];
+    }
+
+    /**
+     * Gets the constant integer value of a value.
+     *
+     * @return {@code null} if {@code v} is not an integer constant
+     */
+    private static Integer intConstant(Value v) {
+        if (v.isConstant() && v.kind == CiKind.Int) {
+            return v.asConstant().asInt();
+        }
+        return null;
+    }
+
+    /**
+     * Gets the constant added to a base value to obtain another value.
+     *
+     * @return {@code c} if {@code v} is of the form {@code base + c} or {@code base - (-c)}, {@code null} otherwise
+     */
+    private static Integer increment(Value v, Value base) {
+        if (v instanceof ArithmeticOp) {
+            ArithmeticOp op = (ArithmeticOp) v;
+            if (op.x() == base) {
+                Integer c = intConstant(op.y());
+                if (c != null && op.opcode == Bytecodes.IADD) {
+                    return c;
+                }
+                if (c != null && op.opcode == Bytecodes.ISUB && c != Integer.MIN_VALUE) {
+                    return -c;
+                }
+            } else if (op.y() == base && op.opcode == Bytecodes.IADD) {
+                return intConstant(op.x());
+            }
+        }
+        return null;
+    }
+
+    private void eliminateRangeChecks(Loop loop) {
+        BlockBegin header = loop.header;
+        if (!(header.end() instanceof If)) {
+            return;
+        }
+        If test = (If) header.end();
+        BlockBegin inside;
+        Condition cond;
+        if (loop.blocks.contains(test.trueSuccessor()) && !loop.blocks.contains(test.falseSuccessor())) {
+            inside = test.trueSuccessor();
+            cond = test.condition();
+        } else if (loop.blocks.contains(test.falseSuccessor()) && !loop.blocks.contains(test.trueSuccessor())) {
+            inside = test.falseSuccessor();
+            cond = test.condition().negate();
+        } else {
+            return;
+        }
+        if (inside.numberOfPreds() != 1) {
+            return;
+        }
+
+        // normalize the test to 'phi cond bound'
+        Value x = test.x();
+        Value y = test.y();
+        if (!(x instanceof Phi) || x.block() != header) {
+            Value tmp = x;
+            x = y;
+            y = tmp;
+            cond = cond.mirror();
+        }
+        if (!(x instanceof Phi) || x.block() != header || x.kind != CiKind.Int) {
+            return;
+        }
+        Phi phi = (Phi) x;
+
+        Value array = null;
+        Value init = null;
+        int step = 0;
+        for (int i = 0; i < phi.inputCount(); i++) {
+            BlockBegin pred = header.predecessors().get(i);
+            Value input = phi.inputAt(i);
+            if (loop.blocks.contains(pred)) {
+                Integer inc = increment(input, phi);
+                if (inc == null || (step != 0 && step != inc)) {
+                    return;
+                }
+                step = inc;
+            } else if (init == null || init == input) {
+                init = input;
+            } else {
+                return;
+            }
+        }
+        if (init == null || step == 0) {
+            return;
+        }
+
+        if (step == 1 && cond == Condition.LT && y instanceof ArrayLength) {
+            // for (i = c; i < a.length; i++) with c >= 0: no overflow as i < a.length before each increment
+            Integer c = intConstant(init);
+            if (c == null || c < 0) {
+                return;
+            }
+            array = ((ArrayLength) y).array();
+        } else if (step < 0 && cond == Condition.GE && Integer.valueOf(0).equals(intConstant(y))) {
+            // for (i = a.length - c; i >= 0; i -= d) with c, d > 0: i never exceeds its initial value
+            if (!(init instanceof ArithmeticOp) || !(((ArithmeticOp) init).x() instanceof ArrayLength)) {
+                return;
+            }
+            ArrayLength length = (ArrayLength) ((ArithmeticOp) init).x();
+            Integer c = increment(init, length);
+            if (c == null || c >= 0) {
+                return;
+            }
+            array = length.array();
+            if (loop.contains(array)) {
+                return;
+            }
+        } else {
+            return;
+        }
+
+        for (BlockBegin block : loop.blocks) {
+            if (!dominates(inside, block)) {
+                continue;
+            }
+            for (Instruction i = block.next(); i != null; i = i.next()) {
+                if (i instanceof AccessIndexed) {
+                    AccessIndexed access = (AccessIndexed) i;
+                    if (access.index() == phi && access.array() == array && access.needsBoundsCheck()) {
+                        access.eliminateBoundsCheck();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -570,6 +570,11 @@ public final class Aarch64LIRAssembler extends LIRAssembler {
         }
     }
 
+    @Override
+    protected void emitBulkArrayOp(LIRBulkArrayOp op) {
+        throw FatalError.unimplemented("Aarch64LIRAssembler.emitBulkArrayOp");
+    }
+
     @Override
     protected void emitConditionalMove(Condition condition, CiValue opr1, CiValue opr2, CiValue result) {
         ConditionFlag acond;
@@ -76,7 +76,16 @@ public final class AMD64LIRAssembler extends LIRAssembler {
 
     @Override
     protected void emitOsrEntry() {
-        throw Util.unimplemented();
+        // The OSR entry is jumped to with the return address of the replaced frame on top of the
+        // stack and the OSR buffer in rax. Build the frame the same way the prologue does.
+        tasm.targetMethod.setOsrEntryOffset(codePos());
+        int frameSize = initialFrameSizeInBytes();
+        masm.decrementq(AMD64.rsp, frameSize);
+        int lastFramePage = frameSize / target.pageSize;
+        for (int i = 0; i <= lastFramePage; i++) {
+            int offset = (i + C1XOptions.StackShadowPages) * target.pageSize;
+            bangStackWithOffset(offset - frameSize);
+        }
     }
 
     @Override
@@ -788,6 +797,376 @@ public final class AMD64LIRAssembler extends LIRAssembler {
         }
     }
 
+    /**
+     * The number of bytes processed per iteration of the vector loops of bulk array operations.
+     */
+    private static final int BULK_VECTOR_SIZE = 16;
+
+    @Override
+    protected void emitBulkArrayOp(LIRBulkArrayOp op) {
+        // The length is in elements and is converted to bytes. The loops of all the operations process one
+        // vector at a time and then handle the remaining bytes in decreasing power of two chunks.
+        CiRegister length = op.length().asRegister();
+        if (op.log2ElementSize != 0) {
+            masm.shlq(length, op.log2ElementSize);
+        }
+        switch (op.code) {
+            case BulkCopy:
+                emitBulkCopy(op, length);
+                break;
+            case BulkFill:
+                emitBulkFill(op, length);
+                break;
+            case BulkMismatch:
+                emitBulkMismatch(op, length);
+                break;
+            case BulkIndexOf:
+                emitBulkIndexOf(op, length);
+                break;
+            default:
+                throw Util.shouldNotReachHere();
+        }
+    }
+
+    private static CiAddress bulkAddress(CiRegister base) {
+        return new CiAddress(CiKind.Long, base.asValue());
+    }
+
+    private static CiAddress bulkAddress(CiRegister base, CiRegister index) {
+        return new CiAddress(CiKind.Long, base.asValue(), index.asValue(), Scale.Times1, 0);
+    }
+
+    /**
+     * Moves {@code size} bytes through a general purpose register.
+     */
+    private void bulkMove(int size, CiAddress from, CiAddress to, CiRegister tmp) {
+        switch (size) {
+            case 8:
+                masm.movq(tmp, from);
+                masm.movq(to, tmp);
+                break;
+            case 4:
+                masm.movl(tmp, from);
+                masm.movl(to, tmp);
+                break;
+            case 2:
+                masm.movzxl(tmp, from);
+                masm.movw(to, tmp);
+                break;
+            default:
+                assert size == 1;
+                masm.movzxb(tmp, from);
+                masm.movb(to, tmp);
+        }
+    }
+
+    /**
+     * Copies like {@code memmove}: backward if the destination starts within the source block, forward otherwise.
+     */
+    private void emitBulkCopy(LIRBulkArrayOp op, CiRegister length) {
+        CiRegister src = op.address1().asRegister();
+        CiRegister dst = op.address2().asRegister();
+        CiRegister tmp = op.generalTemp(0).asRegister();
+        CiRegister vtmp = op.vectorTemp(0).asRegister();
+        int elementSize = 1 << op.log2ElementSize;
+        Label forward = new Label();
+        Label backward = new Label();
+        Label done = new Label();
+
+        masm.cmpq(dst, src);
+        masm.jcc(ConditionFlag.belowEqual, forward);
+        masm.leaq(tmp, bulkAddress(src, length));
+        masm.cmpq(dst, tmp);
+        masm.jcc(ConditionFlag.below, backward);
+
+        masm.bind(forward);
+        Label forwardLoop = new Label();
+        Label forwardTail = new Label();
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.less, forwardTail);
+        masm.bind(forwardLoop);
+        masm.movdqu(vtmp, bulkAddress(src));
+        masm.movdqu(bulkAddress(dst), vtmp);
+        masm.addq(src, BULK_VECTOR_SIZE);
+        masm.addq(dst, BULK_VECTOR_SIZE);
+        masm.subq(length, BULK_VECTOR_SIZE);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.greaterEqual, forwardLoop);
+        masm.bind(forwardTail);
+        for (int size = BULK_VECTOR_SIZE >> 1; size >= elementSize; size >>= 1) {
+            Label skip = new Label();
+            masm.cmpq(length, size);
+            masm.jcc(ConditionFlag.less, skip);
+            bulkMove(size, bulkAddress(src), bulkAddress(dst), tmp);
+            masm.addq(src, size);
+            masm.addq(dst, size);
+            masm.subq(length, size);
+            masm.bind(skip);
+        }
+        masm.jmp(done);
+
+        masm.bind(backward);
+        Label backwardLoop = new Label();
+        Label backwardTail = new Label();
+        masm.addq(src, length);
+        masm.addq(dst, length);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.less, backwardTail);
+        masm.bind(backwardLoop);
+        masm.subq(src, BULK_VECTOR_SIZE);
+        masm.subq(dst, BULK_VECTOR_SIZE);
+        masm.movdqu(vtmp, bulkAddress(src));
+        masm.movdqu(bulkAddress(dst), vtmp);
+        masm.subq(length, BULK_VECTOR_SIZE);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.greaterEqual, backwardLoop);
+        masm.bind(backwardTail);
+        for (int size = BULK_VECTOR_SIZE >> 1; size >= elementSize; size >>= 1) {
+            Label skip = new Label();
+            masm.cmpq(length, size);
+            masm.jcc(ConditionFlag.less, skip);
+            masm.subq(src, size);
+            masm.subq(dst, size);
+            bulkMove(size, bulkAddress(src), bulkAddress(dst), tmp);
+            masm.subq(length, size);
+            masm.bind(skip);
+        }
+        masm.bind(done);
+    }
+
+    /**
+     * Fills with a pattern that repeats the element value over 8 bytes. As the length is a multiple of the element
+     * size, every store starts at an offset that is a multiple of the element size and so stores whole elements.
+     */
+    private void emitBulkFill(LIRBulkArrayOp op, CiRegister length) {
+        CiRegister dst = op.address1().asRegister();
+        CiRegister pattern = op.value().asRegister();
+        CiRegister vpattern = op.vectorTemp(0).asRegister();
+        Label loop = new Label();
+        Label tail = new Label();
+
+        masm.movdq(vpattern, pattern);
+        masm.punpcklqdq(vpattern, vpattern);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.less, tail);
+        masm.bind(loop);
+        masm.movdqu(bulkAddress(dst), vpattern);
+        masm.addq(dst, BULK_VECTOR_SIZE);
+        masm.subq(length, BULK_VECTOR_SIZE);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.greaterEqual, loop);
+        masm.bind(tail);
+        for (int size = BULK_VECTOR_SIZE >> 1; size >= 1 << op.log2ElementSize; size >>= 1) {
+            Label skip = new Label();
+            masm.cmpq(length, size);
+            masm.jcc(ConditionFlag.less, skip);
+            switch (size) {
+                case 8:
+                    masm.movq(bulkAddress(dst), pattern);
+                    break;
+                case 4:
+                    masm.movl(bulkAddress(dst), pattern);
+                    break;
+                case 2:
+                    masm.movw(bulkAddress(dst), pattern);
+                    break;
+                default:
+                    masm.movb(bulkAddress(dst), pattern);
+            }
+            masm.addq(dst, size);
+            masm.subq(length, size);
+            masm.bind(skip);
+        }
+    }
+
+    /**
+     * Compares a vector at a time with {@code pcmpeqb}, then 8 bytes and then single bytes. The byte offset of the
+     * first difference is converted to an element index.
+     */
+    private void emitBulkMismatch(LIRBulkArrayOp op, CiRegister length) {
+        CiRegister a = op.address1().asRegister();
+        CiRegister b = op.address2().asRegister();
+        CiRegister offset = op.generalTemp(0).asRegister();
+        CiRegister tmp1 = op.generalTemp(1).asRegister();
+        CiRegister tmp2 = op.generalTemp(2).asRegister();
+        CiRegister va = op.vectorTemp(0).asRegister();
+        CiRegister vb = op.vectorTemp(1).asRegister();
+        CiRegister result = op.result().asRegister();
+        Label loop = new Label();
+        Label tail = new Label();
+        Label byteTail = new Label();
+        Label byteLoop = new Label();
+        Label notFound = new Label();
+        Label foundInVector = new Label();
+        Label foundInWord = new Label();
+        Label foundAtOffset = new Label();
+        Label done = new Label();
+
+        masm.xorl(offset, offset);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.less, tail);
+        masm.bind(loop);
+        masm.movdqu(va, bulkAddress(a, offset));
+        masm.movdqu(vb, bulkAddress(b, offset));
+        masm.pcmpeqb(va, vb);
+        masm.pmovmskb(tmp1, va);
+        masm.xorl(tmp1, 0xFFFF);
+        masm.jcc(ConditionFlag.notZero, foundInVector);
+        masm.addq(offset, BULK_VECTOR_SIZE);
+        masm.subq(length, BULK_VECTOR_SIZE);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.greaterEqual, loop);
+
+        masm.bind(tail);
+        masm.cmpq(length, 8);
+        masm.jcc(ConditionFlag.less, byteTail);
+        masm.movq(tmp1, bulkAddress(a, offset));
+        masm.xorq(tmp1, bulkAddress(b, offset));
+        masm.jcc(ConditionFlag.notZero, foundInWord);
+        masm.addq(offset, 8);
+        masm.subq(length, 8);
+        masm.bind(byteTail);
+        masm.testq(length, length);
+        masm.jcc(ConditionFlag.zero, notFound);
+        masm.bind(byteLoop);
+        masm.movzxb(tmp1, bulkAddress(a, offset));
+        masm.movzxb(tmp2, bulkAddress(b, offset));
+        masm.cmpl(tmp1, tmp2);
+        masm.jcc(ConditionFlag.notEqual, foundAtOffset);
+        masm.incq(offset);
+        masm.decq(length);
+        masm.jcc(ConditionFlag.notZero, byteLoop);
+
+        masm.bind(notFound);
+        masm.movl(result, -1);
+        masm.jmp(done);
+
+        masm.bind(foundInWord);
+        masm.bsfq(tmp1, tmp1);
+        masm.shrq(tmp1, 3);
+        masm.addq(offset, tmp1);
+        masm.jmp(foundAtOffset);
+
+        masm.bind(foundInVector);
+        masm.bsfq(tmp1, tmp1);
+        masm.addq(offset, tmp1);
+
+        masm.bind(foundAtOffset);
+        if (op.log2ElementSize != 0) {
+            masm.shrq(offset, op.log2ElementSize);
+        }
+        masm.movl(result, offset);
+        masm.bind(done);
+    }
+
+    /**
+     * Searches a vector at a time with {@code pcmpeqb}, {@code pcmpeqw} or {@code pcmpeqd} against the value
+     * broadcast to all lanes, then an element at a time. Both loops only compare the low bits of the value that
+     * fit in an element: the element loop compares against the value extended from these bits like the elements.
+     */
+    private void emitBulkIndexOf(LIRBulkArrayOp op, CiRegister length) {
+        CiRegister a = op.address1().asRegister();
+        CiRegister value = op.value().asRegister();
+        CiRegister offset = op.generalTemp(0).asRegister();
+        CiRegister tmp = op.generalTemp(1).asRegister();
+        CiRegister key = op.generalTemp(2).asRegister();
+        CiRegister vvalue = op.vectorTemp(0).asRegister();
+        CiRegister vtmp = op.vectorTemp(1).asRegister();
+        CiRegister result = op.result().asRegister();
+        int elementSize = 1 << op.log2ElementSize;
+        Label loop = new Label();
+        Label tail = new Label();
+        Label elementLoop = new Label();
+        Label notFound = new Label();
+        Label foundInVector = new Label();
+        Label foundAtOffset = new Label();
+        Label done = new Label();
+
+        switch (op.log2ElementSize) {
+            case 0:
+                masm.movsxb(key, value);
+                break;
+            case 1:
+                masm.movzxl(key, value);
+                break;
+            default:
+                masm.movl(key, value);
+        }
+        masm.movdl(vvalue, value);
+        switch (op.log2ElementSize) {
+            case 0:
+                masm.punpcklbw(vvalue, vvalue);
+                masm.pshuflw(vvalue, vvalue, 0);
+                masm.punpcklqdq(vvalue, vvalue);
+                break;
+            case 1:
+                masm.pshuflw(vvalue, vvalue, 0);
+                masm.punpcklqdq(vvalue, vvalue);
+                break;
+            default:
+                assert op.log2ElementSize == 2;
+                masm.pshufd(vvalue, vvalue, 0);
+        }
+
+        masm.xorl(offset, offset);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.less, tail);
+        masm.bind(loop);
+        masm.movdqu(vtmp, bulkAddress(a, offset));
+        switch (op.log2ElementSize) {
+            case 0:
+                masm.pcmpeqb(vtmp, vvalue);
+                break;
+            case 1:
+                masm.pcmpeqw(vtmp, vvalue);
+                break;
+            default:
+                masm.pcmpeqd(vtmp, vvalue);
+        }
+        masm.pmovmskb(tmp, vtmp);
+        masm.testl(tmp, tmp);
+        masm.jcc(ConditionFlag.notZero, foundInVector);
+        masm.addq(offset, BULK_VECTOR_SIZE);
+        masm.subq(length, BULK_VECTOR_SIZE);
+        masm.cmpq(length, BULK_VECTOR_SIZE);
+        masm.jcc(ConditionFlag.greaterEqual, loop);
+
+        masm.bind(tail);
+        masm.testq(length, length);
+        masm.jcc(ConditionFlag.zero, notFound);
+        masm.bind(elementLoop);
+        switch (op.log2ElementSize) {
+            case 0:
+                masm.movsxb(tmp, bulkAddress(a, offset));
+                break;
+            case 1:
+                masm.movzxl(tmp, bulkAddress(a, offset));
+                break;
+            default:
+                masm.movl(tmp, bulkAddress(a, offset));
+        }
+        masm.cmpl(tmp, key);
+        masm.jcc(ConditionFlag.equal, foundAtOffset);
+        masm.addq(offset, elementSize);
+        masm.subq(length, elementSize);
+        masm.jcc(ConditionFlag.notZero, elementLoop);
+
+        masm.bind(notFound);
+        masm.movl(result, -1);
+        masm.jmp(done);
+
+        masm.bind(foundInVector);
+        masm.bsfq(tmp, tmp);
+        masm.addq(offset, tmp);
+
+        masm.bind(foundAtOffset);
+        if (op.log2ElementSize != 0) {
+            masm.shrq(offset, op.log2ElementSize);
+        }
+        masm.movl(result, offset);
+        masm.bind(done);
+    }
+
     @Override
     protected void emitConditionalMove(Condition condition, CiValue opr1, CiValue opr2, CiValue result) {
         ConditionFlag acond;
@@ -650,6 +650,62 @@ public class AMD64LIRGenerator extends LIRGenerator {
         lir.getCpuID(result);
     }
 
+    @Override
+    public void visitBulkArrayOp(BulkArrayOp x) {
+        CiKind wordKind = compilation.target.wordKind;
+        CiValue address1 = elementAddress(x, x.array1(), x.index1());
+        CiValue address2 = x.array2() == null ? ILLEGAL : elementAddress(x, x.array2(), x.index2());
+        CiValue length = newVariable(wordKind);
+        lir.move(load(x.length()), length);
+        CiValue value = x.value() == null ? ILLEGAL : load(x.value());
+
+        LIROpcode opcode;
+        CiValue[] temps = new CiValue[LIRBulkArrayOp.GENERAL_TEMPS + LIRBulkArrayOp.VECTOR_TEMPS];
+        int generalTemps;
+        int vectorTemps;
+        switch (x.op) {
+            case COPY:
+                opcode = LIROpcode.BulkCopy;
+                generalTemps = 1;
+                vectorTemps = 1;
+                break;
+            case FILL:
+                opcode = LIROpcode.BulkFill;
+                generalTemps = 0;
+                vectorTemps = 1;
+                break;
+            case MISMATCH:
+                opcode = LIROpcode.BulkMismatch;
+                generalTemps = 3;
+                vectorTemps = 2;
+                break;
+            case INDEX_OF:
+                opcode = LIROpcode.BulkIndexOf;
+                generalTemps = 3;
+                vectorTemps = 2;
+                break;
+            default:
+                throw Util.shouldNotReachHere();
+        }
+        for (int i = 0; i < LIRBulkArrayOp.GENERAL_TEMPS; i++) {
+            temps[i] = i < generalTemps ? newVariable(wordKind) : ILLEGAL;
+        }
+        for (int i = 0; i < LIRBulkArrayOp.VECTOR_TEMPS; i++) {
+            temps[LIRBulkArrayOp.GENERAL_TEMPS + i] = i < vectorTemps ? newVariable(CiKind.Double) : ILLEGAL;
+        }
+        CiValue result = x.kind.isVoid() ? ILLEGAL : createResultVariable(x);
+        lir.bulkArrayOp(opcode, result, x.log2ElementSize, value, address1, address2, length, temps);
+    }
+
+    /**
+     * Computes the address of an array element for a {@link BulkArrayOp} into a new variable.
+     */
+    private CiValue elementAddress(BulkArrayOp x, Value array, Value index) {
+        CiValue address = newVariable(compilation.target.wordKind);
+        lir.lea(new CiAddress(compilation.target.wordKind, load(array), load(index), CiAddress.Scale.fromInt(1 << x.log2ElementSize), x.displacement), address);
+        return address;
+    }
+
     @Override
     protected void genGetObjectUnsafe(CiValue dst, CiValue src, CiValue offset, CiKind kind, boolean isVolatile) {
         if (isVolatile && kind == CiKind.Long) {
@@ -692,7 +748,7 @@ public class AMD64LIRGenerator extends LIRGenerator {
 
     @Override
     protected CiValue osrBufferPointer() {
-        return Util.nonFatalUnimplemented(null);
+        return AMD64.rax.asValue(compilation.target.wordKind);
     }
 
     @Override
@@ -876,6 +876,11 @@ public final class ARMV7LIRAssembler extends LIRAssembler {
         }
     }
 
+    @Override
+    protected void emitBulkArrayOp(LIRBulkArrayOp op) {
+        throw FatalError.unimplemented("ARMV7LIRAssembler.emitBulkArrayOp");
+    }
+
     @Override
     protected void emitConditionalMove(Condition condition, CiValue opr1, CiValue opr2, CiValue result) {
         ConditionFlag acond;
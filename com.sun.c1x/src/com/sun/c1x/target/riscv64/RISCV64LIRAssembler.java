@@ -597,6 +597,11 @@ public final class RISCV64LIRAssembler extends LIRAssembler {
         }
     }
 
+    @Override
+    protected void emitBulkArrayOp(LIRBulkArrayOp op) {
+        throw FatalError.unimplemented("RISCV64LIRAssembler.emitBulkArrayOp");
+    }
+
     @Override
     protected void emitConditionalMove(Condition condition, CiValue opr1, CiValue opr2, CiValue result) {
         RISCV64MacroAssembler.ConditionFlag acond;
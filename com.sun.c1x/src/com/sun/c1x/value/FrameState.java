@@ -74,6 +74,13 @@ public abstract class FrameState {
      */
     protected ArrayList<Value> locks;
 
+    /**
+     * The {@linkplain VirtualObject virtual objects} referenced by this frame state or its callers and,
+     * at the same index in {@link #virtualObjectValues}, the values of their fields at the position of this frame state.
+     */
+    private VirtualObject[] virtualObjects;
+    private Value[][] virtualObjectValues;
+
     /**
      * The number of minimum stack slots required for doing IR wrangling during
      * {@linkplain GraphBuilder bytecode parsing}. While this may hide stack
@@ -508,7 +515,64 @@ public abstract class FrameState {
     }
 
     /**
-     * Iterates over all the values in this frame state and its callers, including the stack, locals, and locks.
+     * Records the values of the fields of a virtual object at the position of this frame state.
+     *
+     * @param object a virtual object referenced by this frame state or its callers
+     * @param fieldValues the values of the fields of {@code object}, ordered as {@link VirtualObject#fields()}
+     */
+    public void setVirtualObjectValues(VirtualObject object, Value[] fieldValues) {
+        assert fieldValues.length == object.fields().length;
+        if (virtualObjects == null) {
+            virtualObjects = new VirtualObject[] {object};
+            virtualObjectValues = new Value[][] {fieldValues};
+            return;
+        }
+        for (int i = 0; i < virtualObjects.length; i++) {
+            if (virtualObjects[i] == object) {
+                virtualObjectValues[i] = fieldValues;
+                return;
+            }
+        }
+        int n = virtualObjects.length;
+        virtualObjects = Arrays.copyOf(virtualObjects, n + 1);
+        virtualObjectValues = Arrays.copyOf(virtualObjectValues, n + 1);
+        virtualObjects[n] = object;
+        virtualObjectValues[n] = fieldValues;
+    }
+
+    /**
+     * Gets the values of the fields of a virtual object at the position of this frame state.
+     *
+     * @return the values recorded by {@link #setVirtualObjectValues(VirtualObject, Value[])} or {@code null}
+     */
+    public Value[] virtualObjectValues(VirtualObject object) {
+        if (virtualObjects != null) {
+            for (int i = 0; i < virtualObjects.length; i++) {
+                if (virtualObjects[i] == object) {
+                    return virtualObjectValues[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Iterates over the recorded field values of the virtual objects referenced by this frame state or its callers.
+     * @param closure the closure to apply to each value
+     */
+    public void virtualObjectValuesDo(ValueClosure closure) {
+        if (virtualObjects != null) {
+            for (Value[] fieldValues : virtualObjectValues) {
+                for (int i = 0; i < fieldValues.length; i++) {
+                    fieldValues[i] = closure.apply(fieldValues[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterates over all the values in this frame state and its callers, including the stack, locals, locks
+     * and the field values of virtual objects.
      * @param closure the closure to apply to each value
      */
     public void valuesDo(ValueClosure closure) {
@@ -516,10 +580,12 @@ public abstract class FrameState {
     }
 
     /**
-     * Iterates over all the values of a given frame state and its callers, including the stack, locals, and locks.
+     * Iterates over all the values of a given frame state and its callers, including the stack, locals, locks
+     * and the field values of virtual objects.
      * @param closure the closure to apply to each value
      */
     public static void valuesDo(FrameState state, ValueClosure closure) {
+        state.virtualObjectValuesDo(closure);
         do {
             final int max = state.valuesSize();
             for (int i = 0; i < max; i++) {
@@ -548,11 +614,21 @@ public abstract class FrameState {
     }
 
     /**
-     * Traverses all {@linkplain Value#isLive() live values} of this frame state and it's callers.
+     * Traverses all {@linkplain Value#isLive() live values} of this frame state and it's callers, including the
+     * field values of virtual objects.
      *
      * @param proc the call back called to process each live value traversed
      */
     public final void forEachLiveStateValue(ValueProcedure proc) {
+        if (virtualObjects != null) {
+            for (Value[] fieldValues : virtualObjectValues) {
+                for (Value value : fieldValues) {
+                    if (value.isLive()) {
+                        proc.doValue(value);
+                    }
+                }
+            }
+        }
         FrameState state = this;
         while (state != null) {
             final int max = state.valuesSize();
@@ -43,7 +43,7 @@ public enum CiRuntimeCall {
     SetDeoptInfo(Void, Object),
     CreateNullPointerException(Object),
     CreateOutOfBoundsException(Object, Int),
-    OSRMigrationEnd(Void),
+    OSRMigrationEnd(Void, Long),
     JavaTimeMillis(Long),
     JavaTimeNanos(Long),
     Debug(Void),
@@ -358,6 +358,7 @@ public class CiTargetMethod implements Serializable {
     private int frameSize = -1;
     private int customStackAreaOffset = -1;
     private int registerRestoreEpilogueOffset = -1;
+    private int osrEntryOffset = -1;
     private int deoptReturnAddressOffset;
 
     /**
@@ -511,6 +512,23 @@ public class CiTargetMethod implements Serializable {
         return registerRestoreEpilogueOffset;
     }
 
+    /**
+     * Sets the offset of the entry point of a method compiled for on-stack replacement.
+     *
+     * @param osrEntryOffset the offset in the machine code of the OSR entry point
+     */
+    public void setOsrEntryOffset(int osrEntryOffset) {
+        assert this.osrEntryOffset == -1;
+        this.osrEntryOffset = osrEntryOffset;
+    }
+
+    /**
+     * @return the code offset of the OSR entry point, or -1 if this method was not compiled for on-stack replacement
+     */
+    public int osrEntryOffset() {
+        return osrEntryOffset;
+    }
+
     /**
      * Offset in bytes for the custom stack area (relative to sp).
      * @return the offset in bytes
@@ -1350,6 +1350,9 @@ public final class TeleInterpreter {
             throw TeleError.unexpected("Unsupported intrinsic: " + intrinsic);
         } else if (intrinsic == PAUSE) {
             // Nothing to do, since it can be no-op.
+        } else if (intrinsic == BULK_COPY || intrinsic == BULK_FILL || intrinsic == BULK_MISMATCH || intrinsic == BULK_INDEX_OF) {
+            // The Java bodies of the bulk array operations are their reference implementation.
+            return false;
         } else {
             // Could also opt to just execute the method in case it has an implementation, but for now be safe.
             throw ProgramError.unexpected("Unknown intrinsic: " + intrinsic);
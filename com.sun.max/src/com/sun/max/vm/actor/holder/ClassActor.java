@@ -1968,6 +1968,7 @@ public abstract class ClassActor extends Actor implements RiResolvedType {
                     return o1.offset() - o2.offset();
                 }
             });
+            sortedFields.addAll(Arrays.asList(fields));
             return sortedFields.toArray(new RiResolvedField[0]);
         }
         return fields;
@@ -41,6 +41,7 @@ import com.sun.max.vm.compiler.RuntimeCompiler.*;
 import com.sun.max.vm.compiler.target.*;
 import com.sun.max.vm.jni.*;
 import com.sun.max.vm.object.ObjectAccess;
+import com.sun.max.vm.profile.*;
 import com.sun.max.vm.runtime.FatalError;
 import com.sun.max.vm.type.*;
 import com.sun.max.vm.verifier.*;
@@ -405,6 +406,48 @@ public abstract class ClassMethodActor extends MethodActor {
         return Compilations.currentTargetMethod(compiledState, null);
     }
 
+    /**
+     * Gets the profile collected by the instrumented baseline code of this method.
+     *
+     * @return {@code null} if this method has no current baseline code or if it is not instrumented
+     */
+    public final MethodProfile baselineProfile() {
+        TargetMethod tm = Compilations.currentTargetMethod(compiledState, Nature.BASELINE);
+        return tm == null ? null : tm.profile();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The estimate is the number of invocations and backward branches counted by the baseline code.
+     */
+    @Override
+    public int invocationCount() {
+        MethodProfile mpo = baselineProfile();
+        if (mpo == null) {
+            return -1;
+        }
+        return Math.max(MethodInstrumentation.initialEntryBackedgeCount - mpo.entryBackedgeCount, 0);
+    }
+
+    @Override
+    public RiTypeProfile typeProfile(int bci) {
+        MethodProfile mpo = baselineProfile();
+        return mpo == null ? null : MethodInstrumentation.typeProfile(mpo, bci);
+    }
+
+    @Override
+    public double branchProbability(int bci) {
+        MethodProfile mpo = baselineProfile();
+        return mpo == null ? -1 : MethodInstrumentation.branchProbability(mpo, bci);
+    }
+
+    @Override
+    public double[] switchProbability(int bci) {
+        MethodProfile mpo = baselineProfile();
+        return mpo == null ? null : mpo.getSwitchProbabilities(bci);
+    }
+
     /**
      * Records if this object returned {@code true} for a call to {@link #canBePermanentlyLinked()} during
      * boot image building.
@@ -24,6 +24,7 @@ package com.sun.max.vm.classfile.constant;
 
 import java.io.*;
 
+import com.sun.max.*;
 import com.sun.max.collect.*;
 import com.sun.max.collect.ChainedHashMapping.Entry;
 import com.sun.max.vm.*;
@@ -77,35 +78,74 @@ public final class SymbolTable {
     }
 
     /**
-     * Searching and adding entries to this map is only performed by {@linkplain #makeSymbol(String) one method} which
-     * is synchronized.
+     * Number of independently locked segments in the table. Must be a power of 2.
      */
-    private static final ChainingValueChainedHashMapping<String, Utf8ConstantEntry> symbolTable = new ChainingValueChainedHashMapping<String, Utf8ConstantEntry>(40000);
+    private static final int SEGMENT_COUNT = 64;
+
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+
+    /**
+     * The table is split into segments, each of which is a separate map guarded by its own lock, so that
+     * threads interning symbols with different hashes do not contend with each other. Searching and adding
+     * entries to a segment is only performed while holding the lock on that segment.
+     */
+    private static final ChainingValueChainedHashMapping<String, Utf8ConstantEntry>[] segments = createSegments(40000);
+
+    private static ChainingValueChainedHashMapping<String, Utf8ConstantEntry>[] createSegments(int initialCapacity) {
+        final Class<ChainingValueChainedHashMapping<String, Utf8ConstantEntry>[]> type = null;
+        final ChainingValueChainedHashMapping<String, Utf8ConstantEntry>[] result = Utils.cast(type, new ChainingValueChainedHashMapping[SEGMENT_COUNT]);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            result[i] = new ChainingValueChainedHashMapping<String, Utf8ConstantEntry>(initialCapacity / SEGMENT_COUNT);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the segment in which a given symbol is stored.
+     */
+    private static ChainingValueChainedHashMapping<String, Utf8ConstantEntry> segmentFor(String value) {
+        // Fibonacci hashing: the high bits of the product depend on all the bits of the hash code, including
+        // the low bits that make up the whole hash code of short identifiers, and are unrelated to the low bits
+        // of the spread hash used for bucket selection within a segment
+        return segments[(value.hashCode() * 0x9E3779B9) >>> SEGMENT_SHIFT];
+    }
 
     public static final Utf8Constant INIT = makeSymbol("<init>");
     public static final Utf8Constant CLINIT = makeSymbol("<clinit>");
     public static final Utf8Constant FINALIZE = makeSymbol("finalize");
 
     public static int length() {
-        return symbolTable.length();
+        int length = 0;
+        for (ChainingValueChainedHashMapping<String, Utf8ConstantEntry> segment : segments) {
+            synchronized (segment) {
+                length += segment.length();
+            }
+        }
+        return length;
     }
 
-    public static synchronized Utf8Constant lookupSymbol(String value) {
-        return symbolTable.get(value);
+    public static Utf8Constant lookupSymbol(String value) {
+        final ChainingValueChainedHashMapping<String, Utf8ConstantEntry> segment = segmentFor(value);
+        synchronized (segment) {
+            return segment.get(value);
+        }
     }
 
-    public static synchronized Utf8Constant makeSymbol(String value) {
-        Utf8ConstantEntry utf8 = symbolTable.get(value);
-        if (utf8 == null) {
-            if (MaxineVM.isHosted()) {
-                // String interning is implemented with another data structure when running hosted
-                utf8 = new Utf8ConstantEntry(value.intern());
-            } else {
-                utf8 = new Utf8ConstantEntry(value);
+    public static Utf8Constant makeSymbol(String value) {
+        final ChainingValueChainedHashMapping<String, Utf8ConstantEntry> segment = segmentFor(value);
+        synchronized (segment) {
+            Utf8ConstantEntry utf8 = segment.get(value);
+            if (utf8 == null) {
+                if (MaxineVM.isHosted()) {
+                    // String interning is implemented with another data structure when running hosted
+                    utf8 = new Utf8ConstantEntry(value.intern());
+                } else {
+                    utf8 = new Utf8ConstantEntry(value);
+                }
+                segment.put(value, utf8);
             }
-            symbolTable.put(value, utf8);
+            return utf8;
         }
-        return utf8;
     }
 
     public static String intern(String value) {
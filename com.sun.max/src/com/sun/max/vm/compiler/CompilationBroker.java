@@ -70,6 +70,18 @@ public class CompilationBroker {
      */
     private static int RCT = 5000;
 
+    /**
+     * The value an instrumentation counter is reset to when it overflows but no optimized code
+     * can be installed yet, so that the next overflow is not seen in the near future.
+     */
+    private static final int OVERFLOW_RETRY_COUNT = 1000;
+
+    /**
+     * The number of backward branches taken by a baseline method after which its running frame is replaced by
+     * optimized code entered at the targeted loop header (see {@link OnStackReplacement}).
+     */
+    private static int OSRThreshold = 10000;
+
     /**
      * The baseline compiler.
      */
@@ -112,6 +124,7 @@ public class CompilationBroker {
     static {
         addFieldOption("-X", "opt", CompilationBroker.class, "Select optimizing compiler whenever possible.");
         addFieldOption("-XX:", "RCT", CompilationBroker.class, "Set the recompilation threshold for methods. Use 0 to disable recompilation. (default: " + RCT + ").");
+        addFieldOption("-XX:", "OSRThreshold", CompilationBroker.class, "Set the backward branch threshold for on-stack replacement of baseline frames. Use 0 to disable on-stack replacement. (default: " + OSRThreshold + ").");
         addFieldOption("-XX:", "FailOverCompilation", CompilationBroker.class, "Retry failed compilations with another compiler (if available).");
         addFieldOption("-XX:", "PrintCodeCacheMetrics", CompilationBroker.class, "Print code cache metrics (0 = disabled, 1 = summary, 2 = verbose).");
         addFieldOption("-XX:", "VMExtOpt", CompilationBroker.class, "Compile VM extensions with optimizing compiler (default: false");
@@ -178,6 +191,24 @@ public class CompilationBroker {
      */
     private RuntimeCompiler defaultCompiler;
 
+    /**
+     * Gets the pool of background compilation threads.
+     *
+     * @return {@code null} if background compilation is not enabled
+     */
+    public CompilationThreadPool compilationThreadPool() {
+        return compilationThreadPool;
+    }
+
+    /**
+     * Gets a compiler registered with {@link #addCompiler}.
+     *
+     * @return {@code null} if no compiler is registered under {@code name}
+     */
+    public RuntimeCompiler altCompiler(String name) {
+        return altCompilers == null ? null : altCompilers.get(name);
+    }
+
     public boolean needsAdapters() {
         return baselineCompiler != null;
     }
@@ -356,6 +387,9 @@ public class CompilationBroker {
 
             if (RCT != 0 && baselineCompiler != null) {
                 MethodInstrumentation.enable(RCT);
+                if (OSRThreshold != 0 && OnStackReplacement.isSupported(optimizingCompiler)) {
+                    MethodInstrumentation.enableOnStackReplacement(OSRThreshold);
+                }
             }
         } else if (phase == Phase.RUNNING) {
             if (BackgroundCompilation) {
@@ -364,6 +398,7 @@ public class CompilationBroker {
                 compilationThreadPool.setDaemon(true);
                 compilationThreadPool.startThreads();
             }
+            TieredCompilation.initialize(this);
             if (PrintCodeCacheMetrics != 0) {
                 Runtime.getRuntime().addShutdownHook(new Thread("CodeCacheMetricsPrinter") {
                     @Override
@@ -484,10 +519,12 @@ public class CompilationBroker {
                 if (doCompile) {
                     TargetMethod tm = null;
                     if (backgroundCompilationInitialized && nature == Nature.OPT) {
-                        compilationThreadPool.addCompilationToQueue(compilation);
+                        compilationThreadPool.addCompilationToQueue(compilation, hotness(compilation));
                         compilation.relinquishOwnership();
                     } else {
+                        long start = System.currentTimeMillis();
                         tm = compilation.compile();
+                        CompilationBudget.compiled(compilation, System.currentTimeMillis() - start);
                         VMTI.handler().methodCompiled(cma);
                     }
                     if (MaxineVM.isRunning() && LogCompiledMethods) {
@@ -501,6 +538,9 @@ public class CompilationBroker {
                     return compilation.get();
                 }
             } catch (Throwable t) {
+                if (doCompile) {
+                    CompilationBudget.failed(compilation);
+                }
                 if (VMOptions.verboseOption.verboseCompilation) {
                     boolean lockDisabledSafepoints = Log.lock();
                     Log.printCurrentThread(false);
@@ -617,6 +657,20 @@ public class CompilationBroker {
         return compiler;
     }
 
+    /**
+     * Estimates the hotness of a method about to be queued for background compilation from the profile of its
+     * baseline code, i.e. the number of method entries and backward branches counted since the baseline code was
+     * produced.
+     */
+    private static int hotness(Compilation compilation) {
+        TargetMethod baseline = compilation.prevCompilations.baseline;
+        MethodProfile mpo = baseline == null ? null : baseline.profile();
+        if (mpo == null) {
+            return MethodInstrumentation.initialEntryBackedgeCount;
+        }
+        return mpo.entryBackedgeCountSince(MethodInstrumentation.initialEntryBackedgeCount);
+    }
+
     /**
      * Select the appropriate compiler to retry compilation based on the current state of the method
      * and the previous compiler.
@@ -661,13 +715,13 @@ public class CompilationBroker {
         if (Heap.isAllocationDisabledForCurrentThread()) {
             logCounterOverflow(mpo, "Stopped recompilation because allocation is currently disabled");
             // We don't want to see another counter overflow in the near future
-            mpo.entryBackedgeCount = 1000;
+            mpo.entryBackedgeCount = OVERFLOW_RETRY_COUNT;
             return;
         }
         if (!backgroundCompilationInitialized && Compilation.isCompilationRunningInCurrentThread()) {
             logCounterOverflow(mpo, "Stopped recompilation because compilation is running in current thread");
             // We don't want to see another counter overflow in the near future
-            mpo.entryBackedgeCount = 1000;
+            mpo.entryBackedgeCount = OVERFLOW_RETRY_COUNT;
             return;
         }
 
@@ -676,7 +730,29 @@ public class CompilationBroker {
         TargetMethod newMethod = Compilations.currentTargetMethod(cma.compiledState, null);
 
         if (oldMethod == newMethod || newMethod == null) {
-            if (!(cma.compiledState instanceof Compilation)) {
+            Object compiledState = cma.compiledState;
+            if (compiledState instanceof Compilation) {
+                if (backgroundCompilationInitialized) {
+                    // The method is still hot while its compilation is pending: move it up the queue by what
+                    // was counted since the counter was reset when the compilation was queued
+                    vm().compilationBroker.compilationThreadPool.reprioritize((Compilation) compiledState, mpo.entryBackedgeCountSince(OVERFLOW_RETRY_COUNT));
+                }
+            } else if (backgroundCompilationInitialized && !TieredCompilation.mayQueueTier1(vm().compilationBroker.compilationThreadPool)) {
+                logCounterOverflow(mpo, "Deferred recompilation because the compilation queue is full");
+                mpo.entryBackedgeCount = OVERFLOW_RETRY_COUNT;
+                return;
+            } else {
+                if (!CompilationBudget.mayOptimize(mpo)) {
+                    logCounterOverflow(mpo, "Stopped recompilation because the method exceeds the compilation budget");
+                    mpo.entryBackedgeCount = Integer.MAX_VALUE;
+                    return;
+                }
+                int delay = backgroundCompilationInitialized ? CompilationBudget.backPressureDelay(vm().compilationBroker.compilationThreadPool) : 0;
+                if (delay != 0) {
+                    logCounterOverflow(mpo, "Raised recompilation threshold because the compilation queue is long");
+                    mpo.entryBackedgeCount = delay;
+                    return;
+                }
                 // There is no newer compiled version available yet that we could just patch to, so recompile
                 logCounterOverflow(mpo, "");
                 try {
@@ -696,7 +772,7 @@ public class CompilationBroker {
         if (oldMethod == newMethod || newMethod == null) {
             // No compiled method available yet, maybe compilation is pending.
             // We don't want to see another counter overflow in the near future.
-            mpo.entryBackedgeCount = 1000;
+            mpo.entryBackedgeCount = OVERFLOW_RETRY_COUNT;
         } else {
             assert newMethod != null : oldMethod;
             logPatching(cma, oldMethod, newMethod);
@@ -735,6 +811,30 @@ public class CompilationBroker {
         }
     }
 
+    /**
+     * Handles an overflow of the backward branch counter of a profiled method by replacing the baseline frame
+     * that overflowed it with a frame of optimized code (see {@link OnStackReplacement}).
+     * This method must be called on the thread that overflowed the counter. It does not return if the frame was replaced.
+     *
+     * @param mpo profiling object (including the method itself)
+     * @param targetBCI the loop header targeted by the backward branch
+     */
+    @NEVER_INLINE
+    public static void backedgeCounterOverflow(MethodProfile mpo, int targetBCI) {
+        if (mpo.compilationDisabled) {
+            mpo.backedgeCount = Integer.MAX_VALUE;
+            return;
+        }
+        if (Heap.isAllocationDisabledForCurrentThread() || Compilation.isCompilationRunningInCurrentThread()) {
+            // We don't want to see another counter overflow in the near future
+            mpo.backedgeCount = OVERFLOW_RETRY_COUNT;
+            return;
+        }
+        OnStackReplacement.replace(mpo, targetBCI, (OSRCompiler) vm().compilationBroker.optimizingCompiler);
+        // No frame was replaced
+        mpo.backedgeCount = OVERFLOW_RETRY_COUNT;
+    }
+
     public static void logCounterOverflow(MethodProfile mpo, String msg) {
         if (VMOptions.verboseOption.verboseCompilation) {
             boolean lockDisabledSafepoints = Log.lock();
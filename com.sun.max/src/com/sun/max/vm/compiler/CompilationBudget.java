@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.compiler;
+
+import static com.sun.max.vm.VMOptions.*;
+
+import java.util.concurrent.atomic.*;
+
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.compiler.RuntimeCompiler.Nature;
+import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.profile.*;
+
+/**
+ * Limits the resources spent on optimizing compilations.
+ * <ul>
+ * <li>Methods with more than {@link #OptMaxBytecodeSize} bytes of bytecode are not optimized.</li>
+ * <li>A method whose optimizing compilation took more than {@link #OptMaxCompileTime} milliseconds is not optimized
+ * again, e.g., after being deoptimized.</li>
+ * <li>A method is not optimized again after {@link #OptMaxFailures} failed optimizing compilations.</li>
+ * <li>While more than {@link #CompileQueueBackPressure} background compilations are pending, a method whose
+ * invocation counter overflows is not queued. Its counter is re-armed with the recompilation threshold scaled by the
+ * length of the queue instead, so that the effective threshold rises with the backlog.</li>
+ * </ul>
+ * Methods are excluded from optimization by {@linkplain MethodProfile#compilationDisabled disabling} recompilation in
+ * the profile of their baseline code. The statistics are available through
+ * {@link com.sun.max.vm.management.CompilationManagement#getCompilationStatisticsMXBean()}.
+ */
+public final class CompilationBudget {
+
+    private static int OptMaxBytecodeSize = 8000;
+    private static int OptMaxCompileTime = 1000;
+    private static int OptMaxFailures = 3;
+    private static int CompileQueueBackPressure = 64;
+
+    static {
+        addFieldOption("-XX:", "OptMaxBytecodeSize", CompilationBudget.class, "Bytecode size above which methods are not optimized, 0 for no limit (default: " + OptMaxBytecodeSize + ").");
+        addFieldOption("-XX:", "OptMaxCompileTime", CompilationBudget.class, "Milliseconds an optimizing compilation may take before the method is excluded from further optimization, 0 for no limit (default: " + OptMaxCompileTime + ").");
+        addFieldOption("-XX:", "OptMaxFailures", CompilationBudget.class, "Number of failed optimizing compilations after which a method is no longer optimized, 0 for no limit (default: " + OptMaxFailures + ").");
+        addFieldOption("-XX:", "CompileQueueBackPressure", CompilationBudget.class, "Background compilation queue length above which recompilation thresholds are raised, 0 to disable (default: " + CompileQueueBackPressure + ").");
+    }
+
+    private static final AtomicLong optimizedCompilations = new AtomicLong();
+    private static final AtomicLong optimizedCompileTime = new AtomicLong();
+    private static final AtomicLong failedCompilations = new AtomicLong();
+    private static final AtomicLong deferredCompilations = new AtomicLong();
+    private static final AtomicLong excludedMethods = new AtomicLong();
+
+    private CompilationBudget() {
+    }
+
+    /**
+     * Determines if the method of a baseline profile may be optimized, excluding it from optimization if it is too large.
+     */
+    static boolean mayOptimize(MethodProfile mpo) {
+        ClassMethodActor cma = mpo.method.classMethodActor;
+        if (OptMaxBytecodeSize > 0 && cma.codeSize() > OptMaxBytecodeSize) {
+            exclude(mpo, "bytecode size exceeds OptMaxBytecodeSize");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes the value to which an overflowed invocation counter is re-armed instead of queuing a compilation.
+     *
+     * @return {@code 0} if the compilation may be queued
+     */
+    static int backPressureDelay(CompilationThreadPool pool) {
+        if (CompileQueueBackPressure <= 0) {
+            return 0;
+        }
+        int length = pool.queueLength();
+        if (length <= CompileQueueBackPressure) {
+            return 0;
+        }
+        deferredCompilations.incrementAndGet();
+        long delay = (long) MethodInstrumentation.initialEntryBackedgeCount * length / CompileQueueBackPressure;
+        return (int) Math.min(delay, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Records a completed compilation.
+     *
+     * @param millis the time taken by the compilation
+     */
+    static void compiled(Compilation compilation, long millis) {
+        if (compilation.compiler.nature() != Nature.OPT) {
+            return;
+        }
+        optimizedCompilations.incrementAndGet();
+        optimizedCompileTime.addAndGet(millis);
+        if (OptMaxCompileTime > 0 && millis > OptMaxCompileTime) {
+            MethodProfile mpo = baselineProfile(compilation);
+            if (mpo != null) {
+                exclude(mpo, "compilation took " + millis + "ms");
+            }
+        }
+    }
+
+    /**
+     * Records a failed compilation.
+     */
+    static void failed(Compilation compilation) {
+        if (compilation.compiler.nature() != Nature.OPT) {
+            return;
+        }
+        failedCompilations.incrementAndGet();
+        MethodProfile mpo = baselineProfile(compilation);
+        if (mpo != null && ++mpo.optimizationFailures >= OptMaxFailures && OptMaxFailures > 0) {
+            exclude(mpo, mpo.optimizationFailures + " failed compilations");
+        }
+    }
+
+    private static MethodProfile baselineProfile(Compilation compilation) {
+        TargetMethod baseline = compilation.prevCompilations.currentTargetMethod(Nature.BASELINE);
+        return baseline == null ? null : baseline.profile();
+    }
+
+    private static void exclude(MethodProfile mpo, String reason) {
+        if (mpo.compilationDisabled) {
+            return;
+        }
+        mpo.compilationDisabled = true;
+        excludedMethods.incrementAndGet();
+        if (verboseOption.verboseCompilation) {
+            boolean lockDisabledSafepoints = Log.lock();
+            Log.printCurrentThread(false);
+            Log.print(": Excluded ");
+            Log.printMethod(mpo.method, false);
+            Log.print(" from optimization: ");
+            Log.println(reason);
+            Log.unlock(lockDisabledSafepoints);
+        }
+    }
+
+    /**
+     * Gets the number of completed optimizing compilations.
+     */
+    public static long optimizedCompilations() {
+        return optimizedCompilations.get();
+    }
+
+    /**
+     * Gets the total time in milliseconds spent in completed optimizing compilations.
+     */
+    public static long optimizedCompileTime() {
+        return optimizedCompileTime.get();
+    }
+
+    /**
+     * Gets the number of failed optimizing compilations.
+     */
+    public static long failedCompilations() {
+        return failedCompilations.get();
+    }
+
+    /**
+     * Gets the number of recompilations deferred because of a long compilation queue.
+     */
+    public static long deferredCompilations() {
+        return deferredCompilations.get();
+    }
+
+    /**
+     * Gets the number of methods excluded from optimization.
+     */
+    public static long excludedMethods() {
+        return excludedMethods.get();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.compiler;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.compiler.RuntimeCompiler.Nature;
+import com.sun.max.vm.compiler.target.*;
+
+/**
+ * A lock-free queue of pending background compilations, ordered so that the hottest method is compiled first.
+ * <p>
+ * The {@linkplain Compilation#hotness hotness} of a compilation is an estimate of the number of method entries and
+ * backward branches executed by the baseline version of the method. It is read from the baseline method's
+ * {@linkplain com.sun.max.vm.profile.MethodProfile profile} when the compilation is queued, so that a method spending
+ * its time in loops ranks above one that merely reached the recompilation threshold, and it is
+ * {@linkplain #reprioritize raised} by the count profiled since whenever the method's counter overflows again while
+ * the compilation is still pending. Compilations of equal hotness are served in FIFO order.
+ * <p>
+ * Compilations that have become stale while queued, i.e. whose method already has optimized code installed by some
+ * other means, are completed with that code and dropped instead of being compiled again.
+ */
+public class CompilationQueue {
+
+    /**
+     * Orders compilations by decreasing hotness, then by increasing queue sequence number.
+     */
+    private static final Comparator<Compilation> HOTTEST_FIRST = new Comparator<Compilation>() {
+        public int compare(Compilation c1, Compilation c2) {
+            if (c1.hotness != c2.hotness) {
+                return c1.hotness > c2.hotness ? -1 : 1;
+            }
+            if (c1.queueSequence != c2.queueSequence) {
+                return c1.queueSequence < c2.queueSequence ? -1 : 1;
+            }
+            return 0;
+        }
+    };
+
+    private final ConcurrentSkipListSet<Compilation> pending = new ConcurrentSkipListSet<Compilation>(HOTTEST_FIRST);
+
+    /**
+     * One permit per compilation in {@link #pending}. Compilation threads block on this when the queue is empty.
+     */
+    private final Semaphore available = new Semaphore(0);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Adds a compilation to this queue.
+     *
+     * @param compilation the compilation to add
+     * @param hotness the initial hotness estimate of the compilation
+     */
+    public void add(Compilation compilation, int hotness) {
+        compilation.hotness = hotness;
+        compilation.queueSequence = sequence.getAndIncrement();
+        if (pending.add(compilation)) {
+            available.release();
+        }
+    }
+
+    /**
+     * Raises the hotness of a compilation if it is still pending in this queue.
+     *
+     * @param compilation a compilation previously {@linkplain #add added} to this queue
+     * @param increment the amount by which to raise the hotness of {@code compilation}
+     */
+    public void reprioritize(Compilation compilation, int increment) {
+        // The ordering key of an element must not change while it is in the set
+        if (pending.remove(compilation)) {
+            int hotness = compilation.hotness + increment;
+            compilation.hotness = hotness < 0 ? Integer.MAX_VALUE : hotness;
+            pending.add(compilation);
+        }
+    }
+
+    /**
+     * Removes the hottest pending compilation from this queue, blocking until one is available.
+     *
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public Compilation take() throws InterruptedException {
+        while (true) {
+            available.acquire();
+            Compilation compilation = next();
+            if (compilation != null) {
+                return compilation;
+            }
+        }
+    }
+
+    /**
+     * Removes the hottest pending compilation from this queue, waiting up to a given time for one to become available.
+     *
+     * @return the removed compilation or {@code null} if none became available within the given time
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public Compilation poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (!available.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+            Compilation compilation = next();
+            if (compilation != null) {
+                return compilation;
+            }
+        }
+    }
+
+    /**
+     * Removes the first element of {@link #pending} after a permit has been acquired for it.
+     *
+     * @return {@code null} if the caller should acquire another permit and retry
+     */
+    private Compilation next() {
+        Compilation compilation = pending.pollFirst();
+        if (compilation == null) {
+            // Raced with a concurrent reprioritization that has the element temporarily removed
+            available.release();
+            Thread.yield();
+            return null;
+        }
+        if (retireIfStale(compilation)) {
+            droppedCount.incrementAndGet();
+            return null;
+        }
+        return compilation;
+    }
+
+    /**
+     * Completes a pending compilation without compiling if optimized code for its method has already been installed.
+     *
+     * @return {@code true} if {@code compilation} was completed and must not be performed
+     */
+    private static boolean retireIfStale(Compilation compilation) {
+        ClassMethodActor cma = compilation.classMethodActor;
+        synchronized (cma) {
+            Object compiledState = cma.compiledState;
+            if (compiledState == compilation) {
+                return false;
+            }
+            TargetMethod installed = Compilations.currentTargetMethod(compiledState, Nature.OPT);
+            if (installed == null) {
+                return false;
+            }
+            compilation.result = installed;
+            compilation.done = true;
+            cma.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of compilations currently pending in this queue.
+     */
+    public int size() {
+        return available.availablePermits();
+    }
+
+    /**
+     * Gets the number of queued compilations that were dropped because they had become stale.
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -22,7 +22,8 @@ package com.sun.max.vm.compiler;
 
 import static com.sun.max.vm.VMOptions.*;
 
-import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 import com.sun.max.vm.*;
 import com.sun.max.vm.actor.member.*;
@@ -33,13 +34,18 @@ import com.sun.max.vm.ti.*;
 
 /**
  * This class implements a thread pool that maintains a variable number of compilation threads.
+ * <p>
+ * By default the pool has a fixed size of {@link #CTPS} threads. With {@code -XX:+AdaptiveCTPS} the pool starts
+ * with a single thread and grows when the estimated time to drain the queue exceeds {@link #CTPSBacklog}
+ * milliseconds, up to {@link #CTPSMax} threads. Threads that find no work for {@link #CTPSIdleTimeout}
+ * milliseconds exit, down to a single remaining thread.
  */
 public class CompilationThreadPool {
 
     /**
-     * A queue of pending compilations.
+     * A queue of pending compilations, hottest first.
      */
-    private final LinkedList<Compilation> pending = new LinkedList<Compilation>();
+    private final CompilationQueue pending = new CompilationQueue();
 
     private CompilationThread[] threadPool;
 
@@ -50,12 +56,56 @@ public class CompilationThreadPool {
 
     private static boolean GCOnRecompilation;
 
+    private static boolean AdaptiveCTPS;
+
+    /**
+     * Maximum number of threads in an adaptive pool. A value of 0 means half the available processors.
+     */
+    private static int CTPSMax;
+
+    /**
+     * Milliseconds an adaptive pool thread waits for work before exiting.
+     */
+    private static int CTPSIdleTimeout = 5000;
+
+    /**
+     * Estimated milliseconds of queued work per thread above which an adaptive pool grows.
+     */
+    private static int CTPSBacklog = 50;
+
     static {
         addFieldOption("-XX:", "GCOnRecompilation", CompilationThreadPool.class, "Force GC before every re-compilation.");
         addFieldOption("-XX:", "CTPS", CompilationThreadPool.class, "Compilation threadpool size (Default: 4)");
+        addFieldOption("-XX:", "AdaptiveCTPS", CompilationThreadPool.class, "Size the compilation threadpool according to demand (Default: false)");
+        addFieldOption("-XX:", "CTPSMax", CompilationThreadPool.class, "Maximum size of an adaptive compilation threadpool, 0 for half the available processors (Default: 0)");
+        addFieldOption("-XX:", "CTPSIdleTimeout", CompilationThreadPool.class, "Milliseconds an idle adaptive compilation thread waits before exiting (Default: 5000)");
+        addFieldOption("-XX:", "CTPSBacklog", CompilationThreadPool.class, "Queued compilation time per thread (ms) above which an adaptive threadpool grows (Default: 50)");
     }
 
+    private boolean daemon;
+
+    private int maxThreads;
+
+    /**
+     * Number of live compilation threads.
+     */
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * Number of live compilation threads not currently performing a compilation.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Moving average of the time taken by a compilation, in milliseconds. Zero until the first compilation completes.
+     */
+    private volatile long averageCompileTime;
+
     public CompilationThreadPool() {
+        if (AdaptiveCTPS) {
+            maxThreads = CTPSMax > 0 ? CTPSMax : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            return;
+        }
         threadPool = new CompilationThread[CTPS];
         for (int i = 0; i < CTPS; i++) {
             threadPool[i] = new CompilationThread();
@@ -63,24 +113,115 @@ public class CompilationThreadPool {
     }
 
     public void setDaemon(boolean on) {
-        for (int i = 0; i < CTPS; i++) {
-            threadPool[i].setDaemon(on);
+        daemon = on;
+        if (threadPool != null) {
+            for (int i = 0; i < CTPS; i++) {
+                threadPool[i].setDaemon(on);
+            }
         }
     }
 
     public void startThreads() {
+        if (threadPool == null) {
+            tryAddThread(0);
+            return;
+        }
+        threadCount.set(CTPS);
         for (int i = 0; i < CTPS; i++) {
             threadPool[i].start();
         }
     }
 
-    public void addCompilationToQueue(Compilation compilation) {
-        synchronized (pending) {
-            pending.add(compilation);
-            pending.notify();
+    /**
+     * Queues a compilation to be performed by one of the compilation threads.
+     *
+     * @param compilation the compilation to queue
+     * @param hotness the initial hotness estimate of the method being compiled
+     */
+    public void addCompilationToQueue(Compilation compilation, int hotness) {
+        pending.add(compilation, hotness);
+        if (threadPool == null) {
+            adjustPoolSize();
         }
     }
 
+    /**
+     * Raises the priority of a compilation that may still be pending in the queue.
+     *
+     * @param increment the number of method entries and backward branches executed since the compilation was queued
+     */
+    public void reprioritize(Compilation compilation, int increment) {
+        pending.reprioritize(compilation, increment);
+    }
+
+    /**
+     * Gets the number of compilations waiting to be picked up by a compilation thread.
+     */
+    public int queueLength() {
+        return pending.size();
+    }
+
+    /**
+     * Gets the number of live compilation threads.
+     */
+    public int threadCount() {
+        return threadCount.get();
+    }
+
+    /**
+     * Gets the moving average of compilation time in milliseconds.
+     */
+    public long averageCompileTime() {
+        return averageCompileTime;
+    }
+
+    /**
+     * Starts another thread in an adaptive pool if no thread is idle and the work queued per thread
+     * exceeds {@link #CTPSBacklog}.
+     */
+    private void adjustPoolSize() {
+        int threads = threadCount.get();
+        if (threads >= maxThreads || idleCount.get() > 0) {
+            return;
+        }
+        long queued = pending.size();
+        long average = averageCompileTime;
+        boolean grow = average == 0 ? queued > threads : queued * average > (long) threads * CTPSBacklog;
+        if (grow) {
+            tryAddThread(threads);
+        }
+    }
+
+    private void tryAddThread(int expectedThreads) {
+        if (threadCount.compareAndSet(expectedThreads, expectedThreads + 1)) {
+            CompilationThread thread = new CompilationThread();
+            thread.setDaemon(daemon);
+            thread.start();
+        }
+    }
+
+    /**
+     * Decides whether a thread of an adaptive pool that has been idle for {@link #CTPSIdleTimeout} should exit.
+     * At least one thread is always retained.
+     */
+    private boolean tryRemoveThread() {
+        while (true) {
+            int threads = threadCount.get();
+            if (threads <= 1) {
+                return false;
+            }
+            if (threadCount.compareAndSet(threads, threads - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void recordCompileTime(long millis) {
+        // Exponential moving average weighting the latest compilation by 1/8
+        long average = averageCompileTime;
+        averageCompileTime = average == 0 ? Math.max(1, millis) : Math.max(1, average + ((millis - average) >> 3));
+    }
+
     /**
      * This class implements a daemon thread that performs compilations in the background. Depending on the compiler
      * configuration, multiple compilation threads may be working in parallel.
@@ -98,41 +239,67 @@ public class CompilationThreadPool {
 
         /**
          * Continuously polls the compilation queue for work, performing compilations as they are removed from the
-         * queue.
+         * queue. A thread of an adaptive pool exits after being idle for {@link CompilationThreadPool#CTPSIdleTimeout}.
          */
         @Override
         public void run() {
+            idleCount.incrementAndGet();
             while (true) {
                 try {
-                    compileOne();
+                    if (!compileOne()) {
+                        break;
+                    }
                 } catch (InterruptedException e) {
                     // do nothing.  
                 } catch (Throwable t) {
-                    logCompilationError(compilation.classMethodActor, t);
+                    // Failed compilations are reverted by compileOne(): any code installed by this one stays
+                    logCompilationError(compilation == null ? null : compilation.classMethodActor, t);
                 }
             }
+            idleCount.decrementAndGet();
         }
 
         /**
          * Polls the compilation queue and performs a single compilation.
+         *
+         * @return {@code false} if this thread timed out waiting for work and should exit
          * @throws InterruptedException if the thread was interrupted waiting on the queue
          */
-        void compileOne() throws InterruptedException {
+        boolean compileOne() throws InterruptedException {
             compilation = null;
-            synchronized (pending) {
-                while (compilation == null) {
-                    compilation = pending.poll();
-                    if (compilation == null) {
-                        pending.wait();
-                    }
+            if (threadPool == null) {
+                compilation = pending.poll(CTPSIdleTimeout, TimeUnit.MILLISECONDS);
+                if (compilation == null) {
+                    return !tryRemoveThread();
                 }
+            } else {
+                compilation = pending.take();
             }
-            compilation.compilingThread = Thread.currentThread();
-            if (GCOnRecompilation) {
-                System.gc();
+            idleCount.decrementAndGet();
+            try {
+                compilation.compilingThread = Thread.currentThread();
+                if (GCOnRecompilation) {
+                    System.gc();
+                }
+                long start = System.currentTimeMillis();
+                TargetMethod tm;
+                try {
+                    tm = compilation.compile();
+                } catch (Throwable t) {
+                    logCompilationError(compilation.classMethodActor, t);
+                    CompilationBudget.failed(compilation);
+                    // Let the method run its previous code until it overflows its counters again
+                    compilation.revert();
+                    return true;
+                }
+                long millis = System.currentTimeMillis() - start;
+                recordCompileTime(millis);
+                CompilationBudget.compiled(compilation, millis);
+                VMTI.handler().methodCompiled(tm.classMethodActor);
+            } finally {
+                idleCount.incrementAndGet();
             }
-            TargetMethod tm = compilation.compile();
-            VMTI.handler().methodCompiled(tm.classMethodActor);
+            return true;
         }
     }
 
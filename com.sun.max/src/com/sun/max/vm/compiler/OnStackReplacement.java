@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.compiler;
+
+import static com.sun.max.platform.Platform.*;
+import static com.sun.max.vm.intrinsics.Infopoints.*;
+
+import java.util.*;
+
+import com.sun.cri.ci.*;
+import com.sun.max.lang.*;
+import com.sun.max.memory.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.compiler.RuntimeCompiler.OSRCompiler;
+import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.profile.*;
+import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.stack.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * On-stack replacement (OSR) of a running baseline frame by a frame of optimized code.
+ *
+ * When the {@linkplain MethodProfile#backedgeCount backward branch counter} of a baseline method overflows, the
+ * method is compiled by an {@linkplain OSRCompiler OSR-capable} optimizing compiler with an extra entry point at the
+ * loop header targeted by the branch. The values of the baseline frame's local variables are then copied to an
+ * <i>OSR buffer</i>, one word per local variable slot, and the frame is replaced by a frame of the optimized code
+ * entered at its {@linkplain TargetMethod#osrEntryOffset() OSR entry point} with the buffer as argument. The
+ * optimized code loads the locals from the buffer and releases it with the {@link CiRuntimeCall#OSRMigrationEnd}
+ * runtime call.
+ *
+ * The optimized frame is built in the place of the baseline frame so that it returns to the baseline frame's
+ * caller. A baseline frame pops its incoming parameters on return whereas an optimized frame does not, so the return
+ * address is moved to the topmost incoming parameter slot before entering the optimized code: after returning, the
+ * stack pointer is the same as if the baseline frame had returned.
+ *
+ * The code produced for a given loop header is cached until it is invalidated or until optimized code is installed
+ * for the method (see {@link #discard(ClassMethodActor)}). It is never installed as the method's current code: the
+ * next invocation of the method still goes through the normal recompilation policy of the {@link CompilationBroker}.
+ * On-stack replacement is currently only supported on AMD64.
+ */
+public final class OnStackReplacement {
+
+    private OnStackReplacement() {
+    }
+
+    /**
+     * Marks a loop header for which no OSR code could be produced.
+     */
+    private static final Object FAILED = new Object();
+
+    /**
+     * Map from a method to the OSR code produced for its loop headers (or {@link #FAILED}), keyed by bytecode index.
+     */
+    private static final HashMap<ClassMethodActor, HashMap<Integer, Object>> osrCode = new HashMap<ClassMethodActor, HashMap<Integer, Object>>();
+
+    /**
+     * Discards the OSR code cached for a given method. This is called once optimized code has been installed for the
+     * method: new invocations no longer run baseline code, and the few baseline frames still active simply recompile
+     * their OSR code should they overflow their backward branch counter again.
+     */
+    public static void discard(ClassMethodActor cma) {
+        synchronized (osrCode) {
+            osrCode.remove(cma);
+        }
+    }
+
+    /**
+     * Determines if baseline frames can be replaced by the code of a given optimizing compiler on this platform.
+     */
+    public static boolean isSupported(RuntimeCompiler optimizingCompiler) {
+        return platform().isa == ISA.AMD64 && optimizingCompiler instanceof OSRCompiler;
+    }
+
+    /**
+     * Locates the most recent frame of a given baseline method on the current thread's stack.
+     */
+    static final class FrameFinder extends RawStackFrameVisitor {
+        private final TargetMethod baselineMethod;
+        Pointer fp = Pointer.zero();
+        Pointer returnAddressPointer = Pointer.zero();
+
+        FrameFinder(TargetMethod baselineMethod) {
+            this.baselineMethod = baselineMethod;
+        }
+
+        @Override
+        public boolean visitFrame(StackFrameCursor current, StackFrameCursor callee) {
+            if (current.targetMethod() == baselineMethod) {
+                fp = current.fp();
+                returnAddressPointer = baselineMethod.returnAddressPointer(current);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Replaces the most recent frame of a baseline method with a frame of optimized code entered at a given loop
+     * header. This must be called on the thread that overflowed the backward branch counter of the method, from the
+     * code of the backward branch.
+     * This method does not return if the frame was replaced.
+     *
+     * @param mpo profiling object of the baseline method
+     * @param osrBCI the loop header at which the optimized code is entered
+     * @param compiler the compiler producing the optimized code
+     */
+    public static void replace(MethodProfile mpo, int osrBCI, OSRCompiler compiler) {
+        final TargetMethod baselineMethod = mpo.method;
+        final ClassMethodActor cma = baselineMethod.classMethodActor;
+        final TargetMethod osrMethod = osrMethod(cma, osrBCI, compiler);
+        if (osrMethod == null) {
+            return;
+        }
+
+        final int maxLocals = cma.maxLocals();
+        final Pointer buffer = Memory.allocate(Size.fromInt(Math.max(maxLocals, 1) * Word.size()));
+        if (buffer.isZero()) {
+            return;
+        }
+        logReplacement(cma, osrBCI, osrMethod);
+        mpo.backedgeCount = MethodInstrumentation.initialBackedgeCount;
+
+        final FrameFinder finder = new FrameFinder(baselineMethod);
+        // The buffer is not a GC root: the references it holds must not be observed by a GC between here and
+        // the loads of the OSR entry block. Safepoints are disabled while the frame is inspected and re-enabled
+        // before the unwind, which is only safe because there is no safepoint poll on the path from the unwind to
+        // those loads: Stubs.unwindLong does not poll and the OSR entry block ends with a non-safepoint jump to the
+        // loop header (see GraphBuilder.setupOsrEntryBlock).
+        SafepointPoll.disable();
+        new VmStackFrameWalker(VmThread.current().tla()).inspect(Pointer.fromLong(here()),
+                                                                 VMRegister.getCpuStackPointer(),
+                                                                 VMRegister.getCpuFramePointer(),
+                                                                 finder);
+        FatalError.check(!finder.fp.isZero(), "baseline frame to replace not found");
+
+        final Pointer fp = finder.fp;
+        final JVMSFrameLayout layout = (JVMSFrameLayout) baselineMethod.frameLayout();
+        for (int i = 0; i < maxLocals; i++) {
+            buffer.setWord(i, fp.readWord(layout.localVariableOffset(i)));
+        }
+
+        final Pointer returnAddressPointer = finder.returnAddressPointer;
+        final Pointer callerFP = returnAddressPointer.readWord(-Word.size()).asPointer();
+        final Pointer sp = returnAddressPointer.plus(cma.numberOfParameterSlots() * JVMSFrameLayout.JVMS_SLOT_SIZE);
+        sp.writeWord(0, returnAddressPointer.readWord(0));
+
+        SafepointPoll.enable();
+        Stubs.unwindLong(osrMethod.codeAt(osrMethod.osrEntryOffset()).toAddress(), sp, callerFP, buffer.toLong());
+    }
+
+    /**
+     * Gets the OSR code for a given loop header, compiling it if necessary.
+     *
+     * @return {@code null} if no OSR code could be produced for {@code osrBCI}
+     */
+    private static TargetMethod osrMethod(ClassMethodActor cma, int osrBCI, OSRCompiler compiler) {
+        Object cached;
+        synchronized (osrCode) {
+            HashMap<Integer, Object> methods = osrCode.get(cma);
+            cached = methods == null ? null : methods.get(osrBCI);
+            if (cached != null && cached != FAILED && ((TargetMethod) cached).invalidated() != null) {
+                // evict the stale code so that the map does not keep invalidated methods alive
+                methods.remove(osrBCI);
+                if (methods.isEmpty()) {
+                    osrCode.remove(cma);
+                }
+                cached = null;
+            }
+        }
+        if (cached == FAILED) {
+            return null;
+        }
+        if (cached != null) {
+            return (TargetMethod) cached;
+        }
+
+        Object result;
+        try {
+            TargetMethod tm = compiler.compileOSR(cma, osrBCI);
+            assert tm.osrEntryOffset() >= 0 : "no OSR entry point in " + tm;
+            result = tm;
+        } catch (CiBailout e) {
+            logFailure(cma, osrBCI, e);
+            result = FAILED;
+        } catch (InternalError e) {
+            logFailure(cma, osrBCI, e);
+            result = FAILED;
+        }
+        synchronized (osrCode) {
+            HashMap<Integer, Object> methods = osrCode.get(cma);
+            if (methods == null) {
+                methods = new HashMap<Integer, Object>();
+                osrCode.put(cma, methods);
+            }
+            methods.put(osrBCI, result);
+        }
+        return result == FAILED ? null : (TargetMethod) result;
+    }
+
+    private static void logReplacement(ClassMethodActor cma, int osrBCI, TargetMethod osrMethod) {
+        if (VMOptions.verboseOption.verboseCompilation) {
+            boolean lockDisabledSafepoints = Log.lock();
+            Log.printCurrentThread(false);
+            Log.print(": On-stack replacement of ");
+            Log.printMethod(cma, false);
+            Log.print(" at bci ");
+            Log.print(osrBCI);
+            Log.print(" with ");
+            Log.print(osrMethod.codeAt(osrMethod.osrEntryOffset()));
+            Log.println();
+            Log.unlock(lockDisabledSafepoints);
+        }
+    }
+
+    private static void logFailure(ClassMethodActor cma, int osrBCI, Throwable e) {
+        if (VMOptions.verboseOption.verboseCompilation) {
+            boolean lockDisabledSafepoints = Log.lock();
+            Log.printCurrentThread(false);
+            Log.print(": On-stack replacement failed for ");
+            Log.printMethod(cma, false);
+            Log.print(" at bci ");
+            Log.print(osrBCI);
+            Log.print(": ");
+            Log.print(e.getMessage());
+            Log.println();
+            Log.unlock(lockDisabledSafepoints);
+        }
+    }
+}
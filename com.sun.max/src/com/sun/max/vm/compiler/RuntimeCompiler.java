@@ -128,6 +128,22 @@ public interface RuntimeCompiler {
      */
     String name(ClassMethodActor classMethodActor);
 
+    /**
+     * Implemented by an optimizing compiler that can produce code entered at a loop header from a
+     * {@linkplain Nature#BASELINE baseline} frame, i.e. code for on-stack replacement.
+     */
+    interface OSRCompiler {
+        /**
+         * Compiles a method with an on-stack replacement entry point at a given loop header. The returned
+         * target method is installed in the code cache, but it must never become the current target
+         * method of {@code classMethodActor}: it is only entered via {@link TargetMethod#osrEntryOffset()}.
+         *
+         * @param classMethodActor the method to compile
+         * @param osrBCI the bytecode index of the loop header at which the code is entered
+         */
+        TargetMethod compileOSR(ClassMethodActor classMethodActor, int osrBCI);
+    }
+
     abstract class DefaultNameAdapter implements RuntimeCompiler {
         public String name(ClassMethodActor classMethodActor) {
             return getClass().getSimpleName();
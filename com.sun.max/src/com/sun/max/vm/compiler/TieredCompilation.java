@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.compiler;
+
+import static com.sun.max.vm.MaxineVM.*;
+import static com.sun.max.vm.VMOptions.*;
+
+import java.util.*;
+
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.compiler.RuntimeCompiler.Nature;
+import com.sun.max.vm.compiler.deopt.*;
+import com.sun.max.vm.compiler.target.*;
+import com.sun.max.vm.profile.*;
+import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.ti.*;
+
+/**
+ * Three-level tiered compilation.
+ * <ol>
+ * <li>Tier 0 is the baseline compiler. Its code counts invocations and backward branches in the method's
+ * {@link MethodProfile} and triggers a recompilation by the {@link CompilationBroker#optimizingCompiler optimizing
+ * compiler} when the {@linkplain CompilationBroker recompilation threshold} is reached.</li>
+ * <li>Tier 1 is the optimizing compiler. When tiered compilation is enabled, its code increments the
+ * {@linkplain MethodProfile#tier1Count tier 1 counter} of the baseline profile on every invocation. It does
+ * not call into the runtime when the counter overflows.</li>
+ * <li>Tier 2 is the compiler registered with {@code -XX:AddCompiler} under the name given by {@code -XX:Tier2Compiler}.
+ * A daemon thread periodically scans the tier 1 methods, halves their counters every {@link #TierDecayHalfLife}
+ * milliseconds and recompiles the hottest methods whose counter exceeds {@link #Tier2Threshold} with the tier 2
+ * compiler. The entry points of the replaced tier 1 code are then redirected to the static trampoline, so that its
+ * callers are re-linked to the tier 2 code.</li>
+ * </ol>
+ * Decaying the tier 1 counters ensures only methods that stay hot are compiled by the expensive tier 2 compiler.
+ * The number of pending compilations is bounded per tier: tier 0 methods are not queued for tier 1 while
+ * {@link #Tier1QueueLimit} background compilations are pending, and at most {@link #Tier2QueueLimit} methods are
+ * selected for tier 2 per scan.
+ */
+public final class TieredCompilation {
+
+    private static boolean TieredCompilation;
+
+    /**
+     * Name of the compiler used for tier 2.
+     */
+    private static String Tier2Compiler = "Graal";
+
+    /**
+     * Number of (decayed) tier 1 invocations after which a method is compiled by the tier 2 compiler.
+     */
+    private static int Tier2Threshold = 20000;
+
+    /**
+     * Milliseconds after which the tier 1 counters are halved. A value of 0 disables decay.
+     */
+    private static int TierDecayHalfLife = 2000;
+
+    /**
+     * Maximum number of background compilations pending before tier 0 methods are no longer queued for tier 1.
+     */
+    private static int Tier1QueueLimit = 100;
+
+    /**
+     * Maximum number of methods selected for tier 2 compilation per scan.
+     */
+    private static int Tier2QueueLimit = 4;
+
+    static {
+        addFieldOption("-XX:", "TieredCompilation", TieredCompilation.class, "Recompile the hottest optimized methods with the tier 2 compiler (default: false).");
+        addFieldOption("-XX:", "Tier2Compiler", TieredCompilation.class, "Name of the compiler registered with -XX:AddCompiler used for tier 2 (default: " + Tier2Compiler + ").");
+        addFieldOption("-XX:", "Tier2Threshold", TieredCompilation.class, "Number of tier 1 invocations that trigger a tier 2 compilation (default: " + Tier2Threshold + ").");
+        addFieldOption("-XX:", "TierDecayHalfLife", TieredCompilation.class, "Milliseconds after which tier 1 invocation counters are halved, 0 to disable decay (default: " + TierDecayHalfLife + ").");
+        addFieldOption("-XX:", "Tier1QueueLimit", TieredCompilation.class, "Maximum number of pending background compilations before tier 1 compilations are deferred (default: " + Tier1QueueLimit + ").");
+        addFieldOption("-XX:", "Tier2QueueLimit", TieredCompilation.class, "Maximum number of methods selected for tier 2 compilation per scan (default: " + Tier2QueueLimit + ").");
+    }
+
+    /**
+     * Milliseconds between two scans of the tier 1 methods.
+     */
+    private static final int SCAN_INTERVAL = 100;
+
+    /**
+     * The tier 2 compiler, or {@code null} if tiered compilation is not enabled.
+     */
+    private static RuntimeCompiler tier2Compiler;
+
+    /**
+     * Profiles of the methods that have tier 1 code and are candidates for tier 2.
+     */
+    private static final HashSet<MethodProfile> tier1Profiles = new HashSet<MethodProfile>();
+
+    /**
+     * The tier 2 code whose tier 1 predecessor has been redirected to it.
+     */
+    private static final HashSet<TargetMethod> tier2Methods = new HashSet<TargetMethod>();
+
+    /**
+     * The thread that performs the tier 2 compilations.
+     */
+    private static Thread policyThread;
+
+    private TieredCompilation() {
+    }
+
+    /**
+     * Enables tiered compilation if requested and the tier 2 compiler is available.
+     * Called by the {@link CompilationBroker} in the {@link MaxineVM.Phase#RUNNING} phase.
+     */
+    static void initialize(CompilationBroker broker) {
+        if (!TieredCompilation) {
+            return;
+        }
+        RuntimeCompiler compiler = broker.altCompiler(Tier2Compiler);
+        if (compiler == null || broker.baselineCompiler == null) {
+            Log.println("Tiered compilation disabled: no compiler registered as " + Tier2Compiler);
+            TieredCompilation = false;
+            return;
+        }
+        tier2Compiler = compiler;
+        lastDecay = System.currentTimeMillis();
+        policyThread = new Thread("TierPolicy") {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        Thread.sleep(SCAN_INTERVAL);
+                    } catch (InterruptedException e) {
+                        // do nothing.
+                    }
+                    scan();
+                }
+            }
+        };
+        policyThread.setDaemon(true);
+        policyThread.start();
+    }
+
+    /**
+     * Gets the profile whose {@linkplain MethodProfile#tier1Count tier 1 counter} is to be incremented by the optimized
+     * code being produced for a given method, registering the method as a candidate for tier 2.
+     *
+     * @return {@code null} if the optimized code of {@code cma} is not to be instrumented
+     */
+    public static MethodProfile tier1Profile(ClassMethodActor cma) {
+        if (tier2Compiler == null || Thread.currentThread() == policyThread) {
+            // Code produced for tier 2 is not instrumented
+            return null;
+        }
+        MethodProfile mpo = cma.baselineProfile();
+        if (mpo != null && !mpo.compilationDisabled) {
+            synchronized (tier1Profiles) {
+                tier1Profiles.add(mpo);
+            }
+        }
+        return mpo;
+    }
+
+    /**
+     * Determines if tiered compilation is enabled.
+     */
+    public static boolean isEnabled() {
+        return tier2Compiler != null;
+    }
+
+    /**
+     * Gets the tier of the code currently executed for a method. Tier 2 is only reported once the callers of the
+     * replaced tier 1 code have been redirected.
+     *
+     * @return 0 for baseline code or if the method has not been compiled, 1 for optimized code and 2 for tier 2 code
+     */
+    public static int tierOf(ClassMethodActor cma) {
+        TargetMethod tm = cma.currentTargetMethod();
+        if (tm == null || tm.isBaseline()) {
+            return 0;
+        }
+        synchronized (tier2Methods) {
+            return tier2Methods.contains(tm) ? 2 : 1;
+        }
+    }
+
+    /**
+     * Determines if a tier 0 method may be queued for tier 1 compilation in the background.
+     */
+    static boolean mayQueueTier1(CompilationThreadPool pool) {
+        return !TieredCompilation || pool.queueLength() < Tier1QueueLimit;
+    }
+
+    private static long lastDecay;
+
+    /**
+     * Decays the tier 1 counters and recompiles the hottest tier 1 methods.
+     */
+    private static void scan() {
+        MethodProfile[] profiles;
+        synchronized (tier1Profiles) {
+            profiles = tier1Profiles.toArray(new MethodProfile[tier1Profiles.size()]);
+        }
+        int shift = 0;
+        if (TierDecayHalfLife > 0) {
+            long halfLives = (System.currentTimeMillis() - lastDecay) / TierDecayHalfLife;
+            if (halfLives > 0) {
+                lastDecay += halfLives * TierDecayHalfLife;
+                shift = (int) Math.min(halfLives, 31);
+            }
+        }
+
+        ArrayList<MethodProfile> queue = new ArrayList<MethodProfile>();
+        for (MethodProfile mpo : profiles) {
+            if (mpo.tier1Count >= Tier2Threshold) {
+                queue.add(mpo);
+            } else if (shift != 0) {
+                mpo.tier1Count >>= shift;
+            }
+        }
+        Collections.sort(queue, new Comparator<MethodProfile>() {
+            public int compare(MethodProfile a, MethodProfile b) {
+                return b.tier1Count < a.tier1Count ? -1 : (b.tier1Count == a.tier1Count ? 0 : 1);
+            }
+        });
+
+        ArrayList<TargetMethod> replaced = new ArrayList<TargetMethod>();
+        ArrayList<TargetMethod> compiled = new ArrayList<TargetMethod>();
+        for (int i = 0; i < queue.size(); i++) {
+            MethodProfile mpo = queue.get(i);
+            if (i >= Tier2QueueLimit) {
+                // Keep it hot for the next scan
+                mpo.tier1Count >>= shift;
+                continue;
+            }
+            synchronized (tier1Profiles) {
+                tier1Profiles.remove(mpo);
+            }
+            ClassMethodActor cma = mpo.method.classMethodActor;
+            TargetMethod tier1 = compileTier2(cma);
+            if (tier1 != null) {
+                replaced.add(tier1);
+                compiled.add(cma.currentTargetMethod());
+            }
+        }
+        if (!replaced.isEmpty()) {
+            new Redirection(replaced).submit();
+            synchronized (tier2Methods) {
+                for (Iterator<TargetMethod> i = tier2Methods.iterator(); i.hasNext();) {
+                    if (i.next().invalidated() != null) {
+                        i.remove();
+                    }
+                }
+                tier2Methods.addAll(compiled);
+            }
+        }
+    }
+
+    /**
+     * Compiles a method with the tier 2 compiler.
+     *
+     * @return the tier 1 code replaced by the tier 2 code or {@code null} if the method was not recompiled
+     */
+    private static TargetMethod compileTier2(ClassMethodActor cma) {
+        Compilation compilation;
+        synchronized (cma) {
+            Object compiledState = cma.compiledState;
+            if (compiledState instanceof Compilation) {
+                // Already being (re)compiled
+                return null;
+            }
+            compilation = new Compilation(tier2Compiler, cma, (Compilations) compiledState, Thread.currentThread(), Nature.OPT, false);
+            cma.compiledState = compilation;
+        }
+        TargetMethod tier1 = compilation.prevCompilations.optimized;
+        try {
+            long start = System.currentTimeMillis();
+            TargetMethod tm = compilation.compile();
+            CompilationBudget.compiled(compilation, System.currentTimeMillis() - start);
+            VMTI.handler().methodCompiled(cma);
+            return tier1 == null || tier1 == tm ? null : tier1;
+        } catch (Throwable t) {
+            if (VMOptions.verboseOption.verboseCompilation) {
+                boolean lockDisabledSafepoints = Log.lock();
+                Log.printCurrentThread(false);
+                Log.print(": Tier 2 compilation of " + cma + " by " + tier2Compiler + " failed");
+                t.printStackTrace(Log.out);
+                Log.unlock(lockDisabledSafepoints);
+            }
+            // Stay with the tier 1 code
+            CompilationBudget.failed(compilation);
+            compilation.revert();
+            return null;
+        }
+    }
+
+    /**
+     * Redirects the callers of tier 1 code to the tier 2 code that replaced it. As for {@linkplain Deoptimization
+     * deoptimized} methods, the dispatch table entries are reverted to trampolines and the entry points are patched to
+     * jump to the static trampoline. Frames executing the tier 1 code are not affected.
+     */
+    static final class Redirection extends VmOperation {
+        private final ArrayList<TargetMethod> methods;
+
+        Redirection(ArrayList<TargetMethod> methods) {
+            super("TierRedirection", null, Mode.Safepoint);
+            this.methods = methods;
+        }
+
+        @Override
+        protected boolean isCoalescable() {
+            return true;
+        }
+
+        @Override
+        protected void doIt() {
+            Stub staticTrampoline = vm().stubs.staticTrampoline();
+            for (TargetMethod tm : methods) {
+                if (tm.invalidated() == null) {
+                    Deoptimization.patchDispatchTables(tm);
+                    tm.redirectTo(staticTrampoline);
+                }
+            }
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.sun.max.vm.compiler.target.TargetMethod.FrameAccess;
 import com.sun.max.vm.compiler.target.amd64.AMD64TargetMethodUtil;
 import com.sun.max.vm.log.VMLog.Record;
 import com.sun.max.vm.log.hosted.*;
+import com.sun.max.vm.monitor.*;
 import com.sun.max.vm.profile.MethodProfile;
 import com.sun.max.vm.reference.*;
 import com.sun.max.vm.runtime.*;
@@ -105,11 +106,20 @@ public class Deoptimization extends VmOperation {
      */
     public static int DeoptimizeALot;
 
+    /**
+     * The number of uncommon traps taken at a bytecode after which the optimized method is invalidated
+     * and the optimizing compiler stops speculating on the profile of that bytecode.
+     */
+    public static int PerBytecodeTrapLimit = 4;
+
     static {
         VMOptions.addFieldOption("-XX:", "UseDeopt", Deoptimization.class, "Enable deoptimization.");
         VMOptions.addFieldOption("-XX:", "DeoptimizeALot", Deoptimization.class,
                                  "Invalidate and deoptimize a selection of executing optimized methods every <n> milliseconds. " +
                                  "A value of 0 disables this mechanism.");
+        VMOptions.addFieldOption("-XX:", "PerBytecodeTrapLimit", Deoptimization.class,
+                                 "Invalidate an optimized method once it has taken <n> uncommon traps at the same bytecode " +
+                                 "and recompile it without speculating there.");
     }
 
     /**
@@ -150,6 +160,11 @@ public class Deoptimization extends VmOperation {
         this.deoptReasonId = deoptReasonId;
     }
 
+    @Override
+    protected boolean isCoalescable() {
+        return true;
+    }
+
     @HOSTED_ONLY
     public static void initializeMaxMiscLoweringsDeoptimizeMethodActor(StaticMethodActor methodActor) {
         MaxMiscLoweringsDeoptimizeMethodActor = methodActor;
@@ -202,7 +217,7 @@ public class Deoptimization extends VmOperation {
      * Find all instances of a given (invalidated) target method in dispatch tables (e.g. vtables, itables etc) and
      * revert these entries to be trampolines. Concurrent patching ok here as it is atomic.
      */
-    static void patchDispatchTables(final TargetMethod tm) {
+    public static void patchDispatchTables(final TargetMethod tm) {
         final ClassMethodActor method = tm.classMethodActor;
         assert method != null : "de-opting target method with null class method: " + tm;
         if (method instanceof VirtualMethodActor) {
@@ -769,6 +784,7 @@ public class Deoptimization extends VmOperation {
         CiDebugInfo debugInfo = tm.debugInfoAt(safepointIndex, fa);
         CiFrame topFrame = debugInfo.frame();
         FatalError.check(topFrame != null, "No frame info found at deopt site: " + tm.posFor(ip));
+        relockEliminatedMonitors(topFrame);
 
         Throwable pendingException = null;
         if (topFrame.rethrowException) {
@@ -881,6 +897,24 @@ public class Deoptimization extends VmOperation {
         FatalError.unexpected("should not reach here: unrolled deopt error");
     }
 
+    /**
+     * Acquires the monitors of the objects whose locking was eliminated by the compiler, starting with the
+     * outermost frame, and replaces the lock values in the frames by the objects.
+     */
+    private static void relockEliminatedMonitors(CiFrame frame) {
+        if (frame.caller() != null) {
+            relockEliminatedMonitors(frame.caller());
+        }
+        for (int i = 0; i < frame.numLocks; i++) {
+            CiValue lock = frame.getLockValue(i);
+            if (lock.isMonitor() && ((CiMonitorValue) lock).eliminated) {
+                CiConstant owner = (CiConstant) ((CiMonitorValue) lock).owner;
+                Monitor.enter(owner.asObject());
+                frame.values[frame.numLocals + frame.numStack + i] = owner;
+            }
+        }
+    }
+
     /**
      * Finds the frame containing a handler for an exception thrown at the current BCI or
      * of a synchronized method (so that an extra exception handler exists in order to exit a monitor).
@@ -946,9 +980,39 @@ public class Deoptimization extends VmOperation {
      */
     public static void uncommonTrap(Pointer csa, Pointer ip, Pointer sp, Pointer fp) {
         FatalError.check(!csa.isZero(), "callee save area expected for uncommon trap");
+        recordUncommonTrap(CodePointer.from(ip));
         deoptimize(CodePointer.from(ip), sp, fp, csa, vm().registerConfigs.uncommonTrapStub.getCalleeSaveLayout(), null);
     }
 
+    /**
+     * Counts an uncommon trap against the bytecode whose speculation failed, in the profile of the baseline code of
+     * the method containing that bytecode. Once {@link #PerBytecodeTrapLimit} traps have been taken there, the
+     * trapping method is invalidated. As the profile no longer reports the bytecode to the optimizing compiler, the
+     * method is recompiled without that speculation once its baseline code is hot again.
+     *
+     * @param ip the address of the uncommon trap
+     */
+    private static void recordUncommonTrap(CodePointer ip) {
+        TargetMethod tm = ip.toTargetMethod();
+        if (tm == null || tm.invalidated() != null) {
+            return;
+        }
+        int safepointIndex = tm.findSafepointIndex(ip);
+        if (safepointIndex < 0) {
+            return;
+        }
+        CiFrame frame = tm.debugInfoAt(safepointIndex, null).frame();
+        if (frame == null) {
+            return;
+        }
+        MethodProfile mpo = ((ClassMethodActor) frame.method).baselineProfile();
+        if (mpo != null && mpo.incrementUncommonTrapCount(frame.bci) == PerBytecodeTrapLimit) {
+            ArrayList<TargetMethod> methods = new ArrayList<TargetMethod>(1);
+            methods.add(tm);
+            new Deoptimization(methods).go();
+        }
+    }
+
     @NEVER_INLINE // makes inspecting easier
     static void logPatchITable(ClassActor classActor, int iIndex) {
         if (deoptLogger.enabled()) {
@@ -118,6 +118,17 @@ public class Compilation {
 
     public final RuntimeCompiler.Nature nature;
 
+    /**
+     * Estimated number of method entries and backward branches executed by the previous version of the method.
+     * Used to order pending background compilations; see {@link CompilationQueue}.
+     */
+    public int hotness;
+
+    /**
+     * Order in which this compilation was added to a {@link CompilationQueue}.
+     */
+    public long queueSequence;
+
     public Compilation(RuntimeCompiler compiler,
                        ClassMethodActor classMethodActor,
                        Compilations prevCompilations,
@@ -329,6 +340,10 @@ public class Compilation {
                     classMethodActor.notifyAll();
                 }
             }
+            if (result != null && !result.isBaseline()) {
+                // the cached OSR code is superseded by the installed optimized code
+                OnStackReplacement.discard(classMethodActor);
+            }
 
             COMPILATION.set(parent);
         }
@@ -344,6 +359,21 @@ public class Compilation {
         return result;
     }
 
+    /**
+     * Reverts the compiled state of the method to what it was before this compilation after the compilation
+     * failed. Threads waiting for this compilation get the previous code of the method, if any.
+     */
+    public void revert() {
+        synchronized (classMethodActor) {
+            if (classMethodActor.compiledState == this) {
+                classMethodActor.compiledState = prevCompilations;
+                result = prevCompilations.currentTargetMethod(null);
+                done = result != null;
+                classMethodActor.notifyAll();
+            }
+        }
+    }
+
     /**
      * Allows a thread to relinquish ownership of a compilation
      * if another thread is to compile it.
@@ -173,6 +173,11 @@ public abstract class TargetMethod extends MemoryRegion {
      */
     private int registerRestoreEpilogueOffset = -1;
 
+    /**
+     * Offset of the on-stack replacement entry point in the code, or -1 if this is not OSR code.
+     */
+    private int osrEntryOffset = -1;
+
     public TargetMethod(String description, CallEntryPoint callEntryPoint) {
         assert this instanceof Stub || this instanceof Adapter;
         this.classMethodActor = null;
@@ -197,6 +202,15 @@ public abstract class TargetMethod extends MemoryRegion {
         registerRestoreEpilogueOffset = x;
     }
 
+    /**
+     * Gets the offset of the on-stack replacement entry point in this method's code.
+     *
+     * @return -1 if this method was not compiled for on-stack replacement
+     */
+    public int osrEntryOffset() {
+        return osrEntryOffset;
+    }
+
     public final ClassMethodActor classMethodActor() {
         return classMethodActor;
     }
@@ -744,6 +758,7 @@ public abstract class TargetMethod extends MemoryRegion {
     protected void initFrameLayout(CiTargetMethod ciTargetMethod) {
         this.setFrameSize(ciTargetMethod.frameSize());
         this.setRegisterRestoreEpilogueOffset(ciTargetMethod.registerRestoreEpilogueOffset());
+        this.osrEntryOffset = ciTargetMethod.osrEntryOffset();
     }
 
     protected CiDebugInfo[] initSafepoints(CiTargetMethod ciTargetMethod) {
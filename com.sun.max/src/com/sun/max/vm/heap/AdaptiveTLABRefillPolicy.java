@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap;
+
+import static com.sun.max.vm.VMOptions.*;
+import static com.sun.max.vm.thread.VmThread.*;
+import static com.sun.max.vm.thread.VmThreadLocal.*;
+
+import java.util.concurrent.atomic.*;
+
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+
+/**
+ * A per-thread TLAB refill policy that resizes the thread's TLAB at every garbage collection according to how much the
+ * thread allocated since the previous one. The desired TLAB size is an exponentially decaying average of the space the
+ * thread obtained through TLAB refills between two collections, divided by a target number of refills per collection.
+ * Allocation-heavy threads therefore get large TLABs and refill rarely, while mostly idle threads get small TLABs and
+ * leave little unused space in the heap at collection time.
+ *
+ * When an allocation doesn't fit in the TLAB, the TLAB is refilled only if the space left in it is below a refill waste
+ * limit, otherwise the object is allocated outside of the TLAB and the limit is raised so that a thread repeatedly
+ * failing to allocate in a mostly empty TLAB eventually refills.
+ *
+ * Per-thread counts of refills, wasted space and slow-path allocations are added to global counters every time the
+ * thread's TLAB is reset, i.e., at every garbage collection and when the thread detaches.
+ * The global counters are exposed through {@link com.sun.max.vm.management.MemoryManagement#getTLABStatisticsMXBean()}.
+ */
+public final class AdaptiveTLABRefillPolicy extends TLABRefillPolicy {
+    private static final VMSizeOption minTLABSizeOption = register(new VMSizeOption("-XX:MinTLABSize=", Size.K.times(2),
+        "Minimum size of adaptively sized thread-local allocation buffers."), MaxineVM.Phase.PRISTINE);
+
+    private static final VMSizeOption maxTLABSizeOption = register(new VMSizeOption("-XX:MaxTLABSize=", Size.M,
+        "Maximum size of adaptively sized thread-local allocation buffers."), MaxineVM.Phase.PRISTINE);
+
+    private static final VMIntOption targetRefillsOption = register(new VMIntOption("-XX:TLABRefillsPerGC=", 50,
+        "Number of TLAB refills per thread between two garbage collections that adaptively sized TLABs aim at."), MaxineVM.Phase.PRISTINE);
+
+    /**
+     * Weight, in percent, of the last sample in the decaying average of the space a thread allocates between two collections.
+     */
+    static final int ALLOCATION_SAMPLE_WEIGHT = 35;
+
+    /**
+     * The refill waste limit is the desired TLAB size divided by this fraction.
+     */
+    static final int REFILL_WASTE_FRACTION = 64;
+
+    /**
+     * Fraction of the desired TLAB size the refill waste limit is raised by on each allocation outside of the TLAB.
+     */
+    static final int REFILL_WASTE_INCREMENT_FRACTION = 256;
+
+    /**
+     * The global counters, which threads detaching concurrently update.
+     */
+    private static final AtomicLong totalRefills = new AtomicLong();
+    private static final AtomicLong totalWastedBytes = new AtomicLong();
+    private static final AtomicLong totalSlowPathAllocations = new AtomicLong();
+
+    /**
+     * Total number of TLAB refills of threads using an adaptive policy, as of their last TLAB reset.
+     */
+    public static long totalRefills() {
+        return totalRefills.get();
+    }
+
+    /**
+     * Total number of bytes left unused in TLABs at refill by threads using an adaptive policy, as of their last TLAB reset.
+     */
+    public static long totalWastedBytes() {
+        return totalWastedBytes.get();
+    }
+
+    /**
+     * Total number of allocations that took the slow path on threads using an adaptive policy, as of their last TLAB reset.
+     */
+    public static long totalSlowPathAllocations() {
+        return totalSlowPathAllocations.get();
+    }
+
+    /**
+     * Size the TLAB should have on next refill.
+     */
+    private long desiredSize;
+
+    /**
+     * Decaying average of the number of bytes obtained through refills between two collections.
+     */
+    private long averageAllocatedBytes;
+
+    /**
+     * Space left in the TLAB below which the TLAB is refilled on allocation failure.
+     */
+    private long refillWasteLimit;
+
+    private long allocatedBytes;
+    private int refills;
+    private long wastedBytes;
+    private int slowPathAllocations;
+
+    public AdaptiveTLABRefillPolicy(Size initialTLABSize) {
+        desiredSize = initialTLABSize.toLong();
+        averageAllocatedBytes = desiredSize * targetRefillsOption.getValue();
+        refillWasteLimit = desiredSize / REFILL_WASTE_FRACTION;
+    }
+
+    @Override
+    public boolean shouldRefill(Size size, Pointer allocationMark) {
+        if (allocationMark.isZero()) {
+            // No TLAB. Refill whatsoever
+            return true;
+        }
+        final Pointer etla = ETLA.load(currentTLA());
+        final long spaceLeft = HeapSchemeWithTLAB.TLAB_TOP.load(etla).minus(allocationMark).toLong();
+        if (spaceLeft <= refillWasteLimit) {
+            return true;
+        }
+        // Too much space would be wasted. Allocate outside of the TLAB, but make refilling more likely next time.
+        refillWasteLimit += desiredSize / REFILL_WASTE_INCREMENT_FRACTION;
+        return false;
+    }
+
+    @Override
+    public Size nextTlabSize() {
+        return Size.fromLong(desiredSize);
+    }
+
+    @Override
+    public void notifyRefill(Size tlabSize, Size leftover) {
+        refills++;
+        allocatedBytes += tlabSize.toLong();
+        wastedBytes += leftover.toLong();
+    }
+
+    @Override
+    public void notifySlowPathAllocation() {
+        slowPathAllocations++;
+    }
+
+    @Override
+    public void notifyReset() {
+        totalRefills.addAndGet(refills);
+        totalWastedBytes.addAndGet(wastedBytes);
+        totalSlowPathAllocations.addAndGet(slowPathAllocations);
+
+        averageAllocatedBytes += (allocatedBytes - averageAllocatedBytes) * ALLOCATION_SAMPLE_WEIGHT / 100;
+        long size = averageAllocatedBytes / targetRefillsOption.getValue();
+        final long minSize = minTLABSizeOption.getValue().toLong();
+        final long maxSize = maxTLABSizeOption.getValue().toLong();
+        if (size < minSize) {
+            size = minSize;
+        } else if (size > maxSize) {
+            size = maxSize;
+        }
+        desiredSize = Size.fromLong(size).alignUp(Word.size()).toLong();
+        refillWasteLimit = desiredSize / REFILL_WASTE_FRACTION;
+
+        allocatedBytes = 0L;
+        refills = 0;
+        wastedBytes = 0L;
+        slowPathAllocations = 0;
+    }
+}
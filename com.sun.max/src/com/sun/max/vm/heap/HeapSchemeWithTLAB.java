@@ -101,6 +101,14 @@ public abstract class HeapSchemeWithTLAB extends HeapSchemeAdaptor {
         VMOptions.addFieldOption("-XX:", "UseTLAB", HeapSchemeWithTLAB.class, "Use thread-local object allocation", MaxineVM.Phase.PRISTINE);
     }
 
+    /**
+     * A VM option for resizing each thread's TLAB according to its allocation rate (see {@link AdaptiveTLABRefillPolicy}).
+     */
+    public static boolean ResizeTLAB;
+    static {
+        VMOptions.addFieldOption("-XX:", "ResizeTLAB", HeapSchemeWithTLAB.class, "Adapt the size of each thread's TLAB to its allocation rate", MaxineVM.Phase.PRISTINE);
+    }
+
     /**
      * A VM option for specifying the size of a TLAB. Default is 64 K.
      */
@@ -163,6 +171,10 @@ public abstract class HeapSchemeWithTLAB extends HeapSchemeAdaptor {
             if (logTLAB()) {
                 logger.logReset(UnsafeCast.asVmThread(VM_THREAD.loadRef(etla).toJava()), tlabTop, tlabMark);
             }
+            final TLABRefillPolicy refillPolicy = TLABRefillPolicy.getForCurrentThread(etla);
+            if (refillPolicy != null) {
+                refillPolicy.notifyReset();
+            }
             if (tlabTop.equals(Address.zero())) {
                 // TLAB's top can be null in only two cases:
                 // (1) it has never been filled, in which case it's allocation mark is null too
@@ -172,7 +184,6 @@ public abstract class HeapSchemeWithTLAB extends HeapSchemeAdaptor {
                 }
                 // (2) allocation has been disabled for the thread.
                 FatalError.check(!ALLOCATION_DISABLED.load(currentTLA()).isZero(), "inconsistent TLAB state");
-                TLABRefillPolicy refillPolicy = TLABRefillPolicy.getForCurrentThread(etla);
                 if (refillPolicy != null) {
                     // Go fetch the actual TLAB top in case the heap scheme needs it for its doBeforeReset handler.
                     tlabTop = refillPolicy.getSavedTlabTop().asPointer();
@@ -356,6 +367,14 @@ public abstract class HeapSchemeWithTLAB extends HeapSchemeAdaptor {
         return initialTlabSize;
     }
 
+    /**
+     * Creates the TLAB refill policy of a thread about to get its first TLAB.
+     * @param tlabSize size of the thread's first TLAB
+     */
+    protected TLABRefillPolicy newTLABRefillPolicy(Size tlabSize) {
+        return ResizeTLAB ? new AdaptiveTLABRefillPolicy(tlabSize) : new SimpleTLABRefillPolicy(tlabSize);
+    }
+
     protected void setInitialTlabSize(Size size) {
         initialTlabSize = size;
     }
@@ -378,9 +397,13 @@ public abstract class HeapSchemeWithTLAB extends HeapSchemeAdaptor {
     public void refillTLAB(Pointer etla, Pointer tlab, Size size) {
         final Pointer tlabTop = tlab.plus(size); // top of the new TLAB
         final Pointer allocationMark = TLAB_MARK.load(etla);
+        final TLABRefillPolicy refillPolicy = TLABRefillPolicy.getForCurrentThread(etla);
         if (!allocationMark.isZero()) {
             final Pointer oldTop = TLAB_TOP.load(etla);
             globalTlabStats.leftover += oldTop.minus(allocationMark).toLong();
+            if (refillPolicy != null) {
+                refillPolicy.notifyRefill(size, oldTop.minus(allocationMark).asSize());
+            }
             // It is a refill, not an initial fill. So invoke handler.
             doBeforeTLABRefill(allocationMark, oldTop);
         } else {
@@ -524,6 +547,10 @@ public abstract class HeapSchemeWithTLAB extends HeapSchemeAdaptor {
             return customAllocate(customAllocator, size);
         }
         globalTlabStats.tlabOverflowCount++;
+        final TLABRefillPolicy refillPolicy = TLABRefillPolicy.getForCurrentThread(etla);
+        if (refillPolicy != null) {
+            refillPolicy.notifySlowPathAllocation();
+        }
         // This path will always be taken if TLAB allocation is not enabled.
         return handleTLABOverflow(size, etla, oldAllocationMark, tlabEnd);
     }
@@ -32,7 +32,8 @@ import com.sun.max.vm.thread.*;
  * Scans all GC roots in the VM sequentially. The GC roots scanned by the {@link #run()}
  * method of this object are the references on the stacks of all active mutator threads as well as
  * any references {@linkplain MonitorScheme#scanReferences(PointerIndexVisitor) held}
- * by the monitor scheme in use.
+ * by the monitor scheme in use. {@linkplain VmThread#isGCWorkerThread() GC worker threads} are skipped:
+ * they are never stopped at a safepoint, hence have no prepared reference map, and only refer to boot image objects.
  */
 public class SequentialHeapRootsScanner {
 
@@ -45,6 +46,9 @@ public class SequentialHeapRootsScanner {
     final class VmThreadLocalsScanner implements Pointer.Procedure {
 
         public void run(Pointer tla) {
+            if (VmThread.fromTLA(tla).isGCWorkerThread()) {
+                return;
+            }
             if (Heap.logGCPhases()) {
                 Heap.phaseLogger.logScanningThreadRoots(VmThread.fromTLA(tla));
             }
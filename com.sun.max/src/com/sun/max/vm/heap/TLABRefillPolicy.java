@@ -65,6 +65,27 @@ public abstract class TLABRefillPolicy {
      */
     public abstract Size nextTlabSize();
 
+    /**
+     * Notification that the current thread's TLAB was refilled.
+     * @param tlabSize size of the new TLAB
+     * @param leftover space left unused in the previous TLAB
+     */
+    public void notifyRefill(Size tlabSize, Size leftover) {
+    }
+
+    /**
+     * Notification that an allocation request of the current thread couldn't be satisfied from its TLAB.
+     */
+    public void notifySlowPathAllocation() {
+    }
+
+    /**
+     * Notification that the thread's TLAB is reset, either because of a garbage collection or because the thread detaches.
+     * This may be called by a thread other than the TLAB's owner, e.g., by the VM operation thread during a garbage collection.
+     */
+    public void notifyReset() {
+    }
+
     @INTRINSIC(UNSAFE_CAST)
     private static native TLABRefillPolicy asTLABRefillPolicy(Object object);
 
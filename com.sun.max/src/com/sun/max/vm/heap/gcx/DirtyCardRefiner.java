@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.gcx;
+
+import static com.sun.max.vm.heap.gcx.HeapFreeChunk.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.memory.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.MaxineVM.Phase;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.heap.gcx.rset.ctbl.*;
+import com.sun.max.vm.layout.*;
+import com.sun.max.vm.monitor.modal.sync.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * Concurrent refinement of the dirty cards of an old generation covered by a {@link CardTableRSet}.
+ *
+ * A refinement thread periodically pre-scans the dirty cards of the old generation while mutators run. Cards without
+ * references to the young generation are cleaned; the others are recorded in a summary of old-to-young cards. A young
+ * collection then only has to visit the summarized cards and the cards dirtied since the last refinement, instead of
+ * every card dirtied since the previous young collection.
+ *
+ * The refinement thread is created at boot image generation time as a {@linkplain VmThread#initGCWorkerThread(Thread)
+ * GC worker thread}: it isn't stopped at safepoints and only manipulates raw pointers. Collections must instead
+ * {@linkplain #suspend() suspend} it for their whole duration.
+ *
+ * Refinement is enabled with the {@code -XX:+ConcurrentCardRefinement} option.
+ */
+public final class DirtyCardRefiner extends PointerIndexVisitor implements CardTableRSet.CardRefiner, CellRangeVisitor {
+    static boolean ConcurrentCardRefinement = false;
+    static int CardRefinementInterval = 10;
+    static int CardRefinementSummarySize = 16384;
+    static {
+        VMOptions.addFieldOption("-XX:", "ConcurrentCardRefinement", DirtyCardRefiner.class,
+                        "Pre-scan dirty cards of the old generation concurrently with mutators", Phase.PRISTINE);
+        VMOptions.addFieldOption("-XX:", "CardRefinementInterval", DirtyCardRefiner.class,
+                        "Time in milliseconds between two concurrent card refinement passes", Phase.PRISTINE);
+        VMOptions.addFieldOption("-XX:", "CardRefinementSummarySize", DirtyCardRefiner.class,
+                        "Maximum number of old-to-young cards recorded by concurrent card refinement between two young collections", Phase.PRISTINE);
+    }
+
+    final class RefinementThread extends Thread {
+        @HOSTED_ONLY
+        RefinementThread() {
+            super(VmThread.systemThreadGroup, "Card Refinement");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                synchronized (lock) {
+                    do {
+                        waitOnLock(CardRefinementInterval);
+                    } while (suspended);
+                    refining = true;
+                }
+                refine();
+                synchronized (lock) {
+                    refining = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private final Object lock = JavaMonitorManager.newVmLock("CARD_REFINEMENT_LOCK");
+
+    private final RefinementThread refinementThread;
+
+    private final CardTableRSet cardTableRSet;
+
+    /**
+     * Account the refined regions are allocated from.
+     */
+    private final HeapAccount<?> heapAccount;
+
+    /**
+     * Tag of the refined regions.
+     */
+    private final int oldRegionTag;
+
+    /**
+     * Space references into must be remembered.
+     */
+    private final HeapSpace youngSpace;
+
+    private final HeapRegionRangeIterable regionsRangeIterable;
+
+    /**
+     * Set by a collection to request the refinement thread to stop. Tested between cards.
+     */
+    private volatile boolean suspended;
+
+    /**
+     * Indicates that the refinement thread is running a refinement pass.
+     */
+    private boolean refining;
+
+    private boolean started;
+
+    /**
+     * Summary of cards with references to the young generation. Raw memory holding card indexes.
+     */
+    private Pointer summary;
+    private int summaryLength;
+
+    /**
+     * Indicates whether the cells visited since the last {@link #reset()} have references to the young generation.
+     */
+    private boolean foundYoungReference;
+
+    @HOSTED_ONLY
+    public DirtyCardRefiner(CardTableRSet cardTableRSet, HeapAccount<?> heapAccount, int oldRegionTag, HeapSpace youngSpace) {
+        this.cardTableRSet = cardTableRSet;
+        this.heapAccount = heapAccount;
+        this.oldRegionTag = oldRegionTag;
+        this.youngSpace = youngSpace;
+        regionsRangeIterable = new HeapRegionRangeIterable();
+        refinementThread = new RefinementThread();
+        VmThread.initGCWorkerThread(refinementThread);
+    }
+
+    /**
+     * Starts the refinement thread if requested by the {@code -XX:+ConcurrentCardRefinement} option.
+     * This must be called by the heap scheme once threads can be started, i.e., in the {@link MaxineVM.Phase#STARTING} phase.
+     */
+    public void start() {
+        if (!ConcurrentCardRefinement) {
+            return;
+        }
+        final Size size = Size.fromInt(CardRefinementSummarySize).shiftedLeft(2);
+        summary = Memory.allocate(size);
+        if (summary.isZero()) {
+            MaxineVM.reportPristineMemoryFailure("card refinement summary", "allocate", size);
+        }
+        started = true;
+        VmThread.fromJava(refinementThread).startVmSystemThread();
+    }
+
+    /**
+     * Stops the refinement thread and waits for it to be idle. Must be called by the VM operation thread at the beginning of a collection.
+     */
+    public void suspend() {
+        if (!started) {
+            return;
+        }
+        synchronized (lock) {
+            suspended = true;
+            while (refining) {
+                waitOnLock(0);
+            }
+        }
+    }
+
+    /**
+     * Lets the refinement thread resume refinement. Must be called by the VM operation thread at the end of a collection.
+     */
+    public void resume() {
+        if (!started) {
+            return;
+        }
+        synchronized (lock) {
+            suspended = false;
+        }
+    }
+
+    /**
+     * Visit the cards recorded in the summary, then empty it. Must be called while the refinement thread is suspended.
+     *
+     * @param cellVisitor the logic to apply to the cells overlapping summarized cards
+     */
+    public void cleanAndVisitSummarizedCards(OverlappingCellVisitor cellVisitor) {
+        for (int i = 0; i < summaryLength; i++) {
+            cardTableRSet.cleanAndVisitSummarizedCard(summary.getInt(i), cellVisitor);
+        }
+        summaryLength = 0;
+    }
+
+    private void refine() {
+        regionsRangeIterable.initialize(heapAccount.committedRegions());
+        regionsRangeIterable.resetToFirstIterable(oldRegionTag);
+        final RegionTable regionTable = RegionTable.theRegionTable();
+        while (regionsRangeIterable.hasNext() && !suspended) {
+            regionTable.walk(regionsRangeIterable.nextIterableRange(oldRegionTag), this);
+        }
+    }
+
+    private void waitOnLock(long millis) {
+        try {
+            lock.wait(millis);
+        } catch (InterruptedException e) {
+            // The refinement thread is never interrupted.
+        }
+    }
+
+    @Override
+    public void visitCells(Address start, Address end) {
+        cardTableRSet.refineCards(start, end, this);
+    }
+
+    @Override
+    public void reset() {
+        foundYoungReference = false;
+    }
+
+    @Override
+    public boolean foundRememberedReference() {
+        return foundYoungReference;
+    }
+
+    @Override
+    public boolean summarize(int cardIndex) {
+        if (summaryLength == CardRefinementSummarySize) {
+            return false;
+        }
+        summary.setInt(summaryLength++, cardIndex);
+        return true;
+    }
+
+    @Override
+    public boolean shouldStop() {
+        return suspended;
+    }
+
+    private void checkRef(Pointer pointer, int wordIndex) {
+        if (youngSpace.contains(pointer.getReference(wordIndex).toOrigin())) {
+            foundYoungReference = true;
+        }
+    }
+
+    @Override
+    public void visit(Pointer pointer, int wordIndex) {
+        checkRef(pointer, wordIndex);
+    }
+
+    /**
+     * Look for references to the young generation in a cell overlapping a refined card.
+     * The references checked are those a young collection visits when scanning the card (see {@link Evacuator}):
+     * all the references of tuples and hybrids, since the write barrier dirties the card holding their header,
+     * but only the elements overlapping the card for reference arrays.
+     */
+    @Override
+    public Pointer visitCell(Pointer cell, Address start, Address end) {
+        final Pointer origin = Layout.cellToOrigin(cell);
+        final Pointer hubPointer = origin.plusWords(Layout.hubIndex());
+        if (hubPointer.greaterEqual(start)) {
+            checkRef(origin, Layout.hubIndex());
+        }
+        final Hub hub = Layout.getHub(origin);
+        if (hub == heapFreeChunkHub()) {
+            return cell.plus(toHeapFreeChunk(origin).size);
+        }
+        final SpecificLayout specificLayout = hub.specificLayout;
+        if (specificLayout.isTupleLayout()) {
+            hub.visitMappedReferences(origin, this);
+            if (hub.isJLRReference) {
+                checkRef(origin, SpecialReferenceManager.referentIndex());
+            }
+            return cell.plus(hub.tupleSize);
+        }
+        if (specificLayout.isHybridLayout()) {
+            hub.visitMappedReferences(origin, this);
+        } else if (specificLayout.isReferenceArrayLayout()) {
+            final int endOfArrayIndex = Layout.readArrayLength(origin) + Layout.firstElementIndex();
+            final Address firstElementAddr = origin.plusWords(Layout.firstElementIndex());
+            final Address endOfArrayAddr = origin.plusWords(endOfArrayIndex);
+            final int log2ReferenceSize = Word.widthValue().log2numberOfBytes;
+            final int firstIndex = start.greaterThan(firstElementAddr) ? start.minus(origin).unsignedShiftedRight(log2ReferenceSize).toInt() : Layout.firstElementIndex();
+            final int endIndex = endOfArrayAddr.greaterThan(end) ? end.minus(origin).unsignedShiftedRight(log2ReferenceSize).toInt() : endOfArrayIndex;
+            for (int index = firstIndex; index < endIndex && !foundYoungReference; index++) {
+                checkRef(origin, index);
+            }
+        }
+        return cell.plus(Layout.size(origin));
+    }
+}
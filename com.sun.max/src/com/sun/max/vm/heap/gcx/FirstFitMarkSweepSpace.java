@@ -26,6 +26,7 @@ import static com.sun.max.vm.heap.gcx.HeapRegionConstants.*;
 import static com.sun.max.vm.heap.gcx.HeapRegionInfo.*;
 import static com.sun.max.vm.heap.gcx.HeapRegionState.*;
 
+import com.sun.max.*;
 import com.sun.max.memory.*;
 import com.sun.max.unsafe.*;
 import com.sun.max.vm.*;
@@ -84,6 +85,22 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
      */
     private HeapRegionList sweepList;
 
+    /**
+     * Heap marker used to lazily sweep the regions left in the {@link #sweepList} after a {@linkplain #lazySweep lazy sweep}.
+     * Null if all the regions of the space have been swept.
+     */
+    private TricolorHeapMarker lazySweepMarker;
+
+    /**
+     * Whether lazy sweeping is imprecise.
+     */
+    private boolean lazySweepImprecise;
+
+    /**
+     * Free space recovered so far by the current sweep. Used to estimate the free space in unswept regions.
+     */
+    private Size sweptFreeSpace;
+
     /**
      * Total number of regions currently allocated to this heap space.
      */
@@ -108,6 +125,12 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
      */
     final ChunkListAllocator<RegionChunkListRefillManager> tlabAllocator;
 
+    /**
+     * TLAB refill allocators for each NUMA node, the first one being the {@link #tlabAllocator}. Only the first
+     * {@link NUMAAllocation#numNodes()} allocators are used, each refilled preferably from regions bound to its node.
+     */
+    private final ChunkListAllocator<RegionChunkListRefillManager>[] nodeTLABAllocators;
+
     /**
      * Overflow allocator. Handles direct allocation request and all small overflow of TLABs.
      */
@@ -294,7 +317,8 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
                 if (MaxineVM.isDebug()) {
                     checkForSuspisciousGC(gcCount++);
                 }
-            } while (Heap.collectGarbage()); // Always collect for at least one region.
+                // Contiguous empty regions may be found anywhere in the unswept regions: sweep them all before collecting.
+            } while (completeSweep() || Heap.collectGarbage()); // Always collect for at least one region.
             // Not enough freed memory.
             throw outOfMemoryError;
         }
@@ -336,6 +360,12 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
         this.overflowAllocator = overflowAllocator;
         this.tlabAllocator = tlabAllocator;
         tlabAllocator.refillManager.setRegionProvider(this);
+        nodeTLABAllocators = Utils.cast(new ChunkListAllocator[NUMAAllocation.MAX_NUMA_NODES]);
+        nodeTLABAllocators[0] = tlabAllocator;
+        for (int node = 1; node < nodeTLABAllocators.length; node++) {
+            nodeTLABAllocators[node] = new ChunkListAllocator<RegionChunkListRefillManager>(new RegionChunkListRefillManager(deadSpaceListener));
+            nodeTLABAllocators[node].refillManager.setRegionProvider(this);
+        }
         overflowAllocator.refillManager.setRegionProvider(this);
         regionsRangeIterable = new HeapRegionRangeIterable();
         regionInfoIterable = new HeapRegionInfoIterable();
@@ -404,11 +434,19 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
         // The following two are connected: if you deny refill after overflow, the only solution left is allocating large.
         minLargeObjectSize = regionSize;
         minOverflowRefillSize = regionSize.dividedBy(4);
-        RegionChunkListRefillManager refillManager = tlabAllocator.refillManager();
-        refillManager.setRefillPolicy(minReclaimableSpace);
-        refillManager.setMinChunkSize(minReclaimableSpace);
-        // Initialize the tlab allocator with a first region.
+        for (int node = 0; node < NUMAAllocation.numNodes(); node++) {
+            RegionChunkListRefillManager refillManager = nodeTLABAllocators[node].refillManager();
+            refillManager.setRefillPolicy(minReclaimableSpace);
+            refillManager.setMinChunkSize(minReclaimableSpace);
+            if (NUMAAllocation.isEnabled()) {
+                refillManager.setNUMANode(node);
+            }
+        }
+        // Initialize the tlab allocator with a first region. Allocators of other NUMA nodes are refilled on first use.
         tlabAllocator.initialize(regionSize, regionSize);
+        for (int node = 1; node < NUMAAllocation.numNodes(); node++) {
+            nodeTLABAllocators[node].initialize(Address.zero(), Size.zero(), regionSize);
+        }
         overflowAllocator.initialize(Address.zero(), Size.zero(), Size.zero());
     }
 
@@ -420,12 +458,14 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
     }
 
     public Pointer allocateTLAB(Size size) {
-        return tlabAllocator.allocateTLAB(size);
+        return nodeTLABAllocators[NUMAAllocation.currentNode()].allocateTLAB(size);
     }
 
     public void retireTLAB(Pointer start, Size size) {
-        if (tlabAllocator.retireTop(start, size)) {
-            return;
+        for (int node = 0; node < NUMAAllocation.numNodes(); node++) {
+            if (nodeTLABAllocators[node].retireTop(start, size)) {
+                return;
+            }
         }
         if (size.lessThan(minRetiredFreeChunkSize())) {
             DarkMatter.format(start, size);
@@ -457,7 +497,12 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
     }
 
     public Size freeSpace() {
-        return allocationRegionsFreeSpace.plus(tlabAllocator.refillManager.freeSpace().plus(tlabAllocator.freeSpace().plus(overflowAllocator.freeSpace())));
+        Size freeSpace = allocationRegionsFreeSpace.plus(overflowAllocator.freeSpace());
+        for (int node = 0; node < NUMAAllocation.numNodes(); node++) {
+            final ChunkListAllocator<RegionChunkListRefillManager> allocator = nodeTLABAllocators[node];
+            freeSpace = freeSpace.plus(allocator.refillManager.freeSpace().plus(allocator.freeSpace()));
+        }
+        return freeSpace;
     }
 
     public Size usedSpace() {
@@ -465,9 +510,13 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
     }
 
     public void doBeforeGC() {
+        // The mark bitmap is about to be reused: sweep whatever the previous collection left unswept.
+        completeSweep();
         overflowAllocator.doBeforeGC();
-        tlabAllocator.doBeforeGC();
-        FatalError.check(tlabAllocator.refillManager.allocatingRegion() == INVALID_REGION_ID, "TLAB allocating region must have been retired");
+        for (int node = 0; node < NUMAAllocation.numNodes(); node++) {
+            nodeTLABAllocators[node].doBeforeGC();
+            FatalError.check(nodeTLABAllocators[node].refillManager.allocatingRegion() == INVALID_REGION_ID, "TLAB allocating region must have been retired");
+        }
         // Move all regions to the sweep list. This tracks all the regions used by the space.
         sweepList.appendAndClear(unavailableRegions);
         sweepList.appendAndClear(allocationRegions);
@@ -495,8 +544,98 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
         FatalError.check(sweepList.isEmpty(), "Sweeping list must be empty");
     }
 
+    /**
+     * Lazy variant of {@link #sweep(TricolorHeapMarker, boolean)}. Only sweeps, in address order, enough regions to recover
+     * the specified amount of free space. The other regions are left unswept and are swept on demand by allocation refills
+     * once mutators resume, or before the next collection reuses the mark bitmap. Unswept regions stay off the allocation
+     * lists, so allocators are never handed out a chunk from an unswept region.
+     *
+     * @param heapMarker the heap marker that marked the space
+     * @param doImprecise whether to do imprecise sweeping
+     * @param minFreeSpace amount of free space to recover before returning
+     */
+    public void lazySweep(TricolorHeapMarker heapMarker, boolean doImprecise, Size minFreeSpace) {
+        if (MaxineVM.isDebug()) {
+            sweepList.checkIsAddressOrdered();
+        }
+        allocationRegionsFreeSpace = Size.zero();
+        sweptFreeSpace = Size.zero();
+        csrIsLiveMultiRegionObjectTail = false;
+        regionInfoIterable.initialize(sweepList);
+        regionInfoIterable.reset();
+        for (HeapRegionInfo regionInfo : regionInfoIterable) {
+            regionInfo.setUnswept();
+        }
+        lazySweepMarker = heapMarker;
+        lazySweepImprecise = doImprecise;
+        while (sweepNextRegion() && allocationRegionsFreeSpace.lessThan(minFreeSpace)) {
+        }
+    }
+
+    /**
+     * Sweep the next unswept region.
+     * @return true if there are more regions left to sweep
+     */
+    private boolean sweepNextRegion() {
+        final Size freeSpaceBefore = allocationRegionsFreeSpace;
+        if (!lazySweepMarker.sweepNextRegion(this, lazySweepImprecise)) {
+            FatalError.check(sweepList.isEmpty(), "Sweeping list must be empty");
+            lazySweepMarker = null;
+        }
+        sweptFreeSpace = sweptFreeSpace.plus(allocationRegionsFreeSpace.minus(freeSpaceBefore));
+        return lazySweepMarker != null;
+    }
+
+    /**
+     * Sweep unswept regions on behalf of an allocator refill, until a region is added to one of the allocation lists
+     * or there are no more regions to sweep. Must be called with the refill lock held.
+     *
+     * @return false if there were no unswept regions
+     */
+    private boolean sweepOnDemand() {
+        if (lazySweepMarker == null) {
+            return false;
+        }
+        final int numAllocationRegions = allocationRegions.size() + tlabAllocationRegions.size();
+        // A GC must never find the sweeper in the middle of a region.
+        final boolean wasDisabled = SafepointPoll.disable();
+        while (sweepNextRegion() && allocationRegions.size() + tlabAllocationRegions.size() == numAllocationRegions) {
+        }
+        if (!wasDisabled) {
+            SafepointPoll.enable();
+        }
+        return true;
+    }
+
+    /**
+     * Sweep all the regions left unswept by the last {@linkplain #lazySweep lazy sweep}.
+     *
+     * @return false if there were no unswept regions
+     */
+    private boolean completeSweep() {
+        if (lazySweepMarker == null) {
+            return false;
+        }
+        final boolean wasDisabled = SafepointPoll.disable();
+        while (sweepNextRegion()) {
+        }
+        if (!wasDisabled) {
+            SafepointPoll.enable();
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether some regions of the space are waiting to be swept.
+     */
+    public boolean hasUnsweptRegions() {
+        return lazySweepMarker != null;
+    }
+
     private HeapRegionInfo nextRegionToSweep() {
-        return RegionTable.theRegionTable().regionInfo(sweepList.removeHead());
+        final HeapRegionInfo rinfo = RegionTable.theRegionTable().regionInfo(sweepList.removeHead());
+        rinfo.setSwept();
+        return rinfo;
     }
 
     @Override
@@ -651,9 +790,17 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
         csrTail = null;
     }
 
+    /**
+     * Free space after sweeping. If regions are left unswept, the free space they hold is extrapolated from
+     * the free space recovered in the regions swept so far.
+     */
     @Override
     public Size freeSpaceAfterSweep() {
-        return freeSpace();
+        if (lazySweepMarker == null) {
+            return freeSpace();
+        }
+        final int numSweptRegions = numRegionsInSpace - sweepList.size();
+        return freeSpace().plus(sweptFreeSpace.times(sweepList.size()).dividedBy(numSweptRegions));
     }
 
 
@@ -692,8 +839,12 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
 
     @Override
     public void visit(CellRangeVisitor visitor) {
+        // Unswept regions may hold dead objects referencing reclaimed space.
+        completeSweep();
         // Make allocating regions iterable first.
-        tlabAllocator.unsafeMakeParsable();
+        for (int node = 0; node < NUMAAllocation.numNodes(); node++) {
+            nodeTLABAllocators[node].unsafeMakeParsable();
+        }
         overflowAllocator.unsafeMakeParsable();
         regionsRangeIterable.addMatchingFlags(Flag.IS_ALLOCATING);
         iterateRegions(visitor);
@@ -703,7 +854,9 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
 
     private void verifyHeapRegionsBalance() {
         int balance = 0;
-        balance += tlabAllocator.refillManager().allocatingRegion() == INVALID_REGION_ID ? 0 : 1;
+        for (int node = 0; node < NUMAAllocation.numNodes(); node++) {
+            balance += nodeTLABAllocators[node].refillManager().allocatingRegion() == INVALID_REGION_ID ? 0 : 1;
+        }
         // balance += currentOverflowAllocatingRegion == INVALID_REGION_ID ? 0 : 1;
         balance += overflowAllocator.refillManager().allocatingRegion() == INVALID_REGION_ID ? 0 : 1;
 
@@ -734,31 +887,75 @@ public final class FirstFitMarkSweepSpace<T extends HeapAccountOwner> extends He
     }
 
     public int getAllocatingRegion() {
-        final int regionID = tlabAllocationRegionList().removeHead();
+        int regionID = tlabAllocationRegionList().removeHead();
+        while (regionID == INVALID_REGION_ID && sweepOnDemand()) {
+            regionID = tlabAllocationRegionList().removeHead();
+        }
+        if (regionID != INVALID_REGION_ID) {
+            reserveAllocatingRegion(fromRegionID(regionID));
+        }
+        return regionID;
+    }
+
+    public int getLocalAllocatingRegion(int node) {
+        // Unswept regions may be local to the node: sweep them before going remote.
+        do {
+            regionInfoIterable.initialize(tlabAllocationRegionList());
+            regionInfoIterable.reset();
+            for (HeapRegionInfo regionInfo : regionInfoIterable) {
+                if (NUMAAllocation.nodeOf(regionInfo.toRegionID()) == node) {
+                    regionInfoIterable.remove();
+                    NUMAAllocation.recordRefill(node, regionInfo.toRegionID(), reserveAllocatingRegion(regionInfo));
+                    return regionInfo.toRegionID();
+                }
+            }
+        } while (sweepOnDemand());
+        // No region local to the node left: take whatever is available.
+        final int regionID = getAllocatingRegion();
         if (regionID != INVALID_REGION_ID) {
-            final HeapRegionInfo regionInfo = fromRegionID(regionID);
-            final int numFreeBytes = regionInfo.isEmpty() ?  regionSizeInBytes : regionInfo.freeBytesInChunks();
-            allocationRegionsFreeSpace = allocationRegionsFreeSpace.minus(numFreeBytes);
+            NUMAAllocation.recordRefill(node, regionID, allocatableBytes(fromRegionID(regionID)));
         }
         return regionID;
     }
 
+    private static int allocatableBytes(HeapRegionInfo regionInfo) {
+        return regionInfo.isEmpty() ?  regionSizeInBytes : regionInfo.freeBytesInChunks();
+    }
+
+    /**
+     * Account for the free space of a region removed from the allocation lists to become an allocating region.
+     * @return the number of bytes available for allocation in the region
+     */
+    private int reserveAllocatingRegion(HeapRegionInfo regionInfo) {
+        if (MaxineVM.isDebug()) {
+            FatalError.check(regionInfo.isSwept(), "must not allocate from an unswept region");
+        }
+        final int numFreeBytes = allocatableBytes(regionInfo);
+        allocationRegionsFreeSpace = allocationRegionsFreeSpace.minus(numFreeBytes);
+        return numFreeBytes;
+    }
+
     public int getAllocatingRegion(Size minFreeBytes, int maxFreeChunks) {
         final int minFreeSpace = minFreeBytes.toInt();
-        regionInfoIterable.initialize(allocationRegions);
-        regionInfoIterable.reset();
-        for (HeapRegionInfo regionInfo : regionInfoIterable) {
-            if (regionInfo.isEmpty()) {
-                allocationRegionsFreeSpace = allocationRegionsFreeSpace.minus(regionSizeInBytes);
-            } else if (regionInfo.freeBytesInChunks() >= minFreeSpace && regionInfo.numFreeChunks() == maxFreeChunks) {
-                allocationRegionsFreeSpace = allocationRegionsFreeSpace.minus(regionInfo.freeBytesInChunks());
-            } else {
-                continue;
+        do {
+            regionInfoIterable.initialize(allocationRegions);
+            regionInfoIterable.reset();
+            for (HeapRegionInfo regionInfo : regionInfoIterable) {
+                if (regionInfo.isEmpty()) {
+                    allocationRegionsFreeSpace = allocationRegionsFreeSpace.minus(regionSizeInBytes);
+                } else if (regionInfo.freeBytesInChunks() >= minFreeSpace && regionInfo.numFreeChunks() == maxFreeChunks) {
+                    allocationRegionsFreeSpace = allocationRegionsFreeSpace.minus(regionInfo.freeBytesInChunks());
+                } else {
+                    continue;
+                }
+                if (MaxineVM.isDebug()) {
+                    FatalError.check(regionInfo.isSwept(), "must not allocate from an unswept region");
+                }
+                // Found a refill.
+                regionInfoIterable.remove();
+                return  regionInfo.toRegionID();
             }
-            // Found a refill.
-            regionInfoIterable.remove();
-            return  regionInfo.toRegionID();
-        }
+        } while (sweepOnDemand());
         return INVALID_REGION_ID;
     }
 
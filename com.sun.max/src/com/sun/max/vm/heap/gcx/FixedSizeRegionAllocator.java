@@ -416,6 +416,9 @@ class FixedSizeRegionAllocator {
         // Should we try to commit only uncommitted sub-range ?
         final Size size = Size.fromInt(numRegions).shiftedLeft(log2RegionSizeInBytes);
         if (VirtualMemory.commitMemory(regionStart(firstRegionId), size, VirtualMemory.Type.HEAP)) {
+            if (NUMAAllocation.isEnabled()) {
+                NUMAAllocation.bindRegions(regionStart(firstRegionId), firstRegionId, numRegions);
+            }
             committed.set(firstRegionId, firstRegionId + numRegions);
             committedSize += numRegions;
             return true;
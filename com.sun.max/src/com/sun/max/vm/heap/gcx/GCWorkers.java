@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.gcx;
+
+import static com.sun.max.vm.VMOptions.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.monitor.modal.sync.*;
+import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.thread.*;
+
+/**
+ * A gang of threads that execute a {@link GCTask} in parallel with the {@link VmOperationThread} during a garbage collection.
+ *
+ * The worker threads are created at boot image generation time so that they, and every object they touch outside of a
+ * task, reside in the boot heap. They are never frozen by VM operations and their stacks are not scanned for roots (see
+ * {@link VmThread#initGCWorkerThread(Thread)}): tasks must only manipulate raw pointers to heap objects, and task
+ * objects themselves must be allocated at boot image generation time.
+ *
+ * The number of threads that take part in parallel GC phases is set with the {@code -XX:ParallelGCThreads} option and
+ * includes the VM operation thread. With the default value of 1, no worker thread is started and tasks run on the VM
+ * operation thread only.
+ */
+public final class GCWorkers {
+    /**
+     * Maximum number of GC threads, including the VM operation thread. This bounds the number of worker threads
+     * pre-allocated in the boot image.
+     */
+    public static final int MAX_GC_THREADS = 16;
+
+    private static final VMIntOption parallelGCThreadsOption =
+        register(new VMIntOption("-XX:ParallelGCThreads=", 1, "Number of threads used by parallel phases of garbage collection, including the VM operation thread. " +
+                        "At most " + MAX_GC_THREADS + " threads are used."), MaxineVM.Phase.PRISTINE);
+
+    /**
+     * A unit of GC work executed by every GC thread.
+     */
+    public abstract static class GCTask {
+        /**
+         * Executes this task on behalf of a GC thread.
+         *
+         * @param workerIndex index of the GC thread running the task; 0 is the VM operation thread
+         */
+        public abstract void run(int workerIndex);
+    }
+
+    final class Worker extends Thread {
+        final int workerIndex;
+        private int lastEpoch;
+
+        @HOSTED_ONLY
+        Worker(int workerIndex) {
+            super(VmThread.systemThreadGroup, "GC Worker " + workerIndex);
+            this.workerIndex = workerIndex;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            synchronized (lock) {
+                numStarted++;
+                lock.notifyAll();
+            }
+            while (true) {
+                GCTask task;
+                synchronized (lock) {
+                    while (epoch == lastEpoch) {
+                        waitOnLock();
+                    }
+                    lastEpoch = epoch;
+                    task = currentTask;
+                }
+                task.run(workerIndex);
+                synchronized (lock) {
+                    if (--numBusy == 0) {
+                        lock.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    private final Object lock = JavaMonitorManager.newVmLock("GC_WORKERS_LOCK");
+
+    private final Worker[] workers;
+
+    /**
+     * Number of worker threads that have reached their dispatch loop.
+     */
+    private int numStarted;
+
+    /**
+     * Number of worker threads still running the current task.
+     */
+    private int numBusy;
+
+    /**
+     * Incremented each time a task is dispatched to the workers.
+     */
+    private int epoch;
+
+    private GCTask currentTask;
+
+    private int numGCThreads = 1;
+
+    @HOSTED_ONLY
+    public GCWorkers() {
+        workers = new Worker[MAX_GC_THREADS - 1];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i + 1);
+            VmThread.initGCWorkerThread(workers[i]);
+        }
+    }
+
+    /**
+     * Starts the worker threads requested by the {@code -XX:ParallelGCThreads} option.
+     * This must be called by the heap scheme once threads can be started, i.e., in the {@link MaxineVM.Phase#STARTING} phase.
+     */
+    public void start() {
+        int requested = parallelGCThreadsOption.getValue();
+        if (requested > MAX_GC_THREADS) {
+            requested = MAX_GC_THREADS;
+        }
+        if (requested <= 1) {
+            return;
+        }
+        final int numWorkers = requested - 1;
+        for (int i = 0; i < numWorkers; i++) {
+            VmThread.fromJava(workers[i]).startVmSystemThread();
+        }
+        synchronized (lock) {
+            // Wait until all workers are parked in their dispatch loop, so that none of them can be found
+            // outside of it (and with references to the dynamic heap on its stack) by a garbage collection.
+            while (numStarted < numWorkers) {
+                waitOnLock();
+            }
+        }
+        numGCThreads = requested;
+    }
+
+    /**
+     * Number of GC threads that run a task, including the VM operation thread.
+     */
+    public int numGCThreads() {
+        return numGCThreads;
+    }
+
+    /**
+     * Runs a task on all GC threads and returns when every thread has completed it.
+     * Must be called by the VM operation thread.
+     *
+     * @param task a task allocated at boot image generation time
+     */
+    public void run(GCTask task) {
+        FatalError.check(VmThread.current().isVmOperationThread(), "GC tasks must be dispatched by the VM operation thread");
+        if (numGCThreads == 1) {
+            task.run(0);
+            return;
+        }
+        synchronized (lock) {
+            currentTask = task;
+            numBusy = numGCThreads - 1;
+            epoch++;
+            lock.notifyAll();
+        }
+        task.run(0);
+        synchronized (lock) {
+            while (numBusy > 0) {
+                waitOnLock();
+            }
+            currentTask = null;
+        }
+    }
+
+    private void waitOnLock() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            // GC threads are never interrupted.
+        }
+    }
+}
@@ -167,6 +167,12 @@ public class HeapRegionInfo {
      */
     private int liveData;
 
+    /**
+     * Indicates that the region hasn't been swept since the last marking. The flags and free chunks information of an unswept region
+     * describe the region as it was before the collection and must not be used for allocation. See {@link FirstFitMarkSweepSpace}.
+     */
+    private boolean unswept;
+
     /**
      * Owner of the region described by {@link HeapRegionInfo} instance.
      */
@@ -204,6 +210,18 @@ public class HeapRegionInfo {
         return IS_TAIL.isSet(flags);
     }
 
+    public final boolean isSwept() {
+        return !unswept;
+    }
+
+    final void setUnswept() {
+        unswept = true;
+    }
+
+    final void setSwept() {
+        unswept = false;
+    }
+
     HeapRegionInfo() {
         // Not a class one can allocate. Allocation is the responsibility of the region table.
     }
@@ -237,6 +255,9 @@ public class HeapRegionInfo {
         Log.print(regionStart().plus(regionSizeInBytes));
         Log.print(" [ ");
         Flag.log(flags);
+        if (unswept) {
+            Log.print(" (unswept)");
+        }
         Log.print(", free: ");
         Log.print(freeBytes());
         Log.print(" live: ");
@@ -206,6 +206,8 @@ public final class HeapRegionManager implements HeapAccountOwner {
         // The size of regions is computed from the requested heap size so as to keep the region table bounded and adapt region size to the heap size
         // (in particular, very large heap command large region size).
         HeapRegionConstants.initializeConstants(heapSpaceSize);
+        // Must be done before any region is committed so that regions are bound to their NUMA node.
+        NUMAAllocation.initialize();
         // Adjust reserved space to region boundaries.
         final Address startOfManagedSpace = reservedSpace.alignUp(regionSizeInBytes);
         final Address endOfManagedSpace = startOfManagedSpace.plus(heapSpaceSize).alignUp(regionSizeInBytes);
@@ -106,6 +106,9 @@ public abstract class HeapSchemeWithTLABAdaptor extends HeapSchemeWithTLAB {
                 heapStartupTime.report("allocateHeapAndGCStorage", Log.out);
                 VirtualMemory.reportMetrics();
             }
+            if (Heap.verbose()) {
+                NUMAAllocation.report();
+            }
         }
     }
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.gcx;
+
+import static com.sun.max.vm.heap.gcx.HeapRegionConstants.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.platform.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.MaxineVM.Phase;
+
+/**
+ * Support for NUMA-aware allocation in region-based heaps.
+ *
+ * When enabled with {@code -XX:+NUMAAwareAllocation} on a Linux host with more than one NUMA node, heap regions are
+ * striped across nodes: region {@code r} is bound to node {@code r % numNodes} when the
+ * {@link FixedSizeRegionAllocator} commits it, so that its pages are allocated on that node when first touched.
+ * Region-based spaces may then refill a thread's TLAB from regions bound to the node the thread currently runs on
+ * (see {@link RegionChunkListRefillManager#setNUMANode(int)}).
+ *
+ * Counts of regions handed out to TLAB allocators, per node and split between local and remote refills,
+ * are reported at VM exit when {@code -verbose:gc} is set.
+ */
+public final class NUMAAllocation {
+    /**
+     * Maximum number of NUMA nodes supported. Allocators for each node are pre-allocated in the boot image.
+     */
+    public static final int MAX_NUMA_NODES = 8;
+
+    /**
+     * Value of a NUMA node indicating no node preference.
+     */
+    public static final int ANY_NODE = -1;
+
+    public static boolean NUMAAwareAllocation;
+    static {
+        VMOptions.addFieldOption("-XX:", "NUMAAwareAllocation", NUMAAllocation.class,
+                        "Bind heap regions to NUMA nodes and refill TLABs from regions local to the allocating thread's node (Linux only)", Phase.PRISTINE);
+    }
+
+    /**
+     * Number of NUMA nodes heap regions are striped across. 1 if NUMA-aware allocation is disabled.
+     */
+    private static int numNodes = 1;
+
+    /**
+     * Number of bytes of regions handed out to allocators serving each node, from regions bound to that node.
+     */
+    private static final long[] localRefillBytes = new long[MAX_NUMA_NODES];
+
+    /**
+     * Number of bytes of regions handed out to allocators serving each node, from regions bound to another node.
+     */
+    private static final long[] remoteRefillBytes = new long[MAX_NUMA_NODES];
+
+    private NUMAAllocation() {
+    }
+
+    @C_FUNCTION
+    private static native int memory_numaNodeCount();
+
+    @C_FUNCTION
+    private static native int memory_numaCurrentNode();
+
+    @C_FUNCTION
+    private static native void memory_numaBindToNode(Address start, Size size, int node);
+
+    /**
+     * Determine the number of nodes to stripe heap regions across. Must be called before any heap region is committed.
+     */
+    static void initialize() {
+        if (!NUMAAwareAllocation || Platform.platform().os != OS.LINUX) {
+            return;
+        }
+        int n = memory_numaNodeCount();
+        if (n > MAX_NUMA_NODES) {
+            n = MAX_NUMA_NODES;
+        }
+        numNodes = n;
+        if (MaxineVM.isDebug()) {
+            Log.print("NUMA-aware allocation across ");
+            Log.print(numNodes);
+            Log.println(" nodes");
+        }
+    }
+
+    @INLINE
+    public static boolean isEnabled() {
+        return numNodes > 1;
+    }
+
+    @INLINE
+    public static int numNodes() {
+        return numNodes;
+    }
+
+    /**
+     * The NUMA node the specified region is bound to.
+     */
+    @INLINE
+    public static int nodeOf(int regionID) {
+        return regionID % numNodes;
+    }
+
+    /**
+     * The NUMA node of the CPU the current thread runs on, or 0 if NUMA-aware allocation is disabled.
+     */
+    public static int currentNode() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        final int node = memory_numaCurrentNode();
+        return node < numNodes ? node : node % numNodes;
+    }
+
+    /**
+     * Bind a range of freshly committed regions to their NUMA node.
+     *
+     * @param firstRegionStart address of the first region of the range
+     * @param firstRegionID identifier of the first region of the range
+     * @param numRegions number of regions in the range
+     */
+    static void bindRegions(Address firstRegionStart, int firstRegionID, int numRegions) {
+        final Size regionSize = Size.fromInt(regionSizeInBytes);
+        Address regionStart = firstRegionStart;
+        for (int regionID = firstRegionID; regionID < firstRegionID + numRegions; regionID++) {
+            memory_numaBindToNode(regionStart, regionSize, nodeOf(regionID));
+            regionStart = regionStart.plus(regionSize);
+        }
+    }
+
+    /**
+     * Record a region handed out to an allocator serving a node. Must be called under the refill lock of the allocator.
+     *
+     * @param node node served by the allocator
+     * @param regionID region handed out
+     * @param numFreeBytes free space in the region
+     */
+    static void recordRefill(int node, int regionID, int numFreeBytes) {
+        if (nodeOf(regionID) == node) {
+            localRefillBytes[node] += numFreeBytes;
+        } else {
+            remoteRefillBytes[node] += numFreeBytes;
+        }
+    }
+
+    /**
+     * Print per-node allocation counts.
+     */
+    public static void report() {
+        if (!isEnabled()) {
+            return;
+        }
+        final boolean lockDisabledSafepoints = Log.lock();
+        Log.println("NUMA-aware allocation (node: local KB, remote KB)");
+        for (int node = 0; node < numNodes; node++) {
+            Log.print("  ");
+            Log.print(node);
+            Log.print(": ");
+            Log.print(localRefillBytes[node] >> 10);
+            Log.print(", ");
+            Log.println(remoteRefillBytes[node] >> 10);
+        }
+        Log.unlock(lockDisabledSafepoints);
+    }
+}
@@ -113,12 +113,21 @@ public class NoAgingNurseryEvacuator extends EvacuatorToCardSpace {
     private final DirtyCardEvacuationClosure heapSpaceDirtyCardClosure;
     private final BootRegionDirtyCardEvacuationClosure bootRegionDirtyCardClosure;
 
+    /**
+     * Concurrent refiner of the dirty cards of the old generation, if any. Cards it summarized are visited in addition to dirty cards.
+     */
+    private DirtyCardRefiner cardRefiner;
+
     public NoAgingNurseryEvacuator(EvacuatingSpace fromSpace, HeapSpace toSpace, EvacuationBufferProvider evacuationBufferProvider, CardTableRSet rset, String name) {
         super(fromSpace, toSpace, evacuationBufferProvider, rset, name);
         this.heapSpaceDirtyCardClosure = new DirtyCardEvacuationClosure();
         this.bootRegionDirtyCardClosure = new BootRegionDirtyCardEvacuationClosure();
     }
 
+    public void setCardRefiner(DirtyCardRefiner cardRefiner) {
+        this.cardRefiner = cardRefiner;
+    }
+
     @Override
     public void setGCOperation(GCOperation gcOperation) {
         super.setGCOperation(gcOperation);
@@ -143,6 +152,9 @@ public class NoAgingNurseryEvacuator extends EvacuatorToCardSpace {
         if (traceDirtyCardWalk()) {
             CardTableRSet.setTraceCardTableRSet(true);
         }
+        if (cardRefiner != null) {
+            cardRefiner.cleanAndVisitSummarizedCards(heapSpaceDirtyCardClosure);
+        }
         toSpace.visit(heapSpaceDirtyCardClosure);
         if (traceDirtyCardWalk()) {
             CardTableRSet.setTraceCardTableRSet(traceRSet);
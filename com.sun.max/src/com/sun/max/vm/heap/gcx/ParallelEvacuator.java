@@ -0,0 +1,941 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.gcx;
+
+import static com.sun.max.vm.VMConfiguration.*;
+import static com.sun.max.vm.heap.HeapSchemeAdaptor.*;
+import static com.sun.max.vm.heap.gcx.HeapFreeChunk.*;
+
+import com.oracle.max.cri.intrinsics.*;
+import com.sun.max.annotate.*;
+import com.sun.max.memory.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.util.timer.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.code.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.layout.*;
+import com.sun.max.vm.reference.*;
+import com.sun.max.vm.runtime.*;
+import com.sun.max.vm.thread.*;
+import com.sun.max.vm.type.*;
+
+/**
+ * Copying collection of an evacuated area by all the {@linkplain GCWorkers GC threads}.
+ * <p>
+ * Survivors are copied into a single evacuation buffer obtained from an {@link EvacuationBufferProvider} at the
+ * beginning of the evacuation. Each GC thread carves private local allocation buffers (LABs) out of the evacuation
+ * buffer with an atomic bump of the buffer's top, and copies the survivors it discovers into its LAB. The race for
+ * evacuating an object is decided by atomically installing the forwarding pointer in the object's hub word: small
+ * objects are copied first and the loser of the race retracts its copy; large objects are first claimed with a
+ * <em>busy</em> forwarding pointer (a marked zero) so that no more than one copy is ever made. Threads that find a
+ * busy object spin until the winner installs the real forwarding pointer.
+ * <p>
+ * Each GC thread scans the survivors copied in its LAB in Cheney order. Ranges of copied but unscanned survivors are
+ * pushed on the thread's {@link WorkStealingMarkingStack} when the LAB is retired, or earlier when other threads are
+ * looking for work, so that idle threads can steal them. Evacuation terminates when all stacks are empty and all
+ * threads are idle.
+ * <p>
+ * Roots are claimed by threads in units: a thread stack, the monitors, the code and immortal regions, and stripes of
+ * the boot heap and of the remembered set of the evacuated area, if any. Special references discovered while
+ * scanning are registered with the {@link SpecialReferenceManager} under a spin lock; special references are then
+ * processed serially by the VM operation thread.
+ * <p>
+ * The evacuation buffer must be large enough to hold every survivor: there is no fallback for overflows, so heap schemes
+ * must check {@link #requiredBufferSize(Size)} before opting for a parallel evacuation.
+ */
+public abstract class ParallelEvacuator extends GCWorkers.GCTask implements SpecialReferenceManager.GC {
+    /**
+     * Size of the local allocation buffers of the GC threads.
+     */
+    static final Size LAB_SIZE = Size.K.times(32);
+
+    /**
+     * Objects larger than this are allocated directly in the shared evacuation buffer.
+     */
+    static final Size LARGE_OBJECT_SIZE = LAB_SIZE.dividedBy(4);
+
+    /**
+     * Minimum size of a range of unscanned survivors worth handing over to idle GC threads.
+     */
+    static final Size PUBLISH_MIN_SIZE = Size.K.times(2);
+
+    /**
+     * Number of stripes of the boot heap and of the remembered set claimed per GC thread.
+     */
+    static final int STRIPES_PER_GC_THREAD = 4;
+
+    /**
+     * Alignment of the stripes of the boot heap and of the remembered set. A multiple of the card size.
+     */
+    static final int STRIPE_ALIGNMENT = 4096;
+
+    static final int SCAN_QUEUE_LENGTH = 8192;
+
+    /**
+     * Scan items pushed on the stacks are words encoding the word offset of a range from the start of the evacuation
+     * buffer in the upper bits, and its length in words in the lower {@value #ITEM_LENGTH_BITS} bits.
+     */
+    private static final int ITEM_LENGTH_BITS = 16;
+    private static final int ITEM_LENGTH_MASK = (1 << ITEM_LENGTH_BITS) - 1;
+
+    /**
+     * Length of a scan item made of a single cell of any size.
+     */
+    private static final int SINGLE_CELL_ITEM = ITEM_LENGTH_MASK;
+
+    private static final int MONITORS_AND_BOOT_SPECIAL_REFS_UNIT = 0;
+    private static final int CODE_UNIT = 1;
+    private static final int IMMORTAL_UNIT = 2;
+    private static final int FIRST_STRIPE_UNIT = 3;
+
+    /**
+     * The state of a GC thread taking part in a parallel evacuation.
+     */
+    public final class Worker extends PointerIndexVisitor implements CellVisitor, OverlappingCellVisitor {
+        public final int index;
+        final WorkStealingMarkingStack scanQueue = new WorkStealingMarkingStack();
+        final TimerMetric rootScanTimer = new TimerMetric(new SingleUseTimer(HeapScheme.GC_TIMING_CLOCK));
+        final TimerMetric copyTimer = new TimerMetric(new SingleUseTimer(HeapScheme.GC_TIMING_CLOCK));
+        final ThreadRootsScanner threadRootsScanner = new ThreadRootsScanner(this);
+
+        /**
+         * Next unscanned cell in this worker's LAB.
+         */
+        private Pointer scan;
+        private Pointer labTop;
+
+        /**
+         * Allocation limit of this worker's LAB. Space is kept between the limit and the end of the LAB so that the
+         * unused part of the LAB can always be formatted as a dead object.
+         */
+        private Pointer labLimit;
+        private Pointer labEnd;
+
+        /**
+         * End of the last allocation of this worker from the shared evacuation buffer. A LAB may be extended beyond
+         * the requested size to avoid leaving a gap too small for a dead object at the end of the buffer.
+         */
+        private Pointer sharedAllocationEnd;
+
+        private Size evacuatedBytes;
+        private long rootScanTime;
+        private long copyTime;
+        int stealCount;
+        int publishCount;
+        int lostRaceCount;
+
+        @HOSTED_ONLY
+        Worker(int index) {
+            this.index = index;
+        }
+
+        void reset() {
+            scanQueue.reset();
+            scan = Pointer.zero();
+            labTop = Pointer.zero();
+            labLimit = Pointer.zero();
+            labEnd = Pointer.zero();
+            evacuatedBytes = Size.zero();
+            rootScanTime = 0L;
+            copyTime = 0L;
+            stealCount = 0;
+            publishCount = 0;
+            lostRaceCount = 0;
+        }
+
+        /**
+         * Allocates space from the shared evacuation buffer. Space that would be left after an allocation must be large
+         * enough to hold a dead object.
+         *
+         * @param size size of the allocation
+         * @param extensible whether the allocation may be extended to the end of the buffer (see {@link #sharedAllocationEnd})
+         */
+        private Pointer allocateShared(Size size, boolean extensible) {
+            final Address hardLimit = bufferEnd;
+            final Address headroomLimit = hardLimit.minus(minObjectSize());
+            final Pointer thisOrigin = Reference.fromJava(ParallelEvacuator.this).toOrigin();
+            while (true) {
+                final Address top = bufferTop;
+                Address newTop = top.plus(size);
+                if (newTop.greaterThan(headroomLimit)) {
+                    if (extensible && top.plus(minObjectSize()).lessEqual(hardLimit)) {
+                        newTop = hardLimit;
+                    } else if (!newTop.equals(hardLimit)) {
+                        throw FatalError.unexpected("Parallel evacuation buffer overflow");
+                    }
+                }
+                if (thisOrigin.compareAndSwapWord(bufferTopOffset(), top, newTop).equals(top)) {
+                    sharedAllocationEnd = newTop.asPointer();
+                    return top.asPointer();
+                }
+            }
+        }
+
+        private void pushOrScan(Pointer start, int lengthInWords) {
+            if (!scanQueue.push(encodeItem(start, lengthInWords))) {
+                scanItem(start, lengthInWords);
+            }
+        }
+
+        /**
+         * Hands over the unscanned part of the LAB to the scan queue and gets a new LAB large enough for a cell.
+         */
+        private void refillLab(Size cellSize) {
+            final Pointer unscanned = scan;
+            final Pointer unscannedEnd = labTop;
+            if (labTop.lessThan(labEnd)) {
+                retireDeadSpace(labTop, labEnd);
+            }
+            final Pointer lab = allocateShared(LAB_SIZE, true);
+            labTop = lab;
+            labEnd = sharedAllocationEnd;
+            labLimit = labEnd.minus(minObjectSize());
+            scan = lab;
+            if (labTop.plus(cellSize).greaterThan(labLimit)) {
+                throw FatalError.unexpected("Parallel evacuation buffer overflow");
+            }
+            if (unscanned.lessThan(unscannedEnd)) {
+                // Ranges pushed on the queue never exceed the LAB size, so their length always fits in an item.
+                pushOrScan(unscanned, unscannedEnd.minus(unscanned).unsignedShiftedRight(Word.widthValue().log2numberOfBytes).toInt());
+            }
+        }
+
+        /**
+         * Evacuate a small object to this worker's LAB, unless some other GC thread evacuated it first.
+         *
+         * @return the forwarding reference to the evacuated object
+         */
+        private Reference evacuateSmall(Pointer fromOrigin, Reference hubRef, Size size) {
+            if (labTop.plus(size).greaterThan(labLimit)) {
+                refillLab(size);
+            }
+            final Pointer toCell = labTop;
+            labTop = labTop.plus(size);
+            final Pointer fromCell = Layout.originToCell(fromOrigin);
+            Memory.copyBytes(fromCell, toCell, size);
+            final Pointer toOrigin = Layout.cellToOrigin(toCell);
+            // The copy may have raced with the installation of a forwarding pointer in the object being copied.
+            Layout.writeHubReference(toOrigin, hubRef);
+            final Reference toRef = Reference.fromOrigin(toOrigin);
+            if (Layout.compareAndSwapForwardRef(fromOrigin, hubRef, toRef) != hubRef) {
+                // Lost the race: retract the copy.
+                labTop = toCell;
+                lostRaceCount++;
+                return Reference.zero();
+            }
+            notifyEvacuated(toCell, labTop);
+            evacuatedBytes = evacuatedBytes.plus(size);
+            return toRef;
+        }
+
+        /**
+         * Evacuate a large object to the shared evacuation buffer, unless some other GC thread claimed it first.
+         *
+         * @return the forwarding reference to the evacuated object, or zero if another thread claimed the object.
+         */
+        private Reference evacuateLarge(Pointer fromOrigin, Reference hubRef, Size size) {
+            if (Layout.compareAndSwapForwardRef(fromOrigin, hubRef, Reference.zero()) != hubRef) {
+                lostRaceCount++;
+                return Reference.zero();
+            }
+            final Pointer toCell = allocateShared(size, false);
+            final Pointer fromCell = Layout.originToCell(fromOrigin);
+            Memory.copyBytes(fromCell, toCell, size);
+            final Pointer toOrigin = Layout.cellToOrigin(toCell);
+            Layout.writeHubReference(toOrigin, hubRef);
+            notifyEvacuated(toCell, toCell.plus(size));
+            final Reference toRef = Reference.fromOrigin(toOrigin);
+            // Make the copy visible before the forwarding pointer.
+            MemoryBarriers.barrier(MemoryBarriers.STORE_STORE);
+            Layout.writeForwardRef(fromOrigin, toRef);
+            evacuatedBytes = evacuatedBytes.plus(size);
+            pushOrScan(toCell, SINGLE_CELL_ITEM);
+            return toRef;
+        }
+
+        /**
+         * Gets the forwarding reference to an object of the evacuated area, evacuating the object first if no other
+         * GC thread has done it yet.
+         */
+        Reference forward(Pointer fromOrigin) {
+            while (true) {
+                final Reference hubRef = Layout.readHubReference(fromOrigin);
+                if (hubRef.isMarked()) {
+                    final Reference forwardRef = hubRef.unmarked();
+                    if (!forwardRef.isZero()) {
+                        return forwardRef;
+                    }
+                    // Another GC thread is copying the object.
+                    Intrinsics.pause();
+                    continue;
+                }
+                final Size size = cellSize(fromOrigin, UnsafeCast.asHub(hubRef.toJava()));
+                final Reference toRef = size.greaterThan(LARGE_OBJECT_SIZE) ? evacuateLarge(fromOrigin, hubRef, size) : evacuateSmall(fromOrigin, hubRef, size);
+                if (!toRef.isZero()) {
+                    return toRef;
+                }
+            }
+        }
+
+        @INLINE
+        private void updateEvacuatedRef(Pointer refHolderOrigin, int wordIndex) {
+            final Pointer origin = refHolderOrigin.getReference(wordIndex).toOrigin();
+            if (inEvacuatedArea(origin)) {
+                refHolderOrigin.setReference(wordIndex, forward(origin));
+            }
+        }
+
+        @Override
+        public void visit(Pointer pointer, int wordIndex) {
+            updateEvacuatedRef(pointer, wordIndex);
+        }
+
+        private void updateSpecialReference(Pointer origin) {
+            if (refDiscoveryEnabled) {
+                discoverSpecialReference(origin);
+            } else {
+                // Treat referent as strong reference.
+                updateEvacuatedRef(origin, SpecialReferenceManager.referentIndex());
+            }
+        }
+
+        private void updateReferenceArray(Pointer origin, int firstIndex, int endIndex) {
+            for (int index = firstIndex; index < endIndex; index++) {
+                updateEvacuatedRef(origin, index);
+            }
+        }
+
+        /**
+         * Scans a survivor to evacuate the objects it refers to and update its references.
+         *
+         * @return pointer to the end of the cell
+         */
+        Pointer scanCell(Pointer cell) {
+            final Pointer origin = Layout.cellToOrigin(cell);
+            // The size must be known before anything gets evacuated: evacuation may retire the LAB holding the cell,
+            // and the LAB's unscanned part must not include the cell.
+            final Pointer end = cell.plus(cellSize(origin, UnsafeCast.asHub(Layout.readHubReference(origin).toJava())));
+            if (cell.equals(scan)) {
+                scan = end;
+            }
+            updateEvacuatedRef(origin, Layout.hubIndex());
+            final Hub hub = UnsafeCast.asHub(Layout.readHubReference(origin).toJava());
+            final SpecificLayout specificLayout = hub.specificLayout;
+            if (specificLayout == Layout.tupleLayout()) {
+                hub.visitMappedReferences(origin, this);
+                if (hub.isJLRReference) {
+                    updateSpecialReference(origin);
+                }
+            } else if (specificLayout == Layout.hybridLayout()) {
+                hub.visitMappedReferences(origin, this);
+            } else if (specificLayout == Layout.referenceArrayLayout()) {
+                updateReferenceArray(origin, Layout.firstElementIndex(), Layout.readArrayLength(origin) + Layout.firstElementIndex());
+            }
+            return end;
+        }
+
+        private void scanItem(Pointer start, int lengthInWords) {
+            if (lengthInWords == SINGLE_CELL_ITEM) {
+                scanCell(start);
+                return;
+            }
+            final Pointer end = start.plusWords(lengthInWords);
+            Pointer cell = start;
+            while (cell.lessThan(end)) {
+                cell = scanCell(cell);
+            }
+        }
+
+        private void scanItem(Pointer item) {
+            final int lengthInWords = item.toInt() & ITEM_LENGTH_MASK;
+            scanItem(bufferStart.asPointer().plusWords(item.unsignedShiftedRight(ITEM_LENGTH_BITS).toInt()), lengthInWords);
+        }
+
+        /**
+         * Scans the survivors of this worker's LAB in Cheney order until it catches up with the LAB's top.
+         * The unscanned survivors are handed over to the scan queue when other GC threads are idle.
+         */
+        void scanLab() {
+            while (scan.lessThan(labTop)) {
+                if (numBusyWorkers < numActiveWorkers && labTop.minus(scan).greaterEqual(PUBLISH_MIN_SIZE)) {
+                    final Pointer start = scan;
+                    final int lengthInWords = labTop.minus(scan).unsignedShiftedRight(Word.widthValue().log2numberOfBytes).toInt();
+                    if (scanQueue.push(encodeItem(start, lengthInWords))) {
+                        scan = labTop;
+                        publishCount++;
+                        return;
+                    }
+                }
+                scanCell(scan);
+            }
+        }
+
+        void drain() {
+            do {
+                scanLab();
+                final Pointer item = scanQueue.pop();
+                if (item.isZero()) {
+                    return;
+                }
+                scanItem(item);
+            } while (true);
+        }
+
+        boolean stealFromOthers() {
+            final int numWorkers = numActiveWorkers;
+            for (int i = 1; i < numWorkers; i++) {
+                final Worker victim = workers[(index + i) % numWorkers];
+                final Pointer item = victim.scanQueue.steal();
+                if (!item.isZero()) {
+                    stealCount++;
+                    scanItem(item);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void retireLab() {
+            FatalError.check(scan.equals(labTop), "Retiring local allocation buffer with unscanned survivors");
+            if (labTop.lessThan(labEnd)) {
+                retireDeadSpace(labTop, labEnd);
+            }
+            scan = Pointer.zero();
+            labTop = Pointer.zero();
+            labLimit = Pointer.zero();
+            labEnd = Pointer.zero();
+        }
+
+        /**
+         * Visits a cell of the code or immortal regions.
+         */
+        @Override
+        public Pointer visitCell(Pointer cell) {
+            return scanCell(cell);
+        }
+
+        /**
+         * Visits the part of a cell of the remembered set overlapping a dirty range.
+         */
+        @Override
+        public Pointer visitCell(Pointer cell, Address start, Address end) {
+            if (cell.greaterEqual(rememberedSetEnd)) {
+                // Cells above the remembered set are survivors being copied by GC threads: stop here.
+                return end.asPointer();
+            }
+            final Pointer origin = Layout.cellToOrigin(cell);
+            if (origin.plusWords(Layout.hubIndex()).greaterEqual(start)) {
+                updateEvacuatedRef(origin, Layout.hubIndex());
+            }
+            final Hub hub = UnsafeCast.asHub(Layout.readHubReference(origin).toJava());
+            if (hub == heapFreeChunkHub()) {
+                return cell.plus(toHeapFreeChunk(origin).size);
+            }
+            final SpecificLayout specificLayout = hub.specificLayout;
+            if (specificLayout == Layout.tupleLayout()) {
+                // Visit all the references of the tuple: the write barrier dirties the card holding the tuple header.
+                hub.visitMappedReferences(origin, this);
+                if (hub.isJLRReference) {
+                    updateSpecialReference(origin);
+                }
+                return cell.plus(hub.tupleSize);
+            }
+            final int endOfArrayIndex = Layout.readArrayLength(origin) + Layout.firstElementIndex();
+            if (specificLayout == Layout.referenceArrayLayout()) {
+                final Address firstElementAddr = origin.plusWords(Layout.firstElementIndex());
+                final Address endOfArrayAddr = origin.plusWords(endOfArrayIndex);
+                final int firstIndex = start.greaterThan(firstElementAddr) ? start.minus(origin).unsignedShiftedRight(Kind.REFERENCE.width.log2numberOfBytes).toInt() : Layout.firstElementIndex();
+                final int endIndex = endOfArrayAddr.greaterThan(end) ? end.minus(origin).unsignedShiftedRight(Kind.REFERENCE.width.log2numberOfBytes).toInt() : endOfArrayIndex;
+                updateReferenceArray(origin, firstIndex, endIndex);
+            } else if (specificLayout == Layout.hybridLayout()) {
+                hub.visitMappedReferences(origin, this);
+            }
+            return cell.plus(cellSize(origin, hub));
+        }
+    }
+
+    /**
+     * Scans the stacks of the threads claimed by a GC thread.
+     */
+    final class ThreadRootsScanner implements Pointer.Procedure {
+        private final Worker worker;
+        private int threadIndex;
+        private int claimedThreadIndex;
+
+        @HOSTED_ONLY
+        ThreadRootsScanner(Worker worker) {
+            this.worker = worker;
+        }
+
+        void run() {
+            threadIndex = 0;
+            claimedThreadIndex = atomicAdd(nextThreadOffset(), 1) - 1;
+            VmThreadMap.ACTIVE.forAllThreadLocals(null, this);
+        }
+
+        public void run(Pointer tla) {
+            if (threadIndex++ != claimedThreadIndex) {
+                return;
+            }
+            claimedThreadIndex = atomicAdd(nextThreadOffset(), 1) - 1;
+            if (!VmThread.fromTLA(tla).isGCWorkerThread()) {
+                VmThreadLocal.scanReferences(tla, worker);
+            }
+        }
+    }
+
+    protected final GCWorkers gcWorkers;
+    protected final EvacuationBufferProvider evacuationBufferProvider;
+    protected final Worker[] workers;
+
+    /**
+     * Number of GC threads taking part in the current evacuation.
+     */
+    private int numActiveWorkers;
+
+    protected Address bufferStart;
+    private Address bufferEnd;
+
+    /**
+     * Top of the shared evacuation buffer, atomically bumped by GC threads.
+     */
+    private volatile Address bufferTop;
+
+    private boolean isEvacuating;
+    private boolean refDiscoveryEnabled = true;
+    private boolean scanningRoots;
+
+    private volatile int nextThread;
+    private volatile int nextRootUnit;
+    private int numRootUnits;
+    private int numStripes;
+    private Address bootHeapScanStart;
+    private Address bootHeapScanEnd;
+    private Size bootHeapStripeSize;
+    private Address rememberedSetStart;
+    private Address rememberedSetEnd;
+    private Size rememberedSetStripeSize;
+
+    /**
+     * Number of GC threads still looking for work. Evacuation is complete when it drops to zero.
+     */
+    private volatile int numBusyWorkers;
+
+    /**
+     * Spin lock serializing the discovery of special references, which isn't thread safe.
+     */
+    private volatile int discoveryLock;
+
+    @FOLD
+    private static int bufferTopOffset() {
+        return ClassActor.fromJava(ParallelEvacuator.class).findLocalInstanceFieldActor("bufferTop").offset();
+    }
+
+    @FOLD
+    private static int nextThreadOffset() {
+        return ClassActor.fromJava(ParallelEvacuator.class).findLocalInstanceFieldActor("nextThread").offset();
+    }
+
+    @FOLD
+    private static int nextRootUnitOffset() {
+        return ClassActor.fromJava(ParallelEvacuator.class).findLocalInstanceFieldActor("nextRootUnit").offset();
+    }
+
+    @FOLD
+    private static int numBusyWorkersOffset() {
+        return ClassActor.fromJava(ParallelEvacuator.class).findLocalInstanceFieldActor("numBusyWorkers").offset();
+    }
+
+    @FOLD
+    private static int discoveryLockOffset() {
+        return ClassActor.fromJava(ParallelEvacuator.class).findLocalInstanceFieldActor("discoveryLock").offset();
+    }
+
+    @HOSTED_ONLY
+    protected ParallelEvacuator(GCWorkers gcWorkers, EvacuationBufferProvider evacuationBufferProvider) {
+        this.gcWorkers = gcWorkers;
+        this.evacuationBufferProvider = evacuationBufferProvider;
+        workers = new Worker[GCWorkers.MAX_GC_THREADS];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+
+    /**
+     * Allocates the scan queues of the GC threads. Must be called after the GC worker threads are started.
+     */
+    public void initialize() {
+        for (int i = 0; i < gcWorkers.numGCThreads(); i++) {
+            workers[i].scanQueue.initialize(SCAN_QUEUE_LENGTH);
+        }
+    }
+
+    /**
+     * Indicates whether more than one GC thread is available for evacuation.
+     */
+    public boolean isEnabled() {
+        return gcWorkers.numGCThreads() > 1;
+    }
+
+    /**
+     * Size of the evacuation buffer needed to evacuate an area safely in parallel.
+     * This accounts for the space lost at the end of LABs and for the LABs still in use at the end of the evacuation.
+     *
+     * @param maxEvacuatedBytes upper bound of the amount of bytes evacuated
+     */
+    public Size requiredBufferSize(Size maxEvacuatedBytes) {
+        return maxEvacuatedBytes.plus(maxEvacuatedBytes.dividedBy(2)).plus(LAB_SIZE.times(2 * gcWorkers.numGCThreads()));
+    }
+
+    /**
+     * Indicates whether the evacuation buffer is currently held by this evacuator.
+     */
+    public boolean isEvacuating() {
+        return isEvacuating;
+    }
+
+    public Address bufferStart() {
+        return bufferStart;
+    }
+
+    /**
+     * Amount of bytes evacuated by the last evacuation.
+     */
+    public Size evacuatedBytes() {
+        Size evacuatedBytes = Size.zero();
+        for (int i = 0; i < numActiveWorkers; i++) {
+            evacuatedBytes = evacuatedBytes.plus(workers[i].evacuatedBytes);
+        }
+        return evacuatedBytes;
+    }
+
+    /**
+     * Tells whether an object is in the evacuated area.
+     */
+    protected abstract boolean inEvacuatedArea(Pointer origin);
+
+    /**
+     * Evacuate the objects of the evacuated area referenced from a range of the boot heap.
+     * By default, all the references of the range are visited.
+     */
+    protected void evacuateFromBootHeap(Worker worker, Address start, Address end) {
+        Heap.bootHeapRegion.visitReferences(start, end, worker);
+    }
+
+    /**
+     * Start of the remembered set of the evacuated area, i.e., of the area that may hold references to the evacuated
+     * area beside the roots, the boot heap, the code and the immortal regions. None by default.
+     */
+    protected Address rememberedSetStart() {
+        return Address.zero();
+    }
+
+    /**
+     * End of the remembered set of the evacuated area. Cells that start at or above it aren't visited.
+     */
+    protected Address rememberedSetEnd() {
+        return Address.zero();
+    }
+
+    /**
+     * Evacuate the objects of the evacuated area referenced from a card-aligned range of the remembered set,
+     * using the worker as the {@link OverlappingCellVisitor} of the range.
+     */
+    protected void evacuateFromRememberedSet(Worker worker, Address start, Address end) {
+    }
+
+    /**
+     * Notification that a cell was copied to the evacuation buffer. Does nothing by default.
+     */
+    protected void notifyEvacuated(Pointer cell, Pointer endOfCell) {
+    }
+
+    /**
+     * Formats space of the evacuation buffer left unused at the end of a LAB. Must be thread safe.
+     */
+    protected void retireDeadSpace(Pointer start, Pointer end) {
+        fillWithDeadObject(start, end);
+    }
+
+    /**
+     * Gives the space left in the evacuation buffer back to the provider.
+     */
+    protected void retireEvacuationBuffer(Pointer start, Pointer end) {
+        evacuationBufferProvider.retireEvacuationBuffer(start, end);
+    }
+
+    private int atomicAdd(int offset, int delta) {
+        final Reference reference = Reference.fromJava(this);
+        int oldValue;
+        do {
+            oldValue = reference.readInt(offset);
+        } while (reference.compareAndSwapInt(offset, oldValue, oldValue + delta) != oldValue);
+        return oldValue + delta;
+    }
+
+    private void lockDiscovery() {
+        final Reference reference = Reference.fromJava(this);
+        while (reference.compareAndSwapInt(discoveryLockOffset(), 0, 1) != 0) {
+            Intrinsics.pause();
+        }
+    }
+
+    void discoverSpecialReference(Pointer origin) {
+        lockDiscovery();
+        SpecialReferenceManager.discoverSpecialReference(origin);
+        discoveryLock = 0;
+    }
+
+    @INLINE
+    private Pointer encodeItem(Pointer start, int lengthInWords) {
+        return start.minus(bufferStart).unsignedShiftedRight(Word.widthValue().log2numberOfBytes).shiftedLeft(ITEM_LENGTH_BITS).or(lengthInWords).asPointer();
+    }
+
+    /**
+     * Size of an object computed from its hub. Unlike {@link Layout#size(Pointer)}, this doesn't read the object's hub
+     * word, which another GC thread may overwrite with a forwarding pointer at any time.
+     */
+    static Size cellSize(Pointer origin, Hub hub) {
+        switch (hub.layoutCategory) {
+            case TUPLE:
+                return hub.tupleSize;
+            case ARRAY:
+                return Layout.getArraySize(hub.classActor.componentClassActor().kind, Layout.readArrayLength(origin));
+            case HYBRID:
+                return Layout.hybridLayout().getArraySize(Layout.readArrayLength(origin));
+        }
+        throw FatalError.unexpected("Unknown layout category");
+    }
+
+    /**
+     * Prepares for an evacuation. The whole space available for evacuation is obtained from the evacuation buffer
+     * provider as a single free chunk.
+     */
+    public void beginEvacuation() {
+        isEvacuating = true;
+        final Address chunk = evacuationBufferProvider.refillEvacuationBuffer();
+        FatalError.check(HeapFreeChunk.getFreeChunkNext(chunk).isZero(), "Parallel evacuation buffer must be contiguous");
+        bufferStart = chunk;
+        bufferEnd = chunk.plus(HeapFreeChunk.getFreechunkSize(chunk));
+        bufferTop = bufferStart;
+        rememberedSetStart = rememberedSetStart();
+        rememberedSetEnd = rememberedSetEnd();
+        numActiveWorkers = gcWorkers.numGCThreads();
+        for (int i = 0; i < numActiveWorkers; i++) {
+            workers[i].reset();
+        }
+    }
+
+    private static Size stripeSize(Address start, Address end, int numStripes) {
+        final Size stripeSize = end.minus(start).asSize().dividedBy(numStripes).plus(1);
+        return stripeSize.alignUp(STRIPE_ALIGNMENT);
+    }
+
+    /**
+     * Evacuate the objects directly reachable from the roots, the boot heap, the code and immortal regions and the
+     * remembered set. Referenced objects are copied but not scanned.
+     */
+    public void evacuateFromRoots() {
+        numStripes = STRIPES_PER_GC_THREAD * numActiveWorkers;
+        bootHeapScanStart = Heap.bootHeapRegion.start();
+        bootHeapScanEnd = Heap.bootHeapRegion.lastMutableReferenceAddress().plus(Word.size());
+        bootHeapStripeSize = stripeSize(bootHeapScanStart, bootHeapScanEnd, numStripes);
+        rememberedSetStripeSize = stripeSize(rememberedSetStart, rememberedSetEnd, numStripes);
+        numRootUnits = FIRST_STRIPE_UNIT + 2 * numStripes;
+        nextThread = 0;
+        nextRootUnit = 0;
+        scanningRoots = true;
+        gcWorkers.run(this);
+        scanningRoots = false;
+    }
+
+    /**
+     * Evacuate all the objects transitively reachable from the objects already evacuated.
+     */
+    public void evacuateReachables() {
+        numBusyWorkers = numActiveWorkers;
+        gcWorkers.run(this);
+    }
+
+    /**
+     * Process the discovered special references, then evacuate what they keep alive.
+     * Special references are processed by the VM operation thread.
+     */
+    public void processSpecialReferences() {
+        refDiscoveryEnabled = false;
+        SpecialReferenceManager.processDiscoveredSpecialReferences(this);
+        evacuateReachables();
+        refDiscoveryEnabled = true;
+    }
+
+    /**
+     * Retires the GC threads' LABs and returns the space left in the evacuation buffer to the provider.
+     */
+    public void endEvacuation() {
+        for (int i = 0; i < numActiveWorkers; i++) {
+            workers[i].retireLab();
+        }
+        final Address top = bufferTop;
+        retireEvacuationBuffer(top.asPointer(), bufferEnd.asPointer());
+        isEvacuating = false;
+    }
+
+    @Override
+    public void run(int workerIndex) {
+        final Worker worker = workers[workerIndex];
+        final boolean traceGCTimes = Heap.logGCTime();
+        if (scanningRoots) {
+            if (traceGCTimes) {
+                worker.rootScanTimer.start();
+            }
+            worker.threadRootsScanner.run();
+            while (true) {
+                final int unit = atomicAdd(nextRootUnitOffset(), 1) - 1;
+                if (unit >= numRootUnits) {
+                    break;
+                }
+                evacuateFromRootUnit(worker, unit);
+            }
+            if (traceGCTimes) {
+                worker.rootScanTimer.stop();
+                worker.rootScanTime += worker.rootScanTimer.getLastElapsedTime();
+            }
+            return;
+        }
+        if (traceGCTimes) {
+            worker.copyTimer.start();
+        }
+        while (true) {
+            worker.drain();
+            if (worker.stealFromOthers()) {
+                continue;
+            }
+            if (offerTermination()) {
+                break;
+            }
+        }
+        if (traceGCTimes) {
+            worker.copyTimer.stop();
+            worker.copyTime += worker.copyTimer.getLastElapsedTime();
+        }
+    }
+
+    private void evacuateFromRootUnit(Worker worker, int unit) {
+        switch (unit) {
+            case MONITORS_AND_BOOT_SPECIAL_REFS_UNIT:
+                vmConfig().monitorScheme().scanReferences(worker);
+                lockDiscovery();
+                Heap.bootHeapRegion.discoverSpecialReference();
+                discoveryLock = 0;
+                return;
+            case CODE_UNIT:
+                Code.visitCells(worker, false);
+                return;
+            case IMMORTAL_UNIT:
+                ImmortalHeap.visitCells(worker);
+                return;
+        }
+        final int stripe = unit - FIRST_STRIPE_UNIT;
+        if (stripe < numStripes) {
+            final Address start = bootHeapScanStart.plus(bootHeapStripeSize.times(stripe));
+            if (start.lessThan(bootHeapScanEnd)) {
+                final Address end = start.plus(bootHeapStripeSize);
+                evacuateFromBootHeap(worker, start, end.greaterThan(bootHeapScanEnd) ? bootHeapScanEnd : end);
+            }
+        } else {
+            final Address start = rememberedSetStart.plus(rememberedSetStripeSize.times(stripe - numStripes));
+            if (start.lessThan(rememberedSetEnd)) {
+                final Address end = start.plus(rememberedSetStripeSize);
+                evacuateFromRememberedSet(worker, start, end.greaterThan(rememberedSetEnd) ? rememberedSetEnd : end);
+            }
+        }
+    }
+
+    /**
+     * Declares the current GC thread idle and waits until either all GC threads are idle or some scan queue has work.
+     *
+     * @return true if evacuation is complete
+     */
+    private boolean offerTermination() {
+        atomicAdd(numBusyWorkersOffset(), -1);
+        while (true) {
+            if (numBusyWorkers == 0) {
+                return true;
+            }
+            for (int i = 0; i < numActiveWorkers; i++) {
+                if (!workers[i].scanQueue.isEmpty()) {
+                    atomicAdd(numBusyWorkersOffset(), 1);
+                    return false;
+                }
+            }
+            Intrinsics.pause();
+        }
+    }
+
+    @Override
+    public boolean isReachable(Reference ref) {
+        final Pointer origin = ref.toOrigin();
+        if (inEvacuatedArea(origin)) {
+            return !Layout.readForwardRef(origin).isZero();
+        }
+        return true;
+    }
+
+    @Override
+    public Reference preserve(Reference ref) {
+        final Pointer origin = ref.toOrigin();
+        if (inEvacuatedArea(origin)) {
+            // Special references are processed by the VM operation thread.
+            return workers[0].forward(origin);
+        }
+        return ref;
+    }
+
+    @Override
+    public boolean mayRelocateLiveObjects() {
+        return true;
+    }
+
+    /**
+     * Prints the root scanning and copying times, and the number of steals, publications and lost races of each GC
+     * thread during the last evacuation.
+     */
+    public void reportLastElapsedTimes() {
+        for (int i = 0; i < numActiveWorkers; i++) {
+            final Worker worker = workers[i];
+            Log.print(i == 0 ? " [" : ", ");
+            Log.print(worker.rootScanTime);
+            Log.print('+');
+            Log.print(worker.copyTime);
+            Log.print(" (");
+            Log.print(worker.evacuatedBytes.toLong());
+            Log.print(" bytes, ");
+            Log.print(worker.stealCount);
+            Log.print(" steals, ");
+            Log.print(worker.publishCount);
+            Log.print(" publications, ");
+            Log.print(worker.lostRaceCount);
+            Log.print(" lost races)");
+        }
+        Log.print("]");
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.gcx;
+
+import com.sun.max.annotate.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.util.timer.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.layout.*;
+import com.sun.max.vm.reference.*;
+import com.sun.max.vm.runtime.*;
+
+/**
+ * Parallel tracing of the objects marked grey by root marking of a {@link TricolorHeapMarker}.
+ * <p>
+ * Every GC thread first claims stripes of the color map spanning the range of grey marks left by root marking, and
+ * visits the grey objects of each stripe. Any thread may find any grey mark, so a thread must win the atomic
+ * {@linkplain TricolorHeapMarker#markBlackFromGreyAtomic(int) grey to black transition} of an object before visiting it.
+ * White objects referenced from visited objects are {@linkplain TricolorHeapMarker#markGreyIfWhiteAtomic(Pointer) atomically marked grey}
+ * and pushed on the visiting thread's {@link WorkStealingMarkingStack}. A thread whose stack is empty steals from the
+ * other threads' stacks until all stacks are empty and all threads are idle.
+ * <p>
+ * Unlike the forward scan, there is no finger: all references are pushed. When a stack is full, the referenced object
+ * is left grey in the color map. Once parallel tracing completes, the heap marker visits the remaining grey objects
+ * with its sequential forward scan starting from the leftmost overflowed object, so that overflows of the marking
+ * stack are eventually handled by the heap marker's usual overflow scan states (linear or with rescan map).
+ */
+final class ParallelMarkingTask extends GCWorkers.GCTask {
+    /**
+     * Number of color map words claimed at once by a GC thread. A stripe covers 32 Kb of heap with one bit per word.
+     */
+    static final int STRIPE_WORDS = 64;
+
+    final class Worker extends PointerIndexVisitor {
+        final WorkStealingMarkingStack markingStack = new WorkStealingMarkingStack();
+        final TimerMetric markingTimer = new TimerMetric(new SingleUseTimer(HeapScheme.GC_TIMING_CLOCK));
+
+        /**
+         * Rightmost cell marked grey by this worker.
+         */
+        Address rightmost;
+
+        /**
+         * Leftmost cell left grey in the color map because the marking stack was full.
+         */
+        Address leftmostOverflow;
+
+        int overflowCount;
+        int stealCount;
+
+        void reset() {
+            markingStack.reset();
+            rightmost = Address.zero();
+            leftmostOverflow = heapMarker.coveredAreaEnd;
+            overflowCount = 0;
+            stealCount = 0;
+        }
+
+        @INLINE
+        private void markObjectGrey(Pointer cell) {
+            if (cell.greaterEqual(heapMarker.coveredAreaStart) && heapMarker.markGreyIfWhiteAtomic(cell)) {
+                if (cell.greaterThan(rightmost)) {
+                    rightmost = cell;
+                }
+                if (!markingStack.push(cell)) {
+                    overflowCount++;
+                    if (cell.lessThan(leftmostOverflow)) {
+                        leftmostOverflow = cell;
+                    }
+                }
+            }
+        }
+
+        @INLINE
+        private void markRefGrey(Reference ref) {
+            markObjectGrey(Layout.originToCell(ref.toOrigin()));
+        }
+
+        @Override
+        public void visit(Pointer pointer, int wordIndex) {
+            markRefGrey(pointer.getReference(wordIndex));
+        }
+
+        /**
+         * Visits a grey cell if this worker wins the race to mark it black.
+         */
+        void visitGreyCell(Pointer cell) {
+            if (!heapMarker.markBlackFromGreyAtomic(heapMarker.bitIndexOf(cell))) {
+                return;
+            }
+            if (MaxineVM.isDebug() && Heap.logAllGC()) {
+                TricolorHeapMarker.printVisitedCell(cell, "Visiting grey cell (parallel) ");
+            }
+            final Pointer origin = Layout.cellToOrigin(cell);
+            final Reference hubRef = Layout.readHubReference(origin);
+            markRefGrey(hubRef);
+            final Hub hub = UnsafeCast.asHub(hubRef.toJava());
+            if (MaxineVM.isDebug()) {
+                heapMarker.checkGreyCellHub(origin, hub);
+            }
+            final SpecificLayout specificLayout = hub.specificLayout;
+            if (specificLayout.isTupleLayout()) {
+                TupleReferenceMap.visitReferences(hub, origin, this);
+                if (hub.isJLRReference) {
+                    discoverSpecialReference(cell);
+                }
+            } else if (specificLayout.isReferenceArrayLayout()) {
+                final int length = Layout.readArrayLength(origin);
+                for (int index = 0; index < length; index++) {
+                    markRefGrey(Layout.getReference(origin, index));
+                }
+            } else if (specificLayout.isHybridLayout()) {
+                TupleReferenceMap.visitReferences(hub, origin, this);
+            }
+        }
+
+        void drain() {
+            Pointer cell = markingStack.pop();
+            while (!cell.isZero()) {
+                visitGreyCell(cell);
+                cell = markingStack.pop();
+            }
+        }
+
+        /**
+         * Visits the grey objects whose marks are within a range of words of the color map.
+         * The range is rescanned from the last visited mark since visiting may add grey marks to it.
+         */
+        void visitStripe(int firstWordIndex, int lastWordIndex) {
+            final Pointer colorMapBase = heapMarker.base.asPointer();
+            int wordIndex = firstWordIndex;
+            long mask = -1L;
+            while (wordIndex <= lastWordIndex) {
+                final long bitmapWord = colorMapBase.getLong(wordIndex) & mask;
+                final long greyMarksInWord = bitmapWord & (bitmapWord >>> 1);
+                int bitIndexInWord;
+                if (greyMarksInWord != 0L) {
+                    bitIndexInWord = Pointer.fromLong(greyMarksInWord).leastSignificantBitSet();
+                } else if ((bitmapWord >>> TricolorHeapMarker.LAST_BIT_INDEX_IN_WORD) == 1L && (colorMapBase.getLong(wordIndex + 1) & 1L) != 0L) {
+                    // Grey mark spanning two words.
+                    bitIndexInWord = TricolorHeapMarker.LAST_BIT_INDEX_IN_WORD;
+                } else {
+                    wordIndex++;
+                    mask = -1L;
+                    continue;
+                }
+                final int bitIndex = (wordIndex << Word.widthValue().log2numberOfBits) + bitIndexInWord;
+                visitGreyCell(heapMarker.addressOf(bitIndex).asPointer());
+                drain();
+                // Objects span at least two bits, so the next mark is at least two bits further.
+                if (bitIndexInWord >= TricolorHeapMarker.LAST_BIT_INDEX_IN_WORD - 1) {
+                    wordIndex++;
+                    mask = bitIndexInWord == TricolorHeapMarker.LAST_BIT_INDEX_IN_WORD ? ~1L : -1L;
+                } else {
+                    mask = -1L << (bitIndexInWord + 2);
+                }
+            }
+        }
+
+        boolean stealFromOthers(int workerIndex) {
+            final int numWorkers = numActiveWorkers;
+            for (int i = 1; i < numWorkers; i++) {
+                final Worker victim = workers[(workerIndex + i) % numWorkers];
+                final Pointer cell = victim.markingStack.steal();
+                if (!cell.isZero()) {
+                    stealCount++;
+                    visitGreyCell(cell);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    final TricolorHeapMarker heapMarker;
+    final GCWorkers gcWorkers;
+    final Worker[] workers;
+
+    /**
+     * Number of GC threads taking part in the current marking.
+     */
+    private int numActiveWorkers;
+
+    /**
+     * Index of the next stripe of the color map to claim.
+     */
+    private volatile int nextStripe;
+    private int firstStripeWordIndex;
+    private int lastStripeWordIndex;
+
+    /**
+     * Number of GC threads still looking for work. Marking is complete when it drops to zero.
+     */
+    private volatile int numBusyWorkers;
+
+    /**
+     * Spin lock serializing the discovery of special references, which isn't thread safe.
+     */
+    private volatile int discoveryLock;
+
+    @FOLD
+    private static int nextStripeOffset() {
+        return ClassActor.fromJava(ParallelMarkingTask.class).findLocalInstanceFieldActor("nextStripe").offset();
+    }
+
+    @FOLD
+    private static int numBusyWorkersOffset() {
+        return ClassActor.fromJava(ParallelMarkingTask.class).findLocalInstanceFieldActor("numBusyWorkers").offset();
+    }
+
+    @FOLD
+    private static int discoveryLockOffset() {
+        return ClassActor.fromJava(ParallelMarkingTask.class).findLocalInstanceFieldActor("discoveryLock").offset();
+    }
+
+    @HOSTED_ONLY
+    ParallelMarkingTask(TricolorHeapMarker heapMarker, GCWorkers gcWorkers) {
+        this.heapMarker = heapMarker;
+        this.gcWorkers = gcWorkers;
+        workers = new Worker[GCWorkers.MAX_GC_THREADS];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker();
+        }
+    }
+
+    /**
+     * Allocates the marking stacks of the GC threads. Must be called after the GC worker threads are started.
+     *
+     * @param markingStackLength length of each GC thread's marking stack
+     */
+    void initialize(int markingStackLength) {
+        for (int i = 0; i < gcWorkers.numGCThreads(); i++) {
+            workers[i].markingStack.initialize(markingStackLength);
+        }
+    }
+
+    boolean isEnabled() {
+        return gcWorkers.numGCThreads() > 1;
+    }
+
+    private int atomicAdd(int offset, int delta) {
+        final Reference reference = Reference.fromJava(this);
+        int oldValue;
+        do {
+            oldValue = reference.readInt(offset);
+        } while (reference.compareAndSwapInt(offset, oldValue, oldValue + delta) != oldValue);
+        return oldValue + delta;
+    }
+
+    void discoverSpecialReference(Pointer cell) {
+        final Reference reference = Reference.fromJava(this);
+        while (reference.compareAndSwapInt(discoveryLockOffset(), 0, 1) != 0) {
+            Intrinsics.pause();
+        }
+        SpecialReferenceManager.discoverSpecialReference(cell);
+        discoveryLock = 0;
+    }
+
+    /**
+     * Traces all objects reachable from the objects marked grey between two cells.
+     *
+     * @param leftmost leftmost grey cell
+     * @param rightmost rightmost grey cell
+     */
+    void visitGreyObjects(Address leftmost, Address rightmost) {
+        numActiveWorkers = gcWorkers.numGCThreads();
+        firstStripeWordIndex = heapMarker.bitmapWordIndex(leftmost);
+        lastStripeWordIndex = heapMarker.bitmapWordIndex(rightmost);
+        nextStripe = 0;
+        numBusyWorkers = numActiveWorkers;
+        gcWorkers.run(this);
+    }
+
+    @Override
+    public void run(int workerIndex) {
+        final Worker worker = workers[workerIndex];
+        final boolean traceGCTimes = Heap.logGCTime();
+        if (traceGCTimes) {
+            worker.markingTimer.start();
+        }
+        worker.reset();
+        while (true) {
+            final int firstWordIndex = firstStripeWordIndex + atomicAdd(nextStripeOffset(), 1) * STRIPE_WORDS - STRIPE_WORDS;
+            if (firstWordIndex > lastStripeWordIndex) {
+                break;
+            }
+            final int lastWordIndex = firstWordIndex + STRIPE_WORDS - 1;
+            worker.visitStripe(firstWordIndex, lastWordIndex < lastStripeWordIndex ? lastWordIndex : lastStripeWordIndex);
+        }
+        while (true) {
+            worker.drain();
+            if (worker.stealFromOthers(workerIndex)) {
+                continue;
+            }
+            if (offerTermination()) {
+                break;
+            }
+        }
+        if (traceGCTimes) {
+            worker.markingTimer.stop();
+        }
+    }
+
+    /**
+     * Declares the current GC thread idle and waits until either all GC threads are idle or some marking stack has work.
+     *
+     * @return true if marking is complete
+     */
+    private boolean offerTermination() {
+        atomicAdd(numBusyWorkersOffset(), -1);
+        while (true) {
+            if (numBusyWorkers == 0) {
+                return true;
+            }
+            for (int i = 0; i < numActiveWorkers; i++) {
+                if (!workers[i].markingStack.isEmpty()) {
+                    atomicAdd(numBusyWorkersOffset(), 1);
+                    return false;
+                }
+            }
+            Intrinsics.pause();
+        }
+    }
+
+    /**
+     * Rightmost cell marked grey by the GC threads during the last parallel marking, or zero if none.
+     */
+    Address rightmost() {
+        Address rightmost = Address.zero();
+        for (int i = 0; i < numActiveWorkers; i++) {
+            if (workers[i].rightmost.greaterThan(rightmost)) {
+                rightmost = workers[i].rightmost;
+            }
+        }
+        return rightmost;
+    }
+
+    /**
+     * Leftmost cell left grey because a marking stack overflowed during the last parallel marking, or the end of the
+     * covered area if there was no overflow.
+     */
+    Address leftmostOverflow() {
+        Address leftmost = heapMarker.coveredAreaEnd;
+        for (int i = 0; i < numActiveWorkers; i++) {
+            if (workers[i].leftmostOverflow.lessThan(leftmost)) {
+                leftmost = workers[i].leftmostOverflow;
+            }
+        }
+        return leftmost;
+    }
+
+    void reportLastElapsedTimes() {
+        for (int i = 0; i < numActiveWorkers; i++) {
+            final Worker worker = workers[i];
+            Log.print(i == 0 ? " [" : ", ");
+            Log.print(worker.markingTimer.getLastElapsedTime());
+            Log.print(" (");
+            Log.print(worker.stealCount);
+            Log.print(" steals, ");
+            Log.print(worker.overflowCount);
+            Log.print(" overflows)");
+        }
+        Log.print("]");
+    }
+}
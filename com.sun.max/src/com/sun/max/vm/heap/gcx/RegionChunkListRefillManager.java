@@ -47,6 +47,11 @@ public final class RegionChunkListRefillManager extends ChunkListRefillManager {
      */
     private int allocatingRegion;
 
+    /**
+     * NUMA node whose local regions are preferred for refills, or {@link NUMAAllocation#ANY_NODE}.
+     */
+    private int numaNode = NUMAAllocation.ANY_NODE;
+
     /**
      * Provider of regions.
      */
@@ -86,6 +91,10 @@ public final class RegionChunkListRefillManager extends ChunkListRefillManager {
         return regionProvider;
     }
 
+    void setNUMANode(int node) {
+        numaNode = node;
+    }
+
     public int allocatingRegion() {
         return allocatingRegion;
     }
@@ -133,7 +142,7 @@ public final class RegionChunkListRefillManager extends ChunkListRefillManager {
             int gcCount = 0;
             retireCurrentAllocatingRegion();
             do {
-                allocatingRegion = regionProvider.getAllocatingRegion();
+                allocatingRegion = numaNode == NUMAAllocation.ANY_NODE ? regionProvider.getAllocatingRegion() : regionProvider.getLocalAllocatingRegion(numaNode);
                 if (allocatingRegion != INVALID_REGION_ID) {
                     if (allocatingRegion == DebuggedRegion) {
                         TLABLog.TraceTLABAllocation = true;
@@ -439,6 +439,9 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
         Log.print(codeScanTimer.getLastElapsedTime());
         Log.print(", marking=");
         Log.print(heapMarkingTimer.getLastElapsedTime());
+        if (useParallelMarking()) {
+            parallelMarking.reportLastElapsedTimes();
+        }
         Log.print(", marking stack overflow (");
         Log.print(recoveryScanTimer.getCount());
         Log.print(") =");
@@ -736,6 +739,58 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
         basePointer.setLong(wordIndex, basePointer.getLong(wordIndex) & ~bitmaskFor(greyBitIndex));
     }
 
+    /**
+     * Atomically paint grey a white color location that may span words. Used when several GC threads mark concurrently.
+     *
+     * @param cell a cell in the covered area
+     * @return true if the cell was white and the current thread painted it grey
+     */
+    final boolean markGreyIfWhiteAtomic(Pointer cell) {
+        final int bitIndex = bitIndexOf(cell);
+        final Pointer basePointer = base.asPointer();
+        int wordIndex = bitmapWordIndex(bitIndex);
+        final long blackBit = bitmaskFor(bitIndexInWord(bitIndex));
+        final long colorBits = colorSpanWords(bitIndex) ? blackBit : GREY << bitIndexInWord(bitIndex);
+        long word;
+        do {
+            word = basePointer.getLong(wordIndex);
+            if ((word & blackBit) != 0) {
+                return false;
+            }
+        } while (basePointer.compareAndSwapLong(wordIndex << Word.widthValue().log2numberOfBytes, word, word | colorBits) != word);
+        if (colorSpanWords(bitIndex)) {
+            // The current thread owns the cell: other threads see it black until the grey bit is set below.
+            wordIndex++;
+            do {
+                word = basePointer.getLong(wordIndex);
+            } while (basePointer.compareAndSwapLong(wordIndex << Word.widthValue().log2numberOfBytes, word, word | 1L) != word);
+        }
+        traceGreyMark(cell, bitIndex);
+        return true;
+    }
+
+    /**
+     * Atomically paint black a grey color location. Used when several GC threads mark concurrently to
+     * elect the thread that visits a grey object.
+     *
+     * @param bitIndex the bit index of a marked cell
+     * @return true if the color was grey and the current thread painted it black
+     */
+    final boolean markBlackFromGreyAtomic(int bitIndex) {
+        final Pointer basePointer = base.asPointer();
+        final int greyBitIndex = bitIndex + 1;
+        final int wordIndex = bitmapWordIndex(greyBitIndex);
+        final long greyBit = bitmaskFor(bitIndexInWord(greyBitIndex));
+        long word;
+        do {
+            word = basePointer.getLong(wordIndex);
+            if ((word & greyBit) == 0) {
+                return false;
+            }
+        } while (basePointer.compareAndSwapLong(wordIndex << Word.widthValue().log2numberOfBytes, word, word & ~greyBit) != word);
+        return true;
+    }
+
     @INLINE
     final void markBlackFromGrey(Address cell) {
         final int bitIndex = bitIndexOf(cell);
@@ -1262,6 +1317,33 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
      */
     private final SequentialHeapRootsScanner heapRootsScanner;
 
+    /**
+     * Parallel tracing of grey objects after root marking. Null if the heap scheme doesn't provide GC worker threads.
+     */
+    private ParallelMarkingTask parallelMarking;
+
+    /**
+     * Enables parallel tracing of the heap with the specified GC threads.
+     * Parallel tracing is used at runtime only if more than one {@linkplain GCWorkers#numGCThreads() GC thread} is started.
+     */
+    @HOSTED_ONLY
+    public void useParallelMarking(GCWorkers gcWorkers) {
+        parallelMarking = new ParallelMarkingTask(this, gcWorkers);
+    }
+
+    /**
+     * Allocates the data structures used for parallel marking. Must be called once the GC worker threads are started.
+     */
+    public void initializeParallelMarking() {
+        if (parallelMarking != null && parallelMarking.isEnabled()) {
+            parallelMarking.initialize(markingStack.length().toInt());
+        }
+    }
+
+    private boolean useParallelMarking() {
+        return parallelMarking != null && parallelMarking.isEnabled();
+    }
+
     void markBootHeap() {
         Heap.bootHeapRegion.visitReferences(rootCellVisitor);
     }
@@ -1508,6 +1590,34 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
         visitGreyObjects();
     }
 
+    /**
+     * Trace the heap from the objects marked grey during root marking with all GC threads, and set up the forward scan
+     * state so that a subsequent forward scan visits the objects left grey by overflows of the GC threads' marking stacks.
+     *
+     * @return false if root marking didn't mark anything, in which case the forward scan state is left as set up for a sequential trace
+     */
+    private boolean parallelVisitGreyObjectsAfterRootMarking() {
+        initAfterRootMarking();
+        Address leftmost = rootCellVisitor.leftmost;
+        Address rightmost = rootCellVisitor.rightmost;
+        if (leftmost.greaterThan(rightmost)) {
+            if (leftmost.greaterEqual(coveredAreaEnd)) {
+                return false;
+            }
+            // A single root was marked.
+            rightmost = leftmost;
+        }
+        parallelMarking.visitGreyObjects(leftmost, rightmost);
+        final Address parallelRightmost = parallelMarking.rightmost();
+        if (parallelRightmost.greaterThan(rightmost)) {
+            rightmost = parallelRightmost;
+        }
+        final Address leftmostOverflow = parallelMarking.leftmostOverflow();
+        forwardScanState.rightmost = rightmost;
+        forwardScanState.finger = leftmostOverflow.lessThan(rightmost) ? leftmostOverflow : rightmost;
+        return true;
+    }
+
 
     /**
      * Find the first black mark in the specified range of the color map.
@@ -1635,18 +1745,31 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
      * This can server region-based heap as well as contiguous heap, wherein a single region is passed in this case.
      */
     public void sweep(HeapRegionSweeper regionsSweeper, boolean doImprecise) {
-        final Address endOfRightmostLiveObject = endOfCell(forwardScanState.rightmost);
-        do {
-            assert regionsSweeper.hasNextSweepingRegion();
-            regionsSweeper.beginSweep();
-            if (doImprecise) {
-                impreciseRegionSweep(regionsSweeper);
-            } else {
-                preciseRegionSweep(regionsSweeper);
-            }
-            regionsSweeper.endSweep();
-        } while (regionsSweeper.endOfSweepingRegion().lessThan(endOfRightmostLiveObject));
+        while (sweepNextRegion(regionsSweeper, doImprecise)) {
+        }
+    }
+
+    /**
+     * Sweep the next region of the heap region sweeper.
+     * Used for lazy sweeping, where regions are swept on demand after the end of the collection. This requires the mark bitmap
+     * to be left untouched until all regions have been swept.
+     *
+     * @return true if there are more regions left to sweep, false if the sweeper reached the rightmost live region
+     */
+    public boolean sweepNextRegion(HeapRegionSweeper regionsSweeper, boolean doImprecise) {
+        assert regionsSweeper.hasNextSweepingRegion();
+        regionsSweeper.beginSweep();
+        if (doImprecise) {
+            impreciseRegionSweep(regionsSweeper);
+        } else {
+            preciseRegionSweep(regionsSweeper);
+        }
+        regionsSweeper.endSweep();
+        if (regionsSweeper.endOfSweepingRegion().lessThan(endOfCell(forwardScanState.rightmost))) {
+            return true;
+        }
         regionsSweeper.reachedRightmostLiveRegion();
+        return false;
     }
 
     /**
@@ -1789,7 +1912,11 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
         markPhase = MARK_PHASE.VISIT_GREY_FORWARD;
         markPhase.traceBegin(traceGCPhases);
         startTimer(heapMarkingTimer);
-        visitGreyObjectsAfterRootMarking();
+        if (useParallelMarking() && parallelVisitGreyObjectsAfterRootMarking()) {
+            visitGreyObjects();
+        } else {
+            visitGreyObjectsAfterRootMarking();
+        }
         stopTimer(heapMarkingTimer);
         markPhase.traceEnd(traceGCPhases);
 
@@ -1835,7 +1962,11 @@ public class TricolorHeapMarker implements MarkingStack.OverflowHandler, HeapMan
         markPhase = MARK_PHASE.VISIT_GREY_FORWARD;
         markPhase.traceBegin(traceGCPhases);
         startTimer(heapMarkingTimer);
-        visitGreyObjectsAfterRootMarking(regionsRanges);
+        if (useParallelMarking() && parallelVisitGreyObjectsAfterRootMarking()) {
+            visitGreyObjects(regionsRanges);
+        } else {
+            visitGreyObjectsAfterRootMarking(regionsRanges);
+        }
         stopTimer(heapMarkingTimer);
         markPhase.traceEnd(traceGCPhases);
 
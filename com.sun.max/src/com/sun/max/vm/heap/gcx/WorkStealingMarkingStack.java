@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.gcx;
+
+import com.oracle.max.cri.intrinsics.*;
+import com.sun.max.annotate.*;
+import com.sun.max.memory.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.reference.*;
+
+/**
+ * Fixed size marking stack owned by a single GC thread, from which other GC threads may steal cells.
+ * The owner pushes and pops at the bottom end, thieves take from the top end (Chase-Lev deque).
+ * Unlike {@link MarkingStack}, the stack doesn't drain itself when full: {@link #push(Pointer)} fails
+ * and the caller is responsible for handling the overflow.
+ */
+final class WorkStealingMarkingStack {
+    private Address base;
+    private int mask;
+
+    /**
+     * Index of the next cell to steal. Only ever incremented, by a successful compare and swap.
+     */
+    private volatile int top;
+
+    /**
+     * Index of the next free slot. Only written by the owner.
+     */
+    private volatile int bottom;
+
+    @FOLD
+    private static int topOffset() {
+        return ClassActor.fromJava(WorkStealingMarkingStack.class).findLocalInstanceFieldActor("top").offset();
+    }
+
+    void initialize(int length) {
+        final int capacity = Integer.highestOneBit(length - 1) << 1;
+        final Size size = Size.fromInt(capacity).shiftedLeft(Word.widthValue().log2numberOfBytes);
+        base = Memory.allocate(size);
+        if (base.isZero()) {
+            MaxineVM.reportPristineMemoryFailure("work-stealing marking stack", "allocate", size);
+        }
+        mask = capacity - 1;
+    }
+
+    @INLINE
+    private boolean casTop(int expected, int newValue) {
+        return Reference.fromJava(this).compareAndSwapInt(topOffset(), expected, newValue) == expected;
+    }
+
+    boolean isEmpty() {
+        return top >= bottom;
+    }
+
+    void reset() {
+        top = 0;
+        bottom = 0;
+    }
+
+    /**
+     * Pushes a cell. Must only be called by the owner.
+     *
+     * @return false if the stack is full
+     */
+    boolean push(Pointer cell) {
+        final int b = bottom;
+        if (b - top > mask) {
+            return false;
+        }
+        base.asPointer().setWord(b & mask, cell);
+        bottom = b + 1;
+        return true;
+    }
+
+    /**
+     * Pops the most recently pushed cell. Must only be called by the owner.
+     *
+     * @return the popped cell or zero if the stack is empty
+     */
+    Pointer pop() {
+        final int b = bottom - 1;
+        bottom = b;
+        MemoryBarriers.barrier(MemoryBarriers.STORE_LOAD);
+        final int t = top;
+        if (t > b) {
+            bottom = t;
+            return Pointer.zero();
+        }
+        final Pointer cell = base.asPointer().getWord(b & mask).asPointer();
+        if (t == b) {
+            // Last cell: race with thieves for it.
+            final boolean won = casTop(t, t + 1);
+            bottom = t + 1;
+            return won ? cell : Pointer.zero();
+        }
+        return cell;
+    }
+
+    /**
+     * Steals the least recently pushed cell. May be called by any thread.
+     *
+     * @return the stolen cell or zero if the stack was empty or another thread won the race for the cell
+     */
+    Pointer steal() {
+        final int t = top;
+        MemoryBarriers.barrier(MemoryBarriers.LOAD_LOAD);
+        final int b = bottom;
+        if (t >= b) {
+            return Pointer.zero();
+        }
+        final Pointer cell = base.asPointer().getWord(t & mask).asPointer();
+        return casTop(t, t + 1) ? cell : Pointer.zero();
+    }
+}
@@ -65,11 +65,17 @@ public final class MSHeapScheme extends HeapSchemeWithTLABAdaptor {
 
     final AfterMarkSweepVerifier afterGCVerifier;
 
+    /**
+     * Threads helping the VM operation thread with parallel phases of the collection.
+     */
+    private final GCWorkers gcWorkers = new GCWorkers();
+
     private final AtomicPinCounter pinnedCounter = MaxineVM.isDebug() ? new AtomicPinCounter() : null;
 
     @HOSTED_ONLY
     public MSHeapScheme() {
         heapMarker = new TricolorHeapMarker(WORDS_COVERED_PER_BIT, new ContiguousHeapRootCellVisitor());
+        heapMarker.useParallelMarking(gcWorkers);
         objectSpace = new FreeHeapSpaceManager();
         afterGCVerifier = new AfterMarkSweepVerifier(heapMarker, objectSpace, AfterMarkSweepBootHeapVerifier.makeVerifier(heapMarker));
 
@@ -79,6 +85,10 @@ public final class MSHeapScheme extends HeapSchemeWithTLABAdaptor {
     @Override
     public void initialize(MaxineVM.Phase phase) {
         super.initialize(phase);
+        if (phase == MaxineVM.Phase.STARTING) {
+            gcWorkers.start();
+            heapMarker.initializeParallelMarking();
+        }
     }
 
     /**
@@ -400,7 +410,7 @@ public final class MSHeapScheme extends HeapSchemeWithTLABAdaptor {
             allocateAndRefillTLAB(etla, tlabSize);
             // Let's do a bit of dirty meta-circularity. The TLAB is refilled, and no-one except the current thread can use it.
             // So the tlab allocation is going to succeed here
-            TLABRefillPolicy.setForCurrentThread(etla, new SimpleTLABRefillPolicy(tlabSize));
+            TLABRefillPolicy.setForCurrentThread(etla, newTLABRefillPolicy(tlabSize));
             // Now, address the initial request. Note that we may recurse down to handleTLABOverflow again here if the
             // request is larger than the TLAB size. However, this second call will succeed and allocate outside of the tlab.
             return tlabAllocate(size);
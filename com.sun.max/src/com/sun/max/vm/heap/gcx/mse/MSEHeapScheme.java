@@ -52,10 +52,13 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
     static boolean DumpFragStatsAfterGC = false;
     static boolean DumpFragStatsAtGCFailure = false;
     static boolean DoImpreciseSweep = false;
+    static boolean LazySweep = false;
     static {
         VMOptions.addFieldOption("-XX:", "DumpFragStatsAfterGC", MSEHeapScheme.class, "Dump region fragmentation stats after GC", Phase.PRISTINE);
         VMOptions.addFieldOption("-XX:", "DumpFragStatsAtGCFailure", MSEHeapScheme.class, "Dump region fragmentation when GC failed to reclaim enough space", Phase.PRISTINE);
         VMOptions.addFieldOption("-XX:", "DoImpreciseSweep", MSEHeapScheme.class, "Control whether to do precise or imprecise sweep", Phase.PRISTINE);
+        VMOptions.addFieldOption("-XX:", "LazySweep", MSEHeapScheme.class,
+                        "Only sweep the regions needed to satisfy the GC request during the pause, and sweep the others on demand when mutators refill", Phase.PRISTINE);
     }
 
     /**
@@ -68,6 +71,11 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
      */
     private final FirstFitMarkSweepSpace<MSEHeapScheme> markSweepSpace;
 
+    /**
+     * Threads helping the VM operation thread with parallel phases of the collection.
+     */
+    private final GCWorkers gcWorkers = new GCWorkers();
+
     private final AtomicPinCounter pinnedCounter = MaxineVM.isDebug() ? new AtomicPinCounter() : null;
 
     final MarkSweepCollection collect = new MarkSweepCollection();
@@ -95,6 +103,7 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
             new AtomicBumpPointerAllocator<RegionOverflowAllocatorRefiller>(new RegionOverflowAllocatorRefiller());
         markSweepSpace = new FirstFitMarkSweepSpace<MSEHeapScheme>(heapAccount, tlabAllocator, overflowAllocator, false, NullDeadSpaceListener.nullDeadSpaceListener(), 0);
         heapMarker = new TricolorHeapMarker(WORDS_COVERED_PER_BIT, new HeapAccounRootCellVisitor(this));
+        heapMarker.useParallelMarking(gcWorkers);
         afterGCVerifier = new AfterMarkSweepVerifier(heapMarker, markSweepSpace, AfterMarkSweepBootHeapVerifier.makeVerifier(heapMarker, this));
         pinningSupportFlags = PIN_SUPPORT_FLAG.makePinSupportFlags(true, false, true);
     }
@@ -102,6 +111,10 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
     @Override
     public void initialize(MaxineVM.Phase phase) {
         super.initialize(phase);
+        if (phase == MaxineVM.Phase.STARTING) {
+            gcWorkers.start();
+            heapMarker.initializeParallelMarking();
+        }
     }
 
     /**
@@ -314,6 +327,7 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
             traceGCTimes = Heap.logGCTime();
             startTimer(totalPauseTime);
             VmThreadMap.ACTIVE.forAllThreadLocals(null, tlabFiller);
+            final Size freeSpaceBeforeGC = markSweepSpace.freeSpace();
 
             HeapScheme.Inspect.notifyHeapPhaseChange(HeapPhase.ANALYZING);
 
@@ -331,8 +345,16 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
                 Log.println("BEGIN: Sweeping");
             }
             startTimer(reclaimTimer);
-            markSweepSpace.sweep(heapMarker, DoImpreciseSweep);
-            Size freeSpaceAfterGC = markSweepSpace.freeSpace();
+            // Heap verification and fragmentation statistics need all regions swept.
+            if (LazySweep && !VerifyAfterGC && fragmentationStats == null) {
+                // Recover at least as much space as was free before the GC, plus the requested space, so that the
+                // allocation that triggered the GC can succeed. The other regions are swept on demand.
+                final Size minFreeSpace = freeSpaceBeforeGC.plus(callingThread().gcRequest.requestedBytes);
+                markSweepSpace.lazySweep(heapMarker, DoImpreciseSweep, minFreeSpace);
+            } else {
+                markSweepSpace.sweep(heapMarker, DoImpreciseSweep);
+            }
+            Size freeSpaceAfterGC = markSweepSpace.freeSpaceAfterSweep();
             stopTimer(reclaimTimer);
             if (traceGCPhases) {
                 Log.println("END: Sweeping");
@@ -449,7 +471,7 @@ public final class MSEHeapScheme extends HeapSchemeWithTLABAdaptor implements He
             allocateAndRefillTLAB(etla, tlabSize);
             // Let's do a bit of dirty meta-circularity. The TLAB is refilled, and no-one except the current thread can use it.
             // So the tlab allocation is going to succeed here
-            TLABRefillPolicy.setForCurrentThread(etla, new SimpleTLABRefillPolicy(tlabSize));
+            TLABRefillPolicy.setForCurrentThread(etla, newTLABRefillPolicy(tlabSize));
             // Now, address the initial request. Note that we may recurse down to handleTLABOverflow again here if the
             // request is larger than the TLAB size. However, this second call will succeed and allocate outside of the tlab.
             return tlabAllocate(size);
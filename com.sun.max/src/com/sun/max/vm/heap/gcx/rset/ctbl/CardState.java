@@ -23,11 +23,16 @@
 package com.sun.max.vm.heap.gcx.rset.ctbl;
 
 /**
- * Two value card-state.
+ * Card states. The write barrier only ever sets cards to the {@link #DIRTY_CARD} state.
+ * The {@link #SUMMARIZED_CARD} state is only used by card refinement (see {@link CardTableRSet#refineCards}).
  */
 public enum CardState {
     CLEAN_CARD(0xff),
-    DIRTY_CARD(0);
+    DIRTY_CARD(0),
+    /**
+     * Card known by refinement to hold references that must be remembered, and recorded in a summary of such cards.
+     */
+    SUMMARIZED_CARD(1);
 
     final byte value;
 
@@ -88,6 +88,23 @@ public final class CardTable extends  Log2RegionToByteMapTable {
         set(index, DIRTY_CARD.value());
     }
 
+    /**
+     * Set card at specified index to the {@link CardState#SUMMARIZED_CARD} value.
+     * @param index a card index
+     */
+    public void summarize(int index) {
+        set(index, SUMMARIZED_CARD.value());
+    }
+
+    /**
+     * Check whether the card at the specified index is in the specified state.
+     * @param index a card index
+     * @param cardState a card state
+     */
+    public boolean isInState(int index, CardState cardState) {
+        return get(index) == cardState.value;
+    }
+
     /**
      * Dirty the entry in the card table corresponding to the card of the covered heap address.
      * @param coveredAddress an address in heap covered by the card table
@@ -24,6 +24,7 @@ import static com.sun.max.vm.heap.HeapSchemeAdaptor.*;
 
 import java.util.*;
 
+import com.oracle.max.cri.intrinsics.*;
 import com.sun.cri.ci.CiAddress.Scale;
 import com.sun.cri.ci.*;
 import com.sun.cri.xir.*;
@@ -431,6 +432,89 @@ public final class CardTableRSet extends DeadSpaceListener implements HeapManage
         }
     }
 
+    /**
+     * Logic for {@linkplain CardTableRSet#refineCards(Address, Address, CardRefiner) refining} dirty cards.
+     * The cells overlapping a refined card are visited with the refiner, which tells whether they hold references that must be remembered.
+     */
+    public interface CardRefiner extends OverlappingCellVisitor {
+        /**
+         * Called before visiting the cells overlapping a card.
+         */
+        void reset();
+
+        /**
+         * Indicates whether the cells visited since the last {@link #reset()} hold references that must be remembered.
+         */
+        boolean foundRememberedReference();
+
+        /**
+         * Record a card holding references that must be remembered in the refiner's summary.
+         *
+         * @param cardIndex index of the card
+         * @return false if the summary is full
+         */
+        boolean summarize(int cardIndex);
+
+        /**
+         * Indicates whether refinement must stop as soon as possible.
+         */
+        boolean shouldStop();
+    }
+
+    /**
+     * Refine the dirty cards in the specified range.
+     * Each dirty card is cleaned before its overlapping cells are scanned by the refiner, so that a concurrent update
+     * re-dirties it. A card holding references that must be remembered is recorded in the refiner's summary and set to
+     * the {@link CardState#SUMMARIZED_CARD} state; other cards are left clean.
+     * Refinement may run concurrently with mutators, but not with allocation in, or reclamation of, the refined range.
+     *
+     * @param start start of the range
+     * @param end end of the range
+     * @param refiner the refinement logic
+     * @return false if refinement was stopped before the end of the range
+     */
+    public boolean refineCards(Address start, Address end, CardRefiner refiner) {
+        final int endOfRange = cardTable.tableEntryIndex(end);
+        int cardIndex = cardTable.first(cardTable.tableEntryIndex(start), endOfRange, CardState.DIRTY_CARD);
+        while (cardIndex < endOfRange) {
+            if (refiner.shouldStop()) {
+                return false;
+            }
+            cardTable.clean(cardIndex);
+            MemoryBarriers.barrier(MemoryBarriers.STORE_LOAD);
+            refiner.reset();
+            visitCard(cardIndex, refiner);
+            if (refiner.foundRememberedReference()) {
+                if (!refiner.summarize(cardIndex)) {
+                    // Leave the card to the next collection.
+                    cardTable.dirty(cardIndex);
+                    return false;
+                }
+                cardTable.summarize(cardIndex);
+            }
+            cardIndex = cardTable.first(cardIndex + 1, endOfRange, CardState.DIRTY_CARD);
+        }
+        return true;
+    }
+
+    /**
+     * Clean and visit a card recorded in a refinement summary. The card is ignored if it isn't in the {@link CardState#SUMMARIZED_CARD}
+     * state anymore, i.e., if it was re-dirtied since it was summarized (it will then be visited along with other dirty cards), or
+     * if it was already visited (a card may be summarized more than once).
+     *
+     * @param cardIndex index of the card
+     * @param cellVisitor the logic to apply to the cells overlapping the card
+     */
+    public void cleanAndVisitSummarizedCard(int cardIndex, OverlappingCellVisitor cellVisitor) {
+        if (cardTable.isInState(cardIndex, CardState.SUMMARIZED_CARD)) {
+            if (traceCardTableRSet()) {
+                traceVisitedCard(cardIndex, cardIndex + 1, CardState.SUMMARIZED_CARD);
+            }
+            cardTable.clean(cardIndex);
+            visitCard(cardIndex, cellVisitor);
+        }
+    }
+
     /**
      * Returns the amount of memory needed by the card table to cover a contiguous range of memory of the specified size.
      * @param maxCoveredAreaSize the size of the contiguous range of memory that the card table should cover
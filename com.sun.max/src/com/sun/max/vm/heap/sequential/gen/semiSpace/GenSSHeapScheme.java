@@ -45,6 +45,7 @@ import com.sun.max.vm.heap.gcx.*;
 import com.sun.max.vm.heap.gcx.EvacuationTimers.TIMED_OPERATION;
 import com.sun.max.vm.heap.gcx.rset.*;
 import com.sun.max.vm.heap.gcx.rset.ctbl.*;
+import com.sun.max.vm.log.*;
 import com.sun.max.vm.log.VMLog.Record;
 import com.sun.max.vm.log.hosted.*;
 import com.sun.max.vm.management.*;
@@ -327,6 +328,22 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
     @INSPECTED
     private final EvacuatorToCardSpace oldSpaceEvacuator;
 
+    /**
+     * GC threads used by parallel minor collections.
+     */
+    private final GCWorkers gcWorkers = new GCWorkers();
+
+    /**
+     * Parallel implementation of young space evacuation. Used instead of the {@link #youngSpaceEvacuator} when more than one
+     * GC thread is available and the old generation has enough free space to never overflow during the minor collection.
+     */
+    private final ParallelNurseryEvacuator parallelNurseryEvacuator;
+
+    /**
+     * Amount of bytes evacuated by the last minor collection, whether serial or parallel.
+     */
+    private Size minorEvacuatedBytes = Size.zero();
+
     /**
      * Record the decision taken at the end of a minor collection.
      * This also simplifies the reference model of the inspector to identify whether the current
@@ -433,6 +450,7 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
         oldSpace = new ContiguousSemiSpace<CardSpaceAllocator<OldSpaceRefiller>>(tenuredAllocator, "Old Generation");
         youngSpaceEvacuator = new NoAgingNurseryEvacuator(youngSpace, oldSpace, this, cardTableRSet, "Young");
         oldSpaceEvacuator = new  EvacuatorToCardSpace(oldSpace.fromSpace, oldSpace, this, cardTableRSet, "Old");
+        parallelNurseryEvacuator = new ParallelNurseryEvacuator(gcWorkers, this, youngSpace, oldSpace, cardTableRSet);
         noFromSpaceReferencesVerifiers = new NoEvacuatedSpaceReferenceVerifier(cardTableRSet, youngSpace);
         fotVerifier = new FOTVerifier(cardTableRSet);
         genCollection = new GenCollection();
@@ -458,6 +476,9 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
         }
         if (phase == PRISTINE) {
             lastFullGCTime = System.currentTimeMillis();
+        } else if (phase == STARTING) {
+            gcWorkers.start();
+            parallelNurseryEvacuator.initialize();
         }
         if (phase == TERMINATING) {
             if (Heap.logGCTime()) {
@@ -609,6 +630,12 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
         Size spaceLeft = allocator.freeSpace();
         Address startOfSpaceLeft = allocator.unsafeSetTopToLimit();
         FatalError.check(VmThread.current().isVmOperationThread(), "must only be called by VmOperation");
+        if (parallelNurseryEvacuator.isEvacuating()) {
+            // A parallel minor collection uses the whole old to-space left as evacuation buffer and never overflows it.
+            FatalError.check(spaceLeft.greaterEqual(HeapFreeChunk.heapFreeChunkHeaderSize()), "Parallel minor evacuation must not overflow old space");
+            HeapFreeChunk.format(startOfSpaceLeft, spaceLeft);
+            return startOfSpaceLeft;
+        }
         // First, make sure we're doing minor collection here.
         if (youngSpaceEvacuator.getGCOperation() != null) {
             FatalError.check(!resizingPolicy.minorEvacuationOverflow(), "Must not have recursive overflow of old space during minor collection");
@@ -642,7 +669,7 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
                 return startOfSpaceLeft;
             }
             // Try growing the heap (mostly the old space)
-            if (resizingPolicy.canIncreaseSizeDuringFullGC(youngSpaceEvacuator.evacuatedBytes(), spaceLeft)) {
+            if (resizingPolicy.canIncreaseSizeDuringFullGC(minorEvacuatedBytes, spaceLeft)) {
                 final ContiguousHeapSpace space = oldSpace.space;
                 resize(youngSpace, resizingPolicy.youngGenSize());
                 resize(oldSpace, resizingPolicy.oldGenSize());
@@ -686,10 +713,51 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
 
     private Size estimatedNextEvac() {
         final Size min = youngSpace.totalSpace().dividedBy(100).times(minSurvivingPercent);
-        final Size lastSurvivorCount = youngSpaceEvacuator.evacuatedBytes();
+        final Size lastSurvivorCount = minorEvacuatedBytes;
         return lastSurvivorCount.greaterThan(min) ? lastSurvivorCount : min;
     }
 
+    /**
+     * Determines whether the next minor collection can evacuate the young generation in parallel. Parallel evacuation
+     * has no support for overflowing the old generation, so it is used only if the free space of the old to-space can hold
+     * every object of the young generation.
+     */
+    private boolean useParallelMinorEvacuation() {
+        return parallelNurseryEvacuator.isEnabled() && !DebugHeap.isTagging() && !resizingPolicy.minorEvacuationOverflow() &&
+            oldSpace.freeSpace().greaterEqual(parallelNurseryEvacuator.requiredBufferSize(youngSpace.usedSpace()));
+    }
+
+    private void evacuateYoungSpaceInParallel() {
+        final boolean logPhases = Heap.logGCPhases();
+        parallelNurseryEvacuator.beginEvacuation();
+
+        if (logPhases) {
+            phaseLogger.logScanningRoots(VMLogger.Interval.BEGIN);
+        }
+        evacTimers.start(ROOT_SCAN);
+        parallelNurseryEvacuator.evacuateFromRoots();
+        evacTimers.stop(ROOT_SCAN);
+        if (logPhases) {
+            phaseLogger.logScanningRoots(VMLogger.Interval.END);
+            phaseLogger.logEvacuating(VMLogger.Interval.BEGIN);
+        }
+        evacTimers.start(COPY);
+        parallelNurseryEvacuator.evacuateReachables();
+        evacTimers.stop(COPY);
+        if (logPhases) {
+            phaseLogger.logEvacuating(VMLogger.Interval.END);
+            phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.BEGIN);
+        }
+        evacTimers.start(WEAK_REF);
+        parallelNurseryEvacuator.processSpecialReferences();
+        evacTimers.stop(WEAK_REF);
+        if (logPhases) {
+            phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.END);
+        }
+
+        parallelNurseryEvacuator.endEvacuation();
+    }
+
     private void resize(HeapSpace space, Size newSize) {
         if (newSize.lessThan(space.totalSpace())) {
             Size delta = space.totalSpace().minus(newSize);
@@ -739,7 +807,14 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
         evacTimers.start(TOTAL);
         youngSpaceEvacuator.setGCOperation(genCollection);
         HeapScheme.Inspect.notifyHeapPhaseChange(HeapPhase.ANALYZING);
-        youngSpaceEvacuator.evacuate(Heap.logGCPhases());
+        final boolean parallelMinor = useParallelMinorEvacuation();
+        if (parallelMinor) {
+            evacuateYoungSpaceInParallel();
+            minorEvacuatedBytes = parallelNurseryEvacuator.evacuatedBytes();
+        } else {
+            youngSpaceEvacuator.evacuate(Heap.logGCPhases());
+            minorEvacuatedBytes = youngSpaceEvacuator.evacuatedBytes();
+        }
         if (resizingPolicy.minorEvacuationOverflow()) {
             overflowedArea.setStart(oldSpace.allocator.start());
             overflowedArea.setEnd(oldSpace.allocator.unsafeTop());
@@ -765,14 +840,26 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
         final Size estimatedEvac = estimatedNextEvac();
         evacTimers.stop(TOTAL);
         if (Heap.logGCTime()) {
+            // A parallel minor collection scans the boot heap, the code and the remembered set together with the roots.
             timeLogger.logPhaseTimes(invocationCount,
                             evacTimers.get(ROOT_SCAN).getLastElapsedTime(),
-                            evacTimers.get(BOOT_HEAP_SCAN).getLastElapsedTime(),
-                            evacTimers.get(CODE_SCAN).getLastElapsedTime(),
-                            evacTimers.get(RSET_SCAN).getLastElapsedTime(),
+                            parallelMinor ? 0L : evacTimers.get(BOOT_HEAP_SCAN).getLastElapsedTime(),
+                            parallelMinor ? 0L : evacTimers.get(CODE_SCAN).getLastElapsedTime(),
+                            parallelMinor ? 0L : evacTimers.get(RSET_SCAN).getLastElapsedTime(),
                             evacTimers.get(COPY).getLastElapsedTime(),
                             evacTimers.get(WEAK_REF).getLastElapsedTime());
             timeLogger.logGcTimes(invocationCount, true, evacTimers.get(TOTAL).getLastElapsedTime());
+            if (parallelMinor) {
+                final boolean lockDisabledSafepoints = Log.lock();
+                Log.print("Parallel evacuation timings (");
+                Log.print(TimerUtil.getHzSuffix(HeapScheme.GC_TIMING_CLOCK));
+                Log.print(") for GC ");
+                Log.print(invocationCount);
+                Log.print(" :");
+                parallelNurseryEvacuator.reportLastElapsedTimes();
+                Log.println();
+                Log.unlock(lockDisabledSafepoints);
+            }
         }
         requiresFullGC = resizingPolicy.shouldPerformFullGC(estimatedEvac, oldSpace.freeSpace(), oldSpaceMutatorOverflow) || AlwaysFullGC;
         if (requiresFullGC) {
@@ -1021,7 +1108,7 @@ public final class GenSSHeapScheme extends HeapSchemeWithTLABAdaptor implements
             allocateAndRefillTLAB(etla, tlabSize);
             // Let's do a bit of meta-circularity. The TLAB is refilled, and no-one except the current thread can use it.
             // So the TLAB allocation is going to succeed here
-            TLABRefillPolicy.setForCurrentThread(etla, new SimpleTLABRefillPolicy(tlabSize));
+            TLABRefillPolicy.setForCurrentThread(etla, newTLABRefillPolicy(tlabSize));
             // Now, address the initial request. Note that we may recurse down to handleTLABOverflow again here if the
             // request is larger than the TLAB size. However, this second call will succeed and allocate outside of the TLAB.
             return tlabAllocate(size);
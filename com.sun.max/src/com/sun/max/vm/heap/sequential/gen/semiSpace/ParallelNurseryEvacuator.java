@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.heap.sequential.gen.semiSpace;
+
+import static com.sun.max.vm.heap.HeapSchemeAdaptor.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.heap.*;
+import com.sun.max.vm.heap.gcx.*;
+import com.sun.max.vm.heap.gcx.rset.ctbl.*;
+
+/**
+ * Parallel evacuation of the young generation of a {@link GenSSHeapScheme} to the old generation's to-space.
+ * <p>
+ * The whole free space of the old to-space is used as evacuation buffer. The remembered set of the young generation is
+ * made of the dirty cards of the old to-space below the evacuation buffer, and of the dirty cards of the boot heap. The
+ * first object table is kept up to date for every evacuated object, but GC threads may update the entries of the cards
+ * overlapping the evacuation buffer at any time; these cards are therefore never walked.
+ */
+final class ParallelNurseryEvacuator extends ParallelEvacuator {
+    /**
+     * Visits the references of the dirty cards of the boot heap on behalf of a GC thread.
+     */
+    final class BootRegionDirtyCardEvacuationClosure extends CardTableRSet.CardRangeVisitor {
+        private final Worker worker;
+
+        @HOSTED_ONLY
+        BootRegionDirtyCardEvacuationClosure(Worker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public void visitCards(Address start, Address end) {
+            if (end.greaterThan(mutableBootReferencesLimit)) {
+                if (start.greaterEqual(mutableBootReferencesLimit)) {
+                    return;
+                }
+                end = mutableBootReferencesLimit;
+            }
+            Heap.bootHeapRegion.visitReferences(start, end, worker);
+        }
+    }
+
+    private final ContiguousAllocatingSpace<?> youngSpace;
+    private final ContiguousSemiSpace<?> oldSpace;
+    private final CardTableRSet rset;
+    private final BootRegionDirtyCardEvacuationClosure[] bootRegionDirtyCardClosures;
+    private Address mutableBootReferencesLimit = Address.zero();
+
+    @HOSTED_ONLY
+    ParallelNurseryEvacuator(GCWorkers gcWorkers, EvacuationBufferProvider evacuationBufferProvider,
+                    ContiguousAllocatingSpace<?> youngSpace, ContiguousSemiSpace<?> oldSpace, CardTableRSet rset) {
+        super(gcWorkers, evacuationBufferProvider);
+        this.youngSpace = youngSpace;
+        this.oldSpace = oldSpace;
+        this.rset = rset;
+        bootRegionDirtyCardClosures = new BootRegionDirtyCardEvacuationClosure[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            bootRegionDirtyCardClosures[i] = new BootRegionDirtyCardEvacuationClosure(workers[i]);
+        }
+    }
+
+    @Override
+    public void beginEvacuation() {
+        youngSpace.doBeforeGC();
+        mutableBootReferencesLimit = Heap.bootHeapRegion.lastMutableReferenceAddress().plus(Word.size());
+        super.beginEvacuation();
+    }
+
+    @Override
+    public void endEvacuation() {
+        super.endEvacuation();
+        youngSpace.doAfterGC();
+    }
+
+    @Override
+    protected boolean inEvacuatedArea(Pointer origin) {
+        return youngSpace.space.contains(origin);
+    }
+
+    @Override
+    protected void evacuateFromBootHeap(Worker worker, Address start, Address end) {
+        rset.cleanAndVisitCards(start, end, bootRegionDirtyCardClosures[worker.index]);
+    }
+
+    @Override
+    protected Address rememberedSetStart() {
+        return oldSpace.space.start();
+    }
+
+    @Override
+    protected Address rememberedSetEnd() {
+        return bufferStart;
+    }
+
+    @Override
+    protected void evacuateFromRememberedSet(Worker worker, Address start, Address end) {
+        // Stripes are card aligned, except the end of the last one, which is the start of the evacuation buffer.
+        // Cells of the card overlapping the evacuation buffer are only visited up to it.
+        rset.cleanAndVisitCards(start, CardTableRSet.alignUpToCard(end.minus(Word.size())), worker);
+    }
+
+    @Override
+    protected void notifyEvacuated(Pointer cell, Pointer endOfCell) {
+        rset.cfoTable.set(cell, endOfCell);
+    }
+
+    @Override
+    protected void retireDeadSpace(Pointer start, Pointer end) {
+        final Size size = end.minus(start).asSize();
+        DarkMatter.format(start, size);
+        rset.notifyRetireDeadSpace(start, size);
+    }
+
+    @Override
+    protected void retireEvacuationBuffer(Pointer start, Pointer end) {
+        final Size spaceLeft = end.minus(start).asSize();
+        if (spaceLeft.greaterThan(minObjectSize())) {
+            // Leave remaining space in an iterable format.
+            HeapFreeChunk.format(start, spaceLeft);
+            rset.notifyRetireFreeSpace(start, spaceLeft);
+            super.retireEvacuationBuffer(start, end);
+        } else if (!spaceLeft.isZero()) {
+            retireDeadSpace(start, end);
+        }
+    }
+}
@@ -42,6 +42,7 @@ import com.sun.max.vm.code.*;
 import com.sun.max.vm.heap.*;
 import com.sun.max.vm.heap.Heap.GCCallbackPhase;
 import com.sun.max.vm.heap.debug.*;
+import com.sun.max.vm.heap.gcx.*;
 import com.sun.max.vm.layout.*;
 import com.sun.max.vm.log.VMLog.Record;
 import com.sun.max.vm.log.*;
@@ -56,7 +57,7 @@ import com.sun.max.vm.ti.*;
 /**
  * A simple semispace scavenger heap.
  */
-public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisitor {
+public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisitor, EvacuationBufferProvider {
 
     public static final String FROM_REGION_NAME = "Heap-SemiSpace-From";
     public static final String TO_REGION_NAME = "Heap-SemiSpace-To";
@@ -173,6 +174,28 @@ public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisit
 
     private long lastGCTime;
 
+    /**
+     * Evacuation of the from-space by all the GC threads, directly into the to-space.
+     */
+    private final class ParallelSemiSpaceEvacuator extends ParallelEvacuator {
+        @HOSTED_ONLY
+        ParallelSemiSpaceEvacuator(GCWorkers gcWorkers) {
+            super(gcWorkers, SemiSpaceHeapScheme.this);
+        }
+
+        @Override
+        protected boolean inEvacuatedArea(Pointer origin) {
+            return fromSpace.contains(origin);
+        }
+    }
+
+    /**
+     * GC threads used by parallel evacuations.
+     */
+    private final GCWorkers gcWorkers = new GCWorkers();
+
+    private final ParallelSemiSpaceEvacuator parallelEvacuator = new ParallelSemiSpaceEvacuator(gcWorkers);
+
     /**
      * Procedure used to verify a reference.
      */
@@ -236,6 +259,8 @@ public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisit
                 this.growPolicy = new DoubleGrowPolicy();
             }
             increaseGrowPolicy = new LinearGrowPolicy();
+            gcWorkers.start();
+            parallelEvacuator.initialize();
         } else if (phase == MaxineVM.Phase.TERMINATING) {
             if (Heap.logGCTime()) {
                 timeLogger.logPhaseTimes(-1,
@@ -361,66 +386,71 @@ public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisit
                 stopTimer(clearTimer);
 
                 refVerifier.setValidSpaces(fromSpace, toSpace);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningRoots(VMLogger.Interval.BEGIN);
-                }
-                startTimer(rootScanTimer);
-                heapRootsScanner.run(); // Start scanning the reachable objects from my roots.
-                stopTimer(rootScanTimer);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningRoots(VMLogger.Interval.END);
-                }
+                final boolean parallelEvacuation = useParallelEvacuation();
+                if (parallelEvacuation) {
+                    evacuateInParallel();
+                } else {
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningRoots(VMLogger.Interval.BEGIN);
+                    }
+                    startTimer(rootScanTimer);
+                    heapRootsScanner.run(); // Start scanning the reachable objects from my roots.
+                    stopTimer(rootScanTimer);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningRoots(VMLogger.Interval.END);
+                    }
 
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningBootHeap(VMLogger.Interval.BEGIN);
-                }
-                startTimer(bootHeapScanTimer);
-                scanBootHeap();
-                stopTimer(bootHeapScanTimer);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningBootHeap(VMLogger.Interval.END);
-                }
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningBootHeap(VMLogger.Interval.BEGIN);
+                    }
+                    startTimer(bootHeapScanTimer);
+                    scanBootHeap();
+                    stopTimer(bootHeapScanTimer);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningBootHeap(VMLogger.Interval.END);
+                    }
 
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningCode(VMLogger.Interval.BEGIN);
-                }
-                startTimer(codeScanTimer);
-                scanCode();
-                stopTimer(codeScanTimer);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningCode(VMLogger.Interval.END);
-                }
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningCode(VMLogger.Interval.BEGIN);
+                    }
+                    startTimer(codeScanTimer);
+                    scanCode();
+                    stopTimer(codeScanTimer);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningCode(VMLogger.Interval.END);
+                    }
 
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningImmortalHeap(VMLogger.Interval.BEGIN);
-                }
-                startTimer(immortalSpaceScanTimer);
-                scanImmortalHeap();
-                stopTimer(immortalSpaceScanTimer);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logScanningImmortalHeap(VMLogger.Interval.END);
-                }
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningImmortalHeap(VMLogger.Interval.BEGIN);
+                    }
+                    startTimer(immortalSpaceScanTimer);
+                    scanImmortalHeap();
+                    stopTimer(immortalSpaceScanTimer);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logScanningImmortalHeap(VMLogger.Interval.END);
+                    }
 
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logMovingReachable(VMLogger.Interval.BEGIN);
-                }
-                startTimer(copyTimer);
-                moveReachableObjects(toSpace.start().asPointer());
-                stopTimer(copyTimer);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logMovingReachable(VMLogger.Interval.END);
-                }
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logMovingReachable(VMLogger.Interval.BEGIN);
+                    }
+                    startTimer(copyTimer);
+                    moveReachableObjects(toSpace.start().asPointer());
+                    stopTimer(copyTimer);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logMovingReachable(VMLogger.Interval.END);
+                    }
 
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.BEGIN);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.BEGIN);
+                    }
+                    startTimer(weakRefTimer);
+                    SpecialReferenceManager.processDiscoveredSpecialReferences(refForwarder);
+                    stopTimer(weakRefTimer);
+                    if (Heap.logGCPhases()) {
+                        phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.END);
+                    }
                 }
-                startTimer(weakRefTimer);
-                SpecialReferenceManager.processDiscoveredSpecialReferences(refForwarder);
-                stopTimer(weakRefTimer);
                 stopTimer(gcTimer);
-                if (Heap.logGCPhases()) {
-                    phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.END);
-                }
 
                 // Bring the To-Space marks up to date, mainly for debugging.
                 toSpace.mark.set(allocationMark()); // not otherwise updated during move.
@@ -451,15 +481,26 @@ public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisit
                 verifyObjectSpaces(GCCallbackPhase.AFTER);
 
                 if (Heap.logGCTime()) {
+                    // A parallel evacuation scans the boot heap, the code and the immortal heap together with the roots.
                     timeLogger.logPhaseTimes(invocationCount,
                                     clearTimer.getLastElapsedTime(),
                                     rootScanTimer.getLastElapsedTime(),
-                                    bootHeapScanTimer.getLastElapsedTime(),
-                                    codeScanTimer.getLastElapsedTime(),
+                                    parallelEvacuation ? 0L : bootHeapScanTimer.getLastElapsedTime(),
+                                    parallelEvacuation ? 0L : codeScanTimer.getLastElapsedTime(),
                                     copyTimer.getLastElapsedTime(),
                                     weakRefTimer.getLastElapsedTime(),
                                     gcTimer.getLastElapsedTime());
-
+                    if (parallelEvacuation) {
+                        final boolean lockDisabledSafepoints = Log.lock();
+                        Log.print("Parallel evacuation timings (");
+                        Log.print(TimerUtil.getHzSuffix(HeapScheme.GC_TIMING_CLOCK));
+                        Log.print(") for GC ");
+                        Log.print(invocationCount);
+                        Log.print(" :");
+                        parallelEvacuator.reportLastElapsedTimes();
+                        Log.println();
+                        Log.unlock(lockDisabledSafepoints);
+                    }
                 }
             } catch (Throwable throwable) {
                 FatalError.unexpected("Exception during GC", throwable);
@@ -500,6 +541,67 @@ public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisit
         to.setSize(from.size());
     }
 
+    /**
+     * Determines whether the current collection can evacuate the from-space in parallel. This must be called after swapping
+     * the semi-spaces. Parallel evacuation has no support for growing the heap during a collection, so it is used
+     * only if the to-space can hold every object of the from-space. It also has no support for debug tagging.
+     */
+    private boolean useParallelEvacuation() {
+        return parallelEvacuator.isEnabled() && !DebugHeap.isTagging() &&
+            top.minus(allocationMark()).asSize().greaterEqual(parallelEvacuator.requiredBufferSize(fromSpace.used()));
+    }
+
+    private void evacuateInParallel() {
+        parallelEvacuator.beginEvacuation();
+
+        if (Heap.logGCPhases()) {
+            phaseLogger.logScanningRoots(VMLogger.Interval.BEGIN);
+        }
+        startTimer(rootScanTimer);
+        parallelEvacuator.evacuateFromRoots();
+        stopTimer(rootScanTimer);
+        if (Heap.logGCPhases()) {
+            phaseLogger.logScanningRoots(VMLogger.Interval.END);
+        }
+
+        if (Heap.logGCPhases()) {
+            phaseLogger.logMovingReachable(VMLogger.Interval.BEGIN);
+        }
+        startTimer(copyTimer);
+        parallelEvacuator.evacuateReachables();
+        stopTimer(copyTimer);
+        if (Heap.logGCPhases()) {
+            phaseLogger.logMovingReachable(VMLogger.Interval.END);
+        }
+
+        if (Heap.logGCPhases()) {
+            phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.BEGIN);
+        }
+        startTimer(weakRefTimer);
+        parallelEvacuator.processSpecialReferences();
+        stopTimer(weakRefTimer);
+        if (Heap.logGCPhases()) {
+            phaseLogger.logProcessingSpecialReferences(VMLogger.Interval.END);
+        }
+
+        parallelEvacuator.endEvacuation();
+    }
+
+    /**
+     * Gives the whole free space of the to-space to the parallel evacuator.
+     */
+    @Override
+    public Address refillEvacuationBuffer() {
+        final Address start = allocationMark();
+        HeapFreeChunk.format(start, top.minus(start).asSize());
+        return start;
+    }
+
+    @Override
+    public void retireEvacuationBuffer(Address startOfSpaceLeft, Address endOfSpaceLeft) {
+        toSpace.mark.set(startOfSpaceLeft);
+    }
+
     private void swapSemiSpaces() {
         final Address oldFromSpaceStart = fromSpace.start();
         final Size oldFromSpaceSize = fromSpace.size();
@@ -886,7 +988,7 @@ public class SemiSpaceHeapScheme extends HeapSchemeWithTLAB implements CellVisit
             allocateAndRefillTLAB(etla, tlabSize);
             // Let's do a bit of meta-circularity. The TLAB is refilled, and no-one except the current thread can use it.
             // So the TLAB allocation is going to succeed here
-            TLABRefillPolicy.setForCurrentThread(etla, new SimpleTLABRefillPolicy(tlabSize));
+            TLABRefillPolicy.setForCurrentThread(etla, newTLABRefillPolicy(tlabSize));
             // Now, address the initial request. Note that we may recurse down to handleTLABOverflow again here if the
             // request is larger than the TLAB size. However, this second call will succeed and allocate outside of the TLAB.
             return tlabAllocate(size);
@@ -40,6 +40,7 @@ import com.sun.max.vm.actor.*;
 import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
 import com.sun.max.vm.classfile.constant.*;
+import com.sun.max.vm.collect.*;
 import com.sun.max.vm.compiler.*;
 import com.sun.max.vm.heap.*;
 import com.sun.max.vm.hosted.BootImage.StringInfo.*;
@@ -71,6 +72,11 @@ import com.sun.max.vm.type.*;
  * page-alignment requirement for the heap and code sections in the image will be satisfied if the
  * image itself starts at a page-aligned address.
  *
+ * The pointers in the heap and code sections are normally canonicalized to assume that the heap starts at
+ * address 0. A <i>prelinked</i> image has its pointers relocated at build time to assume the heap starts at
+ * {@link Header#prelinkedHeapAddress()}. If the loader succeeds in mapping the heap at that address, relocation
+ * is skipped entirely and the mapped pages stay clean, so that they are shared between VM processes
+ * using the same image file.
  */
 public class BootImage {
 
@@ -82,7 +88,7 @@ public class BootImage {
     /**
      * A version number of the boot image file layout, checked against IMAGE_FORMAT_VERSION in Native/substrate/image.c .
      */
-    public static final int BOOT_IMAGE_FORMAT_VERSION = 2;
+    public static final int BOOT_IMAGE_FORMAT_VERSION = 3;
 
     /**
      * A field section in a boot image is described by the {@code public final} and {@code final}
@@ -234,6 +240,13 @@ public class BootImage {
          */
         public final int bootRegionMappingConstraint;
 
+        /**
+         * The high and low 32 bits of the address the pointers in the heap and code are relocated for, or 0 if the
+         * image is not prelinked.
+         */
+        public final int prelinkedHeapAddressHigh;
+        public final int prelinkedHeapAddressLow;
+
         /**
          * @see VmThreadMap#ACTIVE
          */
@@ -273,6 +286,15 @@ public class BootImage {
             return WordWidth.fromInt(wordSize * 8);
         }
 
+        /**
+         * Gets the address the pointers in the heap and code sections have been relocated for at build time.
+         *
+         * @return 0 if the image is not prelinked
+         */
+        public long prelinkedHeapAddress() {
+            return ((long) prelinkedHeapAddressHigh << 32) | (prelinkedHeapAddressLow & 0xFFFFFFFFL);
+        }
+
         private Header(DataInputStream dataInputStream) throws IOException, BootImageException {
             super(dataInputStream.readInt() == 0 ? Endianness.LITTLE : Endianness.BIG, 0);
             final Endianness endian = endianness();
@@ -305,6 +327,8 @@ public class BootImage {
             reservedVirtualSpaceSize = endian.readInt(dataInputStream);
             reservedVirtualSpaceFieldOffset = endian.readInt(dataInputStream);
             bootRegionMappingConstraint = endian.readInt(dataInputStream);
+            prelinkedHeapAddressHigh = endian.readInt(dataInputStream);
+            prelinkedHeapAddressLow = endian.readInt(dataInputStream);
             tlaListHeadOffset = endian.readInt(dataInputStream);
             exitCodeOffset = endian.readInt(dataInputStream);
 
@@ -334,7 +358,7 @@ public class BootImage {
             return staticTupleOrigin.toInt() + fieldActor.offset();
         }
 
-        private Header(DataPrototype dataPrototype, int stringInfoSize) {
+        private Header(DataPrototype dataPrototype, int stringInfoSize, long prelinkedHeapAddress) {
             super(platform().endianness(), 0);
             final VMConfiguration vmConfiguration = vmConfig();
             isBigEndian = endianness() == Endianness.LITTLE ? 0 : 0xffffffff;
@@ -362,6 +386,8 @@ public class BootImage {
             reservedVirtualSpaceSize = vmConfiguration.heapScheme().reservedVirtualSpaceKB();
             reservedVirtualSpaceFieldOffset = staticFieldPointerOffset(dataPrototype, Heap.class, "reservedVirtualSpace");
             bootRegionMappingConstraint = vmConfiguration.heapScheme().bootRegionMappingConstraint().ordinal();
+            prelinkedHeapAddressHigh = (int) (prelinkedHeapAddress >>> 32);
+            prelinkedHeapAddressLow = (int) prelinkedHeapAddress;
             tlaListHeadOffset = dataPrototype.objectToOrigin(VmThreadMap.ACTIVE).toInt() + ClassActor.fromJava(VmThreadMap.class).findLocalInstanceFieldActor("tlaListHead").offset();
             exitCodeOffset = staticFieldPointerOffset(dataPrototype, MaxineVM.class, "exitCode");
 
@@ -392,6 +418,8 @@ public class BootImage {
             BootImageException.check(cacheAlignment > 4 && Ints.isPowerOfTwoOrZero(cacheAlignment), "implausible alignment size: " + cacheAlignment);
             BootImageException.check(pageSize >= Longs.K && pageSize % Longs.K == 0, "implausible page size: " + pageSize);
             BootImageException.check(!(bootRegionMappingConstraint > 0 && reservedVirtualSpaceSize == 0), "invalid boot region mapping constraint");
+            BootImageException.check(prelinkedHeapAddress() % pageSize == 0, "prelinked heap address is not page-size aligned");
+            BootImageException.check(wordSize == 8 || prelinkedHeapAddressHigh == 0, "prelinked heap address does not fit in a word");
         }
 
         @Override
@@ -699,18 +727,70 @@ public class BootImage {
      * Used when constructing a boot image to be written to a file.
      */
     public BootImage(DataPrototype dataPrototype) throws BootImageException {
+        this(dataPrototype, 0L);
+    }
+
+    /**
+     * Used when constructing a boot image to be written to a file. A prelinked image relocates copies of the heap and
+     * code sections of {@code dataPrototype}, which is left canonicalized.
+     *
+     * @param prelinkedHeapAddress the address for which the pointers in the heap and code are to be relocated
+     *            or 0 if the image is not to be prelinked
+     */
+    public BootImage(DataPrototype dataPrototype, long prelinkedHeapAddress) throws BootImageException {
         this.vmConfiguration = vmConfig();
-        this.stringInfo = new StringInfo(vmConfiguration, new Header(dataPrototype, 0).size());
+        this.stringInfo = new StringInfo(vmConfiguration, new Header(dataPrototype, 0, 0L).size());
         this.stringInfo.check();
-        this.header = new Header(dataPrototype, stringInfo.size());
+        this.header = new Header(dataPrototype, stringInfo.size(), prelinkedHeapAddress);
         this.header.check();
         this.relocationData = dataPrototype.relocationData();
         this.padding = new byte[deltaToPageAlign(header.size() + stringInfo.size() + relocationData.length)];
-        this.heap = ByteBuffer.wrap(dataPrototype.heapData());
-        this.code = ByteBuffer.wrap(dataPrototype.codeData());
         int trailerOffset = codeOffset() + header.codeSize;
         this.trailer = new Trailer(header, trailerOffset);
         this.imageFile = null;
+        if (prelinkedHeapAddress != 0L) {
+            this.heap = ByteBuffer.wrap(dataPrototype.heapData().clone());
+            this.code = ByteBuffer.wrap(dataPrototype.codeData().clone());
+            prelink(heap, code, relocationData, header.wordSize, header.endianness().asByteOrder(), prelinkedHeapAddress);
+        } else {
+            this.heap = ByteBuffer.wrap(dataPrototype.heapData());
+            this.code = ByteBuffer.wrap(dataPrototype.codeData());
+        }
+    }
+
+    /**
+     * Relocates the canonicalized pointers in the heap and code sections of an image being constructed so that
+     * they assume the heap starts at a given address. Like {@code relocation_apply} in relocation.c, this leaves
+     * the null words denoted by the relocation map untouched.
+     *
+     * @param heap the heap section, immediately followed by {@code code} in the image
+     * @param code the code section
+     * @param relocationData the bit map denoting where all the pointers are in the heap and code
+     */
+    static void prelink(ByteBuffer heap, ByteBuffer code, byte[] relocationData, int wordSize, ByteOrder byteOrder, long prelinkedHeapAddress) {
+        final ByteArrayBitMap relocationMap = new ByteArrayBitMap(relocationData);
+        final int heapSize = heap.capacity();
+        heap.order(byteOrder);
+        code.order(byteOrder);
+        for (int index = relocationMap.nextSetBit(0); index >= 0; index = relocationMap.nextSetBit(index + 1)) {
+            int offset = index * wordSize;
+            ByteBuffer section = heap;
+            if (offset >= heapSize) {
+                section = code;
+                offset -= heapSize;
+            }
+            if (wordSize == 8) {
+                final long value = section.getLong(offset);
+                if (value != 0L) {
+                    section.putLong(offset, value + prelinkedHeapAddress);
+                }
+            } else {
+                final int value = section.getInt(offset);
+                if (value != 0) {
+                    section.putInt(offset, value + (int) prelinkedHeapAddress);
+                }
+            }
+        }
     }
 
     public int relocationDataOffset() {
@@ -820,16 +900,26 @@ public class BootImage {
         }
     }
 
-    private static native void nativeRelocate(long heap, long relocatedHeap, byte[] relocationDataPointer, int relocationDataSize, int isBigEndian, int wordSize);
+    static native void nativeRelocate(long heap, long relocatedHeap, byte[] relocationDataPointer, int relocationDataSize, int isBigEndian, int wordSize);
+
+    /**
+     * Gets the address at which the boot image loader tries to reserve its virtual space so that the boot heap region
+     * lands at the prelinked heap address (see {@code relocation_preferredVirtualSpace} in relocation.c).
+     *
+     * @return 0 if the reservation has no preferred address
+     */
+    static native long nativePreferredVirtualSpace(long prelinkedHeap, int bootRegionMappingConstraint, long heapAndCodeSize, long virtualSpaceSize);
 
     /**
      * Relocates the pointers in the heap and code. All the pointers are assumed to be
-     * canonicalized; their current values assume that the heap and code start address 0.
+     * canonicalized; their current values assume that the heap and code start address 0,
+     * or {@link Header#prelinkedHeapAddress()} if the image is prelinked.
      *
      * @param heap the physical address at which the (contiguous) heap and code reside
      * @param relocatedHeap the logical address to which the heap and code is being relocated
      */
     public void relocate(long heap, Address relocatedHeap) {
-        nativeRelocate(heap, relocatedHeap.toLong(), relocationData, relocationData.length, header.isBigEndian, header.wordSize);
+        final long delta = relocatedHeap.toLong() - header.prelinkedHeapAddress();
+        nativeRelocate(heap, delta, relocationData, relocationData.length, header.isBigEndian, header.wordSize);
     }
 }
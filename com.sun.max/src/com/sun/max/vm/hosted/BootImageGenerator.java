@@ -94,6 +94,10 @@ public final class BootImageGenerator {
     private static final Option<Boolean> useOutOfLineStubs = options.newBooleanOption("out-stubs", true,
             "Uses out of line runtime stubs when generating inlined TLAB allocations with XIR");
 
+    private static final Option<String> prelinkOption = options.newStringOption("prelink", null,
+            "Relocate the boot image for a heap mapped at the given page-aligned address (e.g. 0x7f0000000000) so " +
+            "that the loader can map it without relocation if that address is available.");
+
     // Options shared with the Inspector
     public static final OptionSet inspectorSharedOptions = new OptionSet();
 
@@ -360,7 +364,7 @@ public final class BootImageGenerator {
     private void writeImage(DataPrototype dataPrototype, File file) {
         try {
             final FileOutputStream outputStream = new FileOutputStream(file);
-            final BootImage bootImage = new BootImage(dataPrototype);
+            final BootImage bootImage = new BootImage(dataPrototype, prelinkOption.getValue() == null ? 0L : Long.decode(prelinkOption.getValue()));
             try {
                 Trace.begin(1, "writing boot image file: " + file);
                 bootImage.write(outputStream);
@@ -317,6 +317,56 @@ public class MaxineIntrinsicIDs {
     public static final String GET_TICKS = p + "GET_TICKS";
     public static final String GET_CPU_ID = p + "GET_CPU_ID";
 
+    /**
+     * Copy a block of primitive array elements. The source and destination blocks may overlap.
+     * <p>
+     * The method definition must have the following form:
+     * <pre>
+     * static void m(@INTRINSIC.Constant int log2ElementSize, Object from, int fromIndex, Object to, int toIndex, int length);
+     *
+     * log2ElementSize: The log2 of the element size in bytes, between 0 and 3. This parameter must be a compile-time constant.
+     * </pre>
+     * No bounds, null or store checks are performed.
+     */
+    public static final String BULK_COPY = p + "BULK_COPY";
+
+    /**
+     * Fill a block of primitive array elements.
+     * <p>
+     * The method definition must have the following form:
+     * <pre>
+     * static void m(@INTRINSIC.Constant int log2ElementSize, Object array, int fromIndex, int length, long pattern);
+     *
+     * pattern: The element value repeated over 8 bytes.
+     * </pre>
+     */
+    public static final String BULK_FILL = p + "BULK_FILL";
+
+    /**
+     * Find the first difference between two blocks of primitive array elements.
+     * <p>
+     * The method definition must have the following form:
+     * <pre>
+     * static int m(@INTRINSIC.Constant int log2ElementSize, Object a, int aIndex, Object b, int bIndex, int length);
+     *
+     * return: The index of the first differing element relative to the start of the blocks, or -1 if they are equal.
+     * </pre>
+     */
+    public static final String BULK_MISMATCH = p + "BULK_MISMATCH";
+
+    /**
+     * Find the first occurrence of a value in a block of primitive array elements.
+     * <p>
+     * The method definition must have the following form:
+     * <pre>
+     * static int m(@INTRINSIC.Constant int log2ElementSize, Object array, int fromIndex, int length, int value);
+     *
+     * log2ElementSize: Between 0 and 2. Byte elements are sign extended and char elements zero extended before comparison.
+     * return: The index of the first matching element relative to the start of the block, or -1 if there is none.
+     * </pre>
+     */
+    public static final String BULK_INDEX_OF = p + "BULK_INDEX_OF";
+
     /**
      * A vehicle for testing snippets.
      * TODO remove when debugged
@@ -26,11 +26,14 @@ import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
 
 import com.sun.max.annotate.*;
 import com.sun.max.vm.classfile.constant.*;
+import com.sun.max.vm.object.*;
 
 /**
  * Method substitutions for {@link java.lang.String java.lang.String}.
+ * {@link String#hashCode()} is not substituted as it is consistent with the substituted {@link #equals(Object)}.
  */
 @METHOD_SUBSTITUTIONS(String.class)
+@SuppressWarnings("overrides")
 public final class JDK_java_lang_String {
 
     /**
@@ -40,6 +43,12 @@ public final class JDK_java_lang_String {
     @INTRINSIC(UNSAFE_CAST)
     private native String thisString();
 
+    @INTRINSIC(UNSAFE_CAST)
+    private static native JDK_java_lang_String asThis(String s);
+
+    @ALIAS(declaringClass = String.class)
+    private char[] value;
+
     /**
      * Intern this string, returning a canonicalized version.
      * @see java.lang.String#intern()
@@ -50,4 +59,100 @@ public final class JDK_java_lang_String {
     public String intern() {
         return SymbolTable.intern(thisString());
     }
+
+    /**
+     * Compares the characters of two strings a vector at a time.
+     * @see java.lang.String#equals(Object)
+     */
+    @SUBSTITUTE
+    public boolean equals(Object anObject) {
+        if (thisString() == anObject) {
+            return true;
+        }
+        if (anObject instanceof String) {
+            final char[] v1 = value;
+            final char[] v2 = asThis((String) anObject).value;
+            return v1.length == v2.length && BulkArrayAccess.mismatch(BulkArrayAccess.LOG2_SHORT, v1, 0, v2, 0, v1.length) < 0;
+        }
+        return false;
+    }
+
+    /**
+     * Searches for a character a vector at a time.
+     * @see java.lang.String#indexOf(int, int)
+     */
+    @SUBSTITUTE
+    public int indexOf(int ch, int fromIndex) {
+        final char[] chars = value;
+        final int max = chars.length;
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        } else if (fromIndex >= max) {
+            return -1;
+        }
+        if (ch < 0) {
+            return -1;
+        }
+        if (ch < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            final int i = BulkArrayAccess.indexOf(BulkArrayAccess.LOG2_SHORT, chars, fromIndex, max - fromIndex, ch);
+            return i < 0 ? -1 : fromIndex + i;
+        }
+        if (!Character.isValidCodePoint(ch)) {
+            return -1;
+        }
+        // Search for the high surrogate, then check that the low surrogate follows it
+        final char hi = Character.highSurrogate(ch);
+        final char lo = Character.lowSurrogate(ch);
+        int i = fromIndex;
+        while (i < max - 1) {
+            final int k = BulkArrayAccess.indexOf(BulkArrayAccess.LOG2_SHORT, chars, i, max - 1 - i, hi);
+            if (k < 0) {
+                return -1;
+            }
+            i += k;
+            if (chars[i + 1] == lo) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Searches for the first character of the target a vector at a time and compares the remaining characters
+     * of each candidate a vector at a time. This is the search used by {@link String#indexOf(String, int)} and
+     * {@link StringBuilder#indexOf(String, int)}.
+     */
+    @SUBSTITUTE
+    static int indexOf(char[] source, int sourceOffset, int sourceCount, char[] target, int targetOffset, int targetCount, int fromIndex) {
+        if (fromIndex >= sourceCount) {
+            return targetCount == 0 ? sourceCount : -1;
+        }
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (targetCount == 0) {
+            return fromIndex;
+        }
+        // The bulk operations do no bounds checks
+        if (sourceOffset < 0 || sourceCount < 0 || sourceOffset + sourceCount > source.length ||
+                        targetOffset < 0 || targetCount < 0 || targetOffset + targetCount > target.length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        final char first = target[targetOffset];
+        final int max = sourceOffset + (sourceCount - targetCount);
+        int i = sourceOffset + fromIndex;
+        while (i <= max) {
+            final int k = BulkArrayAccess.indexOf(BulkArrayAccess.LOG2_SHORT, source, i, max - i + 1, first);
+            if (k < 0) {
+                return -1;
+            }
+            i += k;
+            if (BulkArrayAccess.mismatch(BulkArrayAccess.LOG2_SHORT, source, i + 1, target, targetOffset + 1, targetCount - 1) < 0) {
+                return i - sourceOffset;
+            }
+            i++;
+        }
+        return -1;
+    }
 }
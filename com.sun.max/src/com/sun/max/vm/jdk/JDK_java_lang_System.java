@@ -34,6 +34,7 @@ import com.sun.max.vm.MaxineVM.NativeProperty;
 import com.sun.max.vm.actor.holder.ClassActor;
 import com.sun.max.vm.actor.holder.Hub;
 import com.sun.max.vm.object.ArrayAccess;
+import com.sun.max.vm.object.BulkArrayAccess;
 import com.sun.max.vm.object.ObjectAccess;
 import com.sun.max.vm.runtime.FatalError;
 import com.sun.max.vm.type.BootClassLoader;
@@ -147,52 +148,24 @@ public final class JDK_java_lang_System {
      */
     private static void arrayCopyForward(final Kind kind, Object fromArray, int fromIndex, Object toArray, int toIndex, int length, ClassActor toComponentClassActor) {
         switch (kind.asEnum) {
-            case BYTE: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setByte(toArray, toIndex + i, ArrayAccess.getByte(fromArray, fromIndex + i));
-                }
-                break;
-            }
+            case BYTE:
             case BOOLEAN: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setBoolean(toArray, toIndex + i, ArrayAccess.getBoolean(fromArray, fromIndex + i));
-                }
-                break;
-            }
-            case SHORT: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setShort(toArray, toIndex + i, ArrayAccess.getShort(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_BYTE, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
+            case SHORT:
             case CHAR: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setChar(toArray, toIndex + i, ArrayAccess.getChar(fromArray, fromIndex + i));
-                }
-                break;
-            }
-            case INT: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setInt(toArray, toIndex + i, ArrayAccess.getInt(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_SHORT, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
+            case INT:
             case FLOAT: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setFloat(toArray, toIndex + i, ArrayAccess.getFloat(fromArray, fromIndex + i));
-                }
-                break;
-            }
-            case LONG: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setLong(toArray, toIndex + i, ArrayAccess.getLong(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_INT, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
+            case LONG:
             case DOUBLE: {
-                for (int i = 0; i < length; i++) {
-                    ArrayAccess.setDouble(toArray, toIndex + i, ArrayAccess.getDouble(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_LONG, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
             case WORD: {
@@ -229,52 +202,24 @@ public final class JDK_java_lang_System {
      */
     private static void arrayCopyBackward(final Kind kind, Object fromArray, int fromIndex, Object toArray, int toIndex, int length) {
         switch (kind.asEnum) {
-            case BYTE: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setByte(toArray, toIndex + i, ArrayAccess.getByte(fromArray, fromIndex + i));
-                }
-                break;
-            }
+            case BYTE:
             case BOOLEAN: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setBoolean(toArray, toIndex + i, ArrayAccess.getBoolean(fromArray, fromIndex + i));
-                }
-                break;
-            }
-            case SHORT: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setShort(toArray, toIndex + i, ArrayAccess.getShort(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_BYTE, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
+            case SHORT:
             case CHAR: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setChar(toArray, toIndex + i, ArrayAccess.getChar(fromArray, fromIndex + i));
-                }
-                break;
-            }
-            case INT: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setInt(toArray, toIndex + i, ArrayAccess.getInt(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_SHORT, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
+            case INT:
             case FLOAT: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setFloat(toArray, toIndex + i, ArrayAccess.getFloat(fromArray, fromIndex + i));
-                }
-                break;
-            }
-            case LONG: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setLong(toArray, toIndex + i, ArrayAccess.getLong(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_INT, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
+            case LONG:
             case DOUBLE: {
-                for (int i = length - 1; i >= 0; i--) {
-                    ArrayAccess.setDouble(toArray, toIndex + i, ArrayAccess.getDouble(fromArray, fromIndex + i));
-                }
+                BulkArrayAccess.copy(BulkArrayAccess.LOG2_LONG, fromArray, fromIndex, toArray, toIndex, length);
                 break;
             }
             case WORD: {
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.jdk;
+
+import static com.sun.max.vm.object.BulkArrayAccess.*;
+
+import java.util.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.object.*;
+
+/**
+ * Method substitutions for {@link java.util.Arrays} that fill and compare primitive arrays with the
+ * {@linkplain com.sun.max.vm.object.BulkArrayAccess bulk array operations}. Floating point arrays are only
+ * filled: {@code Arrays.equals} on them treats all NaNs as equal, which a bitwise comparison does not.
+ */
+@METHOD_SUBSTITUTIONS(Arrays.class)
+final class JDK_java_util_Arrays {
+
+    private JDK_java_util_Arrays() {
+    }
+
+    /**
+     * Checks a range as {@code Arrays.rangeCheck} does.
+     */
+    private static void rangeCheck(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (toIndex > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+        }
+    }
+
+    @SUBSTITUTE
+    public static void fill(long[] a, long val) {
+        BulkArrayAccess.fill(LOG2_LONG, a, 0, a.length, val);
+    }
+
+    @SUBSTITUTE
+    public static void fill(long[] a, int fromIndex, int toIndex, long val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_LONG, a, fromIndex, toIndex - fromIndex, val);
+    }
+
+    @SUBSTITUTE
+    public static void fill(int[] a, int val) {
+        BulkArrayAccess.fill(LOG2_INT, a, 0, a.length, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(int[] a, int fromIndex, int toIndex, int val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_INT, a, fromIndex, toIndex - fromIndex, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(short[] a, short val) {
+        BulkArrayAccess.fill(LOG2_SHORT, a, 0, a.length, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(short[] a, int fromIndex, int toIndex, short val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_SHORT, a, fromIndex, toIndex - fromIndex, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(char[] a, char val) {
+        BulkArrayAccess.fill(LOG2_SHORT, a, 0, a.length, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(char[] a, int fromIndex, int toIndex, char val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_SHORT, a, fromIndex, toIndex - fromIndex, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(byte[] a, byte val) {
+        BulkArrayAccess.fill(LOG2_BYTE, a, 0, a.length, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(byte[] a, int fromIndex, int toIndex, byte val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_BYTE, a, fromIndex, toIndex - fromIndex, pattern(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(boolean[] a, boolean val) {
+        BulkArrayAccess.fill(LOG2_BYTE, a, 0, a.length, pattern((byte) (val ? 1 : 0)));
+    }
+
+    @SUBSTITUTE
+    public static void fill(boolean[] a, int fromIndex, int toIndex, boolean val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_BYTE, a, fromIndex, toIndex - fromIndex, pattern((byte) (val ? 1 : 0)));
+    }
+
+    @SUBSTITUTE
+    public static void fill(double[] a, double val) {
+        BulkArrayAccess.fill(LOG2_LONG, a, 0, a.length, Double.doubleToRawLongBits(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(double[] a, int fromIndex, int toIndex, double val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_LONG, a, fromIndex, toIndex - fromIndex, Double.doubleToRawLongBits(val));
+    }
+
+    @SUBSTITUTE
+    public static void fill(float[] a, float val) {
+        BulkArrayAccess.fill(LOG2_INT, a, 0, a.length, pattern(Float.floatToRawIntBits(val)));
+    }
+
+    @SUBSTITUTE
+    public static void fill(float[] a, int fromIndex, int toIndex, float val) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        BulkArrayAccess.fill(LOG2_INT, a, fromIndex, toIndex - fromIndex, pattern(Float.floatToRawIntBits(val)));
+    }
+
+    @SUBSTITUTE
+    public static boolean equals(long[] a, long[] a2) {
+        if (a == a2) {
+            return true;
+        }
+        if (a == null || a2 == null || a.length != a2.length) {
+            return false;
+        }
+        return mismatch(LOG2_LONG, a, 0, a2, 0, a.length) < 0;
+    }
+
+    @SUBSTITUTE
+    public static boolean equals(int[] a, int[] a2) {
+        if (a == a2) {
+            return true;
+        }
+        if (a == null || a2 == null || a.length != a2.length) {
+            return false;
+        }
+        return mismatch(LOG2_INT, a, 0, a2, 0, a.length) < 0;
+    }
+
+    @SUBSTITUTE
+    public static boolean equals(short[] a, short[] a2) {
+        if (a == a2) {
+            return true;
+        }
+        if (a == null || a2 == null || a.length != a2.length) {
+            return false;
+        }
+        return mismatch(LOG2_SHORT, a, 0, a2, 0, a.length) < 0;
+    }
+
+    @SUBSTITUTE
+    public static boolean equals(char[] a, char[] a2) {
+        if (a == a2) {
+            return true;
+        }
+        if (a == null || a2 == null || a.length != a2.length) {
+            return false;
+        }
+        return mismatch(LOG2_SHORT, a, 0, a2, 0, a.length) < 0;
+    }
+
+    @SUBSTITUTE
+    public static boolean equals(byte[] a, byte[] a2) {
+        if (a == a2) {
+            return true;
+        }
+        if (a == null || a2 == null || a.length != a2.length) {
+            return false;
+        }
+        return mismatch(LOG2_BYTE, a, 0, a2, 0, a.length) < 0;
+    }
+
+    @SUBSTITUTE
+    public static boolean equals(boolean[] a, boolean[] a2) {
+        if (a == a2) {
+            return true;
+        }
+        if (a == null || a2 == null || a.length != a2.length) {
+            return false;
+        }
+        return mismatch(LOG2_BYTE, a, 0, a2, 0, a.length) < 0;
+    }
+}
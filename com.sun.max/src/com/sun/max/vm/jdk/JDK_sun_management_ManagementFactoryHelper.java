@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.jdk;
+
+import java.lang.management.*;
+import java.util.*;
+
+import javax.management.*;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.management.*;
+
+/**
+ * Method substitutions for sun.management.ManagementFactoryHelper, which registers the Maxine specific
+ * management beans with the {@linkplain ManagementFactory#getPlatformMBeanServer() platform MBean server}
+ * when it is created.
+ */
+@METHOD_SUBSTITUTIONS(className = "sun.management.ManagementFactoryHelper")
+final class JDK_sun_management_ManagementFactoryHelper {
+
+    @ALIAS(declaringClassName = "sun.management.ManagementFactoryHelper", descriptor = "()Lcom/sun/management/DiagnosticCommandMBean;", optional = true)
+    public static native Object getDiagnosticCommandMBean();
+
+    @SUBSTITUTE(optional = true) // Not available in JDK 7
+    public static HashMap<ObjectName, DynamicMBean> getPlatformDynamicMBeans() {
+        final HashMap<ObjectName, DynamicMBean> map = new HashMap<ObjectName, DynamicMBean>();
+        final Object diagnosticCommandMBean = getDiagnosticCommandMBean();
+        if (diagnosticCommandMBean != null) {
+            try {
+                map.put(ObjectName.getInstance("com.sun.management:type=DiagnosticCommand"), (DynamicMBean) diagnosticCommandMBean);
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+        add(map, CompilationManagement.getCompilationThreadPoolMXBean(), CompilationThreadPoolMXBean.class);
+        add(map, MemoryManagement.getTLABStatisticsMXBean(), TLABStatisticsMXBean.class);
+        add(map, CompilationManagement.getCompilationStatisticsMXBean(), CompilationStatisticsMXBean.class);
+        add(map, ThreadManagement.getMonitorStatisticsMXBean(), MonitorStatisticsMXBean.class);
+        add(map, RuntimeManagement.getSafepointStatisticsMXBean(), SafepointStatisticsMXBean.class);
+        return map;
+    }
+
+    private static <T extends PlatformManagedObject> void add(HashMap<ObjectName, DynamicMBean> map, T bean, Class<T> mxbeanInterface) {
+        map.put(bean.getObjectName(), new StandardMBean(bean, mxbeanInterface, true));
+    }
+}
@@ -482,6 +482,21 @@ public final class Layout {
         generalLayout().writeForwardRef(origin, forwardRef);
     }
 
+    /**
+     * Atomically installs a forwarding reference in an object if its hub reference word still holds an expected value.
+     * Used by GC threads racing to evacuate the same object.
+     *
+     * @param origin location of an object
+     * @param suspectedRef the hub reference expected in the object
+     * @param forwardRef the forwarding reference to install
+     * @return the value of the hub reference word before the operation, i.e., {@code suspectedRef} if the forwarding reference was installed
+     */
+    @ACCESSOR(Pointer.class)
+    @INLINE
+    public static Reference compareAndSwapForwardRef(Pointer origin, Reference suspectedRef, Reference forwardRef) {
+        return generalLayout().compareAndSwapForwardRef(origin, suspectedRef, forwardRef);
+    }
+
     /**
      * Access to <strong>byte array object</strong> layout information in the
      * context of the current {@linkplain VMConfiguration VM configuration}.
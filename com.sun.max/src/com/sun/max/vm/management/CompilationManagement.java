@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.management;
+
+import static com.sun.max.vm.MaxineVM.*;
+
+import javax.management.*;
+
+import com.sun.max.vm.compiler.*;
+
+/**
+ * This class provides the entry point to all the compilation management functions in Maxine.
+ * The thread and queue values are zero if background compilation is not enabled.
+ */
+
+public class CompilationManagement {
+
+    private static CompilationThreadPool threadPool() {
+        return vm().compilationBroker.compilationThreadPool();
+    }
+
+    public static int getCompilationThreadCount() {
+        final CompilationThreadPool pool = threadPool();
+        return pool == null ? 0 : pool.threadCount();
+    }
+
+    public static int getCompilationQueueLength() {
+        final CompilationThreadPool pool = threadPool();
+        return pool == null ? 0 : pool.queueLength();
+    }
+
+    public static long getAverageCompilationTime() {
+        final CompilationThreadPool pool = threadPool();
+        return pool == null ? 0 : pool.averageCompileTime();
+    }
+
+    private static final CompilationThreadPoolMXBean compilationThreadPoolMXBean = new CompilationThreadPoolMXBean() {
+        public int getCompilationThreadCount() {
+            return CompilationManagement.getCompilationThreadCount();
+        }
+
+        public int getCompilationQueueLength() {
+            return CompilationManagement.getCompilationQueueLength();
+        }
+
+        public long getAverageCompilationTime() {
+            return CompilationManagement.getAverageCompilationTime();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max.vm:type=CompilationThreadPool");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    public static CompilationThreadPoolMXBean getCompilationThreadPoolMXBean() {
+        return compilationThreadPoolMXBean;
+    }
+
+    private static final CompilationStatisticsMXBean compilationStatisticsMXBean = new CompilationStatisticsMXBean() {
+        public long getOptimizedCompilationCount() {
+            return CompilationBudget.optimizedCompilations();
+        }
+
+        public long getOptimizedCompilationTime() {
+            return CompilationBudget.optimizedCompileTime();
+        }
+
+        public long getFailedCompilationCount() {
+            return CompilationBudget.failedCompilations();
+        }
+
+        public long getDeferredCompilationCount() {
+            return CompilationBudget.deferredCompilations();
+        }
+
+        public long getExcludedMethodCount() {
+            return CompilationBudget.excludedMethods();
+        }
+
+        public int getCompilationQueueLength() {
+            return CompilationManagement.getCompilationQueueLength();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max.vm:type=CompilationStatistics");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    public static CompilationStatisticsMXBean getCompilationStatisticsMXBean() {
+        return compilationStatisticsMXBean;
+    }
+}
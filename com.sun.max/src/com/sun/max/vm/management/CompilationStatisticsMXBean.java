@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the statistics of optimizing compilations and of the compilation budget
+ * (see {@link com.sun.max.vm.compiler.CompilationBudget}).
+ */
+public interface CompilationStatisticsMXBean extends PlatformManagedObject {
+    /**
+     * Number of completed optimizing compilations.
+     */
+    long getOptimizedCompilationCount();
+
+    /**
+     * Total time in milliseconds spent in completed optimizing compilations.
+     */
+    long getOptimizedCompilationTime();
+
+    /**
+     * Number of failed optimizing compilations.
+     */
+    long getFailedCompilationCount();
+
+    /**
+     * Number of recompilations deferred because the background compilation queue was too long.
+     */
+    long getDeferredCompilationCount();
+
+    /**
+     * Number of methods excluded from optimization for exceeding the compilation budget.
+     */
+    long getExcludedMethodCount();
+
+    /**
+     * Number of compilations waiting in the background compilation queue.
+     */
+    int getCompilationQueueLength();
+}
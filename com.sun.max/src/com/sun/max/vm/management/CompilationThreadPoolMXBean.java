@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the background compilation thread pool
+ * (see {@link com.sun.max.vm.compiler.CompilationThreadPool}). The values are zero if background
+ * compilation is not enabled.
+ */
+public interface CompilationThreadPoolMXBean extends PlatformManagedObject {
+    /**
+     * Number of compilation threads currently in the pool.
+     */
+    int getCompilationThreadCount();
+
+    /**
+     * Number of compilations waiting in the queue.
+     */
+    int getCompilationQueueLength();
+
+    /**
+     * Moving average of the time taken by a compilation, in milliseconds.
+     */
+    long getAverageCompilationTime();
+}
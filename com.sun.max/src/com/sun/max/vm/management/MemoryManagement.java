@@ -27,6 +27,8 @@ import static com.sun.max.vm.VMConfiguration.*;
 import java.lang.management.*;
 import java.util.*;
 
+import javax.management.*;
+
 import com.sun.max.vm.code.*;
 import com.sun.max.vm.heap.*;
 
@@ -64,6 +66,32 @@ public class MemoryManagement {
         return result;
     }
 
+    private static final TLABStatisticsMXBean tlabStatisticsMXBean = new TLABStatisticsMXBean() {
+        public long getRefillCount() {
+            return AdaptiveTLABRefillPolicy.totalRefills();
+        }
+
+        public long getWastedBytes() {
+            return AdaptiveTLABRefillPolicy.totalWastedBytes();
+        }
+
+        public long getSlowPathAllocationCount() {
+            return AdaptiveTLABRefillPolicy.totalSlowPathAllocations();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max.vm:type=TLABStatistics");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    public static TLABStatisticsMXBean getTLABStatisticsMXBean() {
+        return tlabStatisticsMXBean;
+    }
+
     public static MemoryUsage getMemoryUsage(boolean heap) {
         List<MemoryPoolMXBean> pools = null;
         if (heap) {
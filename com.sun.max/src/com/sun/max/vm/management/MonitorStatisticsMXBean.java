@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the statistics of monitor binding
+ * (see {@link com.sun.max.vm.monitor.modal.sync.JavaMonitorManager}). Counts are updated at every garbage collection,
+ * which is when idle monitors are unbound from their objects.
+ */
+public interface MonitorStatisticsMXBean extends PlatformManagedObject {
+    /**
+     * Number of garbage collections at which monitors have been unbound.
+     */
+    int getCycleCount();
+
+    /**
+     * Number of monitors bound to objects between the last two garbage collections.
+     */
+    int getLastCycleBindCount();
+
+    /**
+     * Number of monitors unbound from objects at the last garbage collection.
+     */
+    int getLastCycleUnbindCount();
+
+    /**
+     * Number of monitors bound to objects up to the last garbage collection.
+     */
+    long getTotalBindCount();
+
+    /**
+     * Number of monitors unbound from objects up to the last garbage collection.
+     */
+    long getTotalUnbindCount();
+
+    /**
+     * Number of monitors that remained bound after the last garbage collection.
+     */
+    int getBoundMonitorCount();
+
+    /**
+     * Number of monitors that can be bound to objects.
+     */
+    int getBindableMonitorCount();
+}
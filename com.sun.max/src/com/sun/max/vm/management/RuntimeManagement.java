@@ -22,7 +22,10 @@
  */
 package com.sun.max.vm.management;
 
+import javax.management.*;
+
 import com.sun.max.vm.*;
+import com.sun.max.vm.runtime.*;
 
 /**
  * This class provides the entry point to all the runtime management functions in Maxine.
@@ -41,4 +44,50 @@ public class RuntimeManagement {
     public static long getUptime() {
         return System.currentTimeMillis() - MaxineVM.getStartupTime();
     }
+
+    private static final SafepointStatisticsMXBean safepointStatisticsMXBean = new SafepointStatisticsMXBean() {
+        public long getSafepointCount() {
+            return VmOperationStatistics.safepoints();
+        }
+
+        public long getOperationCount() {
+            return VmOperationStatistics.operations();
+        }
+
+        public long getCoalescedOperationCount() {
+            return VmOperationStatistics.coalescedOperations();
+        }
+
+        public long getTotalTimeToSafepoint() {
+            return VmOperationStatistics.totalTimeToSafepoint();
+        }
+
+        public long getMaxTimeToSafepoint() {
+            return VmOperationStatistics.maxTimeToSafepoint();
+        }
+
+        public long getTotalPauseTime() {
+            return VmOperationStatistics.totalPauseTime();
+        }
+
+        public long getMaxPauseTime() {
+            return VmOperationStatistics.maxPauseTime();
+        }
+
+        public String[] getRecentOperations() {
+            return VmOperationStatistics.recentOperations();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max.vm:type=SafepointStatistics");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    public static SafepointStatisticsMXBean getSafepointStatisticsMXBean() {
+        return safepointStatisticsMXBean;
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.management;
+
+import java.lang.management.*;
+
+/**
+ * Management interface for the statistics of the safepoints reached to run VM operations
+ * (see {@link com.sun.max.vm.runtime.VmOperationStatistics}). Times are in nanoseconds.
+ */
+public interface SafepointStatisticsMXBean extends PlatformManagedObject {
+    /**
+     * Number of safepoints reached to run VM operations.
+     */
+    long getSafepointCount();
+
+    /**
+     * Number of VM operations run at a safepoint.
+     */
+    long getOperationCount();
+
+    /**
+     * Number of VM operations run at a safepoint reached for an earlier operation.
+     */
+    long getCoalescedOperationCount();
+
+    /**
+     * Total time taken to freeze the threads targeted by VM operations.
+     */
+    long getTotalTimeToSafepoint();
+
+    /**
+     * Longest time taken to freeze the threads targeted by a VM operation.
+     */
+    long getMaxTimeToSafepoint();
+
+    /**
+     * Total time that threads were frozen at safepoints.
+     */
+    long getTotalPauseTime();
+
+    /**
+     * Longest time that threads were frozen at a safepoint.
+     */
+    long getMaxPauseTime();
+
+    /**
+     * Descriptions of the most recent VM operations run at a safepoint, oldest first.
+     */
+    String[] getRecentOperations();
+}
@@ -26,8 +26,11 @@ import java.lang.management.*;
 import java.lang.reflect.*;
 import java.util.*;
 
+import javax.management.*;
+
 import com.sun.max.unsafe.*;
 import com.sun.max.vm.jdk.*;
+import com.sun.max.vm.monitor.modal.sync.*;
 import com.sun.max.vm.runtime.*;
 import com.sun.max.vm.stack.*;
 import com.sun.max.vm.thread.*;
@@ -59,6 +62,48 @@ public class ThreadManagement {
         VmThreadMap.resetPeakThreadCount();
     }
 
+    private static final MonitorStatisticsMXBean monitorStatisticsMXBean = new MonitorStatisticsMXBean() {
+        public int getCycleCount() {
+            return JavaMonitorManager.gcCycles();
+        }
+
+        public int getLastCycleBindCount() {
+            return JavaMonitorManager.lastCycleBinds();
+        }
+
+        public int getLastCycleUnbindCount() {
+            return JavaMonitorManager.lastCycleUnbinds();
+        }
+
+        public long getTotalBindCount() {
+            return JavaMonitorManager.totalBinds();
+        }
+
+        public long getTotalUnbindCount() {
+            return JavaMonitorManager.totalUnbinds();
+        }
+
+        public int getBoundMonitorCount() {
+            return JavaMonitorManager.boundMonitors();
+        }
+
+        public int getBindableMonitorCount() {
+            return JavaMonitorManager.bindableMonitors();
+        }
+
+        public ObjectName getObjectName() {
+            try {
+                return ObjectName.getInstance("com.sun.max.vm:type=MonitorStatistics");
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    public static MonitorStatisticsMXBean getMonitorStatisticsMXBean() {
+        return monitorStatisticsMXBean;
+    }
+
     public static int getTotalStartedThreadCount() {
         return VmThreadMap.getTotalStartedThreadCount();
     }
@@ -203,6 +248,11 @@ public class ThreadManagement {
             this.traces = result;
         }
 
+        @Override
+        protected boolean isCoalescable() {
+            return true;
+        }
+
         @Override
         protected boolean operateOnThread(VmThread thread) {
             return threads.contains(thread.javaThread());
@@ -26,7 +26,9 @@ import com.sun.max.annotate.*;
 import com.sun.max.unsafe.*;
 
 /**
-
+ * The bias epoch of a class, held in its {@linkplain com.sun.max.vm.actor.holder.Hub#biasedLockEpoch hub}, and of a
+ * biased lock word. A bias is only valid while its epoch equals the epoch of the object's class, so incrementing the
+ * class epoch rebiases all instances of the class at once. The bulk revocation epoch disables biasing for the class.
  */
 public final class BiasedLockEpoch extends Word {
 
@@ -52,8 +54,7 @@ public final class BiasedLockEpoch extends Word {
         if (this.equals(MAX)) {
             return MIN;
         }
-        int epoch = toIntInternal();
-        return BiasedLockEpoch.from(Address.fromUnsignedInt(epoch++).shiftedLeft(BiasedLockword.EPOCH_SHIFT));
+        return BiasedLockEpoch.from(Address.fromUnsignedInt(toIntInternal() + 1).shiftedLeft(BiasedLockword.EPOCH_SHIFT));
     }
 
     @INLINE
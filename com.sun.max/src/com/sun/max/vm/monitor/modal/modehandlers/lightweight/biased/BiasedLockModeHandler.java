@@ -96,19 +96,51 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
         }
     }
 
-    class RevokeBiasOperation extends VmOperation {
+    /**
+     * Revokes the bias of an object owned by another thread. Only the bias owner is stopped, by a
+     * {@linkplain Handshake handshake} performed on the revoking thread. As the other threads keep running,
+     * the lockword is only replaced if it is still biased to the stopped thread, and with a compare and swap.
+     * Otherwise the current lockword is returned and the caller retries.
+     */
+    class RevokeBiasOperation extends Handshake {
         final Object object;
+        final int vmThreadMapThreadID;
         ModalLockword newLockword;
-        RevokeBiasOperation(VmThread thread, Object object) {
-            super("RevokeBias", thread, Mode.Safepoint, false);
+        RevokeBiasOperation(VmThread thread, int vmThreadMapThreadID, Object object) {
+            super("RevokeBias", thread);
+            this.vmThreadMapThreadID = vmThreadMapThreadID;
             this.object = object;
         }
+
         @Override
         protected void doIt() {
-            newLockword = revokeBias(object);
+            ModalLockword lockword = ModalLockword.from(ObjectAccess.readMisc(object));
+            while (BiasedLockword.isBiasedLockword(lockword)) {
+                final BiasedLockword biasedLockword = BiasedLockword.from(lockword);
+                if (biasedLockword.equals(biasedLockword.asAnonBiased()) ||
+                    decodeLockwordThreadID(biasedLockword.getBiasOwnerID()) != vmThreadMapThreadID) {
+                    // The bias has been released or taken over by a thread that is not stopped
+                    break;
+                }
+                final ModalLockword preparedLockword = delegate().prepareModalLockword(object, lockword);
+                final ModalLockword answer = ModalLockword.from(ObjectAccess.compareAndSwapMisc(object, lockword, preparedLockword));
+                if (answer.equals(lockword)) {
+                    newLockword = preparedLockword;
+                    return;
+                }
+                delegate().cancelPreparedModalLockword(preparedLockword);
+                lockword = answer;
+            }
+            newLockword = lockword;
         }
     }
 
+    /**
+     * Revokes the bias of an object biased to another thread, stopping only that thread.
+     *
+     * @return the lockword after revocation, which may still be a biased lockword if the bias changed hands
+     *         in the meantime, in which case the caller must retry
+     */
     protected ModalLockword revokeWithOwnerSafepointed(final Object object, int vmThreadMapThreadID, BiasedLockword biasedLockword) {
         synchronized (VmThreadMap.THREAD_LOCK) {
             final VmThread biasOwnerThread = VmThreadMap.ACTIVE.getVmThreadForID(vmThreadMapThreadID);
@@ -123,8 +155,8 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                 FatalError.unexpected("Attempted to revoke bias for still initializing thread.");
             }
 
-            RevokeBiasOperation operation = new RevokeBiasOperation(VmThread.fromTLA(tla), object);
-            operation.submit();
+            RevokeBiasOperation operation = new RevokeBiasOperation(VmThread.fromTLA(tla), vmThreadMapThreadID, object);
+            operation.execute();
             return operation.newLockword;
         }
     }
@@ -397,8 +429,11 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                     // We lock as normal. When the lock is released, the object will be rebiased.
                     ObjectAccess.writeMisc(object, biasedLockword.incrementCount());
                     return;
-                } else if (biasedLockword.equals(biasedLockword.asAnonBiased()) || !biasedLockword.getEpoch().equals(classEpoch)) {
-                    // Object is not biased or it's bias is not in the current epoch. Try to get the bias.
+                } else if (biasedLockword.equals(biasedLockword.asAnonBiased()) ||
+                           (!biasedLockword.getEpoch().equals(classEpoch) && biasedLockword.countUnderflow())) {
+                    // Object is not biased or it's bias is not in the current epoch and it is not locked. Try to get the bias.
+                    // A lock held under a stale bias must be revoked instead, as its owner may still update the lock word
+                    // without atomic instructions.
                     final BiasedLockword newBiasedLockword = biasedLockword.asBiasedAndLockedOnceBy(lockwordThreadID, classEpoch);
                     currentLockword = ModalLockword.from(ObjectAccess.compareAndSwapMisc(object, biasedLockword, newBiasedLockword));
                     if (currentLockword.equals(biasedLockword)) {
@@ -448,15 +483,15 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                         return newHashcode;
                     }
                 }
-                if (biasedLockword.equals(biasedLockword.asAnonBiased()) || !biasedLockword.getEpoch().equals(classEpoch)) {
+                if (biasedLockword.equals(biasedLockword.asAnonBiased()) ||
+                    (!biasedLockword.getEpoch().equals(classEpoch) && biasedLockword.countUnderflow())) {
                     lockword = ModalLockword.from(ObjectAccess.compareAndSwapMisc(object, biasedLockword, biasedLockword.setHashcode(newHashcode)));
                     if (lockword.equals(biasedLockword)) {
                         return newHashcode;
                     }
                 } else {
                     // We have to revoke to set the hashcode...
-                    final int vmThreadMapThreadID = decodeLockwordThreadID(biasedLockword.getBiasOwnerID());
-                    lockword = revokeWithOwnerSafepointed(object, vmThreadMapThreadID, biasedLockword);
+                    lockword = performRevocation(object, biasedLockword);
                     if (Monitor.TraceMonitors) {
                         final boolean lockDisabledSafepoints = Log.lock();
                         Log.print("Safepointed revoke for hashcode: ");
@@ -534,6 +569,12 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                 super("BulkRevoke", null, Mode.Safepoint, false);
                 this.object = object;
             }
+
+            @Override
+            protected boolean isCoalescable() {
+                return true;
+            }
+
             @Override
             protected void doIt() {
                 final Hub hub = ObjectAccess.readHub(object);
@@ -549,12 +590,26 @@ public abstract class BiasedLockModeHandler extends AbstractModeHandler implemen
                 super("BulkRebias", null, Mode.Safepoint, false);
                 this.object = object;
             }
+
+            @Override
+            protected boolean isCoalescable() {
+                return true;
+            }
+
             @Override
             protected void doIt() {
                 final Hub hub = ObjectAccess.readHub(object);
                 final BiasedLockEpoch epoch = hub.biasedLockEpoch;
-                hub.biasedLockEpoch = epoch.increment();
-                postRebiasLockword = revokeBias(object);
+                if (!epoch.isBulkRevocation()) {
+                    hub.biasedLockEpoch = epoch.increment();
+                }
+                final BiasedLockword lockword = BiasedLockword.from(ObjectAccess.readMisc(object));
+                if (BiasedLockword.isBiasedLockword(lockword) && lockword.countUnderflow() && !hub.biasedLockEpoch.isBulkRevocation()) {
+                    // The bias of the unlocked object is now stale, so the requesting thread can take it without revocation
+                    postRebiasLockword = lockword;
+                } else {
+                    postRebiasLockword = revokeBias(object);
+                }
             }
         }
 
@@ -45,6 +45,11 @@ abstract class AbstractJavaMonitor implements ManagedMonitor {
     private final AtomicWord displacedHashWord = new AtomicWord();
 
     protected BindingProtection bindingProtection;
+
+    /**
+     * Records that a thread found this monitor owned by another thread when entering it.
+     */
+    protected boolean contended;
     private Word preGCLockword;
 
     //Only for ARM32 bit
@@ -108,6 +113,13 @@ abstract class AbstractJavaMonitor implements ManagedMonitor {
         preGCLockword = Word.zero();
         preGCMiscword = Word.zero();
         bindingProtection = BindingProtection.PRE_ACQUIRE;
+        contended = false;
+    }
+
+    public final boolean checkAndClearContended() {
+        final boolean result = contended;
+        contended = false;
+        return result;
     }
 
     public final void setBoundObject(Object object) {
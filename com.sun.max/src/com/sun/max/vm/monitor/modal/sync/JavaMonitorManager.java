@@ -25,10 +25,13 @@ import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
 import java.util.*;
 
 import com.sun.max.annotate.*;
+import com.sun.max.atomic.*;
 import com.sun.max.platform.*;
 import com.sun.max.unsafe.*;
 import com.sun.max.vm.*;
 import com.sun.max.vm.actor.holder.*;
+import com.sun.max.vm.log.VMLog.Record;
+import com.sun.max.vm.log.hosted.*;
 import com.sun.max.vm.monitor.*;
 import com.sun.max.vm.monitor.modal.sync.JavaMonitorManager.ManagedMonitor.*;
 import com.sun.max.vm.monitor.modal.sync.nat.*;
@@ -41,9 +44,13 @@ import com.sun.max.vm.thread.*;
  * <p>
  * Binding can be performed at bootstrapping or runtime. If binding is performed while bootstrapping then either a default
  * or specialized monitor can be used. If binding is performed at runtime then an unbound monitor is taken from
- * a free list.
+ * the binding thread's {@linkplain VmThread#monitorCache cache}, which is refilled a batch at a time from a global
+ * pool of unbound monitors. The pool is a lock-free list; only growing it takes a lock.
  * <p>
- * Unbinding is performed at global safepoints. All unowned, unbindable, bound monitors are unbound. Writing of unbound
+ * Unbinding is performed at global safepoints. All unowned, unbindable, bound monitors that are idle are unbound, where
+ * a monitor is idle if it has not been contended since the previous global safepoint. Contended monitors are kept bound
+ * so that they are not immediately inflated again, at the cost of keeping their bound object alive until the monitor
+ * has been idle for a whole GC cycle. Writing of unbound
  * lockwords is delegated to an {@link UnboundMiscWordWriter} object (most likely the inflated mode handler of the ModalMonitorScheme).
  * This allows unbinding to be a transition to any other locking mode.
  * <p>
@@ -64,39 +71,69 @@ public class JavaMonitorManager {
     public static final String UNBOUNDLIST_IMAGE_QTY_PROPERTY = "max.monitor.unboundpool.imagesize";
     public static final String UNBOUNDLIST_GROW_QTY_PROPERTY = "max.monitor.unboundpool.grow";
 
-    /**
-     * Minimum number of unbound monitors that are kept available to handle synchronization
-     * code during GC or monitor allocation code paths.
-     */
-    private static final int UNBOUNDLIST_MIN_QTY = 25;
-
     /**
      * The number of unbound monitors created in the boot image.
      */
     private static final int UNBOUNDLIST_IMAGE_QTY = 100;
 
     /**
-     * The amount by which the list of unbound monitors grows each time it is {@linkplain #expandUnboundList() expanded}.
+     * The least amount by which the pool of unbound monitors grows each time it is {@linkplain #expandUnboundList(int) expanded}.
      * This value can be configured via the {@link #UNBOUNDLIST_GROW_QTY_PROPERTY} property at boot image build time.
      */
     private static int unboundListGrowQty = 50;
 
     /**
-     * The current number of unbound monitors available.
+     * Number of unbound monitors that are kept in reserve to handle synchronization
+     * code during GC, when the pool is empty.
      */
-    private static int numberOfUnboundMonitors = 0;
+    private static final int SAFEPOINT_RESERVE_QTY = 25;
 
     /**
-     * The unbound monitors high water mark.
-     *
-     * @see #bindMonitor(Object)
+     * The number of monitors a thread takes from the pool when its cache is empty.
+     */
+    private static final int CACHE_BATCH = 8;
+
+    /**
+     * The most monitors a thread caches. Monitors returned to a full cache go to the pool.
+     */
+    private static final int CACHE_MAX = 2 * CACHE_BATCH;
+
+    /**
+     * The pool of unbound monitors, a list linked through {@link ManagedMonitor#next()}. Threads push monitors onto it
+     * with a compare and swap and take a batch of at most {@link #CACHE_BATCH} monitors from its top with a compare
+     * and swap, one taker at a time (see {@link #poolTaker}). The pool and the thread caches are only updated with
+     * safepoints disabled and can therefore be accessed directly at a global safepoint.
+     */
+    private static final AtomicReference unboundPool = new AtomicReference();
+
+    /**
+     * Set while a thread takes monitors from the {@linkplain #unboundPool pool}. As only pushes run concurrently with
+     * the taker, the top monitor cannot be taken and pushed back between the taker reading it and swapping it out,
+     * so the pool has no ABA problem. A taker holds it with safepoints disabled, for a bounded number of steps.
+     */
+    private static final AtomicInteger poolTaker = new AtomicInteger();
+
+    /**
+     * The monitors kept in reserve for binding at a global safepoint. Only accessed at a global safepoint.
+     */
+    private static ManagedMonitor safepointReserve;
+    private static int safepointReserveSize;
+
+    /**
+     * The binding statistics, which are updated at each garbage collection.
      */
-    private static int unboundMonitorsHwm;
+    private static int gcCycles;
+    private static int lastCycleBinds;
+    private static int lastCycleUnbinds;
+    private static long totalBinds;
+    private static long totalUnbinds;
+    private static int boundMonitors;
 
     /**
-     * The head of the list of unbound monitors.
+     * Binds performed at a global safepoint, and by threads that have since terminated, during the current cycle.
      */
-    private static ManagedMonitor unboundList;
+    private static int safepointBinds;
+    private static final AtomicInteger detachedThreadBinds = new AtomicInteger();
 
     /**
      * The pool of monitors that can be bound to objects.
@@ -148,10 +185,16 @@ public class JavaMonitorManager {
             }
             for (int i = 0; i < unboundListImageQty; i++) {
                 final ManagedMonitor monitor = newManagedMonitor();
-                addToUnboundList(monitor);
+                addToUnboundPool(monitor, monitor);
+                addToBindableMonitors(monitor);
+            }
+            for (int i = 0; i < SAFEPOINT_RESERVE_QTY; i++) {
+                final ManagedMonitor monitor = newManagedMonitor();
+                monitor.setNext(safepointReserve);
+                safepointReserve = monitor;
+                safepointReserveSize++;
                 addToBindableMonitors(monitor);
             }
-            unboundMonitorsHwm = unboundListImageQty;
         } else if (phase == MaxineVM.Phase.PRIMORDIAL) {
             NativeMutexFactory.initialize();
             NativeConditionVariableFactory.initialize();
@@ -182,6 +225,7 @@ public class JavaMonitorManager {
             }
         } else if (phase == MaxineVM.Phase.STARTING) {
             assert numberOfBindableMonitors <= bindableMonitors.length;
+            StandardJavaMonitor.initializeSpinning();
             if (Monitor.TraceMonitors && stickyMonitors.length > 0) {
                 final boolean lockDisabledSafepoints = Log.lock();
                 Log.println("Sticky monitors:");
@@ -303,24 +347,139 @@ public class JavaMonitorManager {
         bindableMonitors[numberOfBindableMonitors++] = monitor;
     }
 
-    private static ManagedMonitor takeFromUnboundList() {
-        // No safe points in here, so safe to touch the free list.
-        final ManagedMonitor monitor = unboundList;
-        unboundList = unboundList.next();
+    /**
+     * Pushes a chain of monitors onto the pool.
+     */
+    private static void addToUnboundPool(ManagedMonitor head, ManagedMonitor tail) {
+        while (true) {
+            final ManagedMonitor top = (ManagedMonitor) unboundPool.get();
+            tail.setNext(top);
+            if (unboundPool.compareAndSet(top, head)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@link #CACHE_BATCH} monitors from the pool to the empty cache of a thread.
+     * Must be called with safepoints disabled.
+     *
+     * @return false if the pool is empty
+     */
+    private static boolean refillCache(VmThread thread) {
+        while (!poolTaker.compareAndSet(0, 1)) {
+            Intrinsics.pause();
+        }
+        ManagedMonitor head;
+        ManagedMonitor last;
+        int n;
+        do {
+            head = (ManagedMonitor) unboundPool.get();
+            if (head == null) {
+                poolTaker.set(0);
+                return false;
+            }
+            last = head;
+            n = 1;
+            while (n < CACHE_BATCH && last.next() != null) {
+                last = last.next();
+                n++;
+            }
+            // Retry if other threads have returned monitors in the meantime
+        } while (!unboundPool.compareAndSet(head, last.next()));
+        poolTaker.set(0);
+        last.setNext(null);
+        thread.monitorCache = head;
+        thread.monitorCacheSize = n;
+        return true;
+    }
+
+    /**
+     * Moves the monitors cached by a thread to the pool. Must be called with safepoints disabled.
+     */
+    private static void flushCache(VmThread thread) {
+        final ManagedMonitor head = (ManagedMonitor) thread.monitorCache;
+        if (head != null) {
+            ManagedMonitor tail = head;
+            while (tail.next() != null) {
+                tail = tail.next();
+            }
+            thread.monitorCache = null;
+            thread.monitorCacheSize = 0;
+            addToUnboundPool(head, tail);
+        }
+    }
+
+    /**
+     * Takes a monitor from the pool, or from the reserve if the pool is empty, at a global safepoint.
+     */
+    private static ManagedMonitor takeFromUnboundPoolAtSafepoint() {
+        ManagedMonitor monitor = (ManagedMonitor) unboundPool.get();
+        if (monitor != null) {
+            unboundPool.set(monitor.next());
+        } else {
+            monitor = safepointReserve;
+            FatalError.check(monitor != null, "no unbound monitor available at a global safepoint");
+            safepointReserve = monitor.next();
+            safepointReserveSize--;
+        }
         monitor.setNext(null);
-        numberOfUnboundMonitors--;
+        safepointBinds++;
         return monitor;
     }
 
-    private static void addToUnboundList(ManagedMonitor monitor) {
-        // No safe points in here, so safe to touch the free list.
-        monitor.setNext(unboundList);
-        unboundList = monitor;
-        numberOfUnboundMonitors++;
+    /**
+     * Refills the reserve from the pool. Must only be called on a global safepoint.
+     */
+    private static void refillSafepointReserve() {
+        while (safepointReserveSize < SAFEPOINT_RESERVE_QTY) {
+            final ManagedMonitor monitor = (ManagedMonitor) unboundPool.get();
+            if (monitor == null) {
+                return;
+            }
+            unboundPool.set(monitor.next());
+            monitor.setNext(safepointReserve);
+            safepointReserve = monitor;
+            safepointReserveSize++;
+        }
+    }
+
+    /**
+     * Replenishes the empty pool. A garbage collection is requested first to unbind idle monitors, and the pool is
+     * expanded if the collection did not unbind half as many monitors as were bound in the last cycle.
+     */
+    private static void replenishUnboundPool() {
+        synchronized (LOCK) {
+            if (unboundPool.get() != null) {
+                // Another thread replenished the pool
+                return;
+            }
+            System.gc();
+            final int demand = Math.max(unboundListGrowQty, Math.min(lastCycleBinds, numberOfBindableMonitors));
+            if (unboundPool.get() == null || lastCycleUnbinds < demand >> 1) {
+                expandUnboundList(demand);
+            }
+        }
     }
 
     /**
-     * Lock used to synchronize access to the unbound monitor list.
+     * Notifies the JavaMonitorManager that a thread is terminating, so that its cached monitors are returned to the
+     * pool.
+     *
+     * @param thread the terminating thread
+     */
+    public static void notifyCurrentThreadDetach(VmThread thread) {
+        final boolean wasDisabled = SafepointPoll.disable();
+        flushCache(thread);
+        detachedThreadBinds.getAndAdd(thread.monitorBindCount);
+        thread.monitorBindCount = 0;
+        if (!wasDisabled) {
+            SafepointPoll.enable();
+        }
+    }
+
+    /**
+     * Lock used to synchronize the expansion of the unbound monitor pool.
      */
     @CONSTANT_WHEN_NOT_ZERO
     private static Object LOCK;
@@ -339,19 +498,27 @@ public class JavaMonitorManager {
     public static ManagedMonitor bindMonitor(Object object) {
         ManagedMonitor monitor;
         if (inGlobalSafepoint) {
-            monitor = takeFromUnboundList();
+            monitor = takeFromUnboundPoolAtSafepoint();
         } else {
-            synchronized (LOCK) {
-                if (numberOfUnboundMonitors < UNBOUNDLIST_MIN_QTY) {
-                    System.gc();
+            final VmThread thread = VmThread.current();
+            while (true) {
+                final boolean wasDisabled = SafepointPoll.disable();
+                if (thread.monitorCache != null || refillCache(thread)) {
+                    monitor = (ManagedMonitor) thread.monitorCache;
+                    thread.monitorCache = monitor.next();
+                    thread.monitorCacheSize--;
+                    thread.monitorBindCount++;
+                    if (!wasDisabled) {
+                        SafepointPoll.enable();
+                    }
+                    break;
                 }
-
-                // If we didn't free up enough such that we are at least midway between min and hwm, expand
-                if (numberOfUnboundMonitors < (unboundMonitorsHwm + UNBOUNDLIST_MIN_QTY) >> 1) {
-                    expandUnboundList();
+                if (!wasDisabled) {
+                    SafepointPoll.enable();
                 }
-                monitor = takeFromUnboundList();
+                replenishUnboundPool();
             }
+            monitor.setNext(null);
         }
         monitor.setBoundObject(object);
         if (Monitor.TraceMonitors) {
@@ -365,7 +532,7 @@ public class JavaMonitorManager {
     }
 
     /**
-     * Places the given monitor back into the free list.
+     * Places the given monitor back into the current thread's cache.
      * <p>
      * Important: This should only be called for monitors that have
      * failed to be two-way bound to an object.
@@ -377,10 +544,21 @@ public class JavaMonitorManager {
         final ManagedMonitor bindableMonitor = (ManagedMonitor) monitor;
         bindableMonitor.reset();
         if (inGlobalSafepoint) {
-            addToUnboundList(bindableMonitor);
+            addToUnboundPool(bindableMonitor, bindableMonitor);
+            safepointBinds--;
         } else {
-            synchronized (LOCK) {
-                addToUnboundList(bindableMonitor);
+            final VmThread thread = VmThread.current();
+            final boolean wasDisabled = SafepointPoll.disable();
+            if (thread.monitorCacheSize < CACHE_MAX) {
+                bindableMonitor.setNext((ManagedMonitor) thread.monitorCache);
+                thread.monitorCache = bindableMonitor;
+                thread.monitorCacheSize++;
+            } else {
+                addToUnboundPool(bindableMonitor, bindableMonitor);
+            }
+            thread.monitorBindCount--;
+            if (!wasDisabled) {
+                SafepointPoll.enable();
             }
         }
     }
@@ -403,38 +581,44 @@ public class JavaMonitorManager {
     }
 
     /**
-     * Expands the list of unbound monitors by allocating and adding {@link #unboundListGrowQty} new
-     * monitors to the list.
+     * Expands the pool of unbound monitors by allocating and adding new monitors to it.
+     *
+     * @param quantity the number of monitors to add
      */
-    private static void expandUnboundList() {
+    private static void expandUnboundList(int quantity) {
         ManagedMonitor newUnboundList = null;
-        final ManagedMonitor[] newAllBindable = new ManagedMonitor[bindableMonitors.length + unboundListGrowQty];
+        ManagedMonitor newUnboundListTail = null;
+        final ManagedMonitor[] newAllBindable = new ManagedMonitor[numberOfBindableMonitors + quantity];
 
         // Create the new monitors
-        for (int i = 0; i < unboundListGrowQty; i++) {
+        for (int i = 0; i < quantity; i++) {
             final ManagedMonitor monitor = newManagedMonitor();
             monitor.setNext(newUnboundList);
             newUnboundList = monitor;
+            if (newUnboundListTail == null) {
+                newUnboundListTail = monitor;
+            }
         }
 
         // This is the only place where we need to synchronize monitor list access
         // between a mutator thread and a GC thread which is performing unbinding.
         SafepointPoll.disable();
-        for (int i = 0; i < bindableMonitors.length; i++) {
+        for (int i = 0; i < numberOfBindableMonitors; i++) {
             newAllBindable[i] = bindableMonitors[i];
         }
         bindableMonitors = newAllBindable;
-        unboundMonitorsHwm = newAllBindable.length;
         ManagedMonitor monitor = newUnboundList;
         while (monitor != null) {
-            newUnboundList = monitor.next();
-            addToUnboundList(monitor);
             addToAllBindable(monitor);
-            monitor = newUnboundList;
+            monitor = monitor.next();
         }
+        addToUnboundPool(newUnboundList, newUnboundListTail);
         FatalError.check(bindableMonitors.length >= numberOfBindableMonitors, "corrupted bindableMonitors array");
         SafepointPoll.enable();
         FatalError.check(verifyBindableMonitors() == 0, "corrupted bindableMonitors array");
+        if (monitorManagerLogger.enabled()) {
+            monitorManagerLogger.logExpand(quantity, numberOfBindableMonitors);
+        }
     }
 
     /**
@@ -475,12 +659,22 @@ public class JavaMonitorManager {
      */
     public static void afterGarbageCollection() {
         refreshAllBindings();
+        refillSafepointReserve();
         inGlobalSafepoint = false;
     }
 
+    /**
+     * Marks the monitors protected by each thread, returns the monitors cached by each thread to the pool and
+     * collects the number of binds performed by each thread since the last GC.
+     */
     private static class ProtectedMonitorGatherer implements Pointer.Procedure {
+        int binds;
+
         public void run(Pointer tla) {
             VmThread thread = VmThread.fromTLA(tla);
+            flushCache(thread);
+            binds += thread.monitorBindCount;
+            thread.monitorBindCount = 0;
             final JavaMonitor monitor = thread.protectedMonitor;
             if (monitor != null) {
                 final ManagedMonitor managedMonitor = (ManagedMonitor) monitor;
@@ -498,14 +692,18 @@ public class JavaMonitorManager {
      */
     private static void unbindUnownedMonitors() {
         // Mark all protected monitors
+        protectedMonitorGatherer.binds = safepointBinds + detachedThreadBinds.getAndSet(0);
+        safepointBinds = 0;
         VmThreadMap.ACTIVE.forAllThreadLocals(null, protectedMonitorGatherer);
+        int unbinds = 0;
+        int bound = 0;
         // Deflate all non-protected and non-sticky monitors with no owner
         for (int i = 0; i < numberOfBindableMonitors; i++) {
             final ManagedMonitor monitor = bindableMonitors[i];
             if (monitor.isHardBound() && monitor.bindingProtection() == BindingProtection.PRE_ACQUIRE) {
                 monitor.setBindingProtection(BindingProtection.UNPROTECTED);
             }
-            if (monitor.bindingProtection() == BindingProtection.UNPROTECTED) {
+            if (monitor.bindingProtection() == BindingProtection.UNPROTECTED && !monitor.checkAndClearContended()) {
                 if (Monitor.TraceMonitors) {
                     final boolean lockDisabledSafepoints = Log.lock();
                     Log.print("Unbinding monitor: ");
@@ -519,14 +717,26 @@ public class JavaMonitorManager {
                     unboundMiscWordWriter.writeUnboundHashWord(monitor.boundObject(), monitor.displacedHash());
                 }
                 monitor.reset();
-                // Put the monitor back on the unbound list.
-                // This is thread-safe as mutator thread access to the free-list is
+                // Put the monitor back in the pool.
+                // This is thread-safe as mutator thread access to the pool is
                 // atomic with respect to safepointing.
-                addToUnboundList(monitor);
+                addToUnboundPool(monitor, monitor);
+                unbinds++;
             } else if (monitor.isBound()) {
+                monitor.checkAndClearContended();
                 monitor.preGCPrepare();
+                bound++;
             }
         }
+        gcCycles++;
+        lastCycleBinds = protectedMonitorGatherer.binds;
+        lastCycleUnbinds = unbinds;
+        totalBinds += lastCycleBinds;
+        totalUnbinds += unbinds;
+        boundMonitors = bound;
+        if (monitorManagerLogger.enabled()) {
+            monitorManagerLogger.logCycle(lastCycleBinds, unbinds, bound, numberOfBindableMonitors);
+        }
     }
 
     /**
@@ -544,6 +754,149 @@ public class JavaMonitorManager {
         }
     }
 
+    /**
+     * Gets the number of garbage collections at which monitors have been unbound.
+     */
+    public static int gcCycles() {
+        return gcCycles;
+    }
+
+    /**
+     * Gets the number of monitors bound between the last two garbage collections.
+     */
+    public static int lastCycleBinds() {
+        return lastCycleBinds;
+    }
+
+    /**
+     * Gets the number of monitors unbound at the last garbage collection.
+     */
+    public static int lastCycleUnbinds() {
+        return lastCycleUnbinds;
+    }
+
+    /**
+     * Gets the number of monitors bound up to the last garbage collection.
+     */
+    public static long totalBinds() {
+        return totalBinds;
+    }
+
+    /**
+     * Gets the number of monitors unbound up to the last garbage collection.
+     */
+    public static long totalUnbinds() {
+        return totalUnbinds;
+    }
+
+    /**
+     * Gets the number of monitors that remained bound after the last garbage collection.
+     */
+    public static int boundMonitors() {
+        return boundMonitors;
+    }
+
+    /**
+     * Gets the number of monitors that can be bound to objects, whether bound or not.
+     */
+    public static int bindableMonitors() {
+        return numberOfBindableMonitors;
+    }
+
+    public static final MonitorManagerLogger monitorManagerLogger = new MonitorManagerLogger();
+
+    /**
+     * Interface for logging the binding activity of the JavaMonitorManager.
+     */
+    @HOSTED_ONLY
+    @VMLoggerInterface
+    private interface MonitorManagerLoggerInterface {
+        void cycle(
+                        @VMLogParam(name = "binds") int binds,
+                        @VMLogParam(name = "unbinds") int unbinds,
+                        @VMLogParam(name = "bound") int bound,
+                        @VMLogParam(name = "bindable") int bindable);
+
+        void expand(
+                        @VMLogParam(name = "quantity") int quantity,
+                        @VMLogParam(name = "bindable") int bindable);
+    }
+
+    public static final class MonitorManagerLogger extends MonitorManagerLoggerAuto {
+        MonitorManagerLogger() {
+            super("MonitorManager", "monitor binds and unbinds per GC cycle and unbound pool expansion");
+        }
+
+        @Override
+        protected void traceCycle(int binds, int unbinds, int bound, int bindable) {
+            Log.print("Monitor cycle: binds = ");
+            Log.print(binds);
+            Log.print(", unbinds = ");
+            Log.print(unbinds);
+            Log.print(", bound = ");
+            Log.print(bound);
+            Log.print(", bindable = ");
+            Log.println(bindable);
+        }
+
+        @Override
+        protected void traceExpand(int quantity, int bindable) {
+            Log.print("Monitor pool expanded by ");
+            Log.print(quantity);
+            Log.print(", bindable = ");
+            Log.println(bindable);
+        }
+    }
+
+// START GENERATED CODE
+    private static abstract class MonitorManagerLoggerAuto extends com.sun.max.vm.log.VMLogger {
+        public enum Operation {
+            Cycle, Expand;
+
+            @SuppressWarnings("hiding")
+            public static final Operation[] VALUES = values();
+        }
+
+        private static final int[] REFMAPS = null;
+
+        protected MonitorManagerLoggerAuto(String name, String optionDescription) {
+            super(name, Operation.VALUES.length, optionDescription, REFMAPS);
+        }
+
+        @Override
+        public String operationName(int opCode) {
+            return Operation.VALUES[opCode].name();
+        }
+
+        @INLINE
+        public final void logCycle(int binds, int unbinds, int bound, int bindable) {
+            log(Operation.Cycle.ordinal(), intArg(binds), intArg(unbinds), intArg(bound), intArg(bindable));
+        }
+        protected abstract void traceCycle(int binds, int unbinds, int bound, int bindable);
+
+        @INLINE
+        public final void logExpand(int quantity, int bindable) {
+            log(Operation.Expand.ordinal(), intArg(quantity), intArg(bindable));
+        }
+        protected abstract void traceExpand(int quantity, int bindable);
+
+        @Override
+        protected void trace(Record r) {
+            switch (r.getOperation()) {
+                case 0: { //Cycle
+                    traceCycle(toInt(r, 1), toInt(r, 2), toInt(r, 3), toInt(r, 4));
+                    break;
+                }
+                case 1: { //Expand
+                    traceExpand(toInt(r, 1), toInt(r, 2));
+                    break;
+                }
+            }
+        }
+    }
+
+// END GENERATED CODE
+
     /**
      * Extends the JavaMonitor interface to allow a pool of monitors to be managed by JavaMonitorManager.
      * <p>
@@ -647,6 +1000,14 @@ public class JavaMonitorManager {
          */
         void preGCPrepare();
 
+        /**
+         * Tests if a thread found this monitor owned by another thread when entering it since the
+         * last call to this method, and clears the record.
+         *
+         * @return true if this monitor has been contended since the last call
+         */
+        boolean checkAndClearContended();
+
         /**
          * Direct linked-list support. Returns the next monitor in the list.
          *
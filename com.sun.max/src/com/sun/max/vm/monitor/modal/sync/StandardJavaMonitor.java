@@ -58,8 +58,41 @@ import com.sun.max.vm.thread.*;
  */
 public class StandardJavaMonitor extends AbstractJavaMonitor {
 
+    /**
+     * The maximum number of iterations a thread spins waiting for the owner to release a monitor before blocking
+     * on the monitor's mutex. Zero disables spinning.
+     */
+    private static int MonitorSpinLimit = 4096;
+
+    /**
+     * The spin budget that a monitor starts with, and the least it is reduced to.
+     */
+    private static final int MIN_SPIN_BUDGET = 64;
+
+    static {
+        VMOptions.addFieldOption("-XX:", "MonitorSpinLimit", StandardJavaMonitor.class,
+            "Maximum number of iterations a thread spins on a contended inflated monitor before blocking (0 to disable).");
+    }
+
+    /**
+     * Disables spinning on a uniprocessor, where the owner cannot release a monitor while another thread spins.
+     */
+    static void initializeSpinning() {
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            MonitorSpinLimit = 0;
+        }
+    }
+
     protected final Mutex mutex;
 
+    /**
+     * The number of iterations a thread entering this monitor spins while it is owned. The budget is adapted to the
+     * recent history of this monitor: it is doubled each time a spin ends with the monitor released and halved each
+     * time the spin fails, so that monitors protecting short critical sections are acquired without blocking while
+     * monitors that are held for long quickly stop wasting cycles. Races on updating it are benign.
+     */
+    private int spinBudget = MIN_SPIN_BUDGET;
+
     /**
      * The list of threads waiting on this monitor as a result of a call to {@link #monitorWait(long)}. A thread is
      * responsible for adding/removing itself to/from this list on either side of the call to
@@ -95,6 +128,12 @@ public class StandardJavaMonitor extends AbstractJavaMonitor {
             traceEndMonitorEnter(currentThread);
             return;
         }
+        if (ownerThread != null) {
+            contended = true;
+            if (MonitorSpinLimit > 0) {
+                spinWhileOwned();
+            }
+        }
         currentThread.setState(Thread.State.BLOCKED);
         mutex.lock();
         currentThread.setState(Thread.State.RUNNABLE);
@@ -104,6 +143,24 @@ public class StandardJavaMonitor extends AbstractJavaMonitor {
         traceEndMonitorEnter(currentThread);
     }
 
+    /**
+     * Spins for up to {@link #spinBudget} iterations waiting for the owner to release this monitor, and adapts the
+     * budget according to the outcome. Blocking on the mutex afterwards is cheap if the monitor was released.
+     */
+    private void spinWhileOwned() {
+        final int budget = Math.min(spinBudget, MonitorSpinLimit);
+        for (int i = 0; i < budget; i++) {
+            if (ownerThread == null) {
+                if (budget < MonitorSpinLimit) {
+                    spinBudget = Math.min(budget << 1, MonitorSpinLimit);
+                }
+                return;
+            }
+            Intrinsics.pause();
+        }
+        spinBudget = Math.max(budget >> 1, MIN_SPIN_BUDGET);
+    }
+
     @Override
     public void monitorExit() {
         final VmThread currentThread = VmThread.current();
@@ -259,6 +316,8 @@ public class StandardJavaMonitor extends AbstractJavaMonitor {
     @Override
     public void log() {
         super.log();
+        Log.print(" spinBudget=");
+        Log.print(spinBudget);
         Log.print(" mutex=");
         Log.print(Address.fromLong(mutex.logId()));
         Log.print(" waiters={");
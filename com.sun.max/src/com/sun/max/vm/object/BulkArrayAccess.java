@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.object;
+
+import static com.sun.max.platform.Platform.*;
+import static com.sun.max.vm.intrinsics.MaxineIntrinsicIDs.*;
+
+import com.oracle.max.cri.intrinsics.*;
+import com.sun.max.annotate.*;
+import com.sun.max.lang.*;
+import com.sun.max.vm.*;
+import com.sun.max.vm.layout.*;
+import com.sun.max.vm.reference.*;
+import com.sun.max.vm.runtime.*;
+
+/**
+ * Operations on blocks of primitive array elements. The operations are compiler intrinsics that the optimizing
+ * compiler expands to vector loops where the target supports them; the Java bodies are the fallback and reference
+ * implementation. Elements are described by the log2 of their size in bytes so that, for example, {@code char[]} and
+ * {@code short[]} blocks, or {@code int[]} and {@code float[]} blocks, share the same operations.
+ * <p>
+ * None of the operations perform bounds, null or store checks; callers must do them beforehand.
+ * <p>
+ * The vector loops need SSE2 on AMD64. The CPU features are {@linkplain #initializeVectorSupport() detected} at
+ * startup: the boot image code requires SSE2, and code compiled at runtime only uses the vector loops if
+ * {@link #UseVectorBulkArrayOps} is set.
+ */
+public final class BulkArrayAccess {
+
+    private BulkArrayAccess() {
+    }
+
+    public static boolean UseVectorBulkArrayOps = true;
+    static {
+        VMOptions.addFieldOption("-XX:", "UseVectorBulkArrayOps", BulkArrayAccess.class,
+            "Expand the bulk array operations to vector loops in code compiled at runtime if the CPU supports them (default: true).");
+    }
+
+    /**
+     * Bits of the {@linkplain #cpuFeatures() CPU features}.
+     */
+    public static final int CPU_SSE2 = 1;
+    public static final int CPU_SSE4_1 = 2;
+    public static final int CPU_AVX = 4;
+
+    private static int cpuFeatures;
+
+    @C_FUNCTION
+    private static native int maxine_cpuFeatures();
+
+    /**
+     * Detects the vector instruction set extensions of the CPU. Must be called during VM startup, before
+     * any code is compiled.
+     *
+     * @return {@code true} if code compiled from now on may use the vector loops
+     */
+    public static boolean initializeVectorSupport() {
+        cpuFeatures = maxine_cpuFeatures();
+        if (platform().isa == ISA.AMD64 && (cpuFeatures & CPU_SSE2) == 0) {
+            throw FatalError.unexpected("The boot image code requires a CPU with SSE2");
+        }
+        return UseVectorBulkArrayOps && (cpuFeatures & CPU_SSE2) != 0;
+    }
+
+    /**
+     * Gets the vector instruction set extensions of the CPU, as a combination of {@link #CPU_SSE2},
+     * {@link #CPU_SSE4_1} and {@link #CPU_AVX}.
+     */
+    public static int cpuFeatures() {
+        return cpuFeatures;
+    }
+
+    public static final int LOG2_BYTE = 0;
+    public static final int LOG2_SHORT = 1;
+    public static final int LOG2_INT = 2;
+    public static final int LOG2_LONG = 3;
+
+    @FOLD
+    private static int byteElementsOffset() {
+        return Layout.byteArrayLayout().getElementOffsetFromOrigin(0).toInt();
+    }
+
+    @FOLD
+    private static int shortElementsOffset() {
+        return Layout.charArrayLayout().getElementOffsetFromOrigin(0).toInt();
+    }
+
+    @FOLD
+    private static int intElementsOffset() {
+        return Layout.intArrayLayout().getElementOffsetFromOrigin(0).toInt();
+    }
+
+    @FOLD
+    private static int longElementsOffset() {
+        return Layout.longArrayLayout().getElementOffsetFromOrigin(0).toInt();
+    }
+
+    /**
+     * Gets the offset from the origin of an array to its first element.
+     *
+     * @param log2ElementSize the log2 of the element size in bytes
+     */
+    @INLINE
+    public static int elementsOffset(int log2ElementSize) {
+        switch (log2ElementSize) {
+            case LOG2_BYTE:
+                return byteElementsOffset();
+            case LOG2_SHORT:
+                return shortElementsOffset();
+            case LOG2_INT:
+                return intElementsOffset();
+            default:
+                return longElementsOffset();
+        }
+    }
+
+    /**
+     * Copies {@code length} elements. The source and destination blocks may overlap, in which case the copy behaves
+     * as if the source block were first copied to a temporary block.
+     */
+    @INTRINSIC(BULK_COPY)
+    public static void copy(@INTRINSIC.Constant int log2ElementSize, Object from, int fromIndex, Object to, int toIndex, int length) {
+        final Reference src = Reference.fromJava(from);
+        final Reference dst = Reference.fromJava(to);
+        final int displacement = elementsOffset(log2ElementSize);
+        if (from == to && fromIndex < toIndex) {
+            for (int i = length - 1; i >= 0; i--) {
+                copyElement(log2ElementSize, displacement, src, fromIndex + i, dst, toIndex + i);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                copyElement(log2ElementSize, displacement, src, fromIndex + i, dst, toIndex + i);
+            }
+        }
+    }
+
+    @INLINE
+    private static void copyElement(int log2ElementSize, int displacement, Reference src, int fromIndex, Reference dst, int toIndex) {
+        switch (log2ElementSize) {
+            case LOG2_BYTE:
+                dst.setByte(displacement, toIndex, src.getByte(displacement, fromIndex));
+                break;
+            case LOG2_SHORT:
+                dst.setShort(displacement, toIndex, src.getShort(displacement, fromIndex));
+                break;
+            case LOG2_INT:
+                dst.setInt(displacement, toIndex, src.getInt(displacement, fromIndex));
+                break;
+            default:
+                dst.setLong(displacement, toIndex, src.getLong(displacement, fromIndex));
+        }
+    }
+
+    /**
+     * Stores the element value held in the low bits of {@code pattern} into {@code length} elements.
+     *
+     * @param pattern the element value repeated over 8 bytes, as built by one of the {@code pattern} methods
+     */
+    @INTRINSIC(BULK_FILL)
+    public static void fill(@INTRINSIC.Constant int log2ElementSize, Object array, int fromIndex, int length, long pattern) {
+        final Reference ref = Reference.fromJava(array);
+        final int displacement = elementsOffset(log2ElementSize);
+        for (int i = fromIndex; i < fromIndex + length; i++) {
+            switch (log2ElementSize) {
+                case LOG2_BYTE:
+                    ref.setByte(displacement, i, (byte) pattern);
+                    break;
+                case LOG2_SHORT:
+                    ref.setShort(displacement, i, (short) pattern);
+                    break;
+                case LOG2_INT:
+                    ref.setInt(displacement, i, (int) pattern);
+                    break;
+                default:
+                    ref.setLong(displacement, i, pattern);
+            }
+        }
+    }
+
+    /**
+     * Finds the first element that differs between two blocks of {@code length} elements. Elements are compared
+     * by their bits, so for floating point elements this matches {@link Float#floatToRawIntBits(float)} equality.
+     *
+     * @return the index of the first differing element relative to the start of the blocks or -1 if they are equal
+     */
+    @INTRINSIC(BULK_MISMATCH)
+    public static int mismatch(@INTRINSIC.Constant int log2ElementSize, Object a, int aIndex, Object b, int bIndex, int length) {
+        final Reference refA = Reference.fromJava(a);
+        final Reference refB = Reference.fromJava(b);
+        final int displacement = elementsOffset(log2ElementSize);
+        for (int i = 0; i < length; i++) {
+            final boolean equal;
+            switch (log2ElementSize) {
+                case LOG2_BYTE:
+                    equal = refA.getByte(displacement, aIndex + i) == refB.getByte(displacement, bIndex + i);
+                    break;
+                case LOG2_SHORT:
+                    equal = refA.getShort(displacement, aIndex + i) == refB.getShort(displacement, bIndex + i);
+                    break;
+                case LOG2_INT:
+                    equal = refA.getInt(displacement, aIndex + i) == refB.getInt(displacement, bIndex + i);
+                    break;
+                default:
+                    equal = refA.getLong(displacement, aIndex + i) == refB.getLong(displacement, bIndex + i);
+            }
+            if (!equal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first element of a block of {@code length} elements that equals {@code value} truncated to the
+     * element size, that is {@code (byte) value}, {@code (char) value} or {@code value}. Callers searching for a
+     * value that does not fit in an element must rule it out beforehand.
+     *
+     * @param log2ElementSize 0, 1 or 2
+     * @return the index of the first matching element relative to {@code fromIndex} or -1 if there is none
+     */
+    @INTRINSIC(BULK_INDEX_OF)
+    public static int indexOf(@INTRINSIC.Constant int log2ElementSize, Object array, int fromIndex, int length, int value) {
+        final Reference ref = Reference.fromJava(array);
+        final int displacement = elementsOffset(log2ElementSize);
+        for (int i = 0; i < length; i++) {
+            final boolean found;
+            switch (log2ElementSize) {
+                case LOG2_BYTE:
+                    found = ref.getByte(displacement, fromIndex + i) == (byte) value;
+                    break;
+                case LOG2_SHORT:
+                    found = ref.getChar(displacement, fromIndex + i) == (char) value;
+                    break;
+                default:
+                    found = ref.getInt(displacement, fromIndex + i) == value;
+            }
+            if (found) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @INLINE
+    public static long pattern(byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
+    @INLINE
+    public static long pattern(char value) {
+        return value * 0x0001000100010001L;
+    }
+
+    @INLINE
+    public static long pattern(short value) {
+        return pattern((char) value);
+    }
+
+    @INLINE
+    public static long pattern(int value) {
+        return (value & 0xFFFFFFFFL) * 0x0000000100000001L;
+    }
+}
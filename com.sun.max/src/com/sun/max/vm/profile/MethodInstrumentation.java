@@ -21,11 +21,13 @@
  */
 package com.sun.max.vm.profile;
 
+import com.sun.cri.ri.*;
 import com.sun.max.annotate.*;
 import com.sun.max.vm.actor.holder.*;
 import com.sun.max.vm.actor.member.*;
 import com.sun.max.vm.code.*;
 import com.sun.max.vm.compiler.*;
+import com.sun.max.vm.compiler.deopt.*;
 import com.sun.max.vm.object.ArrayAccess;
 import com.sun.max.vm.object.ObjectAccess;
 
@@ -35,8 +37,20 @@ import com.sun.max.vm.object.ObjectAccess;
 public class MethodInstrumentation {
 
     public static int initialEntryBackedgeCount = 5000;
+
+    /**
+     * Initial value of the {@linkplain MethodProfile#backedgeCount backward branch counter}. The default
+     * of {@link Integer#MAX_VALUE} effectively disables on-stack replacement.
+     */
+    public static int initialBackedgeCount = Integer.MAX_VALUE;
     public static final int DEFAULT_RECEIVER_METHOD_PROFILE_ENTRIES = 3;
 
+    /**
+     * Number of times a bytecode must have been executed by instrumented code before the optimizing
+     * compiler relies on its profile.
+     */
+    public static int minimumProfileCount = 100;
+
     /**
      * Methods whose invocation count (entry count) is within 90 % of the recompilation threshold
      * (see {@link #initialEntryBackedgeCount}), are protected from {@linkplain CodeEviction code eviction}.
@@ -53,6 +67,16 @@ public class MethodInstrumentation {
         MethodInstrumentation.protectionThreshold = (int) (1 - PROTECTION_PERCENTAGE) * initialEntryCount;
     }
 
+    /**
+     * Enables counting backward branches towards {@linkplain OnStackReplacement on-stack replacement}.
+     *
+     * @param initialBackedgeCount the number of backward branches taken in a method before its
+     *            baseline frame is replaced
+     */
+    public static void enableOnStackReplacement(int initialBackedgeCount) {
+        MethodInstrumentation.initialBackedgeCount = initialBackedgeCount;
+    }
+
     public static MethodProfile.Builder createMethodProfile(ClassMethodActor classMethodActor) {
         if (enabled) {
             return new MethodProfile.Builder();
@@ -88,8 +112,11 @@ public class MethodInstrumentation {
     }
 
     @INLINE
-    public static void recordBackwardBranch(MethodProfile mpo) {
+    public static void recordBackwardBranch(MethodProfile mpo, int targetBCI) {
         mpo.entryBackedgeCount--;
+        if (--mpo.backedgeCount <= 0) {
+            CompilationBroker.backedgeCounterOverflow(mpo, targetBCI);
+        }
     }
 
     @INLINE
@@ -137,7 +164,7 @@ public class MethodInstrumentation {
             Integer[] typeProfile = mpo.getTypeProfile(bci);
             if (typeProfile != null) {
                 int total = 0;
-                for (int i = 0; i < typeProfile.length; i++) {
+                for (int i = 0; i < typeProfile.length; i += 2) {
                     // count up the total of all non anonymous entries
                     Integer typeId = typeProfile[i];
                     Integer count = typeProfile[i + 1];
@@ -150,7 +177,7 @@ public class MethodInstrumentation {
                     int thresh = (int) (ratio * total);
                     int mostFrequentTypeId = MethodProfile.UNDEFINED_TYPE_ID;
                     int mostFrequentTypeCount = thresh;
-                    for (int i = 0; i < typeProfile.length; i++) {
+                    for (int i = 0; i < typeProfile.length; i += 2) {
                         Integer typeId = typeProfile[i];
                         Integer count = typeProfile[i + 1];
                         if (typeId != MethodProfile.UNDEFINED_TYPE_ID && count >= mostFrequentTypeCount) {
@@ -167,6 +194,70 @@ public class MethodInstrumentation {
         return null;
     }
 
+    /**
+     * Converts the type profile recorded for a bytecode to the form used by the optimizing compiler.
+     *
+     * @return {@code null} if there is no profile for {@code bci}, if it has seen fewer than
+     *         {@link #minimumProfileCount} executions or if speculating on it has failed too often
+     */
+    public static RiTypeProfile typeProfile(MethodProfile mpo, int bci) {
+        Integer[] typeProfile = mpo.getTypeProfile(bci);
+        if (typeProfile == null || speculationFailed(mpo, bci)) {
+            return null;
+        }
+        long total = Math.max(mpo.getNullSeenCount(bci), 0);
+        int types = 0;
+        boolean overflow = false;
+        for (int i = 0; i < typeProfile.length; i += 2) {
+            total += typeProfile[i + 1];
+            if (typeProfile[i] != MethodProfile.UNDEFINED_TYPE_ID) {
+                types++;
+            } else {
+                overflow = true;
+            }
+        }
+        if (total < minimumProfileCount) {
+            return null;
+        }
+        RiTypeProfile profile = new RiTypeProfile();
+        profile.count = (int) Math.min(total, Integer.MAX_VALUE);
+        // the types that did not fit in the profile are counted as one
+        profile.morphism = overflow ? types + 1 : types;
+        profile.types = new RiResolvedType[types];
+        profile.probabilities = new float[types];
+        int j = 0;
+        for (int i = 0; i < typeProfile.length; i += 2) {
+            if (typeProfile[i] != MethodProfile.UNDEFINED_TYPE_ID) {
+                profile.types[j] = ClassIDManager.toClassActor(typeProfile[i]);
+                profile.probabilities[j] = (float) ((double) typeProfile[i + 1] / total);
+                j++;
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Gets the probability that the conditional branch at a given bytecode is taken.
+     *
+     * @return {@code -1} if there is no profile for {@code bci}, if it has seen fewer than
+     *         {@link #minimumProfileCount} executions or if speculating on it has failed too often
+     */
+    public static double branchProbability(MethodProfile mpo, int bci) {
+        if (mpo.getExecutionCount(bci) < minimumProfileCount || speculationFailed(mpo, bci)) {
+            return -1;
+        }
+        return mpo.getBranchTakenProbability(bci);
+    }
+
+    /**
+     * Determines if optimized code speculating on the profile of a given bytecode has taken
+     * {@link Deoptimization#PerBytecodeTrapLimit} uncommon traps there, in which case the profile of
+     * the bytecode is no longer given to the optimizing compiler.
+     */
+    private static boolean speculationFailed(MethodProfile mpo, int bci) {
+        return mpo.getUncommonTrapCount(bci) >= Deoptimization.PerBytecodeTrapLimit;
+    }
+
     private static Hub typeIdToHub(Integer typeId) {
         if (typeId != MethodProfile.UNDEFINED_TYPE_ID) {
             ClassActor classActor = ClassIDManager.toClassActor(typeId);
@@ -90,6 +90,19 @@ public class MethodProfile {
      */
     public int entryBackedgeCount;
 
+    /**
+     * The backward branch counter that triggers {@linkplain com.sun.max.vm.compiler.OnStackReplacement on-stack replacement}.
+     * Decremented by profiling code on every backward branch. It is kept apart from {@link #entryBackedgeCount}
+     * so that a long running loop is replaced by optimized code even when the method is rarely invoked.
+     */
+    public int backedgeCount;
+
+    /**
+     * The invocation counter of the first optimized tier of {@linkplain com.sun.max.vm.compiler.TieredCompilation tiered compilation}.
+     * Incremented by the optimized code of the method and periodically decayed by the tier policy.
+     */
+    public int tier1Count;
+
     /**
      * Records actual counts of a count entry.
      */
@@ -112,6 +125,17 @@ public class MethodProfile {
      */
     public boolean compilationDisabled;
 
+    /**
+     * Number of failed optimizing compilations of the method (see {@link com.sun.max.vm.compiler.CompilationBudget}).
+     */
+    public int optimizationFailures;
+
+    /**
+     * Records the bci and count of each bytecode at which optimized code compiled from this method took an
+     * {@linkplain com.sun.max.vm.compiler.deopt.Deoptimization#uncommonTrap uncommon trap}, as pairs.
+     */
+    private int[] uncommonTraps;
+
     protected MethodProfile() {
     }
 
@@ -130,6 +154,19 @@ public class MethodProfile {
         deoptimizationCounts[deoptReasonId] = counter;
     }
 
+    /**
+     * Gets the number of method entries and backward branches counted by {@link #entryBackedgeCount} since it was set
+     * to a given value. Backward branches decrement the counter without checking it for overflow, so for a method
+     * that spends its time in loops the result exceeds {@code resetValue} by the branches taken after the counter
+     * reached zero. The {@link #backedgeCount} is not added in: it counts the same branches.
+     *
+     * @param resetValue the value {@link #entryBackedgeCount} was last set to
+     */
+    public int entryBackedgeCountSince(int resetValue) {
+        long count = (long) resetValue - entryBackedgeCount;
+        return count < 0 ? 0 : count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) count;
+    }
+
     /**
      * Gets the count at the method entrypoint, if it is available.
      * @return the count of the method entrypoint if available;
@@ -205,6 +242,46 @@ public class MethodProfile {
         return UNDEFINED_EXECUTION_COUNT;
     }
 
+    /**
+     * Increments the count of uncommon traps taken at a given bci.
+     *
+     * @return the new count
+     */
+    public synchronized int incrementUncommonTrapCount(int bci) {
+        int length = uncommonTraps == null ? 0 : uncommonTraps.length;
+        for (int i = 0; i < length; i += 2) {
+            if (uncommonTraps[i] == bci) {
+                if (uncommonTraps[i + 1] != Integer.MAX_VALUE) {
+                    uncommonTraps[i + 1]++;
+                }
+                return uncommonTraps[i + 1];
+            }
+        }
+        int[] newUncommonTraps = new int[length + 2];
+        if (length > 0) {
+            System.arraycopy(uncommonTraps, 0, newUncommonTraps, 0, length);
+        }
+        newUncommonTraps[length] = bci;
+        newUncommonTraps[length + 1] = 1;
+        uncommonTraps = newUncommonTraps;
+        return 1;
+    }
+
+    /**
+     * Returns the number of uncommon traps taken at a given bci.
+     */
+    public int getUncommonTrapCount(int bci) {
+        final int[] traps = uncommonTraps;
+        if (traps != null) {
+            for (int i = 0; i < traps.length; i += 2) {
+                if (traps[i] == bci) {
+                    return traps[i + 1];
+                }
+            }
+        }
+        return 0;
+    }
+
     /**
      * Returns deoptimization counter for a given deoptimization reason identifier.
      */
@@ -588,6 +665,10 @@ public class MethodProfile {
             mpo.entryBackedgeCount = initialValue;
         }
 
+        public void addBackedgeCounter(int initialValue) {
+            mpo.backedgeCount = initialValue;
+        }
+
         public int addGotoCounter(int bci) {
             return add(bci, BR_TAKEN_COUNT, 0);
         }
@@ -342,6 +342,11 @@ public abstract class SamplingProfiler extends Thread {
             super(name, null, Mode.Safepoint);
         }
 
+        @Override
+        protected boolean isCoalescable() {
+            return true;
+        }
+
         @Override
         protected abstract boolean operateOnThread(VmThread thread);
 
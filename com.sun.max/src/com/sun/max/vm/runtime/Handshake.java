@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.runtime;
+
+import com.sun.max.vm.thread.*;
+
+/**
+ * A {@link VmOperation} performed against one thread, or a subset of threads, without stopping the others.
+ * <p>
+ * A handshake is not queued for the {@linkplain VmOperationThread VM operation thread}. The thread that
+ * {@linkplain #execute() executes} it freezes only the targeted threads, by arming their
+ * {@linkplain VmThreadLocal#SAFEPOINT_LATCH safepoint latch}, runs {@link #doIt()} while they are blocked in
+ * {@link VmOperation#doAtSafepoint}, then thaws them. All other threads, including the VM operation thread, keep
+ * running. Handshakes are serialized with each other and with VM operations by the
+ * {@linkplain VmThreadMap#THREAD_LOCK thread lock}, which is held for the whole handshake.
+ * <p>
+ * As the heap is not at a safepoint, a handshake must not allocate or trigger a nested VM operation.
+ */
+public abstract class Handshake extends VmOperation {
+
+    /**
+     * Creates a handshake with a single thread.
+     *
+     * @param name descriptive name of the {@linkplain #doIt() operation}. This value is only used for tracing.
+     * @param thread the thread to stop, which must not be the current thread
+     */
+    public Handshake(String name, VmThread thread) {
+        super(name, thread, Mode.Safepoint);
+    }
+
+    /**
+     * Creates a handshake with the threads for which {@link #operateOnThread(VmThread)} returns {@code true}.
+     * The thread executing the handshake is never stopped.
+     *
+     * @param name descriptive name of the {@linkplain #doIt() operation}. This value is only used for tracing.
+     */
+    public Handshake(String name) {
+        super(name, null, Mode.Safepoint);
+    }
+
+    @Override
+    public boolean requiresGlobalSafepoint() {
+        return false;
+    }
+
+    /**
+     * Performs this handshake on the current thread, returning once the targeted threads have been thawed.
+     * If the current thread is the VM operation thread, the handshake runs as a nested VM operation.
+     */
+    public final void execute() {
+        final VmThread current = VmThread.current();
+        if (current.isVmOperationThread()) {
+            VmOperationThread.submit(this);
+            return;
+        }
+        FatalError.check(singleThread != current, "A thread cannot handshake with itself");
+        setCallingThread(current);
+        runFreezing();
+    }
+
+    /**
+     * Equivalent to {@link #execute()}.
+     */
+    @Override
+    public void submit() {
+        execute();
+    }
+}
@@ -253,6 +253,19 @@ public class VmOperation {
         return false;
     }
 
+    /**
+     * Determines if this operation can be run at a safepoint reached for another operation. The
+     * {@linkplain VmOperationThread VM operation thread} runs consecutive coalescable operations in its queue at a
+     * single global safepoint, freezing all threads once for all of them.
+     * <p>
+     * An operation may only return {@code true} if it requires a safepoint, allows nested operations and is fully
+     * described by {@link #doIt()} and {@link #doThread(VmThread, Pointer, Pointer, Pointer)}: none of the hooks run
+     * while freezing or thawing threads are called for an operation that is coalesced.
+     */
+    protected boolean isCoalescable() {
+        return false;
+    }
+
     /**
      * Called by the {@linkplain Trap trap} handler on a thread that hit a safepoint.
      * This is always called with safepoints {@linkplain SafepointPoll#disable() disabled}
@@ -385,14 +398,14 @@ public class VmOperation {
 
     /**
      * Predicate used with {@linkplain VmThreadMap#forAllThreadLocals(Predicate, com.sun.max.unsafe.Pointer.Procedure)}
-     * to filter out the VM operation thread and all threads for which {@link #operateOnThread(VmThread)} returns
-     * {@code false}.
+     * to filter out the VM operation thread, the {@linkplain VmThread#isGCWorkerThread() GC worker threads}, the
+     * thread running the operation and all threads for which {@link #operateOnThread(VmThread)} returns {@code false}.
      */
     private final Pointer.Predicate threadPredicate = new Pointer.Predicate() {
         @Override
         public boolean evaluate(Pointer tla) {
             VmThread vmThread = VmThread.fromTLA(tla);
-            return !vmThread.isVmOperationThread() && operateOnThread(vmThread);
+            return !vmThread.isVmOperationThread() && !vmThread.isGCWorkerThread() && vmThread != VmThread.current() && operateOnThread(vmThread);
         }
     };
 
@@ -461,7 +474,7 @@ public class VmOperation {
     /**
      * The single thread operated on by this operation.
      */
-    private final VmThread singleThread;
+    final VmThread singleThread;
 
     /**
      * Adapter from {@link Procedure#run(Pointer)} to {@linkplain #doThread(VmThread, Pointer, Pointer, Pointer)}.
@@ -534,6 +547,14 @@ public class VmOperation {
      */
     final void run() {
         assert VmThread.current().isVmOperationThread();
+        runFreezing();
+    }
+
+    /**
+     * Performs the operation on the current thread, freezing and thawing the targeted threads around a call to
+     * {@link #doIt()}. This is called on the VM operation thread, or on the requesting thread for a {@link Handshake}.
+     */
+    final void runFreezing() {
         assert singleThread == null || !singleThread.isVmOperationThread();
 
         if (mode.requiresSafepoint()) {
@@ -549,6 +570,11 @@ public class VmOperation {
 
                 tracePhase("-- Begin --");
 
+                // Nested operations are accounted to the enclosing operation
+                final boolean recordStatistics = enclosing == null;
+                final long startTime = System.nanoTime();
+                frozenThreadCount = 0;
+
                 freeze();
 
                 // Ensures updates to safepoint-related control variables are visible to all threads
@@ -557,12 +583,16 @@ public class VmOperation {
 
                 waitUntilFrozen();
 
+                if (recordStatistics) {
+                    VmOperationStatistics.beginSafepoint(frozenThreadCount, System.nanoTime() - startTime);
+                }
+
                 boolean oldAtSafepoint = atSafepoint;
                 try {
-                    if (singleThread == null) {
+                    if (requiresGlobalSafepoint()) {
                         atSafepoint = true;
                     }
-                    run0();
+                    run0(recordStatistics);
                 } catch (Throwable t) {
                     if (TraceVmOperations) {
                         boolean lockDisabledSafepoints = Log.lock();
@@ -580,6 +610,10 @@ public class VmOperation {
 
                 thaw();
 
+                if (recordStatistics) {
+                    VmOperationStatistics.endSafepoint(System.nanoTime() - startTime);
+                }
+
                 tracePhase("-- End --");
             }
 
@@ -593,13 +627,27 @@ public class VmOperation {
                 }
             }
         } else {
-            run0();
+            run0(false);
         }
     }
 
-    private void run0() {
+    private void run0(boolean recordStatistics) {
         tracePhase("Running operation");
-        doIt();
+        doItAndRecord(recordStatistics);
+    }
+
+    /**
+     * Calls {@link #doIt()}, recording the time it takes in the {@linkplain VmOperationStatistics statistics} of the
+     * current safepoint if {@code recordStatistics} is true.
+     */
+    void doItAndRecord(boolean recordStatistics) {
+        if (recordStatistics) {
+            final long start = System.nanoTime();
+            doIt();
+            VmOperationStatistics.recordOperation(name, System.nanoTime() - start);
+        } else {
+            doIt();
+        }
     }
 
     private final Pointer.Procedure freezeThreadProcedure = new Pointer.Procedure() {
@@ -619,11 +667,24 @@ public class VmOperation {
         }
     }
 
+    /**
+     * Determines if this operation targets a single thread that is not yet on the global thread list or has terminated.
+     */
+    final boolean targetsNonRunningThread() {
+        return singleThread != null && singleThread.tla().isZero();
+    }
+
+    /**
+     * The number of threads frozen by the current execution of this operation.
+     */
+    private int frozenThreadCount;
+
     final void freezeThread(VmThread thread) {
 
         if (frozenByEnclosing(thread)) {
             return;
         }
+        frozenThreadCount++;
 
         Pointer tla = thread.tla();
         final Pointer etla = ETLA.load(tla);
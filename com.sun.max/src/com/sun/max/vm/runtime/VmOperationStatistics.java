@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.runtime;
+
+/**
+ * Statistics of the safepoints and operations run by the {@linkplain VmOperationThread VM operation thread}.
+ * Each operation run at a safepoint is recorded in a ring buffer of the most recent {@link #HISTORY_LENGTH}
+ * operations, together with the time taken to reach the safepoint, the duration of the pause and the number of
+ * threads frozen. Operations {@linkplain VmOperation#isCoalescable() coalesced} into one safepoint share its record
+ * number, time to safepoint, pause and thread count. Nested operations are accounted to their enclosing operation.
+ * <p>
+ * The statistics are updated without allocation by the VM operation thread, or by a thread executing a
+ * {@link Handshake}, always with the {@linkplain com.sun.max.vm.thread.VmThreadMap#THREAD_LOCK thread lock} held.
+ * They are read by other threads without synchronization, so a reader may see a record that is being overwritten.
+ * The statistics are available through {@link com.sun.max.vm.management.RuntimeManagement#getSafepointStatisticsMXBean()}.
+ */
+public final class VmOperationStatistics {
+
+    /**
+     * The number of operations kept in the ring buffer.
+     */
+    public static final int HISTORY_LENGTH = 256;
+
+    private static final String[] names = new String[HISTORY_LENGTH];
+    private static final long[] safepointNumbers = new long[HISTORY_LENGTH];
+    private static final int[] threadCounts = new int[HISTORY_LENGTH];
+    private static final long[] timesToSafepoint = new long[HISTORY_LENGTH];
+    private static final long[] pauseTimes = new long[HISTORY_LENGTH];
+    private static final long[] operationTimes = new long[HISTORY_LENGTH];
+
+    private static long safepoints;
+    private static long operations;
+    private static long coalescedOperations;
+    private static long totalTimeToSafepoint;
+    private static long maxTimeToSafepoint;
+    private static long totalPauseTime;
+    private static long maxPauseTime;
+
+    /**
+     * The value of {@link #operations} when the current safepoint was reached.
+     */
+    private static long firstOperation;
+    private static int currentThreadCount;
+    private static long currentTimeToSafepoint;
+
+    private VmOperationStatistics() {
+    }
+
+    /**
+     * Records that all threads targeted by an operation have been frozen.
+     *
+     * @param threadCount the number of threads frozen
+     * @param timeToSafepoint the nanoseconds taken to freeze them
+     */
+    static void beginSafepoint(int threadCount, long timeToSafepoint) {
+        safepoints++;
+        firstOperation = operations;
+        currentThreadCount = threadCount;
+        currentTimeToSafepoint = timeToSafepoint;
+        totalTimeToSafepoint += timeToSafepoint;
+        if (timeToSafepoint > maxTimeToSafepoint) {
+            maxTimeToSafepoint = timeToSafepoint;
+        }
+    }
+
+    /**
+     * Records an operation run at the current safepoint.
+     *
+     * @param name the name of the operation
+     * @param operationTime the nanoseconds taken by the operation
+     */
+    static void recordOperation(String name, long operationTime) {
+        final int index = (int) (operations % HISTORY_LENGTH);
+        names[index] = name;
+        safepointNumbers[index] = safepoints;
+        threadCounts[index] = currentThreadCount;
+        timesToSafepoint[index] = currentTimeToSafepoint;
+        pauseTimes[index] = 0;
+        operationTimes[index] = operationTime;
+        operations++;
+    }
+
+    /**
+     * Records that the threads frozen for the current safepoint have been thawed.
+     *
+     * @param pauseTime the nanoseconds from the start of freezing to the end of thawing
+     */
+    static void endSafepoint(long pauseTime) {
+        totalPauseTime += pauseTime;
+        if (pauseTime > maxPauseTime) {
+            maxPauseTime = pauseTime;
+        }
+        final long count = operations - firstOperation;
+        if (count > 1) {
+            coalescedOperations += count - 1;
+        }
+        for (long i = Math.max(firstOperation, operations - HISTORY_LENGTH); i < operations; i++) {
+            pauseTimes[(int) (i % HISTORY_LENGTH)] = pauseTime;
+        }
+    }
+
+    /**
+     * Gets the number of safepoints reached by the VM operation thread.
+     */
+    public static long safepoints() {
+        return safepoints;
+    }
+
+    /**
+     * Gets the number of operations run at a safepoint.
+     */
+    public static long operations() {
+        return operations;
+    }
+
+    /**
+     * Gets the number of operations that were run at a safepoint reached for an earlier operation.
+     */
+    public static long coalescedOperations() {
+        return coalescedOperations;
+    }
+
+    /**
+     * Gets the total nanoseconds taken to reach safepoints.
+     */
+    public static long totalTimeToSafepoint() {
+        return totalTimeToSafepoint;
+    }
+
+    /**
+     * Gets the longest time in nanoseconds taken to reach a safepoint.
+     */
+    public static long maxTimeToSafepoint() {
+        return maxTimeToSafepoint;
+    }
+
+    /**
+     * Gets the total nanoseconds that threads were frozen at safepoints.
+     */
+    public static long totalPauseTime() {
+        return totalPauseTime;
+    }
+
+    /**
+     * Gets the longest time in nanoseconds that threads were frozen at a safepoint.
+     */
+    public static long maxPauseTime() {
+        return maxPauseTime;
+    }
+
+    /**
+     * Describes the operations in the ring buffer, oldest first. Times are in microseconds.
+     */
+    public static String[] recentOperations() {
+        final long end = operations;
+        final long start = Math.max(0, end - HISTORY_LENGTH);
+        final String[] result = new String[(int) (end - start)];
+        for (long i = start; i < end; i++) {
+            final int index = (int) (i % HISTORY_LENGTH);
+            result[(int) (i - start)] = "safepoint " + safepointNumbers[index] + ": " + names[index] +
+                " threads=" + threadCounts[index] +
+                " timeToSafepoint=" + timesToSafepoint[index] / 1000 +
+                " pause=" + pauseTimes[index] / 1000 +
+                " operation=" + operationTimes[index] / 1000;
+        }
+        return result;
+    }
+}
@@ -59,6 +59,12 @@ public class VmOperationThread extends Thread implements UncaughtExceptionHandle
 
     static boolean TraceVmOperations;
     static boolean TraceRequestLock;
+    static boolean CoalesceVmOperations = true;
+
+    /**
+     * The most operations that are {@linkplain VmOperation#isCoalescable() coalesced} into one safepoint.
+     */
+    private static final int MAX_COALESCED_OPERATIONS = 32;
 
     public static VmOperationThread instance() {
         return (VmOperationThread) VmThread.vmOperationThread.javaThread();
@@ -67,12 +73,15 @@ public class VmOperationThread extends Thread implements UncaughtExceptionHandle
     static {
         VMOptions.addFieldOption("-XX:", "TraceVmOperations", VmOperationThread.class, "Trace VM operations.");
         VMOptions.addFieldOption("-XX:", "TraceRequestLock", VmOperationThread.class, "Trace VM_OPERATION_REQUEST_LOCK.");
+        VMOptions.addFieldOption("-XX:", "CoalesceVmOperations", VmOperationThread.class,
+            "Run consecutive queued VM operations that allow it at a single safepoint.");
     }
 
     @HOSTED_ONLY
     public VmOperationThread(ThreadGroup group) {
         super(group, "VmOperationThread");
         queue = new VmOperationQueue();
+        coalescedOperations = new CoalescedOperations();
         setDaemon(true);
         setUncaughtExceptionHandler(this);
     }
@@ -107,6 +116,109 @@ public class VmOperationThread extends Thread implements UncaughtExceptionHandle
 
     private VmOperation currentOperation;
 
+    /**
+     * Runs a batch of {@linkplain VmOperation#isCoalescable() coalescable} operations at a single global safepoint.
+     * Operations nested in one of the batched operations are nested in the batch, which freezes all threads.
+     */
+    static final class CoalescedOperations extends VmOperation {
+        private final VmOperation[] operations = new VmOperation[MAX_COALESCED_OPERATIONS];
+        private int count;
+
+        CoalescedOperations() {
+            super("CoalescedOperations", null, Mode.Safepoint);
+        }
+
+        boolean isFull() {
+            return count == operations.length;
+        }
+
+        void add(VmOperation operation) {
+            if (count == 0) {
+                setCallingThread(operation.callingThread());
+            }
+            operations[count++] = operation;
+        }
+
+        @Override
+        void doItAndRecord(boolean recordStatistics) {
+            for (int i = 0; i < count; i++) {
+                final VmOperation operation = operations[i];
+                if (operation.targetsNonRunningThread()) {
+                    // The thread has terminated since the operation was submitted
+                    continue;
+                }
+                if (TraceVmOperations) {
+                    boolean lockDisabledSafepoints = Log.lock();
+                    Log.print("VM operation thread running coalesced operation ");
+                    Log.print(operation.name);
+                    Log.print(" submitted by ");
+                    Log.printThread(operation.callingThread(), true);
+                    Log.unlock(lockDisabledSafepoints);
+                }
+                operation.doItAndRecord(recordStatistics);
+            }
+        }
+
+        @Override
+        protected void doIt() {
+            doItAndRecord(false);
+        }
+
+        /**
+         * Notifies the submitters of the batched operations that are blocked on completion, and empties the batch.
+         */
+        void complete() {
+            for (int i = 0; i < count; i++) {
+                completed(operations[i]);
+                operations[i] = null;
+            }
+            count = 0;
+        }
+    }
+
+    private final CoalescedOperations coalescedOperations;
+
+    private static boolean canCoalesce(VmOperation operation) {
+        return operation != null && operation.isCoalescable() && operation.mode.requiresSafepoint() &&
+            !operation.disAllowsNestedOperations && !operation.disablesHeapAllocation();
+    }
+
+    /**
+     * Moves the consecutive coalescable operations at the head of the queue into the batch of
+     * {@link #coalescedOperations}, which then replaces {@link #currentOperation}.
+     * Must be called with {@link #QUEUE_LOCK} held.
+     */
+    private void coalesceOperations() {
+        if (CoalesceVmOperations && canCoalesce(currentOperation) && canCoalesce(queue.peek())) {
+            coalescedOperations.add(currentOperation);
+            while (!coalescedOperations.isFull() && canCoalesce(queue.peek())) {
+                coalescedOperations.add(queue.poll());
+            }
+            currentOperation = coalescedOperations;
+        }
+    }
+
+    /**
+     * Unblocks the thread that submitted an operation that has completed, if it is waiting.
+     */
+    private static void completed(VmOperation operation) {
+        if (operation.mode.isBlocking()) {
+            synchronized (REQUEST_LOCK) {
+                operation.callingThread().decrementPendingOperations();
+                if (TraceVmOperations || TraceRequestLock) {
+                    boolean lockDisabledSafepoints = Log.lock();
+                    Log.print("VM operation thread finished operation ");
+                    Log.print(operation.name);
+                    Log.print(" submitted by ");
+                    Log.printThread(operation.callingThread(), false);
+                    Log.println(" and is notifying REQUEST_LOCK waiters");
+                    Log.unlock(lockDisabledSafepoints);
+                }
+                REQUEST_LOCK.notifyAll();
+            }
+        }
+    }
+
     public void promoteToGlobalSafepoint() {
         if (VmThread.current().isVmOperationThread()) {
             if (currentOperation != null && currentOperation.requiresGlobalSafepoint()) {
@@ -153,6 +265,8 @@ public class VmOperationThread extends Thread implements UncaughtExceptionHandle
                 if (shouldTerminate) {
                     break;
                 }
+
+                coalesceOperations();
             }
 
             if (TraceVmOperations) {
@@ -175,20 +289,10 @@ public class VmOperationThread extends Thread implements UncaughtExceptionHandle
                     Heap.enableAllocationForCurrentThread();
                 }
 
-                if (currentOperation.mode.isBlocking()) {
-                    synchronized (REQUEST_LOCK) {
-                        currentOperation.callingThread().decrementPendingOperations();
-                        if (TraceVmOperations || TraceRequestLock) {
-                            boolean lockDisabledSafepoints = Log.lock();
-                            Log.print("VM operation thread finished operation ");
-                            Log.print(currentOperation.name);
-                            Log.print(" submitted by ");
-                            Log.printThread(currentOperation.callingThread(), false);
-                            Log.println(" and is notifying REQUEST_LOCK waiters");
-                            Log.unlock(lockDisabledSafepoints);
-                        }
-                        REQUEST_LOCK.notifyAll();
-                    }
+                if (currentOperation == coalescedOperations) {
+                    coalescedOperations.complete();
+                } else {
+                    completed(currentOperation);
                 }
                 currentOperation = null;
             }
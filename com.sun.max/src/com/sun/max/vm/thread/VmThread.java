@@ -218,6 +218,21 @@ public class VmThread {
         return vmThread;
     }
 
+    /**
+     * Creates a thread that assists the {@link VmOperationThread} with garbage collection work.
+     * GC worker threads are hidden like the VM operation thread and are never frozen by a {@link VmOperation}.
+     * Consequently, their stacks are not scanned for roots and must only ever hold references to boot image objects.
+     *
+     * @param javaThread an unstarted thread whose group is {@link #systemThreadGroup}
+     */
+    @HOSTED_ONLY
+    public static VmThread initGCWorkerThread(Thread javaThread) {
+        VmThread vmThread = initVmThread(javaThread);
+        vmThread.gcWorker = true;
+        WithoutAccessCheck.setInstanceField(javaThread, "group", null);
+        return vmThread;
+    }
+
     @HOSTED_ONLY
     static Thread copyProps(Thread src, Thread dst) {
         dst.setDaemon(src.isDaemon());
@@ -280,6 +295,22 @@ public class VmThread {
 
     public JavaMonitor protectedMonitor;
 
+    /**
+     * The head of this thread's cache of unbound monitors, linked through their next field. Only accessed by
+     * {@link JavaMonitorManager}.
+     */
+    public JavaMonitor monitorCache;
+
+    /**
+     * The number of monitors in {@link #monitorCache}.
+     */
+    public int monitorCacheSize;
+
+    /**
+     * The number of monitors this thread has bound to objects since the last garbage collection.
+     */
+    public int monitorBindCount;
+
     private ConditionVariable waitingCondition = ConditionVariableFactory.create();
 
     public final HeapScheme.GCRequest gcRequest = VMConfiguration.vmConfig().heapScheme().createThreadLocalGCRequest(this);
@@ -294,6 +325,12 @@ public class VmThread {
      */
     private boolean jvmtiAgent;
 
+    /**
+     * Marks this as a GC worker thread.
+     * @see #initGCWorkerThread(Thread)
+     */
+    private boolean gcWorker;
+
     /**
      * Holds the exception object for the exception currently being raised. This value will only be
      * non-null during the unwinding process between calls to {@link #storeExceptionForHandler(Throwable, TargetMethod, int)}
@@ -807,6 +844,7 @@ public class VmThread {
 
         // GC may now reclaim or prepare any of its resources before the thread vanishes forever.
         vmConfig().heapScheme().notifyCurrentThreadDetach();
+        JavaMonitorManager.notifyCurrentThreadDetach(thread);
 
         synchronized (VmThreadMap.THREAD_LOCK) {
             // It is the monitor scheme's responsibility to ensure that this thread isn't
@@ -1122,6 +1160,13 @@ public class VmThread {
         return vmOperationThread == this;
     }
 
+    /**
+     * Determines if this is one of the threads created by {@link #initGCWorkerThread(Thread)}.
+     */
+    public final boolean isGCWorkerThread() {
+        return gcWorker;
+    }
+
     public final boolean isJVMTIAgentThread() {
         return jvmtiAgent;
     }
@@ -1354,7 +1399,7 @@ public class VmThread {
      */
     public final void startVmSystemThread() {
         ThreadGroupAlias threadGroupAlias = ThreadGroupAlias.asThreadGroupAlias(systemThreadGroup);
-        if (this == vmOperationThread) {
+        if (this == vmOperationThread || gcWorker) {
             // hidden
             threadGroupAlias.nUnstartedThreads--;
         } else {
@@ -437,7 +437,7 @@ public final class VmThreadMap {
     /**
      * Gets a snapshot of the currently executing threads.
      * JVMTI agent threads can be included optionally.
-     * The VMOperation thread is never included.
+     * The VMOperation thread and the GC worker threads are never included.
      *
      *
      * @param includeJVMTIAgentThreads specifies whether {@linkplain VmThread#isJVMTIAgentThread() JVMTI agent threads}
@@ -449,7 +449,7 @@ public final class VmThreadMap {
         Pointer.Procedure proc = new Pointer.Procedure() {
             public void run(Pointer tla) {
                 VmThread vmThread = VmThread.fromTLA(tla);
-                if (vmThread.javaThread() != null && !vmThread.isVmOperationThread() && (includeJVMTIAgentThreads || !vmThread.isJVMTIAgentThread())) {
+                if (vmThread.javaThread() != null && !vmThread.isVmOperationThread() && !vmThread.isGCWorkerThread() && (includeJVMTIAgentThreads || !vmThread.isJVMTIAgentThread())) {
                     threads.add(vmThread.javaThread());
                 }
             }
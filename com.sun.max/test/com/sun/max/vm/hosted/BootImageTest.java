@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package com.sun.max.vm.hosted;
+
+import java.nio.*;
+
+import com.sun.max.ide.*;
+import com.sun.max.vm.heap.HeapScheme.BootRegionMappingConstraint;
+
+/**
+ * Tests that the build time {@linkplain BootImage#prelink prelinking} of a boot image agrees with the relocation
+ * done by the boot image loader in relocation.c.
+ */
+public class BootImageTest extends MaxTestCase {
+
+    private static final long PRELINKED_HEAP = 0x7f0000000000L;
+    private static final long PAGE = 4096L;
+
+    public BootImageTest(String name) {
+        super(name);
+    }
+
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(BootImageTest.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Prototype.loadHostedLibrary();
+    }
+
+    /**
+     * Words of a heap section followed by a code section. The odd words are pointers, except for the null pointer at
+     * index 3 that must not be relocated. The even words are data that must not be relocated either.
+     */
+    private static final long[] HEAP_WORDS = {0x10L, 0x20L, 0x7fL, 0L, 0x30L, 0x40L};
+    private static final long[] CODE_WORDS = {0x50L, 0x60L, 0x70L, 0x80L};
+
+    private static byte[] relocationData() {
+        final int numberOfWords = HEAP_WORDS.length + CODE_WORDS.length;
+        final byte[] relocationData = new byte[(numberOfWords + 7) / 8];
+        for (int i = 1; i < numberOfWords; i += 2) {
+            relocationData[i / 8] |= 1 << (i % 8);
+        }
+        return relocationData;
+    }
+
+    private static ByteBuffer section(long[] words, int wordSize, ByteOrder byteOrder) {
+        final ByteBuffer buffer = ByteBuffer.allocate(words.length * wordSize).order(byteOrder);
+        for (long word : words) {
+            if (wordSize == 8) {
+                buffer.putLong(word);
+            } else {
+                buffer.putInt((int) word);
+            }
+        }
+        buffer.rewind();
+        return buffer;
+    }
+
+    private static long readWord(ByteBuffer buffer, int index, int wordSize) {
+        return wordSize == 8 ? buffer.getLong(index * wordSize) : buffer.getInt(index * wordSize) & 0xFFFFFFFFL;
+    }
+
+    private void checkPrelink(int wordSize, ByteOrder byteOrder, long prelinkedHeap) {
+        final byte[] relocationData = relocationData();
+        final ByteBuffer heap = section(HEAP_WORDS, wordSize, byteOrder);
+        final ByteBuffer code = section(CODE_WORDS, wordSize, byteOrder);
+        BootImage.prelink(heap, code, relocationData, wordSize, byteOrder, prelinkedHeap);
+
+        final int heapSize = heap.capacity();
+        final int size = heapSize + code.capacity();
+        final long address = WithoutAccessCheck.unsafe.allocateMemory(size);
+        try {
+            final byte[] nativeImage = new byte[size];
+            System.arraycopy(section(HEAP_WORDS, wordSize, byteOrder).array(), 0, nativeImage, 0, heapSize);
+            System.arraycopy(section(CODE_WORDS, wordSize, byteOrder).array(), 0, nativeImage, heapSize, code.capacity());
+            for (int i = 0; i < size; i++) {
+                WithoutAccessCheck.unsafe.putByte(address + i, nativeImage[i]);
+            }
+            BootImage.nativeRelocate(address, prelinkedHeap, relocationData, relocationData.length, byteOrder == ByteOrder.BIG_ENDIAN ? 0xffffffff : 0, wordSize);
+            for (int i = 0; i < size; i++) {
+                nativeImage[i] = WithoutAccessCheck.unsafe.getByte(address + i);
+            }
+            assertTrue(ByteBuffer.wrap(nativeImage, 0, heapSize).slice().equals(heap));
+            assertTrue(ByteBuffer.wrap(nativeImage, heapSize, code.capacity()).slice().equals(code));
+        } finally {
+            WithoutAccessCheck.unsafe.freeMemory(address);
+        }
+
+        final long mask = wordSize == 8 ? -1L : 0xFFFFFFFFL;
+        assertTrue(readWord(heap, 0, wordSize) == HEAP_WORDS[0]);
+        assertTrue(readWord(heap, 1, wordSize) == ((HEAP_WORDS[1] + prelinkedHeap) & mask));
+        assertTrue(readWord(heap, 3, wordSize) == 0L);
+        assertTrue(readWord(code, 1, wordSize) == ((CODE_WORDS[1] + prelinkedHeap) & mask));
+        assertTrue(readWord(code, 2, wordSize) == CODE_WORDS[2]);
+    }
+
+    public void test_prelink64() {
+        checkPrelink(8, ByteOrder.LITTLE_ENDIAN, PRELINKED_HEAP);
+        checkPrelink(8, ByteOrder.BIG_ENDIAN, PRELINKED_HEAP);
+    }
+
+    public void test_prelink32() {
+        checkPrelink(4, ByteOrder.LITTLE_ENDIAN, 0x40000000L);
+        checkPrelink(4, ByteOrder.BIG_ENDIAN, 0x40000000L);
+    }
+
+    public void test_preferredVirtualSpace() {
+        final long heapAndCodeSize = 16 * PAGE;
+        final long virtualSpaceSize = 1024 * PAGE;
+        final int atStart = BootRegionMappingConstraint.AT_START.ordinal();
+        final int atEnd = BootRegionMappingConstraint.AT_END.ordinal();
+        final int anywhere = BootRegionMappingConstraint.ANYWHERE.ordinal();
+
+        // The loader maps the boot heap region at the start of the reserved space
+        assertTrue(BootImage.nativePreferredVirtualSpace(PRELINKED_HEAP, atStart, heapAndCodeSize, virtualSpaceSize) == PRELINKED_HEAP);
+
+        // The loader maps the boot heap region at the end of the reserved space
+        final long atEndSpace = BootImage.nativePreferredVirtualSpace(PRELINKED_HEAP, atEnd, heapAndCodeSize, virtualSpaceSize);
+        assertTrue(atEndSpace + virtualSpaceSize - heapAndCodeSize == PRELINKED_HEAP);
+
+        // The reserved space would have to start below address 0
+        assertTrue(BootImage.nativePreferredVirtualSpace(PAGE, atEnd, heapAndCodeSize, virtualSpaceSize) == 0L);
+
+        // The boot heap region is mapped outside of the reserved space, or the image is not prelinked
+        assertTrue(BootImage.nativePreferredVirtualSpace(PRELINKED_HEAP, anywhere, heapAndCodeSize, virtualSpaceSize) == 0L);
+        assertTrue(BootImage.nativePreferredVirtualSpace(0L, atStart, heapAndCodeSize, virtualSpaceSize) == 0L);
+        assertTrue(BootImage.nativePreferredVirtualSpace(0L, atEnd, heapAndCodeSize, virtualSpaceSize) == 0L);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.jdk;
+
+import java.util.*;
+
+/*
+ * Tests comparing primitive arrays that differ in a single element, or not at all for a negative argument.
+ * @Harness: java
+ * @Runs: -1 = true; 0 = false; 7 = false; 15 = false; 16 = false; 33 = false; 34 = false
+ */
+public class Arrays_equals01 {
+
+    private static final int SIZE = 35;
+
+    public static boolean test(int diff) {
+        byte[] b1 = new byte[SIZE];
+        char[] c1 = new char[SIZE];
+        int[] i1 = new int[SIZE];
+        long[] l1 = new long[SIZE];
+        for (int k = 0; k < SIZE; k++) {
+            b1[k] = (byte) k;
+            c1[k] = (char) (k * 1000);
+            i1[k] = k * 100000;
+            l1[k] = k * 10000000000L;
+        }
+        byte[] b2 = b1.clone();
+        char[] c2 = c1.clone();
+        int[] i2 = i1.clone();
+        long[] l2 = l1.clone();
+        if (diff >= 0) {
+            b2[diff]++;
+            c2[diff]++;
+            i2[diff]++;
+            l2[diff]++;
+        }
+        boolean b = Arrays.equals(b1, b2);
+        if (b != Arrays.equals(c1, c2) || b != Arrays.equals(i1, i2) || b != Arrays.equals(l1, l2)) {
+            throw new IllegalStateException();
+        }
+        return b;
+    }
+}
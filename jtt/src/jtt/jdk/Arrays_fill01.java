@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.jdk;
+
+import java.util.*;
+
+/*
+ * Tests filling ranges of primitive arrays of each element size.
+ * @Harness: java
+ * @Runs: 0 = true; 1 = true; 9 = true; 16 = true; 31 = true
+ * @Runs: -1 = !java.lang.IllegalArgumentException; 41 = !java.lang.ArrayIndexOutOfBoundsException
+ */
+public class Arrays_fill01 {
+
+    private static final int SIZE = 40;
+
+    public static boolean test(int length) {
+        final int from = 3;
+        final int to = from + length;
+        byte[] b = new byte[SIZE];
+        short[] s = new short[SIZE];
+        int[] i = new int[SIZE];
+        long[] l = new long[SIZE];
+        float[] f = new float[SIZE];
+        boolean[] z = new boolean[SIZE];
+        Arrays.fill(b, from, to, (byte) -7);
+        Arrays.fill(s, from, to, (short) -7);
+        Arrays.fill(i, from, to, -7);
+        Arrays.fill(l, from, to, -7L);
+        Arrays.fill(f, from, to, -7f);
+        Arrays.fill(z, from, to, true);
+        for (int k = 0; k < SIZE; k++) {
+            boolean inRange = k >= from && k < to;
+            int expected = inRange ? -7 : 0;
+            if (b[k] != expected || s[k] != expected || i[k] != expected || l[k] != expected || f[k] != expected || z[k] != inRange) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
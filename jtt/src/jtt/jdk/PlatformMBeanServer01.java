@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.jdk;
+
+import java.lang.management.*;
+
+import javax.management.*;
+
+/*
+ * Tests that the Maxine specific management beans are registered with the platform MBean server.
+ * @Harness: java
+ * @Runs: 0 = true; 1 = true; 2 = true; 3 = true; 4 = true
+ */
+public class PlatformMBeanServer01 {
+
+    private static final String[] NAMES = {
+        "com.sun.max.vm:type=CompilationThreadPool",
+        "com.sun.max.vm:type=TLABStatistics",
+        "com.sun.max.vm:type=CompilationStatistics",
+        "com.sun.max.vm:type=MonitorStatistics",
+        "com.sun.max.vm:type=SafepointStatistics"
+    };
+
+    public static boolean test(int i) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(NAMES[i]);
+        return server.isRegistered(name) && server.getMBeanInfo(name).getAttributes().length > 0;
+    }
+
+}
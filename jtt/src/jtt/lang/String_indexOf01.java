@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.lang;
+
+/*
+ * Tests searching strings for characters, supplementary code points and substrings.
+ * @Harness: java
+ * @Runs: 0 = 42; 1 = -1; 2 = 20; 3 = 41; 4 = -1; 5 = 6; 6 = 5; 7 = -1; 8 = 44; 9 = 1
+ */
+public class String_indexOf01 {
+
+    private static final String TEXT = "the quick brown fox jumps over the lazy dog \uD801\uDC00!";
+
+    public static int test(int i) {
+        switch (i) {
+            case 0:
+                return TEXT.indexOf('g');
+            case 1:
+                return TEXT.indexOf('Z');
+            case 2:
+                return TEXT.indexOf("jumps");
+            case 3:
+                return TEXT.indexOf('o', 30);
+            case 4:
+                return TEXT.indexOf("dogs");
+            case 5:
+                return "abcabcabd".indexOf("abd", 1);
+            case 6:
+                return TEXT.indexOf("", 5);
+            case 7:
+                return TEXT.indexOf(-1);
+            case 8:
+                return TEXT.indexOf(0x10400);
+            default:
+                return TEXT.equals(new String(TEXT.toCharArray())) && !TEXT.equals(TEXT.substring(1)) ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.loop;
+
+/*
+ * Tests on-stack replacement of a long running loop with live locals of every kind.
+ * @Harness: java
+ * @Runs: 0 = 1; 10 = 80; 100000 = 1285003
+ */
+public class LoopOSR01 {
+
+    public static int test(int n) {
+        long sum = 0L;
+        double avg = 0.0d;
+        float f = 1.5f;
+        String tag = "osr";
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            sum += i;
+            avg = sum / (double) (i + 1);
+            count += tag.length();
+        }
+        return (int) (sum % 1000003) + count + (int) avg + (int) f;
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.loop;
+
+/*
+ * Tests on-stack replacement at the header of an inner loop, in a method with parameters.
+ * @Harness: java
+ * @Runs: 0 = 7; 10 = 113061; 100000 = 1274846439
+ */
+public class LoopOSR02 {
+
+    public static int test(int n) {
+        int before = 7;
+        int result = nested(n, 3L, "ab");
+        return result + before;
+    }
+
+    private static int nested(int n, long factor, Object o) {
+        int result = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 100; j++) {
+                result += (int) ((i ^ j) * factor) & 0xff;
+            }
+            result += o.hashCode() & 1;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.max;
+
+import com.sun.max.unsafe.*;
+import com.sun.max.vm.heap.*;
+
+/*
+ * Tests the TLAB sizes chosen by the adaptive refill policy with the default -XX:MinTLABSize, -XX:MaxTLABSize
+ * and -XX:TLABRefillsPerGC: an idle thread shrinks to the minimum, a thread refilling as often as targeted
+ * keeps its size, and a thread refilling four times as often grows up to the maximum.
+ * @Harness: java
+ * @Runs: 0 = 2048; 1 = 16384; 2 = 1048576
+ */
+public class AdaptiveTLABRefill01 {
+
+    private static final int TARGET_REFILLS = 50;
+
+    private static final int[] REFILLS_PER_GC = {0, TARGET_REFILLS, 4 * TARGET_REFILLS};
+
+    public static long test(int load) {
+        AdaptiveTLABRefillPolicy policy = new AdaptiveTLABRefillPolicy(Size.K.times(16));
+        for (int gc = 0; gc < 20; gc++) {
+            for (int i = 0; i < REFILLS_PER_GC[load]; i++) {
+                policy.notifyRefill(policy.nextTlabSize(), Size.zero());
+            }
+            policy.notifyReset();
+        }
+        return policy.nextTlabSize().toLong();
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.max;
+
+import com.sun.max.vm.object.*;
+
+/*
+ * Tests that the vector and element loops of a byte search agree for a value outside the byte range: both
+ * compare against the value truncated to a byte. The array is 40 bytes long, so the first 32 bytes are
+ * searched a vector at a time and the last 8 an element at a time.
+ * @Harness: java
+ * @Runs: -1 = -1; 0 = 0; 3 = 3; 20 = 20; 31 = 31; 32 = 32; 39 = 39
+ */
+public class BulkArrayAccess_indexOf01 {
+
+    private static final int VALUE = 0x1C1;
+
+    public static int test(int index) {
+        byte[] array = new byte[40];
+        if (index >= 0) {
+            array[index] = (byte) VALUE;
+        }
+        return BulkArrayAccess.indexOf(BulkArrayAccess.LOG2_BYTE, array, 0, array.length, VALUE);
+    }
+
+}
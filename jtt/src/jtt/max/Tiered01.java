@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.max;
+
+import com.sun.max.annotate.*;
+import com.sun.max.vm.actor.member.*;
+import com.sun.max.vm.compiler.*;
+import com.sun.max.vm.profile.*;
+
+/*
+ * Tests the tiers of a hot method when run with -XX:+TieredCompilation (see the jtt-tiered tester configuration):
+ * 0) its optimized code counts its invocations in the tier 1 counter,
+ * 1) it is promoted to tier 2 while it stays hot,
+ * 2) calls linked to its tier 1 code reach the tier 2 code, so the tier 1 counter no longer changes,
+ * 3) the tier 1 counter of a method that cools down decays.
+ * Without tiered compilation all cases pass trivially.
+ * @Harness: java
+ * @Runs: 0 = true; 1 = true; 2 = true; 3 = true
+ */
+public class Tiered01 {
+
+    private static final long TIMEOUT = 20000;
+
+    /**
+     * Longer than the default {@code -XX:TierDecayHalfLife}.
+     */
+    private static final long DECAY_WAIT = 3000;
+
+    public static boolean test(int arg) throws Exception {
+        if (!TieredCompilation.isEnabled()) {
+            return true;
+        }
+        switch (arg) {
+            case 0: {
+                ClassMethodActor hot = actor("hot");
+                if (!warmUp("hot", 1, 10000) || TieredCompilation.tierOf(hot) == 2) {
+                    // Never optimized, or promoted before its counter could be observed
+                    return TieredCompilation.tierOf(hot) == 2;
+                }
+                run("hot", 10000);
+                return hot.baselineProfile().tier1Count > 0;
+            }
+            case 1:
+                return warmUp("hot", 2, 50000);
+            case 2: {
+                ClassMethodActor hot = actor("hot");
+                if (!warmUp("hot", 2, 50000)) {
+                    return false;
+                }
+                MethodProfile mpo = hot.baselineProfile();
+                int tier1Count = mpo.tier1Count;
+                run("hot", 50000);
+                return mpo.tier1Count == tier1Count;
+            }
+            case 3: {
+                ClassMethodActor cool = actor("cool");
+                // Small batches so that the method is not promoted before it cools down
+                if (!warmUp("cool", 1, 100) || TieredCompilation.tierOf(cool) != 1) {
+                    return false;
+                }
+                run("cool", 1000);
+                MethodProfile mpo = cool.baselineProfile();
+                int tier1Count = mpo.tier1Count;
+                Thread.sleep(DECAY_WAIT);
+                return mpo.tier1Count < tier1Count;
+            }
+        }
+        return false;
+    }
+
+    private static ClassMethodActor actor(String name) throws Exception {
+        return ClassMethodActor.fromJava(Tiered01.class.getDeclaredMethod(name, int.class));
+    }
+
+    /**
+     * Calls a method in batches until it reaches a given tier.
+     *
+     * @return {@code false} if the tier was not reached within {@link #TIMEOUT}
+     */
+    private static boolean warmUp(String name, int tier, int batch) throws Exception {
+        ClassMethodActor cma = actor(name);
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (TieredCompilation.tierOf(cma) < tier) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            run(name, batch);
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    private static int run(String name, int count) {
+        int sum = 0;
+        if (name.equals("hot")) {
+            for (int i = 0; i < count; i++) {
+                sum += hot(i);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                sum += cool(i);
+            }
+        }
+        return sum;
+    }
+
+    @NEVER_INLINE
+    private static int hot(int i) {
+        return i & 0xff;
+    }
+
+    @NEVER_INLINE
+    private static int cool(int i) {
+        return i & 0x7f;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.optimize;
+
+/*
+ * Tests overlapping and disjoint copies of primitive arrays of each element size, with lengths either side of the
+ * vector size so that both the vector loop and the tail of the bulk copy are exercised.
+ * @Harness: java
+ * @Runs: 0 = true; 1 = true; 7 = true; 16 = true; 17 = true; 40 = true
+ */
+public class ArrayCopy02 {
+
+    private static final int SIZE = 48;
+
+    public static boolean test(int length) {
+        return check(length, 0, 3) && check(length, 3, 0) && check(length, 5, 5) && checkDisjoint(length);
+    }
+
+    private static boolean check(int length, int from, int to) {
+        byte[] b = new byte[SIZE];
+        char[] c = new char[SIZE];
+        int[] i = new int[SIZE];
+        long[] l = new long[SIZE];
+        long[] expected = new long[SIZE];
+        for (int k = 0; k < SIZE; k++) {
+            b[k] = (byte) (k + 1);
+            c[k] = (char) (k + 1);
+            i[k] = k + 1;
+            l[k] = k + 1;
+            expected[k] = k + 1;
+        }
+        long[] tmp = new long[length];
+        for (int k = 0; k < length; k++) {
+            tmp[k] = expected[from + k];
+        }
+        for (int k = 0; k < length; k++) {
+            expected[to + k] = tmp[k];
+        }
+        System.arraycopy(b, from, b, to, length);
+        System.arraycopy(c, from, c, to, length);
+        System.arraycopy(i, from, i, to, length);
+        System.arraycopy(l, from, l, to, length);
+        for (int k = 0; k < SIZE; k++) {
+            if (b[k] != expected[k] || c[k] != expected[k] || i[k] != expected[k] || l[k] != expected[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean checkDisjoint(int length) {
+        double[] src = new double[SIZE];
+        double[] dst = new double[SIZE];
+        for (int k = 0; k < SIZE; k++) {
+            src[k] = k + 0.5;
+        }
+        System.arraycopy(src, 1, dst, 2, length);
+        for (int k = 0; k < SIZE; k++) {
+            double expected = k >= 2 && k < length + 2 ? k - 1 + 0.5 : 0;
+            if (dst[k] != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.optimize;
+
+/*
+ * Tests a conditional branch that the profile shows is never taken, then takes it so that the branch guard
+ * fails, possibly often enough for the method to be recompiled without it.
+ * @Harness: java
+ * @Runs: 0 = 80000; 1 = 80003; 10 = 80030
+ */
+public class Profile_BranchGuard01 {
+
+    public static int test(int misses) {
+        int result = 0;
+        for (int i = 0; i < 20000; i++) {
+            result += select(2);
+        }
+        for (int i = 0; i < misses; i++) {
+            result += select(-1);
+        }
+        for (int i = 0; i < 20000; i++) {
+            result += select(2);
+        }
+        return result;
+    }
+
+    private static int select(int x) {
+        if (x < 0) {
+            return -x * 3;
+        }
+        return x;
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package jtt.optimize;
+
+/*
+ * Tests a virtual call whose receiver type profile is monomorphic, then makes it with another receiver type
+ * so that the type guard fails, possibly often enough for the caller to be recompiled without it.
+ * @Harness: java
+ * @Runs: 0 = 360000; 1 = 360010; 10 = 360100
+ */
+public class Profile_TypeGuard01 {
+
+    abstract static class Shape {
+        abstract int area();
+    }
+
+    static final class Square extends Shape {
+        final int side;
+
+        Square(int side) {
+            this.side = side;
+        }
+
+        @Override
+        int area() {
+            return side * side;
+        }
+    }
+
+    static final class Rectangle extends Shape {
+        final int width;
+        final int height;
+
+        Rectangle(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        int area() {
+            return width * height;
+        }
+    }
+
+    public static int test(int misses) {
+        Shape square = new Square(3);
+        Shape rectangle = new Rectangle(2, 5);
+        int result = 0;
+        for (int i = 0; i < 20000; i++) {
+            result += area(square);
+        }
+        for (int i = 0; i < misses; i++) {
+            result += area(rectangle);
+        }
+        for (int i = 0; i < 20000; i++) {
+            result += area(square);
+        }
+        return result;
+    }
+
+    private static int area(Shape shape) {
+        return shape.area();
+    }
+
+}
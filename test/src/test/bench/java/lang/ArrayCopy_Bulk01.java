@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import test.bench.util.*;
+
+/**
+ * Measures {@link System#arraycopy} of a 4K byte array, which the optimizing compiler copies a vector at a time.
+ * {@link ArrayCopy_Bulk02} copies the same array an element at a time and provides the baseline.
+ */
+public class ArrayCopy_Bulk01 extends RunBench {
+
+    static final int LENGTH = 4096;
+
+    protected ArrayCopy_Bulk01() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new ArrayCopy_Bulk01().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+        protected final byte[] src = new byte[LENGTH];
+        protected final byte[] dst = new byte[LENGTH];
+
+        @Override
+        public long run() {
+            System.arraycopy(src, 0, dst, 0, LENGTH);
+            return defaultResult;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(ArrayCopy_Bulk01.class, args);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import test.bench.util.*;
+
+/**
+ * The element at a time baseline for {@link ArrayIndexOf_Bulk01}.
+ */
+public class ArrayIndexOf_Bulk02 extends RunBench {
+
+    protected ArrayIndexOf_Bulk02() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new ArrayIndexOf_Bulk02().runBench();
+    }
+
+    static class Bench extends ArrayIndexOf_Bulk01.Bench {
+        @Override
+        public long run() {
+            for (int i = 0; i < ArrayIndexOf_Bulk01.LENGTH; i++) {
+                if (array[i] == 1) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(ArrayIndexOf_Bulk02.class, args);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import test.bench.util.*;
+
+/**
+ * Measures {@link String#indexOf(String)} of a word near the end of a 4K character string, which searches for the
+ * first character of the word a vector at a time. {@link String_indexOf02} searches an element at a time and
+ * provides the baseline.
+ */
+public class String_indexOf01 extends RunBench {
+
+    static final String TEXT = createText();
+    static final String WORD = "needle";
+
+    protected String_indexOf01() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new String_indexOf01().runBench();
+    }
+
+    private static String createText() {
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < 4096) {
+            sb.append("the quick brown fox jumps over the lazy dog ");
+        }
+        return sb.append(WORD).toString();
+    }
+
+    static class Bench extends MicroBenchmark {
+        @Override
+        public long run() {
+            return indexOf(TEXT, WORD);
+        }
+
+        protected int indexOf(String text, String word) {
+            return text.indexOf(word);
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(String_indexOf01.class, args);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import test.bench.util.*;
+
+/**
+ * The element at a time baseline for {@link String_indexOf01}.
+ */
+public class String_indexOf02 extends RunBench {
+
+    protected String_indexOf02() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new String_indexOf02().runBench();
+    }
+
+    static class Bench extends String_indexOf01.Bench {
+        @Override
+        protected int indexOf(String text, String word) {
+            final int max = text.length() - word.length();
+            for (int i = 0; i <= max; i++) {
+                int j = 0;
+                while (j < word.length() && text.charAt(i + j) == word.charAt(j)) {
+                    j++;
+                }
+                if (j == word.length()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(String_indexOf02.class, args);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import test.bench.util.*;
+
+/**
+ * This benchmark is intended to be run in multi-threaded mode. It measures the time taken by
+ * {@link String#intern()} when all threads intern strings from a shared pool, which exercises the
+ * lookup and insertion paths of the VM's symbol table under contention.
+ *
+ * {@link String_intern02} performs the same work through a copy of the previous, single lock symbol table,
+ * and provides the baseline against which the scaling of this benchmark should be compared.
+ */
+public class String_intern01 extends RunBench {
+
+    static final int POOL_SIZE = 4096;
+
+    protected String_intern01() {
+        super(new Bench(), new EncapBench());
+    }
+
+    public static boolean test(int i) {
+        return new String_intern01().runBench();
+    }
+
+    /**
+     * Creates strings that are equal to, but not identical with, interned strings.
+     */
+    static String[] createPool(String prefix) {
+        final String[] pool = new String[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = new String((prefix + i).toCharArray());
+        }
+        return pool;
+    }
+
+    static class Bench extends MicroBenchmark {
+        protected final String[] pool = createPool("String_intern01.symbol");
+
+        @Override
+        public long run() {
+            final long count = RunBench.runIterCount() / RunBench.threadCount();
+            final int start = (int) (Thread.currentThread().getId() % POOL_SIZE);
+            long result = 0;
+            for (long i = 0; i < count; i++) {
+                result += intern(pool[(int) ((start + i) % POOL_SIZE)]).length();
+            }
+            return result;
+        }
+
+        protected String intern(String s) {
+            return s.intern();
+        }
+    }
+
+    static class EncapBench extends Bench {
+        @Override
+        protected String intern(String s) {
+            return s;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(String_intern01.class, args);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.lang;
+
+import com.sun.max.collect.*;
+
+import test.bench.util.*;
+
+/**
+ * The baseline for {@link String_intern01}: the strings are interned in a copy of the symbol table as it was
+ * before it was segmented, a single {@link ChainingValueChainedHashMapping} guarded by one global lock. On an SMP
+ * the time taken by {@link String_intern01} should scale better with the number of threads than this one.
+ */
+public class String_intern02 extends RunBench {
+
+    protected String_intern02() {
+        super(new Bench(), new String_intern01.EncapBench());
+    }
+
+    public static boolean test(int i) {
+        return new String_intern02().runBench();
+    }
+
+    static class Bench extends String_intern01.Bench {
+        @Override
+        protected String intern(String s) {
+            return SingleLockSymbolTable.intern(s);
+        }
+    }
+
+    /**
+     * The lookup and insertion path of the unsegmented symbol table.
+     */
+    static final class SingleLockSymbolTable {
+
+        static final class Entry implements ChainedHashMapping.Entry<String, Entry> {
+            private final String value;
+            private ChainedHashMapping.Entry<String, Entry> next;
+
+            Entry(String value) {
+                this.value = value;
+            }
+
+            public String key() {
+                return value;
+            }
+
+            public ChainedHashMapping.Entry<String, Entry> next() {
+                return next;
+            }
+
+            public void setNext(ChainedHashMapping.Entry<String, Entry> next) {
+                this.next = next;
+            }
+
+            public void setValue(Entry value) {
+                assert value == this;
+            }
+
+            public Entry value() {
+                return this;
+            }
+        }
+
+        private static final ChainingValueChainedHashMapping<String, Entry> symbolTable = new ChainingValueChainedHashMapping<String, Entry>(40000);
+
+        static synchronized Entry makeSymbol(String value) {
+            Entry entry = symbolTable.get(value);
+            if (entry == null) {
+                entry = new Entry(value);
+                symbolTable.put(value, entry);
+            }
+            return entry;
+        }
+
+        static String intern(String value) {
+            return makeSymbol(value).key();
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(String_intern02.class, args);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.util;
+
+import java.util.*;
+
+import test.bench.util.*;
+
+/**
+ * Measures {@link Arrays#fill(int[], int)} of a 1K element array, which the optimizing compiler fills a vector at
+ * a time. {@link Arrays_fill02} fills the same array an element at a time and provides the baseline.
+ */
+public class Arrays_fill01 extends RunBench {
+
+    static final int LENGTH = 1024;
+
+    protected Arrays_fill01() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new Arrays_fill01().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+        protected final int[] array = new int[LENGTH];
+
+        @Override
+        public long run() {
+            Arrays.fill(array, 42);
+            return defaultResult;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(Arrays_fill01.class, args);
+    }
+}
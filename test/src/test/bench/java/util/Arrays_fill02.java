@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.java.util;
+
+import test.bench.util.*;
+
+/**
+ * The element at a time baseline for {@link Arrays_fill01}.
+ */
+public class Arrays_fill02 extends RunBench {
+
+    protected Arrays_fill02() {
+        super(new Bench());
+    }
+
+    public static boolean test(int i) {
+        return new Arrays_fill02().runBench();
+    }
+
+    static class Bench extends Arrays_fill01.Bench {
+        @Override
+        public long run() {
+            for (int i = 0; i < Arrays_fill01.LENGTH; i++) {
+                array[i] = 42;
+            }
+            return defaultResult;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(Arrays_fill02.class, args);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.threads;
+
+import test.bench.util.*;
+
+/**
+ * This benchmark is intended to be run in multi-threaded mode. All threads enter a single shared
+ * monitor around a very short critical section, so the monitor is inflated by the first contention
+ * and contending threads spin briefly rather than blocking on the monitor's mutex.
+ *
+ * {@link Monitor_enter03} uses a critical section long enough that spinning does not pay off.
+ * Running both with {@code -XX:MonitorSpinLimit=0} shows the effect of adaptive spinning.
+ */
+public class Monitor_enter02 extends RunBench {
+    static final Object LOCK = new Object();
+    static int count;
+
+    protected Monitor_enter02() {
+        super(new Bench(), new Monitor_enter01.EncapBench());
+    }
+
+    public static boolean test(int i) {
+        return new Monitor_enter02().runBench();
+    }
+
+    static class Bench extends MicroBenchmark {
+
+        @Override
+        public long run() {
+            synchronized (LOCK) {
+                count++;
+            }
+            return defaultResult;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(Monitor_enter02.class, args);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.threads;
+
+import test.bench.util.*;
+
+/**
+ * A variant of {@link Monitor_enter02} where the shared monitor is held for a few microseconds. The
+ * spin budget of the monitor should shrink quickly, so that contending threads block instead of
+ * wasting the processors the owner needs. Its time should not regress with spinning enabled.
+ */
+public class Monitor_enter03 extends RunBench {
+    static final Object LOCK = new Object();
+    static final int WORK = 2000;
+    static int count;
+
+    protected Monitor_enter03() {
+        super(new Bench(), new EncapBench());
+    }
+
+    public static boolean test(int i) {
+        return new Monitor_enter03().runBench();
+    }
+
+    static int work() {
+        int result = count;
+        for (int i = 0; i < WORK; i++) {
+            result = result * 31 + i;
+        }
+        return result;
+    }
+
+    static class Bench extends MicroBenchmark {
+
+        @Override
+        public long run() {
+            synchronized (LOCK) {
+                count = work();
+            }
+            return defaultResult;
+        }
+    }
+
+    static class EncapBench extends MicroBenchmark {
+        @Override
+        public long run() {
+            count = work();
+            return defaultResult;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(Monitor_enter03.class, args);
+    }
+}
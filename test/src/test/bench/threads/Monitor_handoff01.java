@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, APT Group, School of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+/*
+ * @Harness: java
+ * @Runs: 0 = true
+ */
+package test.bench.threads;
+
+import java.util.concurrent.*;
+
+import test.bench.util.*;
+
+/**
+ * Producer/consumer benchmark for biased locking. The benchmark thread creates a batch of objects and locks each once,
+ * biasing them to itself, then hands the batch to a consumer thread that locks each object in turn. Every object the
+ * consumer locks is biased to another thread, which is the pattern that makes per-object revocation expensive.
+ * With the {@code epochbiased_thin_inflated} monitor scheme, the objects' class is rebiased in bulk once enough of its
+ * instances have been revoked, and biasing is disabled for it if revocations continue.
+ *
+ * The encapsulating benchmark performs the same hand-off without locking.
+ */
+public class Monitor_handoff01 extends RunBench {
+    static final int BATCH = 64;
+
+    protected Monitor_handoff01() {
+        super(new Bench(true), new Bench(false));
+    }
+
+    public static boolean test(int i) {
+        return new Monitor_handoff01().runBench();
+    }
+
+    static class Item {
+        int count;
+    }
+
+    static class Bench extends MicroBenchmark {
+        final boolean lock;
+        final SynchronousQueue<Item[]> toConsumer = new SynchronousQueue<Item[]>();
+        final SynchronousQueue<Item[]> fromConsumer = new SynchronousQueue<Item[]>();
+        Thread consumer;
+
+        Bench(boolean lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void prerun() {
+            if (consumer == null) {
+                consumer = new Thread("Monitor_handoff01-consumer") {
+                    @Override
+                    public void run() {
+                        try {
+                            while (true) {
+                                final Item[] items = toConsumer.take();
+                                consume(items);
+                                fromConsumer.put(items);
+                            }
+                        } catch (InterruptedException ex) {
+                        }
+                    }
+                };
+                consumer.setDaemon(true);
+                consumer.start();
+            }
+        }
+
+        void consume(Item[] items) {
+            for (Item item : items) {
+                if (lock) {
+                    synchronized (item) {
+                        item.count++;
+                    }
+                } else {
+                    item.count++;
+                }
+            }
+        }
+
+        @Override
+        public long run() throws InterruptedException {
+            final Item[] items = new Item[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                items[i] = new Item();
+            }
+            consume(items);
+            toConsumer.put(items);
+            return fromConsumer.take()[BATCH - 1].count;
+        }
+    }
+
+    // for running stand-alone
+    public static void main(String[] args) {
+        RunBench.runTest(Monitor_handoff01.class, args);
+    }
+}